@@ -33,8 +33,10 @@ import static org.jboss.sbomer.core.features.sbom.Constants.REDHAT_PROPERTY_NAME
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 
 import com.github.packageurl.PackageURLBuilder;
@@ -421,7 +423,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
     private void adjustDependencies(Bom bom) {
         List<Dependency> dependencies = new ArrayList<>();
 
-        populateDependencies(dependencies, bom.getComponents());
+        populateDependencies(dependencies, new HashSet<>(), bom.getComponents());
 
         // The image itself is the first element
         Dependency productDependency = dependencies.get(0);
@@ -446,7 +448,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      * CAse where a component has nested components is handled as well.
      * </p>
      */
-    private void populateDependencies(List<Dependency> dependencies, List<Component> components) {
+    private void populateDependencies(List<Dependency> dependencies, Set<String> refs, List<Component> components) {
         if (components == null) {
             return;
         }
@@ -454,11 +456,12 @@ public class SyftImageAdjuster extends AbstractAdjuster {
         components.forEach(component -> {
             // Check that there isn't already a dependency with the bom-ref equals to the new purl, otherwise do not
             // update it
-            if (!dependencies.stream().map(Dependency::getRef).toList().contains(component.getPurl())) {
+            if (!refs.contains(component.getPurl())) {
                 component.setBomRef(component.getPurl());
             }
             dependencies.add(SbomUtils.createDependency(component.getBomRef()));
-            populateDependencies(dependencies, component.getComponents());
+            refs.add(component.getBomRef());
+            populateDependencies(dependencies, refs, component.getComponents());
         });
 
     }
@@ -97,6 +97,18 @@ public interface SBOMerClient {
             @QueryParam("query") String rsqlQuery,
             @QueryParam("sort") String rsqlSort);
 
+    /**
+     * Retrieves the manifest generated from the same source revision with the same generator settings.
+     *
+     * @param cacheKey the generation cache key
+     * @return the {@link Sbom SBOM}
+     */
+    @GET
+    @Path("/generation-cache/{key}")
+    Response getCachedManifest(
+            @HeaderParam("log-process-context") String processContext,
+            @PathParam("key") String cacheKey);
+
     @GET
     @Path("/stats")
     Response getStats();
@@ -39,6 +39,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
 
@@ -130,6 +131,33 @@ public class SBOMerClientFacade {
         return matchingSbom.orElse(null);
     }
 
+    /**
+     * Finds the manifest cached with the provided generation cache key. Any failure is treated as a cache miss.
+     *
+     * @param cacheKey the generation cache key
+     * @return the cached {@link Sbom} or {@code null} if there is none
+     */
+    public Sbom searchCachedSbom(String cacheKey) {
+        log.info("Searching generation cache for key: '{}'", cacheKey);
+
+        try (Response response = sbomerClient.getCachedManifest(cacheKey, cacheKey)) {
+            if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+                return ObjectMapperProvider.json().readValue(response.readEntity(String.class), Sbom.class);
+            }
+
+            if (response.getStatus() != Response.Status.NOT_FOUND.getStatusCode()) {
+                log.warn(
+                        "Could not search generation cache for key '{}', status: {}",
+                        cacheKey,
+                        response.getStatus());
+            }
+        } catch (ProcessingException | JsonProcessingException e) {
+            log.warn("Could not search generation cache for key '{}'", cacheKey, e);
+        }
+
+        return null;
+    }
+
     public String getSbomerVersion() {
         Response response = sbomerClient.getStats();
         String json = response.readEntity(String.class);
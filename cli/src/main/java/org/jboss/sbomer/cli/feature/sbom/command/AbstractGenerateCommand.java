@@ -41,6 +41,7 @@ import org.jboss.sbomer.cli.feature.sbom.client.facade.SBOMerClientFacade;
 import org.jboss.sbomer.cli.feature.sbom.command.mixin.GeneratorToolMixin;
 import org.jboss.sbomer.cli.feature.sbom.model.Sbom;
 import org.jboss.sbomer.cli.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.cli.feature.sbom.service.GitMirrorCache;
 import org.jboss.sbomer.core.config.DefaultGenerationConfig.DefaultGeneratorConfig;
 import org.jboss.sbomer.core.config.SbomerConfigProvider;
 import org.jboss.sbomer.core.errors.ApplicationException;
@@ -48,6 +49,7 @@ import org.jboss.sbomer.core.features.sbom.config.PncBuildConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.ProductConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
 import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
+import org.jboss.sbomer.core.features.sbom.utils.GenerationCacheKey;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
@@ -77,6 +79,9 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
     @Inject
     protected SBOMerClientFacade sbomerClientFacade;
 
+    @Inject
+    protected GitMirrorCache gitMirrorCache;
+
     protected final SbomerConfigProvider sbomerConfigProvider = SbomerConfigProvider.getInstance();
 
     /**
@@ -155,6 +160,7 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
         // Get the correct scm information for builds which have either SUCCESS or NO_REBUILD_REQUIRED status
         String scmUrl = build.getScmUrl();
         String scmTag = build.getScmTag();
+        String scmRevision = build.getScmRevision();
 
         JsonNode bom = null;
 
@@ -162,6 +168,7 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
             // The source code details are inside the noRebuildCause build
             scmUrl = build.getNoRebuildCause().getScmUrl();
             scmTag = build.getNoRebuildCause().getScmTag();
+            scmRevision = build.getNoRebuildCause().getScmRevision();
 
             // Let's see if there noRebuildCause build has been already generated.
 
@@ -232,6 +239,18 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
             }
         }
 
+        // In case the original build command script contains profiles, projects list or system properties
+        // definitions, get them as a best effort and pass them to the SBOM generation to try to resolve the same
+        // dependency tree.
+        String buildCmdOptions = CommandLineParserUtil.getLaunderedCommandScript(build);
+        log.info("buildCmdOptions: '{}'", buildCmdOptions);
+
+        String cacheKey = generationCacheKey(scmUrl, scmRevision, buildCmdOptions);
+
+        if (bom == null) {
+            bom = findCachedBom(cacheKey);
+        }
+
         Path sbomPath = null;
         boolean isForce = parent.isForce();
 
@@ -266,12 +285,6 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
                 throw new GitCloneException("Unable to clone repository '{}'", scmUrl, e);
             }
 
-            // In case the original build command script contains profiles, projects list or system properties
-            // definitions, get them as a best effort and pass them to the SBOM generation to try to resolve the same
-            // dependency tree.
-            String buildCmdOptions = CommandLineParserUtil.getLaunderedCommandScript(build);
-            log.info("buildCmdOptions: '{}'", buildCmdOptions);
-
             // Generate the SBOM
             sbomPath = doGenerate(buildCmdOptions);
         }
@@ -286,10 +299,70 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
                     e);
         }
 
+        if (cacheKey != null) {
+            storeCacheKey(cacheKey);
+        }
+
         log.info("Generation finished, SBOM available at: '{}'", parent.getOutput().toFile().getAbsolutePath());
         return 0;
     }
 
+    /**
+     * Computes the generation cache key. Generations of the same sources with the same generator settings result in
+     * the same SBOM, regardless of the build. The sources are identified by the commit only, tags can be moved.
+     *
+     * @param scmUrl the URL of the source repository
+     * @param scmRevision the commit of the sources
+     * @param buildCmdOptions the options of the build command passed to the generator
+     * @return the cache key or {@code null} if the SBOM should not be cached, because the commit is not known
+     */
+    protected String generationCacheKey(String scmUrl, String scmRevision, String buildCmdOptions) {
+        String cacheKey = GenerationCacheKey
+                .compute(scmUrl, scmRevision, generatorType(), toolVersion(), generatorArgs(), buildCmdOptions);
+
+        if (cacheKey == null) {
+            log.info("Source revision of '{}' is not known, the generation cache will not be used", scmUrl);
+        }
+
+        return cacheKey;
+    }
+
+    /**
+     * Searches the generation cache for an SBOM generated with the provided key.
+     *
+     * @param cacheKey the cache key, can be {@code null}
+     * @return the cached SBOM or {@code null} if there is none (or the key is {@code null})
+     */
+    protected JsonNode findCachedBom(String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+
+        Sbom sbom = sbomerClientFacade.searchCachedSbom(cacheKey);
+
+        if (sbom == null || sbom.getSbom() == null) {
+            log.info("No SBOM found in the generation cache, will generate the SBOM...");
+            return null;
+        }
+
+        log.info("Found SBOM with id: '{}' in the generation cache. Reusing it!", sbom.getId());
+        return sbom.getSbom();
+    }
+
+    /**
+     * Stores the generation cache key next to the generated SBOM, so that the SBOM is cached once it is stored by the
+     * service.
+     */
+    private void storeCacheKey(String cacheKey) {
+        Path keyFile = GenerationCacheKey.keyFile(parent.getOutput().toAbsolutePath());
+
+        try {
+            Files.writeString(keyFile, cacheKey);
+        } catch (IOException e) {
+            log.warn("Could not store the generation cache key at '{}', the SBOM will not be cached", keyFile, e);
+        }
+    }
+
     protected void doClone(String url, String tag, Path path, boolean force) {
         log.info("Cloning '{}' repository and '{}' tag into '{}'...", url, tag, path.toAbsolutePath());
 
@@ -312,22 +385,25 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
             log.error("Could not create the '{}' directory", path, e);
         }
 
-        log.info("Cloning the repository to {}...", path);
-        try (Git ignored = Git.cloneRepository()
-                .setDirectory(path.toFile())
-                .setURI(url)
-                .setBranch(tag)
-                .setDepth(1)
-                .call()) {
-            log.info("Successfully cloned the repository to {}", path);
-        } catch (InvalidRemoteException e) {
-            throw new ApplicationException(
-                    "Unknown error occurred while preparing to clone the '{}'  repository",
-                    url,
-                    e);
-        } catch (GitAPIException e) {
-            log.error("Unable to clone the '{}' repository", url, e);
-            throw new ApplicationException("Unable to clone the repository", e);
+        // Repeated generations of the same repository check the sources out from the local mirror
+        if (!gitMirrorCache.checkout(url, tag, path)) {
+            log.info("Cloning the repository to {}...", path);
+            try (Git ignored = Git.cloneRepository()
+                    .setDirectory(path.toFile())
+                    .setURI(url)
+                    .setBranch(tag)
+                    .setDepth(1)
+                    .call()) {
+                log.info("Successfully cloned the repository to {}", path);
+            } catch (InvalidRemoteException e) {
+                throw new ApplicationException(
+                        "Unknown error occurred while preparing to clone the '{}'  repository",
+                        url,
+                        e);
+            } catch (GitAPIException e) {
+                log.error("Unable to clone the '{}' repository", url, e);
+                throw new ApplicationException("Unable to clone the repository", e);
+            }
         }
 
         log.info("Done, source code available in the '{}' directory", path);
@@ -23,6 +23,7 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,12 +38,14 @@ import org.cyclonedx.model.Component;
 import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.Component.Scope;
 import org.cyclonedx.model.Component.Type;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.pnc.dto.DeliverableAnalyzerOperation;
 import org.jboss.pnc.dto.ProductMilestone;
 import org.jboss.pnc.dto.ProductVersion;
 import org.jboss.pnc.dto.response.AnalyzedArtifact;
 import org.jboss.sbomer.cli.feature.sbom.adjuster.PncOperationAdjuster;
 import org.jboss.sbomer.cli.feature.sbom.processor.WorkaroundMissingNpmDependencies;
+import org.jboss.sbomer.cli.feature.sbom.service.AnalyzedArtifactsSnapshot;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
@@ -82,6 +85,9 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
 
     public static final String SBOM_REPRESENTING_THE_DELIVERABLE = "SBOM representing the deliverable ";
 
+    @ConfigProperty(name = "sbomer.operation.snapshot.wait-timeout", defaultValue = "PT15M")
+    Duration snapshotWaitTimeout;
+
     @Override
     protected GeneratorType generatorType() {
         return GeneratorType.CYCLONEDX_OPERATION;
@@ -142,31 +148,33 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
             }
         }
 
-        // Get all the analyzed artifacts retrieved in the deliverable analyzer operation
-        List<AnalyzedArtifact> allAnalyzedArtifacts = pncService.getAllAnalyzedArtifacts(config.getOperationId());
+        // Get all the analyzed artifacts retrieved in the deliverable analyzer operation. Generations for all
+        // deliverables of the operation share the working directory, so the analysis is fetched only once and stored
+        // there, partitioned by the distribution URL.
+        AnalyzedArtifactsSnapshot snapshot = AnalyzedArtifactsSnapshot.obtain(
+                parent.getWorkdir(),
+                config.getOperationId(),
+                snapshotWaitTimeout,
+                () -> pncService.getAllAnalyzedArtifacts(config.getOperationId()));
 
-        // A single operation might include multiple archives, filter only the ones related to this particular
+        // A single operation might include multiple archives, use only the ones related to this particular
         // distribution. If no distribution is present, keep them all because it's an old analysis with older and fewer
         // metadata.
-        boolean isLegacyAnalysis = allAnalyzedArtifacts.stream().anyMatch(a -> a.getDistribution() == null);
-        List<AnalyzedArtifact> artifactsToManifest = isLegacyAnalysis ? allAnalyzedArtifacts
-                : allAnalyzedArtifacts.stream()
-                        .filter(a -> deliverableUrl.equals(a.getDistribution().getDistributionUrl()))
-                        .toList();
+        List<AnalyzedArtifact> artifactsToManifest = snapshot.artifacts(deliverableUrl);
 
         Optional<String> distributionSha256;
-        if (isLegacyAnalysis) {
+        if (snapshot.isLegacy()) {
             log.info(
                     "The deliverable analysis operation '{}' seems to be old because it does not have the distribution metadata and all the filename match info; filtering cannot be done so the final manifest will contain ALL the content of ALL the deliverable urls (if multiple). Total analyzed artifacts in the operation: '{}'",
                     config.getOperationId(),
-                    allAnalyzedArtifacts.size());
+                    snapshot.getTotal());
             distributionSha256 = Optional.empty();
         } else {
             log.info(
                     "Retrieved {} artifacts in the specified deliverable: '{}', out of {} total analyzed artifacts in the operation: '{}'",
                     artifactsToManifest.size(),
                     deliverableUrl,
-                    allAnalyzedArtifacts.size(),
+                    snapshot.getTotal(),
                     config.getOperationId());
             distributionSha256 = artifactsToManifest.stream()
                     .map(a -> a.getDistribution().getSha256())
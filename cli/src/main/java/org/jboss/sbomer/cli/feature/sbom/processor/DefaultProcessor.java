@@ -32,12 +32,19 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setBrewBuildMe
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPublisher;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setSupplier;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurl;
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurls;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
@@ -64,16 +71,33 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class DefaultProcessor implements Processor {
 
+    /**
+     * Default number of components enriched concurrently.
+     */
+    public static final int DEFAULT_PARALLELISM = 8;
+
     protected final PncService pncService;
 
     protected final KojiService kojiService;
 
+    protected final int parallelism;
+
     public DefaultProcessor(PncService pncService, KojiService kojiService) {
+        this(pncService, kojiService, DEFAULT_PARALLELISM);
+    }
+
+    public DefaultProcessor(PncService pncService, KojiService kojiService, int parallelism) {
         this.pncService = pncService;
         this.kojiService = kojiService;
+        this.parallelism = Math.max(1, parallelism);
     }
 
-    private final Map<String, String> purlRelocations = new HashMap<>();
+    private final Map<String, String> purlRelocations = new ConcurrentHashMap<>();
+
+    /**
+     * Artifacts fetched upfront with batched queries, grouped by purl.
+     */
+    private final Map<String, List<Artifact>> prefetchedArtifacts = new ConcurrentHashMap<>();
 
     /**
      * Performs processing for a given {@link Component}.
@@ -94,9 +118,7 @@ public class DefaultProcessor implements Processor {
         }
 
         // If the component does not have "pnc-build-id" nor "pnc-environment-image" nor "brew-build-id", query it
-        if (!hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID)) {
+        if (!isEnriched(component)) {
 
             Optional<String> sha256 = getHash(component, Hash.Algorithm.SHA_256);
             Optional<String> sha1 = getHash(component, Hash.Algorithm.SHA1);
@@ -105,7 +127,11 @@ public class DefaultProcessor implements Processor {
             // First, try to look up the artifact with the purl given and with optional SHA256 hash to filter out
             // results
             // Even though we may have different hashes, we specifically specify only SHA256 here.
-            Artifact artifact = pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty());
+            Artifact artifact = findPrefetchedArtifact(component.getPurl(), sha256);
+
+            if (artifact == null) {
+                artifact = pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty());
+            }
 
             // Artifact wasn't found, so we will try lookup using different methods
             if (artifact == null) {
@@ -202,6 +228,73 @@ public class DefaultProcessor implements Processor {
         }
     }
 
+    /**
+     * Returns the {@link Artifact} for a given purl out of the artifacts fetched in batch, preferring the ones matching
+     * the provided SHA256 hash, if any.
+     *
+     * @param purl the purl of the component
+     * @param sha256 the optional SHA256 hash of the component
+     * @return the {@link Artifact} or {@code null} if it was not prefetched
+     */
+    private Artifact findPrefetchedArtifact(String purl, Optional<String> sha256) {
+        List<Artifact> candidates = prefetchedArtifacts.get(purl);
+
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+
+        if (sha256.isPresent()) {
+            List<Artifact> matching = candidates.stream().filter(a -> sha256.get().equals(a.getSha256())).toList();
+
+            if (!matching.isEmpty()) {
+                return PncService.selectArtifact(matching);
+            }
+        }
+
+        return PncService.selectArtifact(candidates);
+    }
+
+    /**
+     * Fetches PNC artifacts for all components which will be looked up by purl, using batched queries. Any failure
+     * here is not fatal, components which were not prefetched are looked up one by one later.
+     *
+     * @param components the components to prefetch artifacts for
+     */
+    private void prefetchArtifacts(List<Component> components) {
+        List<String> purls = components.stream()
+                .filter(c -> c.getType() != Component.Type.CONTAINER)
+                .filter(c -> c.getPurl() != null && c.getVersion() != null)
+                .filter(c -> !c.getPurl().startsWith("pkg:rpm/"))
+                .filter(c -> !isEnriched(c))
+                .map(Component::getPurl)
+                .distinct()
+                .toList();
+
+        if (purls.isEmpty()) {
+            return;
+        }
+
+        log.debug("Prefetching PNC artifacts for {} purls...", purls.size());
+
+        try {
+            Map<String, List<Artifact>> artifacts = pncService.getArtifacts(purls);
+
+            if (artifacts != null) {
+                prefetchedArtifacts.putAll(artifacts);
+            }
+        } catch (ApplicationException e) {
+            log.warn(
+                    "Prefetching PNC artifacts failed, falling back to querying artifacts one by one: {}",
+                    e.getMessage());
+        }
+    }
+
+    private boolean isEnriched(Component component) {
+        return hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
+                || hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
+                || hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID);
+    }
+
     // FIXME: 'Optional<String>' used as type for parameter 'sha256'
     private boolean hasAnyHash(Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
         return (sha256.orElse(null) != null || sha1.orElse(null) != null || md5.orElse(null) != null);
@@ -242,23 +335,14 @@ public class DefaultProcessor implements Processor {
         }
 
         if (bom.getComponents() != null) {
-            for (Component c : bom.getComponents()) {
-
-                if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
-                    processContainerImageComponent(c);
-                } else {
-                    PackageURL purl = getPackageURL(c);
-                    if ("rpm".equals(purl.getType())) {
-                        processRpmComponent(c, purl);
-                    } else {
-                        processComponent(c);
-                    }
-                }
-            }
+            prefetchArtifacts(bom.getComponents());
+            processComponents(bom.getComponents());
+            prefetchedArtifacts.clear();
         }
 
-        // If there are any purl relocations, process these.
-        purlRelocations.forEach((oldPurl, newPurl) -> updatePurl(bom, oldPurl, newPurl));
+        // If there are any purl relocations, process these. Relocations are collected concurrently, apply these in a
+        // stable order.
+        updatePurls(bom, new TreeMap<>(purlRelocations));
 
         if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
             Component mainComponent = bom.getMetadata().getComponent();
@@ -271,6 +355,69 @@ public class DefaultProcessor implements Processor {
         return bom;
     }
 
+    /**
+     * Enriches all provided components, running at most {@link #parallelism} lookups at the same time. Every component
+     * is processed by a single task, so components are never modified concurrently.
+     *
+     * @param components the components to process
+     */
+    private void processComponents(List<Component> components) {
+        if (components.isEmpty()) {
+            return;
+        }
+
+        if (parallelism == 1 || components.size() == 1) {
+            components.forEach(this::processAnyComponent);
+            return;
+        }
+
+        log.debug("Processing {} components with parallelism of {}...", components.size(), parallelism);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, components.size()));
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(components.size());
+
+            for (Component c : components) {
+                futures.add(executor.submit(() -> processAnyComponent(c)));
+            }
+
+            for (Future<?> future : futures) {
+                awaitComponent(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitComponent(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Processing of components was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new ApplicationException("Processing of a component failed", e.getCause());
+        }
+    }
+
+    private void processAnyComponent(Component c) {
+        if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
+            processContainerImageComponent(c);
+        } else {
+            PackageURL purl = getPackageURL(c);
+            if ("rpm".equals(purl.getType())) {
+                processRpmComponent(c, purl);
+            } else {
+                processComponent(c);
+            }
+        }
+    }
+
     private void processRpmComponent(Component component, PackageURL purl) {
         Map<String, String> qualifiers = purl.getQualifiers();
         if (qualifiers == null || !qualifiers.containsKey("arch")) {
@@ -0,0 +1,360 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jboss.pnc.dto.response.AnalyzedArtifact;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A snapshot of all artifacts analyzed in a single deliverable analyzer operation, partitioned by the distribution URL.
+ * </p>
+ *
+ * <p>
+ * Generations for all deliverables of an operation share the same working directory. The first generation which
+ * needs the analysis fetches it from PNC and stores it in the {@code .analyzed-artifacts/<operationId>} directory of
+ * the working directory: one gzipped JSON file per distribution URL and an index file. Other generations wait for the
+ * index to appear and read only the partition they need, instead of downloading the whole analysis again. Files are
+ * written to a temporary location first and atomically moved in place, so readers never see partially written files.
+ * </p>
+ *
+ * <p>
+ * In case the snapshot cannot be stored or does not appear in time, the analysis is fetched directly and kept in
+ * memory.
+ * </p>
+ */
+@Slf4j
+public class AnalyzedArtifactsSnapshot {
+
+    public static final String DIRECTORY = ".analyzed-artifacts";
+
+    private static final String INDEX = "index.json";
+    private static final String LOCK = ".lock";
+    private static final String ALL = "all";
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(2);
+
+    private static final ObjectMapper MAPPER = ObjectMapperProvider.json()
+            .copy()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final TypeReference<List<AnalyzedArtifact>> ARTIFACTS_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Content of the index file.
+     *
+     * @param legacy whether the analysis lacks the distribution metadata
+     * @param total total number of analyzed artifacts in the operation
+     * @param partitions mapping between the distribution URL (or {@code all} for legacy analyses) and the partition
+     *        file name
+     */
+    record Index(boolean legacy, int total, Map<String, String> partitions) {
+    }
+
+    private final Path directory;
+
+    private final Index index;
+
+    private final Map<String, List<AnalyzedArtifact>> loaded = new ConcurrentHashMap<>();
+
+    private AnalyzedArtifactsSnapshot(Path directory, Index index) {
+        this.directory = directory;
+        this.index = index;
+    }
+
+    private AnalyzedArtifactsSnapshot(Index index, Map<String, List<AnalyzedArtifact>> partitions) {
+        this(null, index);
+        this.loaded.putAll(partitions);
+    }
+
+    /**
+     * Returns the snapshot for the given operation, stored in the {@code workdir}. If the snapshot does not exist yet,
+     * it is either created using the {@code fetcher} or, in case another process is creating it already, awaited for
+     * at most {@code timeout}.
+     *
+     * @param workdir the working directory shared between generations of the operation
+     * @param operationId the identifier of the deliverable analyzer operation
+     * @param timeout how long to wait for a snapshot being created by another process
+     * @param fetcher retrieves all analyzed artifacts of the operation
+     * @return the snapshot
+     */
+    public static AnalyzedArtifactsSnapshot obtain(
+            Path workdir,
+            String operationId,
+            Duration timeout,
+            Supplier<List<AnalyzedArtifact>> fetcher) {
+        Path directory = workdir.toAbsolutePath().resolve(DIRECTORY).resolve(operationId);
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            log.warn("Unable to create snapshot directory '{}', analyzed artifacts will not be shared", directory, e);
+            return of(fetcher.get());
+        }
+
+        Instant deadline = Instant.now().plus(timeout);
+
+        while (true) {
+            Optional<AnalyzedArtifactsSnapshot> snapshot = read(directory);
+
+            if (snapshot.isPresent()) {
+                log.info("Using analyzed artifacts snapshot of operation '{}' from '{}'", operationId, directory);
+                return snapshot.get();
+            }
+
+            if (tryLock(directory)) {
+                try {
+                    log.info("Creating analyzed artifacts snapshot of operation '{}' in '{}'", operationId, directory);
+                    return write(directory, fetcher.get());
+                } finally {
+                    deleteQuietly(directory.resolve(LOCK));
+                }
+            }
+
+            if (Instant.now().isAfter(deadline)) {
+                log.warn(
+                        "Analyzed artifacts snapshot of operation '{}' did not appear in '{}' within {}, "
+                                + "fetching it directly",
+                        operationId,
+                        directory,
+                        timeout);
+                return of(fetcher.get());
+            }
+
+            log.debug("Waiting for analyzed artifacts snapshot of operation '{}' in '{}'...", operationId, directory);
+
+            try {
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for analyzed artifacts snapshot, fetching it directly");
+                return of(fetcher.get());
+            }
+        }
+    }
+
+    /**
+     * Creates an in-memory snapshot from the provided analyzed artifacts.
+     *
+     * @param artifacts all analyzed artifacts of an operation
+     * @return the snapshot
+     */
+    public static AnalyzedArtifactsSnapshot of(List<AnalyzedArtifact> artifacts) {
+        boolean legacy = isLegacy(artifacts);
+        Map<String, List<AnalyzedArtifact>> partitions = partition(artifacts, legacy);
+        Map<String, String> files = new HashMap<>();
+
+        partitions.keySet().forEach(key -> files.put(key, key));
+
+        return new AnalyzedArtifactsSnapshot(new Index(legacy, artifacts.size(), files), partitions);
+    }
+
+    /**
+     * Whether the analysis is an old one, without the distribution metadata. In such case filtering by the
+     * distribution URL cannot be done and {@link #artifacts(String)} returns all analyzed artifacts.
+     */
+    public boolean isLegacy() {
+        return index.legacy();
+    }
+
+    /**
+     * Total number of analyzed artifacts in the operation.
+     */
+    public int getTotal() {
+        return index.total();
+    }
+
+    /**
+     * Returns analyzed artifacts found in the given distribution. For legacy analyses all analyzed artifacts are
+     * returned.
+     *
+     * @param distributionUrl the distribution URL
+     * @return the list of analyzed artifacts, empty if there are none
+     */
+    public List<AnalyzedArtifact> artifacts(String distributionUrl) {
+        String key = index.legacy() ? ALL : distributionUrl;
+
+        if (!index.partitions().containsKey(key)) {
+            return List.of();
+        }
+
+        return loaded.computeIfAbsent(key, k -> readPartition(directory.resolve(index.partitions().get(k))));
+    }
+
+    private static boolean isLegacy(List<AnalyzedArtifact> artifacts) {
+        return artifacts.stream().anyMatch(a -> a.getDistribution() == null);
+    }
+
+    private static Map<String, List<AnalyzedArtifact>> partition(List<AnalyzedArtifact> artifacts, boolean legacy) {
+        if (legacy) {
+            return Map.of(ALL, artifacts);
+        }
+
+        Map<String, List<AnalyzedArtifact>> partitions = new HashMap<>();
+
+        for (AnalyzedArtifact artifact : artifacts) {
+            String url = artifact.getDistribution().getDistributionUrl();
+
+            if (url != null) {
+                partitions.computeIfAbsent(url, k -> new ArrayList<>()).add(artifact);
+            }
+        }
+
+        return partitions;
+    }
+
+    private static boolean tryLock(Path directory) {
+        try {
+            Files.createFile(directory.resolve(LOCK));
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("Unable to create lock file in '{}'", directory, e);
+            return false;
+        }
+    }
+
+    private static Optional<AnalyzedArtifactsSnapshot> read(Path directory) {
+        Path file = directory.resolve(INDEX);
+
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new AnalyzedArtifactsSnapshot(directory, MAPPER.readValue(file.toFile(), Index.class)));
+        } catch (IOException e) {
+            log.warn("Unable to read analyzed artifacts snapshot index '{}'", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private static AnalyzedArtifactsSnapshot write(Path directory, List<AnalyzedArtifact> artifacts) {
+        AnalyzedArtifactsSnapshot snapshot = of(artifacts);
+        Map<String, String> files = new HashMap<>();
+
+        try {
+            for (Map.Entry<String, List<AnalyzedArtifact>> partition : snapshot.loaded.entrySet()) {
+                String fileName = fileName(partition.getKey());
+
+                writeAtomically(directory, fileName, out -> {
+                    try (OutputStream gzip = new GZIPOutputStream(out)) {
+                        MAPPER.writeValue(gzip, partition.getValue());
+                    }
+                });
+
+                files.put(partition.getKey(), fileName);
+            }
+
+            Index index = new Index(snapshot.isLegacy(), snapshot.getTotal(), files);
+
+            writeAtomically(directory, INDEX, out -> MAPPER.writeValue(out, index));
+
+            log.info(
+                    "Stored {} analyzed artifacts in {} partitions in '{}'",
+                    artifacts.size(),
+                    files.size(),
+                    directory);
+        } catch (IOException e) {
+            log.warn("Unable to store analyzed artifacts snapshot in '{}', it will not be shared", directory, e);
+        }
+
+        return snapshot;
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static void writeAtomically(Path directory, String fileName, Writer writer) throws IOException {
+        Path tmp = Files.createTempFile(directory, "snapshot", ".tmp");
+
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                writer.write(out);
+            }
+
+            Files.move(
+                    tmp,
+                    directory.resolve(fileName),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteQuietly(tmp);
+        }
+    }
+
+    private static List<AnalyzedArtifact> readPartition(Path file) {
+        log.debug("Reading analyzed artifacts from '{}'", file);
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return MAPPER.readValue(in, ARTIFACTS_TYPE);
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to read analyzed artifacts from '{}'", file, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Unable to delete '{}'", path, e);
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + ".json.gz";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Store of bare mirrors of the source repositories, shared between generations mounting the same
+ * {@code sbomer.git.mirror.directory} volume.
+ * </p>
+ *
+ * <p>
+ * Only the requested tag is fetched into the mirror, and only if the mirror does not have it yet, so repeated
+ * generations of the same sources do not talk to the remote at all. The sources are checked out into a new repository
+ * which borrows the objects from the mirror (through {@code objects/info/alternates}) instead of copying them.
+ * </p>
+ *
+ * <p>
+ * Concurrent generations do not lock each other out: new mirrors are created in a temporary directory and atomically
+ * moved in place, fetched packs and refs are written atomically by Git. When the size of the store exceeds
+ * {@code sbomer.git.mirror.max-size}, least recently used mirrors are removed, except mirrors used within the
+ * {@code sbomer.git.mirror.grace-period}, which may be read by a running generation.
+ * </p>
+ *
+ * <p>
+ * In case the mirror cannot be used, the caller is expected to clone the repository directly.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+@Slf4j
+public class GitMirrorCache {
+
+    private static final String MIRROR_SUFFIX = ".git";
+    private static final String TMP_PREFIX = "tmp-";
+    private static final String EVICTED_INFIX = ".evicted-";
+    private static final String LAST_USED = "sbomer-last-used";
+
+    @ConfigProperty(name = "sbomer.git.mirror.directory")
+    Optional<Path> directory;
+
+    @ConfigProperty(name = "sbomer.git.mirror.max-size", defaultValue = "20G")
+    MemorySize maxSize;
+
+    @ConfigProperty(name = "sbomer.git.mirror.grace-period", defaultValue = "PT6H")
+    Duration gracePeriod;
+
+    /**
+     * Checks out the sources of the repository at the provided tag into the {@code path} directory, using the mirror of
+     * the repository.
+     *
+     * @param url the URL of the repository
+     * @param tag the tag to check out
+     * @param path the directory to check the sources out into, must not exist or be empty
+     * @return {@code true} if the sources were checked out, {@code false} if mirrors are not configured or the mirror
+     *         could not be used, in such case the {@code path} directory is removed
+     */
+    public boolean checkout(String url, String tag, Path path) {
+        if (directory.isEmpty()) {
+            return false;
+        }
+
+        Path mirror;
+
+        try {
+            mirror = mirror(url);
+            ObjectId commit = fetch(mirror, url, tag);
+            checkout(mirror, url, tag, commit, path);
+        } catch (IOException | GitAPIException | ApplicationException e) {
+            log.warn("Unable to check out the '{}' tag of '{}' from the mirror, cloning it directly", tag, url, e);
+
+            if (Files.exists(path)) {
+                FileUtils.rmdir(path);
+            }
+
+            return false;
+        }
+
+        markUsed(mirror, url);
+        evict(mirror);
+
+        return true;
+    }
+
+    /**
+     * Returns the mirror of the repository, creating an empty one if it does not exist yet.
+     */
+    Path mirror(String url) throws IOException, GitAPIException {
+        Path mirror = directory.orElseThrow().resolve(digest(url) + MIRROR_SUFFIX);
+
+        if (Files.isDirectory(mirror)) {
+            return mirror;
+        }
+
+        Files.createDirectories(mirror.getParent());
+        Path tmp = Files.createTempDirectory(mirror.getParent(), TMP_PREFIX);
+
+        Git.init().setBare(true).setDirectory(tmp.toFile()).call().close();
+
+        try {
+            Files.move(tmp, mirror, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Created mirror of '{}' in '{}'", url, mirror);
+        } catch (IOException e) {
+            FileUtils.rmdir(tmp);
+
+            // Another generation created the mirror in the meantime
+            if (!Files.isDirectory(mirror)) {
+                throw e;
+            }
+        }
+
+        return mirror;
+    }
+
+    /**
+     * Fetches the tag into the mirror, unless it is there already.
+     *
+     * @return the commit the tag points to
+     */
+    private ObjectId fetch(Path mirror, String url, String tag) throws IOException, GitAPIException {
+        String tagRef = Constants.R_TAGS + tag;
+
+        try (Git git = Git.open(mirror.toFile())) {
+            ObjectId commit = git.getRepository().resolve(tagRef + "^{commit}");
+
+            if (commit != null) {
+                log.info("Tag '{}' of '{}' is available in the mirror '{}'", tag, url, mirror);
+                return commit;
+            }
+
+            log.info("Fetching tag '{}' of '{}' into the mirror '{}'...", tag, url, mirror);
+
+            git.fetch()
+                    .setRemote(url)
+                    .setRefSpecs(new RefSpec("+" + tagRef + ":" + tagRef))
+                    .setTagOpt(TagOpt.NO_TAGS)
+                    .call();
+
+            // The ref may have been updated by a concurrent fetch of the same tag instead
+            commit = git.getRepository().resolve(tagRef + "^{commit}");
+
+            if (commit == null) {
+                throw new ApplicationException("Tag '{}' was not fetched from '{}'", tag, url);
+            }
+
+            return commit;
+        }
+    }
+
+    /**
+     * Creates a repository in the {@code path} directory using the objects of the mirror and checks out the commit,
+     * the same way a clone of the tag would.
+     */
+    private void checkout(Path mirror, String url, String tag, ObjectId commit, Path path)
+            throws IOException, GitAPIException {
+        log.info("Checking out tag '{}' of '{}' from the mirror '{}' into '{}'...", tag, url, mirror, path);
+
+        Git.init().setDirectory(path.toFile()).call().close();
+
+        Path alternates = path.resolve(Constants.DOT_GIT).resolve("objects").resolve("info").resolve("alternates");
+        Files.createDirectories(alternates.getParent());
+        Files.writeString(alternates, mirror.resolve("objects").toAbsolutePath() + "\n", StandardCharsets.UTF_8);
+
+        // Opened again, so that the alternates are picked up
+        try (Git git = Git.open(path.toFile()); RevWalk walk = new RevWalk(git.getRepository())) {
+            Repository repository = git.getRepository();
+
+            StoredConfig config = repository.getConfig();
+            config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "url", url);
+            config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "fetch", "+refs/heads/*:refs/remotes/origin/*");
+            config.save();
+
+            RevCommit revCommit = walk.parseCommit(commit);
+
+            DirCacheCheckout checkout = new DirCacheCheckout(
+                    repository,
+                    repository.lockDirCache(),
+                    revCommit.getTree());
+            checkout.setFailOnConflict(true);
+            checkout.checkout();
+
+            update(repository, Constants.R_TAGS + tag, commit, false);
+            update(repository, Constants.HEAD, commit, true);
+        }
+    }
+
+    private void update(Repository repository, String ref, ObjectId id, boolean detach) throws IOException {
+        RefUpdate update = repository.updateRef(ref, detach);
+        update.setNewObjectId(id);
+
+        RefUpdate.Result result = update.forceUpdate();
+
+        if (result != RefUpdate.Result.NEW && result != RefUpdate.Result.FORCED
+                && result != RefUpdate.Result.NO_CHANGE) {
+            throw new ApplicationException("Unable to update '{}' to '{}': {}", ref, id.name(), result);
+        }
+    }
+
+    private void markUsed(Path mirror, String url) {
+        try {
+            Files.writeString(mirror.resolve(LAST_USED), url, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.debug("Unable to mark the mirror '{}' as used", mirror, e);
+        }
+    }
+
+    /**
+     * Removes least recently used mirrors while the size of the store exceeds the maximum size. Leftovers of
+     * interrupted generations are removed as well.
+     */
+    void evict(Path current) {
+        Instant threshold = Instant.now().minus(gracePeriod);
+        List<Mirror> mirrors = new ArrayList<>();
+        long total = 0;
+
+        try (Stream<Path> entries = Files.list(current.getParent())) {
+            for (Path entry : entries.toList()) {
+                String name = entry.getFileName().toString();
+
+                if (name.endsWith(MIRROR_SUFFIX)) {
+                    Mirror mirror = new Mirror(entry, lastUsed(entry), size(entry));
+                    mirrors.add(mirror);
+                    total += mirror.size();
+                } else if ((name.startsWith(TMP_PREFIX) || name.contains(EVICTED_INFIX))
+                        && lastUsed(entry).isBefore(threshold)) {
+                    FileUtils.rmdir(entry);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to list mirrors in '{}', skipping eviction", current.getParent(), e);
+            return;
+        }
+
+        mirrors.sort(Comparator.comparing(Mirror::lastUsed));
+
+        for (Mirror mirror : mirrors) {
+            if (total <= maxSize.asLongValue()) {
+                return;
+            }
+
+            if (mirror.path().equals(current) || mirror.lastUsed().isAfter(threshold)) {
+                continue;
+            }
+
+            // Moved away first, so that no generation starts using a partially removed mirror
+            Path evicted = mirror.path()
+                    .resolveSibling(mirror.path().getFileName() + EVICTED_INFIX + UUID.randomUUID());
+
+            try {
+                Files.move(mirror.path(), evicted, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.debug("Unable to evict the mirror '{}'", mirror.path(), e);
+                continue;
+            }
+
+            log.info("Evicting mirror '{}' last used at {}", mirror.path(), mirror.lastUsed());
+
+            FileUtils.rmdir(evicted);
+            total -= mirror.size();
+        }
+
+        if (total > maxSize.asLongValue()) {
+            log.warn(
+                    "Size of the mirrors in '{}' is {} bytes, over the limit of {} bytes, but all are in use",
+                    current.getParent(),
+                    total,
+                    maxSize.asLongValue());
+        }
+    }
+
+    private record Mirror(Path path, Instant lastUsed, long size) {
+    }
+
+    private static Instant lastUsed(Path path) {
+        Path marker = path.resolve(LAST_USED);
+
+        try {
+            FileTime time = Files.getLastModifiedTime(Files.exists(marker) ? marker : path);
+            return time.toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private static long size(Path path) {
+        long[] size = { 0 };
+
+        try {
+            Files.walkFileTree(path, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    size[0] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.debug("Unable to compute the size of '{}'", path, e);
+        }
+
+        return size[0];
+    }
+
+    private static String digest(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -45,11 +45,14 @@ import org.jboss.pnc.build.finder.koji.ClientSession;
 import org.jboss.pnc.build.finder.koji.KojiBuild;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.sbomer.cli.feature.sbom.utils.buildfinder.FinderStatus;
+import org.jboss.sbomer.core.cache.LookupCache;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.redhat.red.build.koji.KojiClientException;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
 import com.redhat.red.build.koji.model.xmlrpc.KojiIdOrName;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -73,6 +76,27 @@ public class KojiService {
     @Inject
     ClientSession kojiSession;
 
+    @Inject
+    LookupCacheProvider cacheProvider;
+
+    /**
+     * Cache of builds looked up by NVR.
+     */
+    LookupCache<KojiBuildInfo> buildsByNvr = LookupCache.disabled();
+
+    /**
+     * Cache of builds looked up by RPM NVRA.
+     */
+    LookupCache<KojiBuildInfo> buildsByNvra = LookupCache.disabled();
+
+    @PostConstruct
+    void init() {
+        buildsByNvr = cacheProvider.create("koji-builds-nvr", new TypeReference<KojiBuildInfo>() {
+        });
+        buildsByNvra = cacheProvider.create("koji-builds-nvra", new TypeReference<KojiBuildInfo>() {
+        });
+    }
+
     /**
      * Executes analysis of the provided archives identified by URLs, which must be downloadable using HTTP(S). The
      * operation is executed synchronously, but the analysis itself runs several executors in parallel.
@@ -207,6 +231,10 @@ public class KojiService {
             return null;
         }
 
+        return buildsByNvra.get(nvra, () -> fetchBuildByRPM(nvra));
+    }
+
+    private KojiBuildInfo fetchBuildByRPM(String nvra) throws KojiClientException {
         log.debug("Finding Brew build for RPM '{}'...", nvra);
 
         List<KojiRpmInfo> rpm = kojiSession.getRPM(List.of(new KojiIdOrName(nvra)));
@@ -260,6 +288,10 @@ public class KojiService {
             return null;
         }
 
+        return buildsByNvr.get(nvr, () -> fetchBuild(nvr));
+    }
+
+    private KojiBuildInfo fetchBuild(String nvr) throws KojiClientException {
         log.debug("Finding Brew build for NVR '{}'...", nvr);
 
         List<KojiBuildInfo> builds = kojiSession.getBuild(List.of(KojiIdOrName.getFor(nvr)));
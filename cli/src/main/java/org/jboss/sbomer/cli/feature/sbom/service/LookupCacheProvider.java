@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.core.cache.LookupCache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates {@link LookupCache}s used by services talking to remote systems, based on the {@code sbomer.cache.*}
+ * configuration. When a {@code sbomer.cache.directory} is set, lookups are persisted there and can be shared between
+ * generations mounting the same volume.
+ */
+@ApplicationScoped
+@Slf4j
+public class LookupCacheProvider {
+
+    @ConfigProperty(name = "sbomer.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "sbomer.cache.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @ConfigProperty(name = "sbomer.cache.ttl", defaultValue = "PT12H")
+    Duration ttl;
+
+    @ConfigProperty(name = "sbomer.cache.negative-ttl", defaultValue = "PT5M")
+    Duration negativeTtl;
+
+    @ConfigProperty(name = "sbomer.cache.directory")
+    Optional<Path> directory;
+
+    @ConfigProperty(name = "sbomer.cache.max-disk-entries", defaultValue = "100000")
+    int maxDiskEntries;
+
+    private final List<LookupCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    public <V> LookupCache<V> create(String name, TypeReference<V> type) {
+        if (!enabled) {
+            log.debug("Lookup caches are disabled, '{}' cache will not store anything", name);
+            return LookupCache.disabled();
+        }
+
+        log.debug(
+                "Creating '{}' lookup cache with max {} entries, TTL {} (negative TTL {}), directory '{}' and max {} "
+                        + "entries on disk",
+                name,
+                maxEntries,
+                ttl,
+                negativeTtl,
+                directory.orElse(null),
+                maxDiskEntries);
+
+        LookupCache<V> cache = new LookupCache<>(
+                name,
+                maxEntries,
+                ttl,
+                negativeTtl,
+                directory.orElse(null),
+                maxDiskEntries,
+                type);
+        caches.add(cache);
+
+        return cache;
+    }
+
+    @PreDestroy
+    void logStats() {
+        caches.forEach(cache -> log.info("Lookup cache statistics: {}", cache));
+    }
+}
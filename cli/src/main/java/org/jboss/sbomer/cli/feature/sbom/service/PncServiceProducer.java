@@ -17,12 +17,18 @@
  */
 package org.jboss.sbomer.cli.feature.sbom.service;
 
+import java.util.List;
+
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.pnc.dto.Artifact;
 import org.jboss.sbomer.core.pnc.PncService;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,11 +40,19 @@ public class PncServiceProducer {
     @ConfigProperty(name = "sbomer.pnc.host")
     String apiUrl;
 
+    @Inject
+    LookupCacheProvider cacheProvider;
+
     @Produces
     @ApplicationScoped
     public PncService producePncService() {
         log.debug("Creating new PNC service bean...");
-        return new PncService(apiUrl);
+        return new PncService(
+                apiUrl,
+                cacheProvider.create("pnc-artifacts", new TypeReference<Artifact>() {
+                }),
+                cacheProvider.create("pnc-purl-artifacts", new TypeReference<List<Artifact>>() {
+                }));
     }
 
     public void close(@Disposes PncService pncService) {
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.pnc.dto.response.AnalyzedArtifact;
+import org.jboss.sbomer.cli.feature.sbom.service.AnalyzedArtifactsSnapshot;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+class AnalyzedArtifactsSnapshotTest {
+
+    private static final String ZIP_A = "https://download.example.com/a.zip";
+    private static final String ZIP_B = "https://download.example.com/b.zip";
+
+    private static List<AnalyzedArtifact> artifacts(String json) throws IOException {
+        return ObjectMapperProvider.json().readValue(json, new TypeReference<>() {
+        });
+    }
+
+    private static List<AnalyzedArtifact> distributed() throws IOException {
+        return artifacts(
+                """
+                        [
+                          {"distribution": {"distributionUrl": "%1$s"}, "archiveFilenames": ["a.zip!/one.jar"]},
+                          {"distribution": {"distributionUrl": "%1$s"}, "archiveFilenames": ["a.zip!/two.jar"]},
+                          {"distribution": {"distributionUrl": "%2$s"}, "archiveFilenames": ["b.zip!/three.jar"]}
+                        ]
+                        """
+                        .formatted(ZIP_A, ZIP_B));
+    }
+
+    @Test
+    void testPartitionsByDistributionUrl() throws IOException {
+        AnalyzedArtifactsSnapshot snapshot = AnalyzedArtifactsSnapshot.of(distributed());
+
+        assertFalse(snapshot.isLegacy());
+        assertEquals(3, snapshot.getTotal());
+        assertEquals(2, snapshot.artifacts(ZIP_A).size());
+        assertEquals(1, snapshot.artifacts(ZIP_B).size());
+        assertTrue(snapshot.artifacts("https://download.example.com/c.zip").isEmpty());
+    }
+
+    @Test
+    void testLegacyAnalysisReturnsEverything() throws IOException {
+        AnalyzedArtifactsSnapshot snapshot = AnalyzedArtifactsSnapshot.of(
+                artifacts(
+                        """
+                                [
+                                  {"archiveFilenames": ["a.zip!/one.jar"]},
+                                  {"archiveFilenames": ["b.zip!/two.jar"]}
+                                ]
+                                """));
+
+        assertTrue(snapshot.isLegacy());
+        assertEquals(2, snapshot.artifacts(ZIP_A).size());
+        assertEquals(2, snapshot.artifacts(ZIP_B).size());
+    }
+
+    @Test
+    void testFetchesOnlyOnceForSharedWorkdir(@TempDir Path workdir) throws IOException {
+        List<AnalyzedArtifact> artifacts = distributed();
+        AtomicInteger fetches = new AtomicInteger();
+
+        AnalyzedArtifactsSnapshot first = AnalyzedArtifactsSnapshot
+                .obtain(workdir, "OPERATION", Duration.ofSeconds(5), () -> {
+                    fetches.incrementAndGet();
+                    return artifacts;
+                });
+
+        AnalyzedArtifactsSnapshot second = AnalyzedArtifactsSnapshot
+                .obtain(workdir, "OPERATION", Duration.ofSeconds(5), () -> {
+                    fetches.incrementAndGet();
+                    return artifacts;
+                });
+
+        assertEquals(1, fetches.get());
+        assertEquals(2, first.artifacts(ZIP_A).size());
+        assertEquals(3, second.getTotal());
+        assertEquals(2, second.artifacts(ZIP_A).size());
+        assertEquals(List.of("b.zip!/three.jar"), second.artifacts(ZIP_B).get(0).getArchiveFilenames());
+        assertFalse(Files.exists(workdir.resolve(AnalyzedArtifactsSnapshot.DIRECTORY).resolve("OPERATION/.lock")));
+    }
+
+    @Test
+    void testFallsBackWhenSnapshotDoesNotAppear(@TempDir Path workdir) throws IOException {
+        Path directory = workdir.resolve(AnalyzedArtifactsSnapshot.DIRECTORY).resolve("OPERATION");
+        Files.createDirectories(directory);
+        Files.createFile(directory.resolve(".lock"));
+
+        AtomicInteger fetches = new AtomicInteger();
+        List<AnalyzedArtifact> artifacts = distributed();
+
+        AnalyzedArtifactsSnapshot snapshot = AnalyzedArtifactsSnapshot
+                .obtain(workdir, "OPERATION", Duration.ZERO, () -> {
+                    fetches.incrementAndGet();
+                    return artifacts;
+                });
+
+        assertEquals(1, fetches.get());
+        assertEquals(1, snapshot.artifacts(ZIP_B).size());
+    }
+}
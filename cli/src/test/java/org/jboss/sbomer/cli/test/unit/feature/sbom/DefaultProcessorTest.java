@@ -4,11 +4,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -236,6 +243,45 @@ class DefaultProcessorTest {
         return bom.getComponents().stream().filter(c -> purl.equals(c.getPurl())).findFirst();
     }
 
+    @Test
+    void testUsesBatchedArtifactLookup() {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        String purlA = "pkg:maven/org.example/a@1.0.0.redhat-00001?type=jar";
+        String purlB = "pkg:maven/org.example/b@1.0.0.redhat-00001?type=jar";
+
+        Artifact artifactA = Artifact.builder().id("1").purl(purlA).build();
+
+        when(pncServiceMock.getApiUrl()).thenReturn("pnc.example.com");
+        when(pncServiceMock.getArtifacts(anyCollection())).thenReturn(Map.of(purlA, List.of(artifactA)));
+
+        Bom bom = new Bom();
+        bom.setComponents(new ArrayList<>(List.of(libraryComponent(purlA), libraryComponent(purlB))));
+
+        new DefaultProcessor(pncServiceMock, kojiServiceMock, 4).process(bom);
+
+        Component componentA = getComponent(bom, purlA).orElseThrow();
+        assertEquals(
+                "https://pnc.example.com/pnc-rest/v2/artifacts/1",
+                SbomUtils.getExternalReferences(componentA, Type.BUILD_SYSTEM, Constants.SBOM_RED_HAT_PNC_ARTIFACT_ID)
+                        .get(0)
+                        .getUrl());
+
+        // Prefetched artifact is not looked up again, the one missing in the batch is
+        verify(pncServiceMock, never()).getArtifact(eq(purlA), any(), any(), any());
+        verify(pncServiceMock).getArtifact(eq(purlB), any(), any(), any());
+    }
+
+    private static Component libraryComponent(String purl) {
+        Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setName(purl);
+        component.setVersion("1.0.0.redhat-00001");
+        component.setPurl(purl);
+        return component;
+    }
+
     @Test
     void baseTest() throws IOException {
         Bom bom = SbomUtils.fromString(TestResources.asString("boms/adjusted.json"));
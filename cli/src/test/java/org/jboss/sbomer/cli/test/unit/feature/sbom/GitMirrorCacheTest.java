@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.jboss.sbomer.cli.feature.sbom.service.GitMirrorCache;
+import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkus.runtime.configuration.MemorySize;
+
+class GitMirrorCacheTest {
+
+    @TempDir
+    Path tmp;
+
+    Path mirrors;
+
+    GitMirrorCache cache;
+
+    @BeforeEach
+    void init() {
+        mirrors = tmp.resolve("mirrors");
+
+        cache = new GitMirrorCache();
+        cache.setDirectory(Optional.of(mirrors));
+        cache.setMaxSize(new MemorySize(BigInteger.valueOf(Long.MAX_VALUE)));
+        cache.setGracePeriod(Duration.ZERO);
+    }
+
+    private static RevCommit commit(Path repository, String content, String tag) throws IOException, GitAPIException {
+        try (Git git = Files.exists(repository) ? Git.open(repository.toFile())
+                : Git.init().setDirectory(repository.toFile()).call()) {
+            Files.writeString(repository.resolve("pom.xml"), content);
+            git.add().addFilepattern("pom.xml").call();
+
+            RevCommit commit = git.commit().setMessage(content).setSign(false).call();
+            git.tag().setName(tag).setMessage(tag).setSigned(false).call();
+
+            return commit;
+        }
+    }
+
+    private List<Path> mirrors() throws IOException {
+        try (Stream<Path> entries = Files.list(mirrors)) {
+            return entries.filter(Files::isDirectory).toList();
+        }
+    }
+
+    @Test
+    void testDisabled() {
+        cache.setDirectory(Optional.empty());
+
+        assertFalse(cache.checkout("https://github.com/project-ncl/sbomer.git", "1.0", tmp.resolve("workdir")));
+    }
+
+    @Test
+    void testCheckoutFromMirror() throws Exception {
+        Path upstream = tmp.resolve("upstream");
+        RevCommit commit = commit(upstream, "v1", "1.0");
+        String url = upstream.toUri().toString();
+
+        Path workdir = tmp.resolve("workdir");
+
+        assertTrue(cache.checkout(url, "1.0", workdir));
+        assertEquals("v1", Files.readString(workdir.resolve("pom.xml")));
+
+        try (Git git = Git.open(workdir.toFile())) {
+            assertEquals(commit, git.getRepository().resolve(Constants.HEAD));
+            assertTrue(git.status().call().isClean());
+        }
+
+        // The tag is in the mirror already, the remote is not needed anymore
+        FileUtils.rmdir(upstream);
+
+        Path another = tmp.resolve("another");
+
+        assertTrue(cache.checkout(url, "1.0", another));
+        assertEquals("v1", Files.readString(another.resolve("pom.xml")));
+        assertEquals(1, mirrors().size());
+    }
+
+    @Test
+    void testFetchNewTag() throws Exception {
+        Path upstream = tmp.resolve("upstream");
+        commit(upstream, "v1", "1.0");
+        String url = upstream.toUri().toString();
+
+        assertTrue(cache.checkout(url, "1.0", tmp.resolve("workdir-1")));
+
+        commit(upstream, "v2", "2.0");
+
+        Path workdir = tmp.resolve("workdir-2");
+
+        assertTrue(cache.checkout(url, "2.0", workdir));
+        assertEquals("v2", Files.readString(workdir.resolve("pom.xml")));
+        assertEquals(1, mirrors().size());
+    }
+
+    @Test
+    void testUnknownTag() throws Exception {
+        Path upstream = tmp.resolve("upstream");
+        commit(upstream, "v1", "1.0");
+
+        Path workdir = tmp.resolve("workdir");
+
+        assertFalse(cache.checkout(upstream.toUri().toString(), "3.0", workdir));
+        assertFalse(Files.exists(workdir));
+    }
+
+    @Test
+    void testEvictLeastRecentlyUsed() throws Exception {
+        Path first = tmp.resolve("first");
+        commit(first, "first", "1.0");
+
+        Path second = tmp.resolve("second");
+        commit(second, "second", "1.0");
+
+        cache.setMaxSize(new MemorySize(BigInteger.ONE));
+
+        assertTrue(cache.checkout(first.toUri().toString(), "1.0", tmp.resolve("workdir-1")));
+        assertEquals(1, mirrors().size());
+
+        // The mirror in use is kept, even though the limit is exceeded
+        assertTrue(cache.checkout(second.toUri().toString(), "1.0", tmp.resolve("workdir-2")));
+
+        List<Path> remaining = mirrors();
+
+        assertEquals(1, remaining.size());
+        assertTrue(Files.readString(remaining.get(0).resolve("sbomer-last-used")).contains("second"));
+    }
+}
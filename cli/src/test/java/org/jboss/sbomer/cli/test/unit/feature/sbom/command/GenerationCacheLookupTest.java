@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+
+import org.jboss.sbomer.cli.feature.sbom.client.facade.SBOMerClientFacade;
+import org.jboss.sbomer.cli.feature.sbom.command.MavenCycloneDxGenerateCommand;
+import org.jboss.sbomer.cli.feature.sbom.model.Sbom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+class GenerationCacheLookupTest {
+
+    static class CachingGenerateCommand extends MavenCycloneDxGenerateCommand {
+        CachingGenerateCommand(SBOMerClientFacade sbomerClientFacade) {
+            this.sbomerClientFacade = sbomerClientFacade;
+        }
+
+        @Override
+        protected String toolVersion() {
+            return "2.7.9";
+        }
+
+        @Override
+        protected String generatorArgs() {
+            return "--batch-mode";
+        }
+
+        @Override
+        protected Path doGenerate(String buildCmdOptions) {
+            throw new UnsupportedOperationException();
+        }
+
+        String cacheKey(String scmUrl, String scmRevision) {
+            return generationCacheKey(scmUrl, scmRevision, "mvn clean install");
+        }
+
+        JsonNode cachedBom(String cacheKey) {
+            return findCachedBom(cacheKey);
+        }
+    }
+
+    private static final String SCM_URL = "https://code.example.com/project.git";
+
+    private static final String SCM_REVISION = "08ad125da45653137814201b4d8527a1abba1e98";
+
+    SBOMerClientFacade sbomerClientFacade;
+
+    CachingGenerateCommand command;
+
+    @BeforeEach
+    void beforeEach() {
+        sbomerClientFacade = mock(SBOMerClientFacade.class);
+        command = new CachingGenerateCommand(sbomerClientFacade);
+    }
+
+    @Test
+    void testHit() {
+        String cacheKey = command.cacheKey(SCM_URL, SCM_REVISION);
+        JsonNode bom = JsonNodeFactory.instance.objectNode().put("bomFormat", "CycloneDX");
+
+        when(sbomerClientFacade.searchCachedSbom(cacheKey))
+                .thenReturn(Sbom.builder().id("416640206274228224").sbom(bom).build());
+
+        assertNotNull(cacheKey);
+        assertEquals(bom, command.cachedBom(cacheKey));
+    }
+
+    @Test
+    void testMiss() {
+        String cacheKey = command.cacheKey(SCM_URL, SCM_REVISION);
+
+        when(sbomerClientFacade.searchCachedSbom(cacheKey)).thenReturn(null);
+
+        assertNull(command.cachedBom(cacheKey));
+        verify(sbomerClientFacade).searchCachedSbom(cacheKey);
+    }
+
+    @Test
+    void testMissWithoutContent() {
+        String cacheKey = command.cacheKey(SCM_URL, SCM_REVISION);
+
+        when(sbomerClientFacade.searchCachedSbom(cacheKey)).thenReturn(Sbom.builder().id("416640206274228224").build());
+
+        assertNull(command.cachedBom(cacheKey));
+    }
+
+    @Test
+    void testNotCachedWithoutRevision() {
+        assertNull(command.cacheKey(SCM_URL, null));
+        assertNull(command.cacheKey(SCM_URL, " "));
+        assertNull(command.cachedBom(null));
+
+        verifyNoInteractions(sbomerClientFacade);
+    }
+
+    @Test
+    void testKeyDependsOnRevision() {
+        assertNotEquals(
+                command.cacheKey(SCM_URL, SCM_REVISION),
+                command.cacheKey(SCM_URL, "3ef2e8728dc9eff2f129c34057e46e9d2b10629a"));
+    }
+}
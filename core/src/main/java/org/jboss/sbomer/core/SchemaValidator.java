@@ -17,9 +17,16 @@
  */
 package org.jboss.sbomer.core;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
 
 import io.vertx.core.json.JsonObject;
 import io.vertx.json.schema.Draft;
@@ -35,6 +42,16 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SchemaValidator {
 
+    private static final JsonSchemaOptions OPTIONS = new JsonSchemaOptions().setBaseUri("https://jboss.org/sbomer")
+            .setOutputFormat(OutputFormat.Basic)
+            .setDraft(Draft.DRAFT202012);
+
+    /**
+     * Compiled schemas read from the classpath, by resource name. Compiled schemas are immutable and can be shared
+     * between threads.
+     */
+    private static final Map<String, Validator> RESOURCE_VALIDATORS = new ConcurrentHashMap<>();
+
     private SchemaValidator() {
         // This is a utility class and should not be instantiated
     }
@@ -59,22 +76,59 @@ public class SchemaValidator {
         }
     }
 
+    /**
+     * Compiles the JSON Schema.
+     *
+     * @param schema the JSON Schema
+     * @return the compiled schema, which can be reused for any number of validations
+     */
+    public static Validator compile(String schema) {
+        log.trace("Compiling schema: {}", schema);
+
+        return Validator.create(JsonSchema.of(new JsonObject(schema)), OPTIONS);
+    }
+
+    /**
+     * Returns the compiled JSON Schema read from the classpath resource with the given {@code name}. The schema is read
+     * and compiled only once.
+     *
+     * @param name the name of the classpath resource
+     * @return the compiled schema or empty {@link Optional} if the resource does not exist
+     */
+    public static Optional<Validator> forResource(String name) {
+        return Optional.ofNullable(RESOURCE_VALIDATORS.computeIfAbsent(name, SchemaValidator::readAndCompile));
+    }
+
+    private static Validator readAndCompile(String name) {
+        try (InputStream is = SchemaValidator.class.getClassLoader().getResourceAsStream(name)) {
+            if (is == null) {
+                return null;
+            }
+
+            return compile(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ApplicationException("Could not read the '{}' schema", name, e);
+        }
+    }
+
     /**
      * A method to validate the content of the message body according to the defined JSON Schema.
      *
      * @return the result of the validation
      */
     public static ValidationResult validate(String schema, String body) {
+        return validate(compile(schema), body);
+    }
+
+    /**
+     * A method to validate the content of the message body according to the compiled JSON Schema.
+     *
+     * @return the result of the validation
+     */
+    public static ValidationResult validate(Validator validator, String body) {
         log.debug("Validating: {}", body);
-        log.trace("Schema: {}", schema);
-
-        OutputUnit result = Validator
-                .create(
-                        JsonSchema.of(new JsonObject(schema)),
-                        new JsonSchemaOptions().setBaseUri("https://jboss.org/sbomer")
-                                .setOutputFormat(OutputFormat.Basic)
-                                .setDraft(Draft.DRAFT202012))
-                .validate(new JsonObject(body));
+
+        OutputUnit result = validator.validate(new JsonObject(body));
 
         ValidationResult validationResult = ValidationResult.fromOutputUnit(result);
 
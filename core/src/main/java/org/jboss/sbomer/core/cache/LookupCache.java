@@ -0,0 +1,542 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A two-tier cache for results of lookups in remote systems (PNC, Brew).
+ * </p>
+ *
+ * <p>
+ * The first tier is a bounded, in-memory LRU map. The second, optional tier is a directory on disk where every entry
+ * is stored as a separate JSON file. The directory can be shared between multiple processes (for example TaskRuns
+ * mounting the same volume): files are written to a temporary location first and atomically moved in place, so
+ * readers never see partially written entries.
+ * </p>
+ *
+ * <p>
+ * The disk tier is pruned periodically: expired files are removed first, followed by the least recently written ones
+ * while there are more than {@code maxDiskEntries} of them.
+ * </p>
+ *
+ * <p>
+ * Lookups which did not find anything are cached as well, as {@code null} values, but only for the (shorter)
+ * {@code negativeTtl}, so that things which show up in the remote system later are found soon. Concurrent lookups of
+ * the same key which miss the cache wait for a single load instead of issuing their own request. Failures are never
+ * cached; callers waiting on a failed load get the same exception.
+ * </p>
+ *
+ * @param <V> the type of cached values
+ */
+@Slf4j
+public class LookupCache<V> {
+
+    private static final ObjectMapper MAPPER = ObjectMapperProvider.json()
+            .copy()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final String KEY = "key";
+    private static final String CREATED = "created";
+    private static final String VALUE = "value";
+
+    /**
+     * How long lookups which did not find anything are cached by default.
+     */
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofMinutes(5);
+
+    /**
+     * A value retrieved from the cache. The {@link #value()} can be {@code null} in case the lookup did not find
+     * anything.
+     */
+    public record CachedValue<V>(V value) {
+    }
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    @Getter
+    private final String name;
+
+    private final int maxEntries;
+
+    private final Duration ttl;
+
+    private final Duration negativeTtl;
+
+    private final Path directory;
+
+    private final int maxDiskEntries;
+
+    private final TypeReference<V> type;
+
+    private final Map<String, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong diskHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong diskWrites = new AtomicLong();
+
+    private final Object pruneLock = new Object();
+
+    /**
+     * Loads which are currently in progress, by key.
+     */
+    private final Map<String, CompletableFuture<CachedValue<V>>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache which keeps lookups which did not find anything for at most {@link #DEFAULT_NEGATIVE_TTL}
+     * and at most {@code maxEntries} entries on disk.
+     *
+     * @param name the name of the cache, used as the subdirectory name for the disk tier
+     * @param maxEntries maximum number of entries kept in memory, {@code 0} disables the in-memory tier
+     * @param ttl how long entries are valid
+     * @param directory the root directory of the disk tier or {@code null} to disable the disk tier
+     * @param type the type of cached values, used to deserialize entries from disk
+     */
+    public LookupCache(String name, int maxEntries, Duration ttl, Path directory, TypeReference<V> type) {
+        this(
+                name,
+                maxEntries,
+                ttl,
+                ttl.compareTo(DEFAULT_NEGATIVE_TTL) < 0 ? ttl : DEFAULT_NEGATIVE_TTL,
+                directory,
+                maxEntries,
+                type);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param name the name of the cache, used as the subdirectory name for the disk tier
+     * @param maxEntries maximum number of entries kept in memory, {@code 0} disables the in-memory tier
+     * @param ttl how long entries are valid
+     * @param negativeTtl how long entries of lookups which did not find anything are valid
+     * @param directory the root directory of the disk tier or {@code null} to disable the disk tier
+     * @param maxDiskEntries maximum number of entries kept on disk
+     * @param type the type of cached values, used to deserialize entries from disk
+     */
+    public LookupCache(
+            String name,
+            int maxEntries,
+            Duration ttl,
+            Duration negativeTtl,
+            Path directory,
+            int maxDiskEntries,
+            TypeReference<V> type) {
+        this.name = name;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.directory = directory != null ? directory.resolve(name) : null;
+        this.maxDiskEntries = Math.max(1, maxDiskEntries);
+        this.type = type;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > LookupCache.this.maxEntries;
+            }
+        };
+
+        if (this.directory != null) {
+            try {
+                Files.createDirectories(this.directory);
+            } catch (IOException e) {
+                log.warn("Unable to create cache directory '{}', disk cache will not be used", this.directory, e);
+            }
+
+            pruneDisk();
+        }
+    }
+
+    /**
+     * Creates a cache which does not store anything.
+     *
+     * @param <V> the type of values
+     * @return a disabled cache
+     */
+    public static <V> LookupCache<V> disabled() {
+        return new LookupCache<>("disabled", 0, Duration.ZERO, null, null);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 || directory != null;
+    }
+
+    /**
+     * Returns the cached value for the given key, or {@code null} if there is no valid entry in any of the tiers.
+     *
+     * @param key the cache key
+     * @return the {@link CachedValue} or {@code null} on a cache miss
+     */
+    public CachedValue<V> getIfPresent(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.incrementAndGet();
+                    return new CachedValue<>(entry.value());
+                }
+
+                entries.remove(key);
+            }
+        }
+
+        CachedValue<V> cached = readFromDisk(key, now);
+
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            putInMemory(key, cached.value(), now);
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the value (which can be {@code null}) in the cache.
+     *
+     * @param key the cache key
+     * @param value the value to store
+     */
+    public void put(String key, V value) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        putInMemory(key, value, now);
+        writeToDisk(key, value, now);
+    }
+
+    /**
+     * Removes the entry for the given key from all tiers, the next lookup will load it again. A load of the key which
+     * is in progress is detached: its result is still returned to its callers, but it is not cached.
+     *
+     * @param key the cache key
+     */
+    public void invalidate(String key) {
+        // Done while holding the key in the map of loads, so that it cannot interleave with a load storing its result
+        loading.compute(key, (k, inFlight) -> {
+            synchronized (entries) {
+                entries.remove(key);
+            }
+
+            if (directory != null) {
+                deleteQuietly(directory.resolve(fileName(key)));
+            }
+
+            return null;
+        });
+    }
+
+    /**
+     * Returns the cached value for the given key or loads it with the provided {@code loader} and caches the result.
+     * If the same key is being loaded already, waits for that load instead. Exceptions thrown by the loader are
+     * propagated (also to the waiting callers) and nothing is cached. The loaded value is not cached either if the key
+     * was invalidated in the meantime, see {@link #invalidate(String)}.
+     *
+     * @param key the cache key
+     * @param loader the loader to use on a cache miss
+     * @return the cached or loaded value
+     * @throws E thrown by the loader
+     */
+    public <E extends Exception> V get(String key, Loader<V, E> loader) throws E {
+        CachedValue<V> cached = getIfPresent(key);
+
+        if (cached != null) {
+            return cached.value();
+        }
+
+        CompletableFuture<CachedValue<V>> created = new CompletableFuture<>();
+        CompletableFuture<CachedValue<V>> inFlight = loading.putIfAbsent(key, created);
+
+        if (inFlight != null) {
+            coalesced.incrementAndGet();
+            log.debug("Waiting for the in-flight '{}' lookup of '{}'", name, key);
+            return LookupCache.<V, E> await(inFlight);
+        }
+
+        try {
+            V value = loader.load();
+
+            // The key could have been invalidated during the load, in which case the value might be outdated already
+            loading.computeIfPresent(key, (k, current) -> {
+                if (current == created) {
+                    put(key, value);
+                }
+
+                return current;
+            });
+
+            created.complete(new CachedValue<>(value));
+            return value;
+        } catch (Exception e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of lookups which missed the cache and waited for a load started by another caller
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the ratio of lookups served from any of the tiers, between {@code 0} and {@code 1}
+     */
+    public double getHitRatio() {
+        long found = getHits() + getDiskHits();
+        long total = found + getMisses();
+
+        return total == 0 ? 0 : (double) found / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s: %d memory hits, %d disk hits, %d misses (hit ratio %.2f)",
+                name,
+                getHits(),
+                getDiskHits(),
+                getMisses(),
+                getHitRatio());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V, E extends Exception> V await(CompletableFuture<CachedValue<V>> inFlight) throws E {
+        try {
+            return inFlight.join().value();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+
+            // The loader of the same cache threw it, so it is an E
+            throw (E) e.getCause();
+        }
+    }
+
+    private void putInMemory(String key, V value, long now) {
+        if (maxEntries == 0) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, now + ttl(value).toMillis()));
+        }
+    }
+
+    private CachedValue<V> readFromDisk(String key, long now) {
+        if (directory == null) {
+            return null;
+        }
+
+        Path file = directory.resolve(fileName(key));
+
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            JsonNode node = MAPPER.readTree(file.toFile());
+
+            // Protect against (very unlikely) hash collisions
+            if (!key.equals(node.path(KEY).asText())) {
+                return null;
+            }
+
+            JsonNode value = node.path(VALUE);
+            boolean found = !value.isNull() && !value.isMissingNode();
+
+            if (node.path(CREATED).asLong() + (found ? ttl : negativeTtl).toMillis() <= now) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+
+            return new CachedValue<>(found ? MAPPER.treeToValue(value, type) : null);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to read cache entry '{}' from '{}', ignoring", key, file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, V value, long now) {
+        if (directory == null) {
+            return;
+        }
+
+        Path file = directory.resolve(fileName(key));
+        Path tmp = null;
+
+        try {
+            ObjectNode node = MAPPER.createObjectNode();
+            node.put(KEY, key);
+            node.put(CREATED, now);
+            node.set(VALUE, MAPPER.valueToTree(value));
+
+            tmp = Files.createTempFile(directory, "entry", ".tmp");
+            MAPPER.writeValue(tmp.toFile(), node);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to write cache entry '{}' to '{}', ignoring", key, file, e);
+            deleteQuietly(tmp);
+            return;
+        }
+
+        // Other processes write to the directory too, so its size is checked periodically instead of counted
+        if (diskWrites.incrementAndGet() % Math.max(1, maxDiskEntries / 10) == 0) {
+            pruneDisk();
+        }
+    }
+
+    /**
+     * Removes expired entries from the disk tier and, if there are still more than {@code maxDiskEntries} of them,
+     * the least recently written ones. Entries are considered expired once they are older than the (longer)
+     * {@code ttl}, their content is not read.
+     */
+    private void pruneDisk() {
+        synchronized (pruneLock) {
+            long expiredBefore = System.currentTimeMillis() - ttl.toMillis();
+            List<Map.Entry<Path, Long>> files = new ArrayList<>();
+
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(".json")).forEach(path -> {
+                    try {
+                        files.add(Map.entry(path, Files.getLastModifiedTime(path).toMillis()));
+                    } catch (IOException e) {
+                        // Removed in the meantime
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                log.debug("Unable to list cache directory '{}', ignoring", directory, e);
+                return;
+            }
+
+            files.sort(Map.Entry.comparingByValue());
+
+            int remaining = files.size();
+
+            for (Map.Entry<Path, Long> file : files) {
+                if (file.getValue() > expiredBefore && remaining <= maxDiskEntries) {
+                    break;
+                }
+
+                deleteQuietly(file.getKey());
+                remaining--;
+            }
+
+            if (remaining < files.size()) {
+                log.debug("Removed {} entries from cache directory '{}'", files.size() - remaining, directory);
+            }
+        }
+    }
+
+    private Duration ttl(V value) {
+        return value == null ? negativeTtl : ttl;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Unable to delete '{}'", path, e);
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + ".json";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -17,11 +17,6 @@
  */
 package org.jboss.sbomer.core.config;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.Objects;
-
 import org.jboss.sbomer.core.SchemaValidator;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
 import org.jboss.sbomer.core.errors.ApplicationException;
@@ -47,17 +42,12 @@ public class ConfigSchemaValidator implements Validator<Config> {
             throw new ApplicationException("No configuration provided");
         }
 
-        String schemaFile = GenerationRequestType.schemaFile(config.getClass());
-        String name = "schemas/" + schemaFile;
-        String schema;
-
-        try (InputStream in = SchemaValidator.class.getClassLoader().getResourceAsStream(name)) {
-            Objects.requireNonNull(in, "Resource " + name + " not found");
-            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new ApplicationException("Could not read the configuration file schema", e);
-        }
+        String name = "schemas/" + GenerationRequestType.schemaFile(config.getClass());
 
-        return SchemaValidator.validate(schema, config.toJson());
+        return SchemaValidator.validate(
+                SchemaValidator.forResource(name)
+                        .orElseThrow(
+                                () -> new ApplicationException("Could not find the configuration file schema '{}'", name)),
+                config.toJson());
     }
 }
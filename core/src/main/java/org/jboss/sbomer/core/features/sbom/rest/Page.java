@@ -23,6 +23,8 @@ import lombok.Data;
 import java.util.Collection;
 import java.util.Collections;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 /**
@@ -50,7 +52,7 @@ public class Page<T> {
     private int totalPages;
 
     /**
-     * Number of all hits (not only this page).
+     * Number of all hits (not only this page) or -1 if unknown.
      */
     private long totalHits;
 
@@ -59,7 +61,18 @@ public class Page<T> {
      */
     private Collection<T> content;
 
+    /**
+     * Opaque cursor to fetch the next page with, if the listing supports cursor pagination and there may be more
+     * pages.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public Page() {
         content = Collections.emptyList();
     }
+
+    public Page(int pageIndex, int pageSize, int totalPages, long totalHits, Collection<T> content) {
+        this(pageIndex, pageSize, totalPages, totalHits, content, null);
+    }
 }
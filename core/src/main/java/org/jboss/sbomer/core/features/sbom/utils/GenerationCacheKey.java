@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
+
+/**
+ * <p>
+ * Key of the generation cache. Generations of the same source revision with the same generator settings produce the
+ * same manifest, so the manifest generated once can be reused by any later build of the same sources, instead of
+ * cloning the repository and running the generator again.
+ * </p>
+ *
+ * <p>
+ * The key is computed by the generator and stored next to the generated manifest (see {@link #keyFile(Path)}), from
+ * where it is picked up by the service when the manifest is stored.
+ * </p>
+ */
+public class GenerationCacheKey {
+
+    /**
+     * Suffix of the file holding the key, next to the generated manifest.
+     */
+    public static final String KEY_FILE_SUFFIX = ".cache-key";
+
+    /**
+     * Bumped whenever the way the key is computed changes, so that old entries are not matched anymore.
+     */
+    private static final String KEY_VERSION = "1";
+
+    private GenerationCacheKey() {
+        // This is a utility class
+    }
+
+    /**
+     * Computes the cache key.
+     *
+     * @param scmUrl the URL of the source repository
+     * @param scmRevision the commit of the sources (not a tag, which can be moved to another commit)
+     * @param generatorType the generator used
+     * @param toolVersion the version of the generator
+     * @param generatorArgs the arguments passed to the generator
+     * @param buildCmdOptions the options of the build command passed to the generator
+     * @return the hex-encoded SHA-256 digest of all provided values or {@code null} if the source revision is not
+     *         known
+     */
+    public static String compute(
+            String scmUrl,
+            String scmRevision,
+            GeneratorType generatorType,
+            String toolVersion,
+            String generatorArgs,
+            String buildCmdOptions) {
+        if (scmUrl == null || scmUrl.isBlank() || scmRevision == null || scmRevision.isBlank()
+                || generatorType == null) {
+            return null;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            String[] values = { KEY_VERSION, scmUrl, scmRevision, generatorType.name(), toolVersion, generatorArgs,
+                    buildCmdOptions };
+
+            for (String value : values) {
+                // Length-prefixed, so that values cannot be shifted from one field to another
+                byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+                digest.update((bytes.length + ":").getBytes(StandardCharsets.UTF_8));
+                digest.update(bytes);
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @param manifestPath the path to the generated manifest
+     * @return the path to the file holding the cache key of the manifest
+     */
+    public static Path keyFile(Path manifestPath) {
+        return manifestPath.resolveSibling(manifestPath.getFileName().toString() + KEY_FILE_SUFFIX);
+    }
+}
@@ -35,17 +35,29 @@ import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_OPE
 import static org.jboss.sbomer.core.features.sbom.Constants.SUPPLIER_NAME;
 import static org.jboss.sbomer.core.features.sbom.Constants.SUPPLIER_URL;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -101,11 +113,15 @@ import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
 import org.jboss.sbomer.core.features.sbom.config.PncBuildConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.ProductConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.RedHatProductProcessorConfig;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxSchemas;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.github.packageurl.PackageURLBuilder;
@@ -120,6 +136,34 @@ public class SbomUtils {
     private static final Logger log = LoggerFactory.getLogger(SbomUtils.class);
     private static final Pattern gitProtocolPattern = Pattern.compile("git@(.+):(.+)", Pattern.CASE_INSENSITIVE);
 
+    /**
+     * Mapper used to read {@link Bom}s, configured the same way as the one in the CycloneDX {@link JsonParser}. All
+     * the (de)serialization logic is defined by annotations on the model.
+     */
+    private static final ObjectMapper BOM_MAPPER = new ObjectMapper()
+            .disable(com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    /**
+     * A {@link BomJsonGenerator} which reuses the configured (schema version aware) mapper to write the {@link Bom}
+     * directly into a tree or a stream, instead of going through a {@link String}.
+     */
+    private static class StreamingBomJsonGenerator extends BomJsonGenerator {
+        private final Bom source;
+
+        StreamingBomJsonGenerator(Bom bom) {
+            super(bom, schemaVersion());
+            this.source = bom;
+        }
+
+        JsonNode toTree() {
+            return mapper.valueToTree(source);
+        }
+
+        void writeTo(OutputStream outputStream) throws IOException {
+            mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(outputStream, source);
+        }
+    }
+
     public static Version schemaVersion() {
         return Version.VERSION_16;
     }
@@ -491,9 +535,7 @@ public class SbomUtils {
     }
 
     public static List<ParseException> validate(JsonNode jsonNode) throws IOException {
-        return new JsonParser().validate(
-                jsonNode.isTextual() ? jsonNode.textValue().getBytes() : jsonNode.toString().getBytes(),
-                schemaVersion());
+        return CycloneDxSchemas.validate(jsonNode, schemaVersion());
     }
 
     public static Tool createTool(String version) { // NOSONAR: Tool is deprecated, but this is for legacy support
@@ -517,103 +559,178 @@ public class SbomUtils {
      * This includes traversing through components as well as dependencies.
      * </p>
      *
-     * <p>
-     * In some cases, this will lead to duplicate components and dependencies. This process ensures that there are no
-     * duplicates as well.
-     * </p>
-     *
      * @param bom the BOM
      * @param oldPurl the old purl
      * @param newPurl the new purl
+     * @see #updatePurls(Bom, Map)
      */
     public static void updatePurl(Bom bom, String oldPurl, String newPurl) {
-        // Update main component's purl
-        if (updatePurl(bom.getMetadata().getComponent(), oldPurl, newPurl)) {
-            updateBomRef(bom, bom.getMetadata().getComponent(), oldPurl, newPurl);
+        updatePurls(bom, Map.of(oldPurl, newPurl));
+    }
+
+    /**
+     * <p>
+     * For a given {@link Bom} apply all purl relocations (old purl to new purl) from the {@code relocations} map, in
+     * the iteration order of the map. Relocations are applied one after another, so chained relocations are followed.
+     * </p>
+     *
+     * <p>
+     * The purl of the main component and of all (including nested) components is updated. If the bom-ref of an
+     * updated component is equal to the old purl, the bom-ref is updated too, together with all references to it in
+     * the dependency hierarchy (including nested dependencies and provides).
+     * </p>
+     *
+     * <p>
+     * There might be cases (mainly for components detected by Syft) where the same purl is duplicated across
+     * components (which have different bom-refs). The bom-ref is not updated if there is already a dependency with the
+     * new purl as the ref. Otherwise, we would have bom validation errors.
+     * </p>
+     *
+     * <p>
+     * Components (by purl) and dependencies are indexed once, so every relocation touches only the affected entries
+     * instead of scanning the whole manifest.
+     * </p>
+     *
+     * @param bom the BOM
+     * @param relocations the map of old purls to new purls
+     */
+    public static void updatePurls(Bom bom, Map<String, String> relocations) {
+        if (relocations.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Component>> componentsByPurl = new HashMap<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            indexComponent(bom.getMetadata().getComponent(), componentsByPurl);
         }
 
-        // If we have any components (we really should!) then update these purls as well
         if (bom.getComponents() != null) {
-            // Update all components' purls (if needed)
-            bom.getComponents().forEach(c -> {
-                if (updatePurl(c, oldPurl, newPurl)) {
-                    updateBomRef(bom, c, oldPurl, newPurl);
-                }
-            });
+            bom.getComponents().forEach(c -> indexComponent(c, componentsByPurl));
         }
+
+        Map<String, List<DependencySlot>> dependenciesByRef = new HashMap<>();
+        Set<String> rootRefs = new HashSet<>();
+
+        if (bom.getDependencies() != null) {
+            List<Dependency> dependencies = new ArrayList<>(bom.getDependencies());
+            bom.setDependencies(dependencies);
+            indexDependencies(dependencies, dependenciesByRef);
+            dependencies.forEach(d -> rootRefs.add(d.getRef()));
+        }
+
+        relocations.forEach((oldPurl, newPurl) -> {
+            List<Component> components = componentsByPurl.remove(oldPurl);
+
+            if (components == null) {
+                return;
+            }
+
+            for (Component component : components) {
+                component.setPurl(newPurl);
+
+                if (oldPurl.equals(component.getBomRef()) && !rootRefs.contains(newPurl)) {
+                    component.setBomRef(newPurl);
+                    updateDependencyRefs(oldPurl, newPurl, dependenciesByRef);
+
+                    if (rootRefs.remove(oldPurl)) {
+                        rootRefs.add(newPurl);
+                    }
+                }
+            }
+
+            componentsByPurl.computeIfAbsent(newPurl, p -> new ArrayList<>()).addAll(components);
+        });
     }
 
     /**
-     * Updates the purl for the given component if it matches the old purl.
-     *
-     * @param component the component
-     * @param oldPurl the old purl
-     * @param newPurl the new purl
-     * @return {@code true} if the purl was updated, {@code false} otherwise
+     * Indexes the component and all its nested components by purl.
      */
-    public static boolean updatePurl(Component component, String oldPurl, String newPurl) {
-        if (component.getPurl().equals(oldPurl)) {
-            component.setPurl(newPurl);
+    private static void indexComponent(Component component, Map<String, List<Component>> componentsByPurl) {
+        if (component.getPurl() != null) {
+            componentsByPurl.computeIfAbsent(component.getPurl(), p -> new ArrayList<>()).add(component);
+        }
 
-            return true;
+        if (component.getComponents() != null) {
+            component.getComponents().forEach(c -> indexComponent(c, componentsByPurl));
         }
+    }
 
-        return false;
+    /**
+     * Position of a dependency in the dependency hierarchy: the list containing it and its index in that list.
+     */
+    private record DependencySlot(List<Dependency> dependencies, int index) {
     }
 
     /**
-     * Updates the bom-ref for the given component, and update the refs in the dependency hierarchy, looking for nested
-     * dependencies and provides.
-     *
-     * @param component the component to update the bom-ref for
-     * @param newRef the new reference
+     * Indexes the position of all dependencies (recursively, including provides) by their ref. Nested lists are
+     * replaced with mutable copies, so that dependencies can be replaced in place.
      */
-    public static void updateBomRef(Bom bom, Component component, String oldRef, String newRef) {
-        // Update the BOM reference of the component.
-        // There might be cases (mainly for components detected by Syft) where the same purl is duplicated across
-        // components (which have different bom-refs). So, we need to check if there are not already dependencies having
-        // the bom-ref equals to the new purl before updating it. Otherwise, we would have bom validation errors.
-        if (oldRef.equals(component.getBomRef())
-                && !bom.getDependencies().stream().map(Dependency::getRef).toList().contains(newRef)) {
-
-            component.setBomRef(newRef);
-
-            // Recursively update the dependencies in the BOM
-            if (bom.getDependencies() != null) {
-                List<Dependency> updatedDependencies = new ArrayList<>(bom.getDependencies().size());
-                for (Dependency dependency : bom.getDependencies()) {
-                    updateDependencyRef(dependency, oldRef, newRef);
-                    updatedDependencies.add(dependency);
-                }
-                bom.setDependencies(updatedDependencies);
+    private static void indexDependencies(
+            List<Dependency> dependencies,
+            Map<String, List<DependencySlot>> dependenciesByRef) {
+        for (int i = 0; i < dependencies.size(); i++) {
+            Dependency dependency = dependencies.get(i);
+
+            dependenciesByRef.computeIfAbsent(dependency.getRef(), r -> new ArrayList<>())
+                    .add(new DependencySlot(dependencies, i));
+
+            if (dependency.getDependencies() != null) {
+                List<Dependency> nested = new ArrayList<>(dependency.getDependencies());
+                dependency.setDependencies(nested);
+                indexDependencies(nested, dependenciesByRef);
+            }
+
+            if (dependency.getProvides() != null) {
+                List<Dependency> provides = new ArrayList<>(dependency.getProvides());
+                dependency.setProvides(provides);
+                indexDependencies(provides, dependenciesByRef);
             }
         }
     }
 
-    public static void updateDependencyRef(Dependency dependency, String oldRef, String newRef) {
-        // If the current dependency has the oldRef, replace it with newRef
-        if (dependency.getRef().equals(oldRef)) {
+    /**
+     * Replaces all dependencies with the {@code oldRef} ref by dependencies with the {@code newRef} ref, keeping their
+     * nested dependencies and provides.
+     */
+    private static void updateDependencyRefs(
+            String oldRef,
+            String newRef,
+            Map<String, List<DependencySlot>> dependenciesByRef) {
+        List<DependencySlot> slots = dependenciesByRef.remove(oldRef);
+
+        if (slots == null) {
+            return;
+        }
+
+        for (DependencySlot slot : slots) {
+            Dependency dependency = slot.dependencies().get(slot.index());
             Dependency updatedDependency = new Dependency(newRef);
             updatedDependency.setDependencies(dependency.getDependencies());
             updatedDependency.setProvides(dependency.getProvides());
 
-            // Replace the old dependency with the updated one
-            dependency = updatedDependency;
+            slot.dependencies().set(slot.index(), updatedDependency);
         }
 
-        // Recursively update sub-dependencies
-        if (dependency.getDependencies() != null) {
-            for (Dependency subDependency : dependency.getDependencies()) {
-                updateDependencyRef(subDependency, oldRef, newRef);
-            }
-        }
+        dependenciesByRef.computeIfAbsent(newRef, r -> new ArrayList<>()).addAll(slots);
+    }
 
-        // Recursively update provided dependencies
-        if (dependency.getProvides() != null) {
-            for (Dependency subProvide : dependency.getProvides()) {
-                updateDependencyRef(subProvide, oldRef, newRef);
-            }
+    /**
+     * Updates the purl for the given component if it matches the old purl.
+     *
+     * @param component the component
+     * @param oldPurl the old purl
+     * @param newPurl the new purl
+     * @return {@code true} if the purl was updated, {@code false} otherwise
+     */
+    public static boolean updatePurl(Component component, String oldPurl, String newPurl) {
+        if (component.getPurl().equals(oldPurl)) {
+            component.setPurl(newPurl);
+
+            return true;
         }
+
+        return false;
     }
 
     public static Dependency updateDependencyRef(Dependency dependency, String newRef) {
@@ -939,8 +1056,19 @@ public class SbomUtils {
      * @return {@link JsonNode} representation of the {@link Bom}.
      */
     public static JsonNode toJsonNode(Bom bom) {
-        BomJsonGenerator generator = BomGeneratorFactory.createJson(SbomUtils.schemaVersion(), bom);
-        return generator.toJsonNode();
+        return new StreamingBomJsonGenerator(bom).toTree();
+    }
+
+    /**
+     * Writes the given CycloneDX {@link Bom} as JSON directly into the provided {@link OutputStream}, without creating
+     * an intermediate {@link String} representation. The stream is not closed.
+     *
+     * @param bom The CycloneDX {@link Bom} to write
+     * @param outputStream The {@link OutputStream} to write to
+     * @throws IOException if an error occurs while writing
+     */
+    public static void toOutputStream(Bom bom, OutputStream outputStream) throws IOException {
+        new StreamingBomJsonGenerator(bom).writeTo(outputStream);
     }
 
     /**
@@ -966,15 +1094,194 @@ public class SbomUtils {
             return null;
         }
 
+        if (jsonNode.isTextual()) {
+            return fromString(jsonNode.textValue());
+        }
+
+        // Traverse the tree directly instead of serializing it to a String and parsing it again
         try {
-            final String content = jsonNode.isTextual() ? jsonNode.textValue() : jsonNode.toString();
-            return new JsonParser().parse(content.getBytes(UTF_8));
-        } catch (ParseException e) {
+            return BOM_MAPPER.treeToValue(jsonNode, Bom.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads a CycloneDX {@link Bom} from the provided {@link InputStream}. The stream is not closed.
+     *
+     * @param inputStream The {@link InputStream} with the JSON content
+     * @return The converted {@link Bom} or <code>null</code> in case of troubles in converting it.
+     */
+    public static Bom fromInputStream(InputStream inputStream) {
+        try {
+            return BOM_MAPPER.readValue(inputStream, Bom.class);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the purl of the main component ({@code metadata.component.purl}) of a manifest without converting the
+     * whole content into a {@link Bom}.
+     *
+     * @param jsonNode The manifest content
+     * @return The purl or <code>null</code> if the manifest does not define it.
+     */
+    public static String extractRootPurl(JsonNode jsonNode) {
+        if (jsonNode == null) {
+            return null;
+        }
+
+        if (jsonNode.isTextual()) {
+            try (InputStream inputStream = new ByteArrayInputStream(jsonNode.textValue().getBytes(UTF_8))) {
+                return extractRootPurl(inputStream);
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+                return null;
+            }
+        }
+
+        JsonNode purl = jsonNode.path("metadata").path("component").path("purl");
+
+        return purl.isTextual() ? purl.textValue() : null;
+    }
+
+    /**
+     * Reads the main component ({@code metadata.component}) of a manifest without converting the whole content into a
+     * {@link Bom}.
+     *
+     * @param jsonNode The manifest content
+     * @return The main component or <code>null</code> if the manifest does not define it or it cannot be read.
+     */
+    public static Component extractMainComponent(JsonNode jsonNode) {
+        if (jsonNode == null) {
+            return null;
+        }
+
+        if (jsonNode.isTextual()) {
+            Bom bom = fromString(jsonNode.textValue());
+            return bom != null && bom.getMetadata() != null ? bom.getMetadata().getComponent() : null;
+        }
+
+        JsonNode component = jsonNode.path("metadata").path("component");
+
+        if (!component.isObject()) {
+            return null;
+        }
+
+        try {
+            return BOM_MAPPER.treeToValue(component, Component.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the purl of the main component ({@code metadata.component.purl}) of a manifest from the provided
+     * {@link InputStream}. Only the tokens up to the purl are read, everything else is skipped without being
+     * materialized. The stream is not closed.
+     *
+     * @param inputStream The {@link InputStream} with the JSON content
+     * @return The purl or <code>null</code> if the manifest does not define it.
+     * @throws IOException if the content cannot be read
+     */
+    public static String extractRootPurl(InputStream inputStream) throws IOException {
+        try (com.fasterxml.jackson.core.JsonParser parser = BOM_MAPPER.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            return findStringField(parser, "metadata", "component", "purl");
+        }
+    }
+
+    /**
+     * Finds the value of a (nested) string field identified by the {@code path}. The parser needs to be positioned at
+     * the start of an object.
+     */
+    private static String findStringField(com.fasterxml.jackson.core.JsonParser parser, String... path)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (!path[0].equals(name)) {
+                parser.skipChildren();
+                continue;
+            }
+
+            if (path.length == 1) {
+                return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+            }
+
+            if (value != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            return findStringField(parser, Arrays.copyOfRange(path, 1, path.length));
+        }
+
+        return null;
+    }
+
+    /**
+     * Computes the SHA-256 digest of the manifest content. Object fields are digested in the order of their names so
+     * that the result does not depend on the order in which the content was produced (for example after a round-trip
+     * through a {@code JSONB} column). The content is streamed into the digest without being serialized into memory.
+     *
+     * @param jsonNode The manifest content
+     * @return The hex-encoded digest or <code>null</code> if there is no content or it cannot be read.
+     */
+    public static String contentHash(JsonNode jsonNode) {
+        if (jsonNode == null || jsonNode.isNull() || jsonNode.isMissingNode()) {
+            return null;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            JsonNode content = jsonNode.isTextual() ? BOM_MAPPER.readTree(jsonNode.textValue()) : jsonNode;
+
+            try (JsonGenerator generator = BOM_MAPPER.getFactory()
+                    .createGenerator(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+                writeCanonical(generator, content);
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
             log.error(e.getMessage(), e);
             return null;
         }
     }
 
+    private static void writeCanonical(JsonGenerator generator, JsonNode node) throws IOException {
+        if (node.isObject()) {
+            SortedSet<String> names = new TreeSet<>();
+            node.fieldNames().forEachRemaining(names::add);
+
+            generator.writeStartObject();
+
+            for (String name : names) {
+                generator.writeFieldName(name);
+                writeCanonical(generator, node.get(name));
+            }
+
+            generator.writeEndObject();
+        } else if (node.isArray()) {
+            generator.writeStartArray();
+
+            for (JsonNode element : node) {
+                writeCanonical(generator, element);
+            }
+
+            generator.writeEndArray();
+        } else {
+            generator.writeTree(node);
+        }
+    }
+
     public static List<String> computeNVRFromContainerManifest(JsonNode jsonNode) {
         Bom bom = fromJsonNode(jsonNode);
         if (bom == null || bom.getComponents() == null || bom.getComponents().isEmpty()) {
@@ -1009,18 +1316,18 @@ public class SbomUtils {
     }
 
     public static Bom fromPath(Path path) {
-        try {
-            return new JsonParser().parse(path.toFile());
-        } catch (ParseException e) {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            return fromInputStream(inputStream);
+        } catch (IOException e) {
             log.error(e.getMessage(), e);
             return null;
         }
     }
 
     public static void toPath(Bom bom, Path path) {
-        try {
-            Files.writeString(path, SbomUtils.toJson(bom));
-        } catch (IOException | GeneratorException e) {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            toOutputStream(bom, outputStream);
+        } catch (IOException e) {
             log.error(e.getMessage(), e);
         }
     }
@@ -27,7 +27,6 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 import org.cyclonedx.exception.ParseException;
-import org.cyclonedx.parsers.JsonParser;
 import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorContext;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -43,9 +42,7 @@ public class CycloneDxBomValidator implements ConstraintValidator<CycloneDxBom,
         List<ParseException> exceptions;
 
         try {
-            exceptions = new JsonParser().validate(
-                    value.isTextual() ? value.textValue().getBytes() : value.toString().getBytes(),
-                    schemaVersion());
+            exceptions = CycloneDxSchemas.validate(value, schemaVersion());
 
             if (exceptions.isEmpty()) {
                 return true;
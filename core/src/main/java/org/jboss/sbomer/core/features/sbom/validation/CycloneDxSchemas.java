@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.parsers.JsonParser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+
+/**
+ * <p>
+ * Validates CycloneDX BOMs against the JSON schema of a given specification version.
+ * </p>
+ *
+ * <p>
+ * The {@link JsonParser} loads and compiles the schema (including all referenced schemas) on every validation. Here
+ * the schema is compiled once per specification version and reused; compiled schemas are thread-safe. Validation is
+ * done directly on the {@link JsonNode}, without serializing it back to bytes first.
+ * </p>
+ */
+public class CycloneDxSchemas {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<Version, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private CycloneDxSchemas() {
+        // This is a utility class
+    }
+
+    /**
+     * Validates the BOM against the schema of the given specification version.
+     *
+     * @param bom the BOM, either as a JSON tree or as a JSON string
+     * @param version the CycloneDX specification version
+     * @return list of validation errors, empty if the BOM is valid
+     * @throws IOException if the BOM or the schema cannot be read
+     */
+    public static List<ParseException> validate(JsonNode bom, Version version) throws IOException {
+        JsonNode tree = bom.isTextual() ? MAPPER.readTree(bom.textValue()) : bom;
+
+        return schema(version).validate(tree)
+                .stream()
+                .map(message -> new ParseException(message.getMessage()))
+                .toList();
+    }
+
+    /**
+     * Validates the BOM read from the stream against the schema of the given specification version.
+     *
+     * @param bom the stream with the BOM in JSON format
+     * @param version the CycloneDX specification version
+     * @return list of validation errors, empty if the BOM is valid
+     * @throws IOException if the BOM or the schema cannot be read
+     */
+    public static List<ParseException> validate(InputStream bom, Version version) throws IOException {
+        return validate(MAPPER.readTree(bom), version);
+    }
+
+    private static JsonSchema schema(Version version) throws IOException {
+        try {
+            return SCHEMAS.computeIfAbsent(version, v -> {
+                try {
+                    return new JsonParser().getJsonSchema(v, MAPPER);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -20,9 +20,12 @@ package org.jboss.sbomer.core.pnc;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.jboss.pnc.client.ArtifactClient;
 import org.jboss.pnc.client.BuildClient;
@@ -49,6 +52,7 @@ import org.jboss.pnc.dto.ProductVersion;
 import org.jboss.pnc.dto.ProductVersionRef;
 import org.jboss.pnc.dto.requests.DeliverablesAnalysisRequest;
 import org.jboss.pnc.dto.response.AnalyzedArtifact;
+import org.jboss.sbomer.core.cache.LookupCache;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
 
@@ -61,6 +65,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PncService {
 
+    /**
+     * Maximum number of purls resolved in a single artifact query.
+     */
+    public static final int ARTIFACT_BATCH_SIZE = 20;
+
     @Getter
     final String apiUrl;
 
@@ -80,8 +89,29 @@ public class PncService {
 
     final DeliverableAnalyzerReportClient deliverableAnalyzerReportClient;
 
+    /**
+     * Cache for {@link #getArtifact(String, Optional, Optional, Optional)} lookups.
+     */
+    @Getter
+    final LookupCache<Artifact> artifactCache;
+
+    /**
+     * Cache for {@link #getArtifacts(Collection)} lookups, keyed by purl.
+     */
+    @Getter
+    final LookupCache<List<Artifact>> purlArtifactsCache;
+
     public PncService(String apiUrl) {
+        this(apiUrl, LookupCache.disabled(), LookupCache.disabled());
+    }
+
+    public PncService(
+            String apiUrl,
+            LookupCache<Artifact> artifactCache,
+            LookupCache<List<Artifact>> purlArtifactsCache) {
         this.apiUrl = apiUrl;
+        this.artifactCache = artifactCache;
+        this.purlArtifactsCache = purlArtifactsCache;
 
         artifactClient = new ArtifactClient(getConfiguration());
         buildClient = new BuildClient(getConfiguration());
@@ -361,6 +391,12 @@ public class PncService {
             return null;
         }
 
+        String key = String.join("|", String.valueOf(purl), sha256.orElse(""), sha1.orElse(""), md5.orElse(""));
+
+        return artifactCache.get(key, () -> fetchArtifact(purl, sha256, sha1, md5));
+    }
+
+    private Artifact fetchArtifact(String purl, Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
         List<String> query = new ArrayList<>();
 
         // Purl was provided, so let's use it, hashes will be used to filter out results, if there are multiple
@@ -403,16 +439,119 @@ public class PncService {
             return remoteArtifacts.iterator().next();
         }
 
+        return selectArtifact(remoteArtifacts.getAll());
+    }
+
+    /**
+     * <p>
+     * Selects the best matching {@link Artifact} out of the provided candidates.
+     * </p>
+     *
+     * <p>
+     * Artifacts with an associated build are preferred. If there is no such artifact, the newest one (the last one in
+     * the collection) is returned.
+     * </p>
+     *
+     * @param artifacts The candidate {@link Artifact}s
+     * @return The selected {@link Artifact} or {@code null} if there are no candidates.
+     */
+    public static Artifact selectArtifact(Collection<Artifact> artifacts) {
+        if (artifacts == null || artifacts.isEmpty()) {
+            return null;
+        }
+
+        if (artifacts.size() == 1) {
+            return artifacts.iterator().next();
+        }
+
         // First try to select artifacts with an associated build
-        Collection<Artifact> allArtifacts = remoteArtifacts.getAll();
-        Optional<Artifact> artifact = allArtifacts.stream().filter(a -> a.getBuild() != null).findFirst();
+        Optional<Artifact> artifact = artifacts.stream().filter(a -> a.getBuild() != null).findFirst();
         if (artifact.isPresent()) {
-            log.debug("Found {} results, returning the artifact associated with a build", remoteArtifacts.size());
+            log.debug("Found {} results, returning the artifact associated with a build", artifacts.size());
             return artifact.get();
         }
         // If no artifact has a build, return the newest one
-        log.debug("Found {} results, returning newest one", remoteArtifacts.size());
-        return allArtifacts.stream().skip(allArtifacts.size() - 1L).findFirst().orElse(null);
+        log.debug("Found {} results, returning newest one", artifacts.size());
+        return artifacts.stream().skip(artifacts.size() - 1L).findFirst().orElse(null);
+    }
+
+    /**
+     * <p>
+     * Fetches {@link Artifact}s for multiple purls at once. Purls are split into batches of
+     * {@link #ARTIFACT_BATCH_SIZE} and every batch is resolved with a single {@code purl=in=(...)} query.
+     * </p>
+     *
+     * <p>
+     * Purls that cannot be matched exactly (NPM purls in the {@code @redhat} namespace) are ignored, these need to be
+     * looked up with {@link #getArtifact(String, Optional, Optional, Optional)}.
+     * </p>
+     *
+     * <p>
+     * Results (including purls for which nothing was found) are stored in the {@link #purlArtifactsCache}, purls
+     * present in the cache are not queried again.
+     * </p>
+     *
+     * @param purls The purls to search for
+     * @return A map with all {@link Artifact}s found in PNC, grouped by purl. Purls for which nothing was found are not
+     *         present in the map.
+     */
+    public Map<String, List<Artifact>> getArtifacts(Collection<String> purls) {
+        Map<String, List<Artifact>> artifacts = new HashMap<>();
+
+        if (purls == null || purls.isEmpty()) {
+            return artifacts;
+        }
+
+        List<String> batchable = new ArrayList<>();
+
+        purls.stream()
+                .filter(Objects::nonNull)
+                .filter(purl -> !purl.startsWith("pkg:npm/%40redhat/"))
+                .distinct()
+                .forEach(purl -> {
+                    LookupCache.CachedValue<List<Artifact>> cached = purlArtifactsCache.getIfPresent(purl);
+
+                    if (cached == null) {
+                        batchable.add(purl);
+                    } else if (cached.value() != null && !cached.value().isEmpty()) {
+                        artifacts.put(purl, new ArrayList<>(cached.value()));
+                    }
+                });
+
+        for (int i = 0; i < batchable.size(); i += ARTIFACT_BATCH_SIZE) {
+            List<String> batch = batchable.subList(i, Math.min(i + ARTIFACT_BATCH_SIZE, batchable.size()));
+
+            Map<String, List<Artifact>> found = new HashMap<>();
+
+            String rsql = batch.stream()
+                    .map(purl -> "\"" + purl + "\"")
+                    .collect(Collectors.joining(",", "purl=in=(", ")"));
+
+            log.debug("Using following rsql query to search for {} artifacts: '{}'", batch.size(), rsql);
+
+            try {
+                artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(rsql))
+                        .getAll()
+                        .stream()
+                        .filter(artifact -> artifact.getPurl() != null)
+                        .forEach(
+                                artifact -> found.computeIfAbsent(artifact.getPurl(), k -> new ArrayList<>())
+                                        .add(artifact));
+            } catch (RemoteResourceException ex) {
+                throw new ClientException(
+                        "Querying artifacts failed, PNC responded with an error, query: '{}'",
+                        rsql,
+                        ex);
+            }
+
+            // Remember also purls for which nothing was found
+            batch.forEach(purl -> purlArtifactsCache.put(purl, found.getOrDefault(purl, List.of())));
+            artifacts.putAll(found);
+        }
+
+        log.debug("Found artifacts for {} out of {} purls", artifacts.size(), purls.size());
+
+        return artifacts;
     }
 
     /**
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+
+import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
+import org.jboss.sbomer.core.features.sbom.utils.GenerationCacheKey;
+import org.junit.jupiter.api.Test;
+
+class GenerationCacheKeyTest {
+
+    private static final String URL = "https://github.com/project-ncl/sbomer.git";
+
+    @Test
+    void testSameInputsSameKey() {
+        String key = GenerationCacheKey
+                .compute(URL, "abc123", GeneratorType.MAVEN_DOMINO, "0.0.120", "--include-non-managed", "-Pdist");
+
+        assertEquals(64, key.length());
+        assertEquals(
+                key,
+                GenerationCacheKey.compute(
+                        URL,
+                        "abc123",
+                        GeneratorType.MAVEN_DOMINO,
+                        "0.0.120",
+                        "--include-non-managed",
+                        "-Pdist"));
+    }
+
+    @Test
+    void testDifferentInputsDifferentKeys() {
+        String key = GenerationCacheKey.compute(URL, "abc123", GeneratorType.MAVEN_DOMINO, "0.0.120", null, "-Pdist");
+
+        assertNotEquals(
+                key,
+                GenerationCacheKey.compute(URL, "abc124", GeneratorType.MAVEN_DOMINO, "0.0.120", null, "-Pdist"));
+        assertNotEquals(
+                key,
+                GenerationCacheKey.compute(URL, "abc123", GeneratorType.MAVEN_DOMINO, "0.0.121", null, "-Pdist"));
+        assertNotEquals(
+                key,
+                GenerationCacheKey.compute(URL, "abc123", GeneratorType.MAVEN_CYCLONEDX, "0.0.120", null, "-Pdist"));
+        assertNotEquals(
+                key,
+                GenerationCacheKey.compute(URL, "abc123", GeneratorType.MAVEN_DOMINO, "0.0.120", null, "-Pother"));
+        // Values cannot be shifted from one field to another
+        assertNotEquals(
+                GenerationCacheKey.compute(URL, "abc123", GeneratorType.MAVEN_DOMINO, "0.0.120", "-Pdist", null),
+                key);
+    }
+
+    @Test
+    void testUnknownRevision() {
+        assertNull(GenerationCacheKey.compute(URL, null, GeneratorType.MAVEN_DOMINO, "0.0.120", null, null));
+        assertNull(GenerationCacheKey.compute(null, "abc123", GeneratorType.MAVEN_DOMINO, "0.0.120", null, null));
+    }
+
+    @Test
+    void testKeyFile() {
+        assertEquals(
+                Path.of("/data/generate/0/bom.json.cache-key"),
+                GenerationCacheKey.keyFile(Path.of("/data/generate/0/bom.json")));
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.core.cache.LookupCache;
+import org.jboss.sbomer.core.cache.LookupCache.CachedValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+class LookupCacheTest {
+
+    private static final TypeReference<String> TYPE = new TypeReference<>() {
+    };
+
+    @Test
+    void testLoadsOnlyOnce() {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), null, TYPE);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("value0", cache.get("key", () -> "value" + loads.getAndIncrement()));
+        assertEquals("value0", cache.get("key", () -> "value" + loads.getAndIncrement()));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testCachesMissingValues() {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), null, TYPE);
+
+        assertNull(cache.get("key", () -> null));
+
+        CachedValue<String> cached = cache.getIfPresent("key");
+
+        assertNotNull(cached);
+        assertNull(cached.value());
+    }
+
+    @Test
+    void testMissingValuesExpireSooner(@TempDir Path dir) {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), Duration.ZERO, dir, 10, TYPE);
+        LookupCache<String> other = new LookupCache<>("test", 10, Duration.ofHours(1), Duration.ZERO, dir, 10, TYPE);
+
+        cache.put("missing", null);
+        cache.put("key", "value");
+
+        assertNull(cache.getIfPresent("missing"));
+        assertNull(other.getIfPresent("missing"));
+        assertEquals("value", cache.getIfPresent("key").value());
+        assertEquals("value", other.getIfPresent("key").value());
+    }
+
+    @Test
+    void testNegativeTtlDefaultsToShorterOne() {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), null, TYPE);
+
+        cache.put("missing", null);
+
+        // Still valid, the default negative TTL is minutes long
+        assertNotNull(cache.getIfPresent("missing"));
+    }
+
+    @Test
+    void testLimitsEntriesOnDisk(@TempDir Path dir) throws Exception {
+        LookupCache<String> cache = new LookupCache<>("test", 0, Duration.ofHours(1), Duration.ZERO, dir, 2, TYPE);
+
+        for (String key : List.of("a", "b", "c")) {
+            cache.put(key, key.toUpperCase());
+            // Make sure the files have different modification times
+            Thread.sleep(20);
+        }
+
+        try (Stream<Path> files = Files.list(dir.resolve("test"))) {
+            assertEquals(2, files.count());
+        }
+
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("B", cache.getIfPresent("b").value());
+        assertEquals("C", cache.getIfPresent("c").value());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        LookupCache<String> cache = new LookupCache<>("test", 2, Duration.ofHours(1), null, TYPE);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.getIfPresent("a");
+        cache.put("c", "C");
+
+        assertNotNull(cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertNotNull(cache.getIfPresent("c"));
+    }
+
+    @Test
+    void testExpiredEntries() {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ZERO, null, TYPE);
+
+        cache.put("key", "value");
+
+        assertNull(cache.getIfPresent("key"));
+    }
+
+    @Test
+    void testSharesEntriesOnDisk(@TempDir Path dir) {
+        LookupCache<String> first = new LookupCache<>("test", 10, Duration.ofHours(1), dir, TYPE);
+        LookupCache<String> second = new LookupCache<>("test", 10, Duration.ofHours(1), dir, TYPE);
+
+        first.put("key", "value");
+
+        CachedValue<String> cached = second.getIfPresent("key");
+
+        assertNotNull(cached);
+        assertEquals("value", cached.value());
+        assertEquals(1, second.getDiskHits());
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), null, TYPE);
+
+        assertThrows(IOException.class, () -> cache.get("key", () -> {
+            throw new IOException("Unavailable");
+        }));
+        assertEquals("value", cache.get("key", () -> "value"));
+    }
+
+    @Test
+    void testConcurrentLookupsAreCoalesced() throws Exception {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), null, TYPE);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        LookupCache.Loader<String, InterruptedException> loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "value";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> load(cache, loader), executor);
+            loading.await(10, TimeUnit.SECONDS);
+            CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> load(cache, loader), executor);
+
+            // Give the second lookup a chance to find the in-flight load
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("value", first.get(10, TimeUnit.SECONDS));
+            assertEquals("value", second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(1, cache.getCoalesced());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidate(@TempDir Path dir) {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), dir, TYPE);
+
+        cache.put("key", "value");
+        cache.invalidate("key");
+
+        assertNull(cache.getIfPresent("key"));
+    }
+
+    @Test
+    void testInvalidateDuringLoad(@TempDir Path dir) throws Exception {
+        LookupCache<String> cache = new LookupCache<>("test", 10, Duration.ofHours(1), dir, TYPE);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        LookupCache.Loader<String, InterruptedException> loader = () -> {
+            loading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "outdated";
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> load(cache, loader), executor);
+            loading.await(10, TimeUnit.SECONDS);
+
+            // For example the value was changed in the remote system
+            cache.invalidate("key");
+            release.countDown();
+
+            assertEquals("outdated", load.get(10, TimeUnit.SECONDS));
+            assertNull(cache.getIfPresent("key"));
+            assertEquals("current", cache.get("key", () -> "current"));
+            assertEquals("current", cache.getIfPresent("key").value());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDisabledCache() {
+        LookupCache<String> cache = LookupCache.disabled();
+
+        cache.put("key", "value");
+
+        assertNull(cache.getIfPresent("key"));
+    }
+
+    private static String load(LookupCache<String> cache, LookupCache.Loader<String, InterruptedException> loader) {
+        try {
+            return cache.get("key", loader);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
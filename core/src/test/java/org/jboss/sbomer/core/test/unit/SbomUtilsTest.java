@@ -20,14 +20,21 @@ package org.jboss.sbomer.core.test.unit;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.cyclonedx.model.Bom;
@@ -52,7 +59,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.TextNode;
 
 class SbomUtilsTest {
 
@@ -103,6 +112,57 @@ class SbomUtilsTest {
             assertEquals("Apache-2.0", license.get("license").get("id").asText());
         }
 
+        @Test
+        void shouldExtractRootPurlWithoutParsing() throws Exception {
+            String expected = "pkg:maven/org.eclipse.microprofile.graphql/microprofile-graphql-parent"
+                    + "@1.1.0.redhat-00008?type=pom";
+            String bomStr = TestResources.asString(sbomPath("base.json"));
+
+            try (InputStream inputStream = new ByteArrayInputStream(bomStr.getBytes(StandardCharsets.UTF_8))) {
+                assertEquals(expected, SbomUtils.extractRootPurl(inputStream));
+            }
+
+            assertEquals(expected, SbomUtils.extractRootPurl(SbomUtils.toJsonNode(bomStr)));
+            assertEquals(expected, SbomUtils.extractRootPurl(TextNode.valueOf(bomStr)));
+            assertNull(SbomUtils.extractRootPurl(SbomUtils.toJsonNode("{\"components\": []}")));
+        }
+
+        @Test
+        void shouldConvertBetweenJsonNodeAndStreams() throws Exception {
+            Bom bom = SbomUtils.fromPath(sbomPath("base.json"));
+            JsonNode jsonNode = SbomUtils.toJsonNode(bom);
+
+            Bom fromNode = SbomUtils.fromJsonNode(jsonNode);
+            assertNotNull(fromNode);
+            assertEquals(39, fromNode.getComponents().size());
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            SbomUtils.toOutputStream(fromNode, outputStream);
+
+            Bom fromStream = SbomUtils.fromInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+            assertNotNull(fromStream);
+            assertEquals(39, fromStream.getComponents().size());
+            assertEquals(
+                    bom.getMetadata().getComponent().getPurl(),
+                    fromStream.getMetadata().getComponent().getPurl());
+        }
+
+        @Test
+        void shouldComputeContentHashIndependentOfFieldOrder() throws Exception {
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode first = mapper.readTree("{\"a\":1,\"b\":{\"c\":[\"x\",{\"d\":true,\"e\":null}]}}");
+            JsonNode second = mapper.readTree("{\"b\":{\"c\":[\"x\",{\"e\":null,\"d\":true}]},\"a\":1}");
+            JsonNode different = mapper.readTree("{\"a\":1,\"b\":{\"c\":[{\"d\":true,\"e\":null},\"x\"]}}");
+
+            String hash = SbomUtils.contentHash(first);
+
+            assertEquals(64, hash.length());
+            assertEquals(hash, SbomUtils.contentHash(second));
+            assertEquals(hash, SbomUtils.contentHash(new TextNode(second.toString())));
+            assertNotEquals(hash, SbomUtils.contentHash(different));
+            assertNull(SbomUtils.contentHash(null));
+        }
+
         @Test
         void shouldRemoveErrataPropertiesFromBom() {
             Bom bom = SbomUtils.fromPath(sbomPath("sbom_with_errata.json"));
@@ -422,4 +482,99 @@ class SbomUtilsTest {
         assertEquals("pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar", productDeps.get(1).getRef());
         assertEquals("pkg:maven/custom@1.1.0.redhat-00002?type=jar", productDeps.get(2).getRef());
     }
+
+    @Test
+    void testUpdatePurlsWithBomRefs() {
+        Bom bom = new Bom();
+
+        Component main = new Component();
+        main.setPurl("pkg:maven/main/main@1.0.0?type=jar");
+        main.setBomRef("pkg:maven/main/main@1.0.0?type=jar");
+
+        Component first = new Component();
+        first.setPurl("pkg:maven/old/first@1.0.0?type=jar");
+        first.setBomRef("pkg:maven/old/first@1.0.0?type=jar");
+
+        // Same purl as the relocated one already exists as a dependency, bom-ref must not change
+        Component second = new Component();
+        second.setPurl("pkg:maven/old/second@1.0.0?type=jar");
+        second.setBomRef("pkg:maven/old/second@1.0.0?type=jar");
+
+        Component existing = new Component();
+        existing.setPurl("pkg:maven/new/second@1.0.0?type=jar");
+        existing.setBomRef("pkg:maven/new/second@1.0.0?type=jar");
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom.setMetadata(metadata);
+        bom.setComponents(new ArrayList<>(List.of(first, second, existing)));
+
+        Dependency mainDependency = new Dependency(main.getBomRef());
+        mainDependency.addDependency(new Dependency(first.getBomRef()));
+        mainDependency.addDependency(new Dependency(second.getBomRef()));
+
+        Dependency firstDependency = new Dependency(first.getBomRef());
+        firstDependency.setProvides(List.of(new Dependency(existing.getBomRef())));
+
+        bom.setDependencies(
+                List.of(
+                        mainDependency,
+                        firstDependency,
+                        new Dependency(second.getBomRef()),
+                        new Dependency(existing.getBomRef())));
+
+        // Chained relocation for the first component
+        Map<String, String> relocations = new LinkedHashMap<>();
+        relocations.put("pkg:maven/old/first@1.0.0?type=jar", "pkg:maven/mid/first@1.0.0?type=jar");
+        relocations.put("pkg:maven/mid/first@1.0.0?type=jar", "pkg:maven/new/first@1.0.0?type=jar");
+        relocations.put("pkg:maven/old/second@1.0.0?type=jar", "pkg:maven/new/second@1.0.0?type=jar");
+
+        SbomUtils.updatePurls(bom, relocations);
+
+        assertEquals("pkg:maven/new/first@1.0.0?type=jar", first.getPurl());
+        assertEquals("pkg:maven/new/first@1.0.0?type=jar", first.getBomRef());
+        assertEquals("pkg:maven/new/second@1.0.0?type=jar", second.getPurl());
+        assertEquals("pkg:maven/old/second@1.0.0?type=jar", second.getBomRef());
+
+        assertEquals(4, bom.getDependencies().size());
+        assertEquals("pkg:maven/new/first@1.0.0?type=jar", bom.getDependencies().get(1).getRef());
+        assertEquals(
+                "pkg:maven/new/second@1.0.0?type=jar",
+                bom.getDependencies().get(1).getProvides().get(0).getRef());
+        assertEquals("pkg:maven/old/second@1.0.0?type=jar", bom.getDependencies().get(2).getRef());
+
+        List<Dependency> mainDeps = bom.getDependencies().get(0).getDependencies();
+
+        assertEquals("pkg:maven/new/first@1.0.0?type=jar", mainDeps.get(0).getRef());
+        assertEquals("pkg:maven/old/second@1.0.0?type=jar", mainDeps.get(1).getRef());
+    }
+
+    @Test
+    void testUpdatePurlsOfNestedComponents() {
+        Bom bom = new Bom();
+
+        Component main = new Component();
+        main.setPurl("pkg:oci/main@sha256:abc");
+
+        Component nested = new Component();
+        nested.setPurl("pkg:maven/old/nested@1.0.0?type=jar");
+        nested.setBomRef("pkg:maven/old/nested@1.0.0?type=jar");
+
+        Component parent = new Component();
+        parent.setPurl("pkg:maven/old/parent@1.0.0?type=jar");
+        parent.setComponents(new ArrayList<>(List.of(nested)));
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom.setMetadata(metadata);
+        bom.setComponents(new ArrayList<>(List.of(parent)));
+
+        SbomUtils.updatePurls(
+                bom,
+                Map.of("pkg:maven/old/nested@1.0.0?type=jar", "pkg:maven/new/nested@1.0.0?type=jar"));
+
+        assertEquals("pkg:maven/old/parent@1.0.0?type=jar", parent.getPurl());
+        assertEquals("pkg:maven/new/nested@1.0.0?type=jar", nested.getPurl());
+        assertEquals("pkg:maven/new/nested@1.0.0?type=jar", nested.getBomRef());
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jboss.sbomer.core.SchemaValidator;
+import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.json.schema.Validator;
+
+class SchemaValidatorTest {
+
+    @Test
+    void testCompiledResourceIsReused() {
+        Validator validator = SchemaValidator.forResource("schemas/config.json").orElseThrow();
+
+        assertSame(validator, SchemaValidator.forResource("schemas/config.json").orElseThrow());
+    }
+
+    @Test
+    void testMissingResource() {
+        assertTrue(SchemaValidator.forResource("schemas/does-not-exist.json").isEmpty());
+    }
+
+    @Test
+    void testValidateWithCompiledSchema() {
+        Validator validator = SchemaValidator.compile("{\"type\": \"object\", \"required\": [\"name\"]}");
+
+        ValidationResult valid = SchemaValidator.validate(validator, "{\"name\": \"sbomer\"}");
+        ValidationResult invalid = SchemaValidator.validate(validator, "{}");
+
+        assertTrue(valid.isValid());
+        assertFalse(invalid.isValid());
+    }
+}
@@ -18,42 +18,80 @@
 
 package org.jboss.sbomer.service.feature.s3;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.ExponentialBackoff;
+import org.eclipse.microprofile.faulttolerance.Retry;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.NotFoundException;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.GenerationRequest;
 
 import io.quarkus.runtime.StartupEvent;
+import io.quarkus.runtime.configuration.MemorySize;
 import io.quarkus.vertx.ConsumeEvent;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
 @ApplicationScoped
 @Slf4j
 public class S3ClientFacade {
 
+    /**
+     * Smallest part size accepted by S3 for all parts of a multipart upload except the last one.
+     */
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * Content encoding of objects stored compressed.
+     */
+    public static final String GZIP = "gzip";
+
     private S3Client client;
 
+    @ConfigProperty(name = "sbomer.s3.upload.multipart-threshold", defaultValue = "16M")
+    MemorySize multipartThreshold;
+
+    @ConfigProperty(name = "sbomer.s3.upload.part-size", defaultValue = "8M")
+    MemorySize partSize;
+
     @Inject
     FeatureFlags featureFlags;
 
@@ -159,33 +197,164 @@ public class S3ClientFacade {
         log.debug("S3 client configuration is valid");
     }
 
-    public boolean doesObjectExists(String key) {
+    /**
+     * Returns keys of all objects stored in the bucket under a given {@code prefix}. All pages of the listing are
+     * fetched.
+     *
+     * @param prefix the key prefix
+     * @return the set of object keys
+     */
+    @Retry(maxRetries = 3, delay = 500)
+    @ExponentialBackoff(maxDelay = 10, maxDelayUnit = ChronoUnit.SECONDS)
+    public Set<String> objectKeys(String prefix) {
+        ListObjectsV2Request req = ListObjectsV2Request.builder().bucket(bucketName()).prefix(prefix).build();
+
         try {
-            HeadObjectRequest request = HeadObjectRequest.builder().bucket(bucketName()).key(key).build();
-            client.headObject(request);
-            return true;
-        } catch (S3Exception e) {
-            if (e.statusCode() == 404) {
-                return false;
-            } else {
-                throw new ApplicationException("An error occurred when checking if object '{}' exists in S3", key, e);
-            }
+            Set<String> keys = new HashSet<>();
+            client.listObjectsV2Paginator(req).contents().forEach(object -> keys.add(object.key()));
+            return keys;
         } catch (SdkException e) {
-            throw new ApplicationException("An error occurred when checking if object '{}' exists in S3", key, e);
+            throw new ApplicationException("An error occurred when listing objects with '{}' prefix in S3", prefix, e);
         }
     }
 
+    /**
+     * Uploads the file under a given {@code key}. Files larger than the {@code sbomer.s3.upload.multipart-threshold}
+     * are uploaded in parts.
+     *
+     * @param path the file to upload
+     * @param key the object key
+     */
+    @Retry(maxRetries = 3, delay = 500)
+    @ExponentialBackoff(maxDelay = 10, maxDelayUnit = ChronoUnit.SECONDS)
     public void upload(Path path, String key) {
+        doUpload(path, key, null);
+    }
+
+    /**
+     * Uploads the file compressed with {@code gzip} under a given {@code key}. The object is stored with the
+     * {@code gzip} content encoding, so that it can be served to clients as is.
+     *
+     * @param path the file to upload
+     * @param key the object key
+     */
+    @Retry(maxRetries = 3, delay = 500)
+    @ExponentialBackoff(maxDelay = 10, maxDelayUnit = ChronoUnit.SECONDS)
+    public void uploadCompressed(Path path, String key) {
+        Path compressed = null;
+
+        try {
+            compressed = Files.createTempFile("sbomer-upload-", ".gz");
+
+            try (InputStream in = Files.newInputStream(path);
+                    OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                in.transferTo(out);
+            }
+
+            doUpload(compressed, key, GZIP);
+        } catch (IOException e) {
+            throw new ApplicationException("An error occurred when compressing '{}' file", path, e);
+        } finally {
+            if (compressed != null) {
+                try {
+                    Files.deleteIfExists(compressed);
+                } catch (IOException e) {
+                    log.warn("Unable to remove temporary file '{}'", compressed, e);
+                }
+            }
+        }
+    }
+
+    private void doUpload(Path path, String key, String contentEncoding) {
         log.debug("Uploading '{}' file as '{}'...", path, key);
 
+        long size = path.toFile().length();
+
+        if (size > multipartThreshold.asLongValue()) {
+            uploadMultipart(path, key, size, contentEncoding);
+            return;
+        }
+
         try {
-            PutObjectRequest request = PutObjectRequest.builder().key(key).bucket(bucketName()).build();
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .key(key)
+                    .bucket(bucketName())
+                    .contentEncoding(contentEncoding)
+                    .build();
             client.putObject(request, path);
         } catch (SdkException e) {
             throw new ApplicationException("An error occurred when uploading '{}' file to S3", path, e);
         }
     }
 
+    private void uploadMultipart(Path path, String key, long size, String contentEncoding) {
+        long effectivePartSize = Math.max(partSize.asLongValue(), MIN_PART_SIZE);
+
+        log.debug("Uploading '{}' file ({} bytes) in parts of {} bytes", path, size, effectivePartSize);
+
+        String uploadId;
+
+        try {
+            uploadId = client
+                    .createMultipartUpload(
+                            CreateMultipartUploadRequest.builder()
+                                    .bucket(bucketName())
+                                    .key(key)
+                                    .contentEncoding(contentEncoding)
+                                    .build())
+                    .uploadId();
+        } catch (SdkException e) {
+            throw new ApplicationException("An error occurred when starting multipart upload of '{}' file", path, e);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+
+            for (long position = 0; position < size; position += effectivePartSize, partNumber++) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(effectivePartSize, size - position));
+
+                while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                    // Read until the buffer is full
+                }
+
+                buffer.flip();
+
+                UploadPartRequest request = UploadPartRequest.builder()
+                        .bucket(bucketName())
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) buffer.remaining())
+                        .build();
+
+                String eTag = client.uploadPart(request, RequestBody.fromByteBuffer(buffer)).eTag();
+
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            }
+
+            client.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName())
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                            .build());
+        } catch (IOException | SdkException e) {
+            abortMultipart(key, uploadId);
+            throw new ApplicationException("An error occurred when uploading '{}' file to S3 in parts", path, e);
+        }
+    }
+
+    private void abortMultipart(String key, String uploadId) {
+        try {
+            client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder().bucket(bucketName()).key(key).uploadId(uploadId).build());
+        } catch (SdkException e) {
+            log.warn("Unable to abort multipart upload '{}' of '{}'", uploadId, key, e);
+        }
+    }
+
     /**
      * Returns list of paths within the S3 bucket to log files for a given {@link GenerationRequest} identifier.
      *
@@ -214,18 +383,50 @@ public class S3ClientFacade {
     }
 
     /**
-     * Returns list of paths within the S3 bucket to log files for a given {@link GenerationRequest} identifier.
+     * Returns the log file on the provided path for a given {@link GenerationRequest} identifier.
      *
      * @param generationRequestId the generation request identifier
-     * @return the path
+     * @param path the path of the log file
+     * @return the log object
      */
-    public String log(String generationRequestId, String path) {
+    public LogObject logObject(String generationRequestId, String path) {
+        String key = generationRequestId + "/" + path;
 
-        GetObjectRequest req = GetObjectRequest.builder()
-                .bucket(bucketName())
-                .key(generationRequestId + "/" + path)
-                .build();
+        try {
+            HeadObjectResponse head = client
+                    .headObject(HeadObjectRequest.builder().bucket(bucketName()).key(key).build());
+
+            return new LogObject(key, head.contentLength(), GZIP.equalsIgnoreCase(head.contentEncoding()));
+        } catch (NoSuchKeyException e) {
+            throw new NotFoundException(
+                    "Log file '{}' of GenerationRequest '{}' could not be found",
+                    path,
+                    generationRequestId);
+        } catch (SdkException e) {
+            throw new ApplicationException("An error occurred when reading '{}' object from S3", key, e);
+        }
+    }
 
-        return client.getObjectAsBytes(req).asUtf8String();
+    /**
+     * Opens a stream with the stored content (compressed, in case it is stored so) of the log object, from
+     * {@code start} to {@code end} (inclusive). Only the requested range is downloaded.
+     *
+     * @param log the log object
+     * @param start the first byte to read
+     * @param end the last byte to read, or {@code -1} to read until the end
+     * @return the stream, which has to be closed by the caller
+     */
+    public InputStream logContent(LogObject log, long start, long end) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucketName()).key(log.key());
+
+        if (start > 0 || end >= 0) {
+            request.range("bytes=" + start + "-" + (end >= 0 ? end : ""));
+        }
+
+        try {
+            return client.getObject(request.build());
+        } catch (SdkException e) {
+            throw new ApplicationException("An error occurred when reading '{}' object from S3", log.key(), e);
+        }
     }
 }
@@ -20,21 +20,38 @@ package org.jboss.sbomer.service.feature.s3;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.errors.NotFoundException;
 import org.jboss.sbomer.core.errors.ServiceUnavailableException;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -55,6 +72,36 @@ public class S3StorageHandler {
     @Inject
     SbomService sbomService;
 
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "sbomer.s3.upload.concurrency", defaultValue = "4")
+    int concurrency;
+
+    /**
+     * Whether log files are stored compressed with {@code gzip}.
+     */
+    @ConfigProperty(name = "sbomer.s3.upload.compress-logs", defaultValue = "true")
+    boolean compressLogs;
+
+    /**
+     * Uploads which are currently in progress, by generation request identifier.
+     */
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(concurrency);
+        registry.gaugeMapSize("sbomer.s3.upload.in.flight", Tags.empty(), inFlight);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
     /**
      * Returns all paths to files found under a given {@code rootDirectory}.
      *
@@ -90,7 +137,7 @@ public class S3StorageHandler {
 
                 log.debug("Examining path '{}'...", fileName);
 
-                if (fileName.startsWith(".")) {
+                if (fileName.toString().startsWith(".")) {
                     log.debug("Skipping '{}', because it's a hidden file", fileName);
                 } else {
                     if (Files.isDirectory(path)) {
@@ -106,17 +153,26 @@ public class S3StorageHandler {
     }
 
     /**
+     * <p>
      * Stores all files generated by a particular {@code GenerationRequest}. This includes logs and potentially other
      * artifacts as well. Does not re-upload the file if it already exists in the storage.
+     * </p>
+     *
+     * <p>
+     * Files are uploaded asynchronously, with at most {@code sbomer.s3.upload.concurrency} uploads running at the
+     * same time. Existing objects are found with a single listing of the generation request prefix. Requesting an
+     * upload for a generation request which is already being uploaded returns the upload in progress.
+     * </p>
      *
      * @param generationRequest The {@code GenerationRequest}
+     * @return the future completed once all files are stored
      */
-    public void storeFiles(GenerationRequest generationRequest) {
+    public CompletableFuture<Void> storeFiles(GenerationRequest generationRequest) {
         if (!featureFlags.s3Storage()) {
             log.warn(
                     "Storing data in S3 is disabled, won't store results for GenerationRequest '{}'",
                     generationRequest.getId());
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         client.ensureClient();
@@ -125,9 +181,24 @@ public class S3StorageHandler {
             throw new ApplicationException("No GenerationRequest provided!");
         }
 
+        // The upload is started only after it is registered, so that it can't complete (and unregister itself) while
+        // still being registered
+        CompletableFuture<Void> trigger = new CompletableFuture<>();
+        CompletableFuture<Void> upload = inFlight.computeIfAbsent(
+                generationRequest.getId(),
+                id -> trigger.thenComposeAsync(v -> uploadFiles(generationRequest), executor)
+                        .whenComplete((result, e) -> inFlight.remove(id)));
+
+        trigger.complete(null);
+
+        return upload;
+    }
+
+    private CompletableFuture<Void> uploadFiles(GenerationRequest generationRequest) {
         log.info("Storing data in S3 for Generation request '{}'", generationRequest.getId());
 
-        Path generationRootDir = Path.of(controllerConfig.sbomDir(), generationRequest.getMetadata().getName());
+        Timer.Sample sample = Timer.start(registry);
+        Path generationRootDir = generationDir(generationRequest.getMetadata().getName());
 
         log.debug("Using '{}' directory to scan for files to be uploaded to S3", generationRootDir.toAbsolutePath());
 
@@ -135,15 +206,43 @@ public class S3StorageHandler {
 
         log.debug("Found {} files: {}", filePaths.size(), filePaths);
 
-        filePaths.forEach(path -> {
+        Set<String> existingKeys = client.objectKeys(generationRequest.getId() + "/");
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+
+        for (Path path : filePaths) {
             String key = String.join("/", generationRequest.getId(), generationRootDir.relativize(path).toString());
 
-            if (!client.doesObjectExists(key)) {
-                client.upload(path, key);
+            if (existingKeys.contains(key)) {
+                log.debug("File '{}' is already stored, skipping", key);
+                registry.counter("sbomer.s3.upload.files", "result", "skipped").increment();
+                continue;
             }
+
+            uploads.add(CompletableFuture.runAsync(() -> uploadFile(path, key), executor));
+        }
+
+        return CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).whenComplete((result, e) -> {
+            String outcome = e == null ? "success" : "failure";
+            sample.stop(registry.timer("sbomer.s3.upload.duration", "result", outcome));
         });
     }
 
+    private void uploadFile(Path path, String key) {
+        try {
+            if (compressLogs && isLog(key)) {
+                client.uploadCompressed(path, key);
+            } else {
+                client.upload(path, key);
+            }
+        } catch (RuntimeException e) {
+            registry.counter("sbomer.s3.upload.files", "result", "failed").increment();
+            throw e;
+        }
+
+        registry.counter("sbomer.s3.upload.files", "result", "uploaded").increment();
+        registry.counter("sbomer.s3.upload.bytes").increment(path.toFile().length());
+    }
+
     /**
      * Returns list of paths within the S3 bucket to log files for a given {@link GenerationRequest} identifier.
      *
@@ -167,24 +266,82 @@ public class S3StorageHandler {
     }
 
     /**
-     * Gets the log file for a given {@link GenerationRequest} and the requested path.
+     * Gets the log file stored in S3 for a given {@link GenerationRequest} and the requested path.
      *
      * @param generationRequestId the generation request identifier
-     * @return the log file content
+     * @param path the path of the log file
+     * @return the log object
      */
-    public String getLog(String generationRequestId, String path) {
-        SbomGenerationRequest generationRequest = SbomGenerationRequest.findById(generationRequestId); // NOSONAR
+    public LogObject getLog(String generationRequestId, String path) {
+        if (!isFinished(generationRequestId)) {
+            throw new ServiceUnavailableException(
+                    "Log files cannot be returned, because the GenerationRequest '{}' did not finish yet",
+                    generationRequestId);
+        }
 
-        if (generationRequest == null) {
-            throw new NotFoundException("GenerationRequest with id '{}' could not be found", generationRequestId);
+        return client.logObject(generationRequestId, path);
+    }
+
+    /**
+     * Opens a stream with the stored content of the log object, from {@code start} to {@code end} (inclusive).
+     *
+     * @param log the log object
+     * @param start the first byte to read
+     * @param end the last byte to read, or {@code -1} to read until the end
+     * @return the stream, which has to be closed by the caller
+     */
+    public InputStream openLog(LogObject log, long start, long end) {
+        return client.logContent(log, start, end);
+    }
+
+    /**
+     * Returns the log file of a {@link GenerationRequest} which is still running, as written by the generation on the
+     * shared volume.
+     *
+     * @param generationRequestId the generation request identifier
+     * @param path the path of the log file
+     * @return the path of the log file on the shared volume
+     */
+    public Path getRunningLog(String generationRequestId, String path) {
+        Path generationDir = generationDir(GenerationRequestBuilder.resourceName(generationRequestId));
+        Path logFile = generationDir.resolve(path).normalize();
+
+        if (!logFile.startsWith(generationDir) || !isLog(generationRequestId + "/" + path)) {
+            throw new ClientException("Invalid log file path '{}'", path);
         }
 
-        if (!generationRequest.getStatus().isFinal()) {
-            throw new ServiceUnavailableException(
-                    "Log files cannot be returned, because the GenerationRequest '{}' did not finish yet",
+        if (!Files.isRegularFile(logFile)) {
+            throw new NotFoundException(
+                    "Log file '{}' of GenerationRequest '{}' could not be found",
+                    path,
                     generationRequestId);
         }
 
-        return client.log(generationRequestId, path);
+        return logFile;
+    }
+
+    /**
+     * Checks whether the {@link GenerationRequest} reached a final status. Can be called outside of a transaction.
+     *
+     * @param generationRequestId the generation request identifier
+     * @return {@code true} if the generation request finished
+     */
+    public boolean isFinished(String generationRequestId) {
+        SbomGenerationRequest generationRequest = QuarkusTransaction.joiningExisting()
+                .call(() -> SbomGenerationRequest.findById(generationRequestId)); // NOSONAR
+
+        if (generationRequest == null) {
+            throw new NotFoundException("GenerationRequest with id '{}' could not be found", generationRequestId);
+        }
+
+        return generationRequest.getStatus().isFinal();
+    }
+
+    private Path generationDir(String resourceName) {
+        return Path.of(controllerConfig.sbomDir(), resourceName);
+    }
+
+    private static boolean isLog(String key) {
+        return key.contains("/logs/");
     }
 }
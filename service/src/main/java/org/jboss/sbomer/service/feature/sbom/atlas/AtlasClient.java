@@ -17,6 +17,7 @@
  */
 package org.jboss.sbomer.service.feature.sbom.atlas;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.cyclonedx.model.Bom;
@@ -31,10 +32,12 @@ import io.quarkus.rest.client.reactive.ClientExceptionMapper;
 import io.smallrye.reactive.messaging.annotations.Blocking;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -53,6 +56,16 @@ public interface AtlasClient {
     @PUT
     void upload(@QueryParam("id") String purl, JsonNode bom);
 
+    /**
+     * Uploads an already serialized manifest, encoded with the provided {@code contentEncoding} (for example
+     * {@code gzip}).
+     */
+    @PUT
+    void upload(
+            @QueryParam("id") String purl,
+            @HeaderParam(HttpHeaders.CONTENT_ENCODING) String contentEncoding,
+            InputStream bom);
+
     @ClientExceptionMapper
     @Blocking
     static RuntimeException toException(Response response) {
@@ -17,26 +17,62 @@
  */
 package org.jboss.sbomer.service.feature.sbom.atlas;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.cyclonedx.model.Bom;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.errors.FeatureDisabledException;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * <p>
+ * Publishes manifests to Atlas.
+ * </p>
+ *
+ * <p>
+ * Manifests are recorded in the {@link AtlasOutbox} first and uploaded asynchronously, with at most
+ * {@code sbomer.atlas.upload.concurrency} uploads running at the same time. A failed upload does not affect other
+ * manifests; it is retried periodically with a backoff, also after a restart.
+ * </p>
+ */
 @Setter
 @ApplicationScoped
 @Slf4j
 public class AtlasHandler {
+
+    public static final String CONTENT_ENCODING_GZIP = "gzip";
+
     @Inject
     @RestClient
     AtlasBuildClient atlasBuildClient;
@@ -44,20 +80,63 @@ public class AtlasHandler {
     @Inject
     FeatureFlags featureFlags;
 
+    @Inject
+    AtlasOutbox outbox;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "sbomer.atlas.upload.concurrency", defaultValue = "4")
+    int concurrency;
+
+    @ConfigProperty(name = "sbomer.atlas.upload.compress", defaultValue = "false")
+    boolean compress;
+
+    @ConfigProperty(name = "sbomer.atlas.upload.batch-size", defaultValue = "50")
+    int batchSize;
+
+    /**
+     * Uploads which are currently in progress, by outbox entry identifier.
+     */
+    private final Map<Long, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(concurrency);
+        registry.gaugeMapSize("sbomer.atlas.upload.in.flight", Tags.empty(), inFlight);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
     public Bom retrieveBuildManifest(String purl) {
         return atlasBuildClient.get(purl);
     }
 
-    public void publishBuildManifests(List<Sbom> sboms) {
+    /**
+     * Records the provided manifests in the outbox and starts uploading them.
+     *
+     * @param sboms the manifests to publish
+     * @return a future completed once all upload attempts are done; failed uploads do not complete it exceptionally,
+     *         these are retried later
+     */
+    public CompletableFuture<Void> publishBuildManifests(List<Sbom> sboms) {
         if (sboms == null) {
             log.warn(
                     "Manifest list is not provided, this is unexpected, Atlas will not be populated with manifest, but continuing");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         if (sboms.isEmpty()) {
             log.warn("No manifests provided to upload to Atlas, nothing will be published");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         if (!featureFlags.atlasPublish()) {
@@ -66,13 +145,112 @@ public class AtlasHandler {
                     sboms.stream().map(Sbom::getId).collect(Collectors.joining(", ")));
         }
 
+        List<OutboxEntry> entries = outbox.enqueue(sboms);
+
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return dispatch(entries, sboms);
+        }
+
+        // The outbox entries (and the manifests) are not visible to other transactions before this one commits
+        CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // Nothing to do
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    committed.complete(null);
+                } else {
+                    log.warn("Transaction was not committed, {} manifests will not be uploaded", sboms.size());
+                    committed.cancel(false);
+                }
+            }
+        });
+
+        return committed.thenCompose(v -> dispatch(entries, sboms));
+    }
+
+    /**
+     * Retries uploads of manifests which failed previously or were interrupted by a restart.
+     */
+    @Scheduled(
+            every = "${sbomer.atlas.upload.retry-interval:60s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void publishPending() {
+        if (!featureFlags.atlasPublish()) {
+            return;
+        }
+
+        List<OutboxEntry> entries = outbox.due(batchSize);
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        log.info("Retrying upload of {} manifests to Atlas", entries.size());
+
+        for (OutboxEntry entry : entries) {
+            if (inFlight.containsKey(entry.getId())) {
+                continue;
+            }
+
+            Sbom sbom = outbox.manifest(entry);
+
+            if (sbom == null) {
+                log.warn("Manifest '{}' does not exist anymore, it will not be uploaded to Atlas", entry.getSbomId());
+                outbox.uploaded(entry.getId());
+                continue;
+            }
+
+            dispatch(entry, sbom);
+        }
+    }
+
+    private CompletableFuture<Void> dispatch(List<OutboxEntry> entries, List<Sbom> sboms) {
         log.info("Uploading {} manifests...", sboms.size());
 
-        for (Sbom sbom : sboms) {
-            uploadBuildManifest(sbom);
+        CompletableFuture<?>[] uploads = new CompletableFuture<?>[entries.size()];
+
+        for (int i = 0; i < entries.size(); i++) {
+            uploads[i] = dispatch(entries.get(i), sboms.get(i));
         }
 
-        log.info("Upload complete!");
+        return CompletableFuture.allOf(uploads);
+    }
+
+    private CompletableFuture<Void> dispatch(OutboxEntry entry, Sbom sbom) {
+        // The upload is started only after it is registered, so that it cannot be unregistered before
+        CompletableFuture<Void> trigger = new CompletableFuture<>();
+        CompletableFuture<Void> upload = inFlight.computeIfAbsent(
+                entry.getId(),
+                id -> trigger.thenRunAsync(() -> attemptUpload(entry, sbom), executor)
+                        .whenComplete((result, e) -> inFlight.remove(id)));
+
+        trigger.complete(null);
+
+        return upload;
+    }
+
+    private void attemptUpload(OutboxEntry entry, Sbom sbom) {
+        Timer.Sample sample = Timer.start(registry);
+        String result = "uploaded";
+
+        try {
+            uploadBuildManifest(sbom);
+            outbox.uploaded(entry.getId());
+        } catch (Exception e) {
+            result = "failed";
+
+            // The outbox reschedules the upload, or gives up after too many attempts
+            log.warn("Unable to upload manifest '{}' to Atlas", sbom.getId(), e);
+            outbox.failed(entry.getId(), e.getMessage());
+        } finally {
+            sample.stop(registry.timer("sbomer.atlas.upload.duration", "result", result));
+        }
     }
 
     protected void uploadBuildManifest(Sbom sbom) {
@@ -80,7 +258,11 @@ public class AtlasHandler {
 
         try {
             // Store it!
-            atlasBuildClient.upload(sbom.getRootPurl(), sbom.getSbom());
+            if (compress) {
+                atlasBuildClient.upload(sbom.getRootPurl(), CONTENT_ENCODING_GZIP, compressed(sbom));
+            } else {
+                atlasBuildClient.upload(sbom.getRootPurl(), sbom.getSbom());
+            }
         } catch (ClientException e) {
             throw new ApplicationException(
                     "Unable to store '{}' manifest in Atlas, purl: '{}': {}",
@@ -92,4 +274,16 @@ public class AtlasHandler {
 
         log.info("Manifest {} uploaded!", sbom.getId());
     }
+
+    private static ByteArrayInputStream compressed(Sbom sbom) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            ObjectMapperProvider.json().writeValue(gzip, sbom.getSbom());
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to compress '{}' manifest", sbom.getId(), e);
+        }
+
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
 }
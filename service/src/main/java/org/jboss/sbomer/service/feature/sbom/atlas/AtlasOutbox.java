@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.atlas;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry.Kind;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.outbox.Outbox;
+import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.Setter;
+
+/**
+ * <p>
+ * Durable queue of manifests to be published to Atlas, the {@link Kind#ATLAS} entries of the {@link Outbox}.
+ * </p>
+ *
+ * <p>
+ * Failed uploads are retried with an exponential backoff, up to {@code sbomer.atlas.upload.max-attempts} times.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+public class AtlasOutbox extends Outbox {
+
+    @Inject
+    SbomRepository sbomRepository;
+
+    @ConfigProperty(name = "sbomer.atlas.upload.max-attempts", defaultValue = "10")
+    int maxAttempts;
+
+    @ConfigProperty(name = "sbomer.atlas.upload.initial-backoff", defaultValue = "PT30S")
+    Duration initialBackoff;
+
+    @ConfigProperty(name = "sbomer.atlas.upload.max-backoff", defaultValue = "PT1H")
+    Duration maxBackoff;
+
+    @ConfigProperty(name = "sbomer.atlas.upload.claim-timeout", defaultValue = "PT10M")
+    Duration claimTimeout;
+
+    @Override
+    protected Kind kind() {
+        return Kind.ATLAS;
+    }
+
+    @Override
+    protected int maxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    protected Duration initialBackoff() {
+        return initialBackoff;
+    }
+
+    @Override
+    protected Duration maxBackoff() {
+        return maxBackoff;
+    }
+
+    @Override
+    protected Duration claimTimeout() {
+        return claimTimeout;
+    }
+
+    /**
+     * Records the provided manifests as waiting to be published. The caller is expected to attempt the upload right
+     * away, so the entries are claimed for it: the first automatic retry is scheduled after the claim timeout.
+     *
+     * @param sboms the manifests to publish
+     * @return the created entries, in the same order as the manifests
+     */
+    public List<OutboxEntry> enqueue(List<Sbom> sboms) {
+        return add(sboms, claimTimeout);
+    }
+
+    /**
+     * Returns the manifest of the given entry.
+     *
+     * @param entry the outbox entry
+     * @return the manifest or {@code null} if it does not exist anymore
+     */
+    @Transactional
+    public Sbom manifest(OutboxEntry entry) {
+        return sbomRepository.findById(entry.getSbomId());
+    }
+
+    /**
+     * Removes the entry after the manifest was uploaded successfully.
+     *
+     * @param id the entry identifier
+     */
+    public void uploaded(Long id) {
+        remove(List.of(id));
+    }
+
+    /**
+     * Records a failed upload attempt and schedules the next one.
+     *
+     * @param id the entry identifier
+     * @param error the reason of the failure
+     * @return the updated entry or {@code null} if it does not exist anymore
+     */
+    public OutboxEntry failed(Long id, String error) {
+        return fail(Map.of(id, error)).stream().findFirst().orElse(null);
+    }
+}
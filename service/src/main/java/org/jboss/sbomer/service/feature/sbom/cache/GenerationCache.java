@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.cache;
+
+import java.time.Instant;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.sbom.model.GenerationCacheEntry;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Cache of generated manifests, backed by the {@code generation_cache} table.
+ * </p>
+ *
+ * <p>
+ * Generators compute a key from the source revision and the generator settings (see
+ * {@link org.jboss.sbomer.core.features.sbom.utils.GenerationCacheKey}) and look it up before cloning the sources. On a
+ * hit the cached manifest is used as the generation result. Manifests are recorded under their key once stored.
+ * </p>
+ *
+ * <p>
+ * Lookups are counted in the {@code sbomer.generation.cache.lookups} counter (tagged with {@code result} being
+ * {@code hit} or {@code miss}) and the ratio of hits since the start of the service is available in the
+ * {@code sbomer.generation.cache.hit.ratio} gauge.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+@Slf4j
+public class GenerationCache {
+
+    @Inject
+    SbomRepository sbomRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "sbomer.generation.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        hits = registry.counter("sbomer.generation.cache.lookups", "result", "hit");
+        misses = registry.counter("sbomer.generation.cache.lookups", "result", "miss");
+
+        registry.gauge("sbomer.generation.cache.hit.ratio", this, GenerationCache::hitRatio);
+    }
+
+    /**
+     * @return the ratio of lookups which were hits since the start of the service, {@code 0} if there were no lookups
+     */
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Finds the manifest generated with the provided key.
+     *
+     * @param cacheKey the cache key
+     * @return the manifest or {@code null} if there is none
+     */
+    @Transactional
+    public Sbom lookup(String cacheKey) {
+        if (!enabled) {
+            return null;
+        }
+
+        GenerationCacheEntry entry = GenerationCacheEntry.findById(cacheKey);
+        Sbom sbom = entry == null ? null : sbomRepository.findById(entry.getSbomId());
+
+        if (sbom == null) {
+            if (entry != null) {
+                log.debug("Manifest '{}' cached with key '{}' does not exist anymore", entry.getSbomId(), cacheKey);
+                entry.delete();
+            }
+
+            misses.increment();
+            return null;
+        }
+
+        GenerationCacheEntry.update("hits = hits + 1, lastHitTime = ?1 where cacheKey = ?2", Instant.now(), cacheKey);
+        hits.increment();
+
+        log.debug("Generation cache hit for key '{}', manifest: '{}'", cacheKey, sbom.getId());
+
+        return sbom;
+    }
+
+    /**
+     * <p>
+     * Records the manifest as the result of the generation with the provided key, replacing the manifest recorded with
+     * this key before, if any.
+     * </p>
+     *
+     * <p>
+     * The entry is written in a separate transaction and failures are only logged, so that caching never fails storing
+     * the manifest. A failure is expected when another generation with the same key records its manifest at the same
+     * time, in which case the manifest of the other generation is kept. If the manifest is not stored in the end, the
+     * entry is removed on the next lookup.
+     * </p>
+     *
+     * @param cacheKey the cache key
+     * @param sbomId the identifier of the manifest
+     */
+    public void record(String cacheKey, String sbomId) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            QuarkusTransaction.requiringNew().run(() -> upsert(cacheKey, sbomId));
+        } catch (RuntimeException e) {
+            log.warn("Unable to record manifest '{}' in the generation cache with key '{}'", sbomId, cacheKey, e);
+        }
+    }
+
+    private void upsert(String cacheKey, String sbomId) {
+        GenerationCacheEntry entry = GenerationCacheEntry.findById(cacheKey);
+
+        if (entry != null) {
+            entry.setSbomId(sbomId);
+            entry.setCreationTime(Instant.now());
+            return;
+        }
+
+        entry = new GenerationCacheEntry();
+        entry.setCacheKey(cacheKey);
+        entry.setSbomId(sbomId);
+        entry.setCreationTime(Instant.now());
+        entry.persist();
+    }
+}
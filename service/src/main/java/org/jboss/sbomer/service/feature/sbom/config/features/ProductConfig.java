@@ -66,8 +66,17 @@ public class ProductConfig {
          * @return The {@link ErrataProductConfig} object or {@code null} if data cannot be found.
          */
         public static ErrataProductConfig fromBom(Bom bom) {
-            Component component = bom.getMetadata().getComponent();
+            return fromComponent(bom.getMetadata().getComponent());
+        }
 
+        /**
+         * Generates the {@link ErrataProductConfig} object based on the properties of the provided main component.
+         *
+         * @param component The main {@link Component} of a manifest
+         * @return The {@link ErrataProductConfig} object or {@code null} if data cannot be found.
+         * @see #fromBom(Bom)
+         */
+        public static ErrataProductConfig fromComponent(Component component) {
             Optional<Property> productName = SbomUtils
                     .findPropertyWithNameInComponent(PROPERTY_ERRATA_PRODUCT_NAME, component);
             Optional<Property> productVersion = SbomUtils
@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.sbomer.core.cache.LookupCache;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataProduct;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataRelease;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
+import org.jboss.sbomer.service.feature.sbom.runtime.ClientCacheUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.Setter;
+
+/**
+ * <p>
+ * Caching facade over the {@link ErrataClient}.
+ * </p>
+ *
+ * <p>
+ * Every resource type is cached for its own time to live: advisories and their builds change when the advisory
+ * moves through its workflow and are cached only briefly, mostly to share the lookups made while handling a single
+ * event (or concurrent events for the same advisory). Products, releases, variants and CDN repositories are cached
+ * for longer. Concurrent identical requests are coalesced into a single request to Errata.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+public class CachingErrataClient {
+
+    @Inject
+    @RestClient
+    ErrataClient errataClient;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "sbomer.errata.cache.erratum-ttl", defaultValue = "PT10S")
+    Duration erratumTtl;
+
+    @ConfigProperty(name = "sbomer.errata.cache.reference-ttl", defaultValue = "PT1H")
+    Duration referenceTtl;
+
+    @ConfigProperty(name = "sbomer.errata.cache.max-size", defaultValue = "1000")
+    int maxSize;
+
+    @ConfigProperty(name = "sbomer.errata.page-concurrency", defaultValue = "4")
+    int pageConcurrency;
+
+    LookupCache<Errata> errata;
+
+    LookupCache<ErrataBuildList> buildLists;
+
+    LookupCache<ErrataProduct> products;
+
+    LookupCache<ErrataRelease> releases;
+
+    LookupCache<ErrataVariant> variants;
+
+    LookupCache<Collection<ErrataCDNRepoNormalized>> cdnRepos;
+
+    ExecutorService pageExecutor;
+
+    @PostConstruct
+    void init() {
+        errata = ClientCacheUtils.create(registry, "errata-erratum", erratumTtl, maxSize);
+        buildLists = ClientCacheUtils.create(registry, "errata-builds-list", erratumTtl, maxSize);
+        products = ClientCacheUtils.create(registry, "errata-product", referenceTtl, maxSize);
+        releases = ClientCacheUtils.create(registry, "errata-release", referenceTtl, maxSize);
+        variants = ClientCacheUtils.create(registry, "errata-variant", referenceTtl, maxSize);
+        cdnRepos = ClientCacheUtils.create(registry, "errata-cdn-repos", referenceTtl, maxSize);
+        pageExecutor = Executors.newFixedThreadPool(pageConcurrency);
+    }
+
+    @PreDestroy
+    void cleanup() {
+        pageExecutor.shutdownNow();
+    }
+
+    public Errata getErratum(String erratumId) {
+        return errata.get(erratumId, () -> errataClient.getErratum(erratumId));
+    }
+
+    public ErrataBuildList getBuildsList(String erratumId) {
+        return buildLists.get(erratumId, () -> errataClient.getBuildsList(erratumId));
+    }
+
+    public ErrataProduct getProduct(String productId) {
+        return products.get(productId, () -> errataClient.getProduct(productId));
+    }
+
+    public ErrataRelease getRelease(String releaseId) {
+        return releases.get(releaseId, () -> errataClient.getRelease(releaseId));
+    }
+
+    public ErrataVariant getVariant(String variantId) {
+        return variants.get(variantId, () -> errataClient.getVariant(variantId));
+    }
+
+    public Collection<ErrataCDNRepoNormalized> getCDNReposOfVariant(String variantName, String shortProductName) {
+        return cdnRepos.get(
+                List.of(variantName, shortProductName).toString(),
+                () -> errataClient.getCDNReposOfVariant(variantName, shortProductName, pageExecutor));
+    }
+
+    /**
+     * Adds a comment to the advisory. This is never cached; the cached advisory is dropped so that the comment is
+     * visible to subsequent lookups.
+     */
+    public Errata addCommentToErratum(String erratumId, String comment) {
+        try {
+            return errataClient.addCommentToErratum(erratumId, comment);
+        } finally {
+            errata.invalidate(erratumId);
+        }
+    }
+}
@@ -23,6 +23,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -152,9 +155,18 @@ public interface ErrataClient {
     }
 
     default Collection<ErrataCDNRepoNormalized> getCDNReposOfVariant(String variantName, String shortProductName) {
+        return getCDNReposOfVariant(variantName, shortProductName, Runnable::run);
+    }
+
+    // Same as above, pages after the first one are fetched using the provided executor
+    default Collection<ErrataCDNRepoNormalized> getCDNReposOfVariant(
+            String variantName,
+            String shortProductName,
+            Executor executor) {
         Collection<ErrataCDNRepo> allCDNRepos = getAllEntities(
                 Map.of("filter[variant_name]", variantName),
-                this::getAllCDNRepos);
+                this::getAllCDNRepos,
+                executor);
 
         return allCDNRepos.stream()
                 .filter(
@@ -169,23 +181,50 @@ public interface ErrataClient {
     default <T> Collection<T> getAllEntities(
             Map<String, String> filters,
             Function<ErrataQueryParameters, ErrataPage<T>> getPageFunction) {
-        ErrataQueryParameters parameters = ErrataQueryParameters.builder().withFilters(filters).build();
+        return getAllEntities(filters, getPageFunction, Runnable::run);
+    }
+
+    // The first page tells how many pages there are, the remaining ones are fetched using the provided executor. The
+    // order of entities is preserved.
+    default <T> Collection<T> getAllEntities(
+            Map<String, String> filters,
+            Function<ErrataQueryParameters, ErrataPage<T>> getPageFunction,
+            Executor executor) {
+        ErrataPage<T> firstPage = getPageFunction
+                .apply(ErrataQueryParameters.builder().withFilters(filters).withPageNumber(1).build());
+
+        List<CompletableFuture<ErrataPage<T>>> pages = new ArrayList<>();
+        pages.add(CompletableFuture.completedFuture(firstPage));
+
+        int totalPages = firstPage.getPage().getTotalPages();
+
+        for (int pageNumber = firstPage.getPage().getPageNumber() + 1; pageNumber <= totalPages; pageNumber++) {
+            ErrataQueryParameters parameters = ErrataQueryParameters.builder()
+                    .withFilters(filters)
+                    .withPageNumber(pageNumber)
+                    .build();
+            pages.add(CompletableFuture.supplyAsync(() -> getPageFunction.apply(parameters), executor));
+        }
 
         Collection<T> entities = new ArrayList<>();
-        int currentPage;
-        int totalPages;
 
-        do {
-            ErrataPage<T> response = getPageFunction.apply(parameters);
+        for (CompletableFuture<ErrataPage<T>> page : pages) {
+            ErrataPage<T> response;
+
+            try {
+                response = page.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+
+                throw e;
+            }
 
             if (response.getData() != null && !response.getData().isEmpty()) {
                 entities.addAll(response.getData());
             }
-
-            currentPage = response.getPage().getPageNumber() + 1;
-            totalPages = response.getPage().getTotalPages();
-            parameters.setPageNumber(currentPage);
-        } while (currentPage <= totalPages);
+        }
 
         return entities;
     }
@@ -17,11 +17,7 @@
  */
 package org.jboss.sbomer.service.feature.sbom.errata;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Objects;
 
 import org.jboss.sbomer.core.SchemaValidator;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
@@ -52,17 +48,11 @@ public class ErrataNotesSchemaValidator implements Validator<Errata> {
                     .withErrors(List.of("The errata advisory does not have notes"))
                     .build();
         }
-        String schema;
 
-        try (InputStream is = SchemaValidator.class.getClassLoader()
-                .getResourceAsStream("schemas/appsvc-metadata.schema.json")) {
-            Objects.requireNonNull(is);
-            schema = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new ApplicationException("Could not read the configuration file schema", e);
-        }
-
-        return SchemaValidator.validate(schema, errata.getContent().getContent().getNotes().trim());
+        return SchemaValidator.validate(
+                SchemaValidator.forResource("schemas/appsvc-metadata.schema.json")
+                        .orElseThrow(() -> new ApplicationException("Could not find the advisory notes schema")),
+                errata.getContent().getContent().getNotes().trim());
     }
 
 }
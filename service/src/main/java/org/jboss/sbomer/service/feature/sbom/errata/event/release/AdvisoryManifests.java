@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata.event.release;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1GenerationRecord;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestManifestRecord;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestRecord;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+
+/**
+ * <p>
+ * The build manifests of an advisory, indexed by the generation which produced them.
+ * </p>
+ *
+ * <p>
+ * Manifests are loaded and parsed at most once, so that the same content can be shared between all the product
+ * versions of the advisory. Lookups are safe to be done concurrently; note that loading a manifest which was not
+ * loaded before requires database access.
+ * </p>
+ */
+public class AdvisoryManifests {
+
+    private final Map<String, List<V1Beta1RequestManifestRecord>> generationToManifests = new LinkedHashMap<>();
+
+    private final Function<String, Sbom> loader;
+
+    private final Map<String, Sbom> sboms = new ConcurrentHashMap<>();
+
+    private final Map<String, Bom> boms = new ConcurrentHashMap<>();
+
+    public AdvisoryManifests(V1Beta1RequestRecord advisoryManifestsRecord, Function<String, Sbom> loader) {
+        this.loader = loader;
+
+        advisoryManifestsRecord.manifests()
+                .forEach(
+                        manifest -> generationToManifests
+                                .computeIfAbsent(manifest.generation().id(), id -> new ArrayList<>())
+                                .add(manifest));
+    }
+
+    /**
+     * Returns manifests of all generations, grouped by generation.
+     */
+    public Collection<List<V1Beta1RequestManifestRecord>> byGeneration() {
+        return generationToManifests.values();
+    }
+
+    /**
+     * Returns all manifests produced by the generation with the provided identifier.
+     */
+    public List<V1Beta1RequestManifestRecord> forGeneration(String generationId) {
+        return generationToManifests.getOrDefault(generationId, List.of());
+    }
+
+    /**
+     * Returns the first manifest produced by the provided generation.
+     */
+    public V1Beta1RequestManifestRecord mainManifest(V1Beta1GenerationRecord generation) {
+        return forGeneration(generation.id()).stream()
+                .findFirst()
+                .orElseThrow(
+                        () -> new ApplicationException(
+                                "Main manifest not found for generation '{}'",
+                                generation.identifier()));
+    }
+
+    /**
+     * Returns the manifest of the image index produced by the provided container image generation.
+     */
+    public V1Beta1RequestManifestRecord imageIndexManifest(V1Beta1GenerationRecord generation) {
+        String imageIndexPurl = SbomUtils.createContainerImageOCIPurl(generation.identifier());
+        if (imageIndexPurl == null) {
+            throw new ApplicationException("Unable to compute PURL for generation '{}'", generation.identifier());
+        }
+
+        return forGeneration(generation.id()).stream()
+                .filter(manifest -> imageIndexPurl.equals(manifest.rootPurl()))
+                .findFirst()
+                .orElseThrow(
+                        () -> new ApplicationException(
+                                "Image index manifest not found for generation '{}'",
+                                generation.identifier()));
+    }
+
+    /**
+     * Returns the manifest entity with the provided identifier, loading it the first time.
+     */
+    public Sbom sbom(String manifestId) {
+        return sboms.computeIfAbsent(manifestId, loader);
+    }
+
+    /**
+     * Returns the parsed content of the manifest with the provided identifier. Parsing is done only once, all callers
+     * share the same {@link Bom} instance.
+     */
+    public Bom bom(String manifestId) {
+        return boms.computeIfAbsent(manifestId, id -> SbomUtils.fromJsonNode(sbom(id).getSbom()));
+    }
+}
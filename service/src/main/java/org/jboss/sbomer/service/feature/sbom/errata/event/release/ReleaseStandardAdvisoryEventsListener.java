@@ -32,6 +32,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import org.cyclonedx.model.Bom;
@@ -39,8 +43,8 @@ import org.cyclonedx.model.Component;
 import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.Metadata;
 import org.cyclonedx.model.component.evidence.Identity.Field;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.faulttolerance.Retry;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.sbomer.core.config.request.ErrataAdvisoryRequestConfig;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1GenerationRecord;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestManifestRecord;
@@ -52,7 +56,7 @@ import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
-import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.CachingErrataClient;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.BuildItem;
@@ -63,6 +67,7 @@ import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.pyxis.CachingPyxisClient;
 import org.jboss.sbomer.service.feature.sbom.pyxis.PyxisClient;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepository;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepositoryDetails;
@@ -77,7 +82,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 
-import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.ObservesAsync;
 import jakarta.inject.Inject;
@@ -95,12 +100,10 @@ public class ReleaseStandardAdvisoryEventsListener {
     private static final int INCREASED_TIMEOUT_SEC = 600;
 
     @Inject
-    @RestClient
-    ErrataClient errataClient;
+    CachingErrataClient errataClient;
 
     @Inject
-    @RestClient
-    PyxisClient pyxisClient;
+    CachingPyxisClient pyxisClient;
 
     @Inject
     SbomService sbomService;
@@ -114,6 +117,20 @@ public class ReleaseStandardAdvisoryEventsListener {
     @Inject
     RequestEventRepository requestEventRepository;
 
+    /**
+     * Maximum number of ProductVersion release manifests assembled concurrently for a single advisory.
+     */
+    @ConfigProperty(name = "sbomer.release.assembly.concurrency", defaultValue = "4")
+    int assemblyConcurrency;
+
+    /**
+     * The release manifest of a single ProductVersion, together with the locations where each build (generation) of
+     * the ProductVersion was published to.
+     */
+    public record ProductVersionRelease<T>(ProductVersionEntry productVersion, Bom bom,
+            Map<String, List<T>> generationToRepositories) {
+    }
+
     private static final String NVR_STANDARD_SEPARATOR = "-";
 
     public void onReleaseAdvisoryEvent(@ObservesAsync StandardAdvisoryReleaseEvent event) {
@@ -127,6 +144,7 @@ public class ReleaseStandardAdvisoryEventsListener {
                     config.getAdvisoryId());
             V1Beta1RequestRecord advisoryManifestsRecord = sbomService
                     .searchLastSuccessfulAdvisoryRequestRecord(requestEvent.getId(), config.getAdvisoryId());
+            AdvisoryManifests advisoryManifests = new AdvisoryManifests(advisoryManifestsRecord, sbomService::get);
 
             String toolVersion = statsService.getStats().getVersion();
             // FIXME: 'Optional.get()' without 'isPresent()' check
@@ -137,8 +155,7 @@ public class ReleaseStandardAdvisoryEventsListener {
             Map<ProductVersionEntry, Set<String>> productVersionToCPEs = mapProductVersionToCPEs(advisoryBuildDetails);
 
             // Associate each build (NVR) in an advisory to its build manifest generation
-            Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration = mapNVRToBuildGeneration(
-                    advisoryManifestsRecord);
+            Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration = mapNVRToBuildGeneration(advisoryManifests);
 
             if (erratum.getDetails().get().getContentTypes().contains("docker")) {
 
@@ -150,7 +167,7 @@ public class ReleaseStandardAdvisoryEventsListener {
                         requestEvent,
                         erratum,
                         advisoryBuildDetails,
-                        advisoryManifestsRecord,
+                        advisoryManifests,
                         event.getReleaseGenerations(),
                         toolVersion,
                         productType,
@@ -167,7 +184,7 @@ public class ReleaseStandardAdvisoryEventsListener {
                         requestEvent,
                         erratum,
                         advisoryBuildDetails,
-                        advisoryManifestsRecord,
+                        advisoryManifests,
                         event.getReleaseGenerations(),
                         toolVersion,
                         productType,
@@ -206,71 +223,65 @@ public class ReleaseStandardAdvisoryEventsListener {
             RequestEvent requestEvent,
             Errata erratum,
             Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails,
-            V1Beta1RequestRecord advisoryManifestsRecord,
+            AdvisoryManifests advisoryManifests,
             Map<String, SbomGenerationRequest> releaseGenerations,
             String toolVersion,
             Component.Type productType,
             Map<ProductVersionEntry, Set<String>> productVersionToCPEs,
             Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration) {
 
-        advisoryBuildDetails.forEach((productVersion, buildItems) -> {
+        // The database is not accessed from the assembly threads, load the manifests we need upfront
+        buildGenerations(advisoryBuildDetails, nvrToBuildGeneration)
+                .forEach(generation -> advisoryManifests.sbom(advisoryManifests.mainManifest(generation).id()));
 
-            // Create the release manifest for this ProductVersion
-            Bom productVersionBom = createProductVersionBom(
-                    productVersion,
-                    productType,
-                    productVersionToCPEs,
-                    erratum,
-                    toolVersion);
-
-            Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs = new HashMap<>();
-
-            for (BuildItem buildItem : buildItems) {
-                V1Beta1GenerationRecord buildGeneration = nvrToBuildGeneration.get(buildItem.getNvr());
-                if (buildGeneration != null) {
-                    // It could happen that not all the builds attached to the advisory have a generation done in SBOMer
-                    // (the builds which SBOMer is not able to manifest)
-                    // FIXME: 'Optional.get()' without 'isPresent()' check
-                    Component nvrRootComponent = createRootComponentForRPMBuildItem(
-                            buildItem,
-                            buildGeneration,
-                            advisoryManifestsRecord,
-                            erratum.getDetails().get().getProduct().getShortName(),
-                            generationToCDNs);
-
-                    // Add the component to the release manifest components and add the purl to the "provides" list
-                    productVersionBom.addComponent(nvrRootComponent);
-                    productVersionBom.getDependencies().get(0).addProvides(new Dependency(nvrRootComponent.getPurl()));
-                }
-            }
+        List<ProductVersionRelease<ErrataCDNRepoNormalized>> releases = assembleReleases(
+                advisoryBuildDetails,
+                (productVersion, buildItems) -> {
 
-            // Add the AdvisoryId property
-            addPropertyIfMissing(
-                    productVersionBom.getMetadata(),
-                    Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                    String.valueOf(erratum.getDetails().get().getId()));
+                    // Create the release manifest for this ProductVersion
+                    Bom productVersionBom = createProductVersionBom(
+                            productVersion,
+                            productType,
+                            productVersionToCPEs,
+                            erratum,
+                            toolVersion);
+
+                    Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs = new HashMap<>();
+
+                    for (BuildItem buildItem : buildItems) {
+                        V1Beta1GenerationRecord buildGeneration = nvrToBuildGeneration.get(buildItem.getNvr());
+                        if (buildGeneration != null) {
+                            // It could happen that not all the builds attached to the advisory have a generation done
+                            // in SBOMer (the builds which SBOMer is not able to manifest)
+                            // FIXME: 'Optional.get()' without 'isPresent()' check
+                            Component nvrRootComponent = createRootComponentForRPMBuildItem(
+                                    buildItem,
+                                    buildGeneration,
+                                    advisoryManifests,
+                                    erratum.getDetails().get().getProduct().getShortName(),
+                                    generationToCDNs);
+
+                            // Add the component to the release manifest components and add the purl to the "provides"
+                            // list
+                            productVersionBom.addComponent(nvrRootComponent);
+                            productVersionBom.getDependencies()
+                                    .get(0)
+                                    .addProvides(new Dependency(nvrRootComponent.getPurl()));
+                        }
+                    }
 
-            addMissingMetadataSupplier(productVersionBom);
-            addMissingSerialNumber(productVersionBom);
+                    finalizeProductVersionBom(productVersionBom, erratum);
 
-            SbomGenerationRequest releaseGeneration = releaseGenerations.get(productVersion.getName());
-            Sbom sbom = saveReleaseManifestForRPMGeneration(
-                    requestEvent,
-                    erratum,
-                    productVersion,
-                    toolVersion,
-                    releaseGeneration,
-                    productVersionBom,
-                    advisoryManifestsRecord,
-                    generationToCDNs);
-            // FIXME: 'Optional.get()' without 'isPresent()' check
-            log.info(
-                    "Saved and modified SBOM '{}' for generation '{}' for ProductVersion '{}' of errata '{}' for RPM builds",
-                    sbom,
-                    releaseGeneration.getId(),
-                    productVersion.getName(),
-                    erratum.getDetails().get().getFulladvisory());
-        });
+                    return new ProductVersionRelease<>(productVersion, productVersionBom, generationToCDNs);
+                });
+
+        saveReleaseManifestsForRPMBuilds(
+                requestEvent,
+                erratum,
+                toolVersion,
+                releaseGenerations,
+                releases,
+                advisoryManifests);
     }
 
     @Transactional
@@ -288,70 +299,117 @@ public class ReleaseStandardAdvisoryEventsListener {
             RequestEvent requestEvent,
             Errata erratum,
             Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails,
-            V1Beta1RequestRecord advisoryManifestsRecord,
+            AdvisoryManifests advisoryManifests,
             Map<String, SbomGenerationRequest> releaseGenerations,
             String toolVersion,
             Component.Type productType,
             Map<ProductVersionEntry, Set<String>> productVersionToCPEs,
             Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration) {
 
-        advisoryBuildDetails.forEach((productVersion, buildItems) -> {
+        // The database is not accessed from the assembly threads, load the manifests we need upfront
+        buildGenerations(advisoryBuildDetails, nvrToBuildGeneration)
+                .forEach(generation -> advisoryManifests.sbom(advisoryManifests.imageIndexManifest(generation).id()));
 
-            // Create the release manifest for this ProductVersion
-            Bom productVersionBom = createProductVersionBom(
-                    productVersion,
-                    productType,
-                    productVersionToCPEs,
-                    erratum,
-                    toolVersion);
-
-            // Associate each build (NVR == generation) in an advisory to the repositories where it is published to
-            Map<String, List<RepositoryCoordinates>> generationToRepositories = new HashMap<>();
-
-            for (BuildItem buildItem : buildItems) {
-                V1Beta1GenerationRecord buildGeneration = nvrToBuildGeneration.get(buildItem.getNvr());
-                if (buildGeneration != null) {
-                    // It could happen that not all the builds attached to the advisory have a generation done in SBOMer
-                    // (the builds which SBOMer is not able to manifest like build#3572808)
-                    Component nvrRootComponent = createRootComponentForDockerBuildItem(
-                            buildItem.getNvr(),
-                            buildGeneration,
-                            advisoryManifestsRecord,
-                            generationToRepositories);
-
-                    // Add the component to the release manifest components and add the purl to the "provides" list
-                    productVersionBom.addComponent(nvrRootComponent);
-                    productVersionBom.getDependencies().get(0).addProvides(new Dependency(nvrRootComponent.getPurl()));
-                }
-            }
+        List<ProductVersionRelease<RepositoryCoordinates>> releases = assembleReleases(
+                advisoryBuildDetails,
+                (productVersion, buildItems) -> {
+
+                    // Create the release manifest for this ProductVersion
+                    Bom productVersionBom = createProductVersionBom(
+                            productVersion,
+                            productType,
+                            productVersionToCPEs,
+                            erratum,
+                            toolVersion);
+
+                    // Associate each build (NVR == generation) in an advisory to the repositories where it is
+                    // published to
+                    Map<String, List<RepositoryCoordinates>> generationToRepositories = new HashMap<>();
+
+                    for (BuildItem buildItem : buildItems) {
+                        V1Beta1GenerationRecord buildGeneration = nvrToBuildGeneration.get(buildItem.getNvr());
+                        if (buildGeneration != null) {
+                            // It could happen that not all the builds attached to the advisory have a generation done
+                            // in SBOMer (the builds which SBOMer is not able to manifest like build#3572808)
+                            Component nvrRootComponent = createRootComponentForDockerBuildItem(
+                                    buildItem.getNvr(),
+                                    buildGeneration,
+                                    advisoryManifests,
+                                    generationToRepositories);
+
+                            // Add the component to the release manifest components and add the purl to the "provides"
+                            // list
+                            productVersionBom.addComponent(nvrRootComponent);
+                            productVersionBom.getDependencies()
+                                    .get(0)
+                                    .addProvides(new Dependency(nvrRootComponent.getPurl()));
+                        }
+                    }
 
-            // Add the AdvisoryId property
-            addPropertyIfMissing(
-                    productVersionBom.getMetadata(),
-                    Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                    String.valueOf(erratum.getDetails().get().getId()));
+                    finalizeProductVersionBom(productVersionBom, erratum);
 
-            addMissingMetadataSupplier(productVersionBom);
-            addMissingSerialNumber(productVersionBom);
+                    return new ProductVersionRelease<>(productVersion, productVersionBom, generationToRepositories);
+                });
 
-            SbomGenerationRequest releaseGeneration = releaseGenerations.get(productVersion.getName());
-            Sbom sbom = saveReleaseManifestForDockerGeneration(
-                    requestEvent,
-                    erratum,
-                    productVersion,
-                    toolVersion,
-                    releaseGeneration,
-                    productVersionBom,
-                    advisoryManifestsRecord,
-                    generationToRepositories);
-            // FIXME: 'Optional.get()' without 'isPresent()' check
-            log.info(
-                    "Saved and modified SBOM '{}' for generation '{}' for ProductVersion '{}' of errata '{}' for Docker builds",
-                    sbom,
-                    releaseGeneration.getId(),
-                    productVersion.getName(),
-                    erratum.getDetails().get().getFulladvisory());
-        });
+        saveReleaseManifestsForDockerBuilds(
+                requestEvent,
+                erratum,
+                toolVersion,
+                releaseGenerations,
+                releases,
+                advisoryManifests);
+    }
+
+    /**
+     * Assembles the release manifests of all ProductVersions concurrently. The assembly mostly waits on Errata and
+     * Pyxis, and each ProductVersion is independent of the others.
+     */
+    private <T> List<ProductVersionRelease<T>> assembleReleases(
+            Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails,
+            BiFunction<ProductVersionEntry, List<BuildItem>, ProductVersionRelease<T>> assembler) {
+
+        if (advisoryBuildDetails.isEmpty()) {
+            return List.of();
+        }
+
+        ExecutorService executor = Executors
+                .newFixedThreadPool(Math.max(1, Math.min(assemblyConcurrency, advisoryBuildDetails.size())));
+
+        try {
+            List<CompletableFuture<ProductVersionRelease<T>>> futures = advisoryBuildDetails.entrySet()
+                    .stream()
+                    .map(
+                            entry -> CompletableFuture
+                                    .supplyAsync(() -> assembler.apply(entry.getKey(), entry.getValue()), executor))
+                    .toList();
+
+            return futures.stream().map(CompletableFuture::join).toList();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Collection<V1Beta1GenerationRecord> buildGenerations(
+            Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails,
+            Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration) {
+        return advisoryBuildDetails.values()
+                .stream()
+                .flatMap(List::stream)
+                .map(buildItem -> nvrToBuildGeneration.get(buildItem.getNvr()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(V1Beta1GenerationRecord::id, generation -> generation, (a, b) -> a))
+                .values();
+    }
+
+    private void finalizeProductVersionBom(Bom productVersionBom, Errata erratum) {
+        // Add the AdvisoryId property
+        addPropertyIfMissing(
+                productVersionBom.getMetadata(),
+                Constants.CONTAINER_PROPERTY_ADVISORY_ID,
+                String.valueOf(erratum.getDetails().get().getId()));
+
+        addMissingMetadataSupplier(productVersionBom);
+        addMissingSerialNumber(productVersionBom);
     }
 
     private Bom createProductVersionBom(
@@ -384,23 +442,14 @@ public class ReleaseStandardAdvisoryEventsListener {
     protected Component createRootComponentForRPMBuildItem(
             BuildItem buildItem,
             V1Beta1GenerationRecord generation,
-            V1Beta1RequestRecord advisoryManifestsRecord,
+            AdvisoryManifests advisoryManifests,
             String productShortName,
             Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs) {
 
         // From the generation triggered from this build (NVR), find the single manifest created and get the manifest
         // content that we need to copy the main component
-        V1Beta1RequestManifestRecord manifestRecord = advisoryManifestsRecord.manifests()
-                .stream()
-                .filter(manifest -> manifest.generation().id().equals(generation.id()))
-                .findFirst()
-                .orElseThrow(
-                        () -> new ApplicationException(
-                                "Main manifest not found for generation '{}'",
-                                generation.identifier()));
-
-        Sbom manifestSbom = sbomService.get(manifestRecord.id());
-        Bom manifestBom = SbomUtils.fromJsonNode(manifestSbom.getSbom());
+        V1Beta1RequestManifestRecord manifestRecord = advisoryManifests.mainManifest(generation);
+        Bom manifestBom = advisoryManifests.bom(manifestRecord.id());
         Component manifestMainComponent = manifestBom.getComponents().get(0);
 
         List<ErrataCDNRepoNormalized> allCDNs = getCDNDetails(buildItem, productShortName);
@@ -432,14 +481,13 @@ public class ReleaseStandardAdvisoryEventsListener {
     protected Component createRootComponentForDockerBuildItem(
             String generationNVR,
             V1Beta1GenerationRecord generation,
-            V1Beta1RequestRecord advisoryManifestsRecord,
+            AdvisoryManifests advisoryManifests,
             Map<String, List<RepositoryCoordinates>> generationToRepositories) {
 
         // From the generation triggered from this build (NVR), find the image-index manifest and get the manifest
         // content that we need to copy the main component
-        V1Beta1RequestManifestRecord imageIndexManifest = findImageIndexManifest(advisoryManifestsRecord, generation);
-        Sbom imageIndexSbom = sbomService.get(imageIndexManifest.id());
-        Component imageIndexMainComponent = SbomUtils.fromJsonNode(imageIndexSbom.getSbom()).getComponents().get(0);
+        V1Beta1RequestManifestRecord imageIndexManifest = advisoryManifests.imageIndexManifest(generation);
+        Component imageIndexMainComponent = advisoryManifests.bom(imageIndexManifest.id()).getComponents().get(0);
 
         // Find where this build (NVR) has been published to
         List<RepositoryCoordinates> repositories = getRepositoriesDetails(generationNVR);
@@ -470,7 +518,40 @@ public class ReleaseStandardAdvisoryEventsListener {
     }
 
     // Add a very long timeout because this method could potentially need to update hundreds of manifests
-    @Retry(maxRetries = 10)
+    @Transactional(value = TxType.REQUIRES_NEW)
+    @TransactionConfiguration(timeout = INCREASED_TIMEOUT_SEC)
+    protected void saveReleaseManifestsForRPMBuilds(
+            RequestEvent requestEvent,
+            Errata erratum,
+            String toolVersion,
+            Map<String, SbomGenerationRequest> releaseGenerations,
+            List<ProductVersionRelease<ErrataCDNRepoNormalized>> releases,
+            AdvisoryManifests advisoryManifests) {
+
+        for (ProductVersionRelease<ErrataCDNRepoNormalized> release : releases) {
+            SbomGenerationRequest releaseGeneration = releaseGenerations.get(release.productVersion().getName());
+            Sbom sbom = saveReleaseManifestForRPMGeneration(
+                    requestEvent,
+                    erratum,
+                    release.productVersion(),
+                    toolVersion,
+                    releaseGeneration,
+                    release.bom(),
+                    advisoryManifests,
+                    release.generationToRepositories());
+            // FIXME: 'Optional.get()' without 'isPresent()' check
+            log.info(
+                    "Saved and modified SBOM '{}' for generation '{}' for ProductVersion '{}' of errata '{}' for RPM builds",
+                    sbom,
+                    releaseGeneration.getId(),
+                    release.productVersion().getName(),
+                    erratum.getDetails().get().getFulladvisory());
+        }
+
+        requestEvent = requestEventRepository.findById(requestEvent.getId());
+        requestEvent.setEventStatus(RequestEventStatus.SUCCESS);
+    }
+
     protected Sbom saveReleaseManifestForRPMGeneration(
             RequestEvent requestEvent,
             Errata erratum,
@@ -478,12 +559,10 @@ public class ReleaseStandardAdvisoryEventsListener {
             String toolVersion,
             SbomGenerationRequest releaseGeneration,
             Bom productVersionBom,
-            V1Beta1RequestRecord advisoryManifestsRecord,
+            AdvisoryManifests advisoryManifests,
             Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs) {
 
         try {
-            QuarkusTransaction.begin(QuarkusTransaction.beginOptions().timeout(INCREASED_TIMEOUT_SEC));
-
             // 1 - Save the release generation with the release manifest
             releaseGeneration = generationRequestRepository.findById(releaseGeneration.getId());
             releaseGeneration.setStatus(SbomGenerationStatus.FINISHED);
@@ -515,10 +594,8 @@ public class ReleaseStandardAdvisoryEventsListener {
                 List<ErrataCDNRepoNormalized> generationCDNs = entry.getValue();
 
                 // 2.2 - For every manifest previously generated from this generation
-                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
-                        .stream()
-                        .filter(manifest -> manifest.generation().id().equals(generationId))
-                        .toList();
+                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifests
+                        .forGeneration(generationId);
 
                 for (V1Beta1RequestManifestRecord buildManifestRecord : buildManifests) {
                     log.debug(
@@ -527,7 +604,7 @@ public class ReleaseStandardAdvisoryEventsListener {
                             requestEvent.getId());
 
                     Sbom buildManifest = sbomService.get(buildManifestRecord.id());
-                    Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
+                    Bom manifestBom = advisoryManifests.bom(buildManifestRecord.id());
                     SbomUtils.addMissingMetadataSupplier(manifestBom);
 
                     // Add the AdvisoryId property
@@ -565,17 +642,8 @@ public class ReleaseStandardAdvisoryEventsListener {
                 }
             }
 
-            requestEvent = requestEventRepository.findById(requestEvent.getId());
-            requestEvent.setEventStatus(RequestEventStatus.SUCCESS);
-            QuarkusTransaction.commit();
-
             return sbom;
         } catch (Exception e) {
-            try {
-                QuarkusTransaction.rollback();
-            } catch (Exception rollbackException) {
-                log.error("Transaction was rolled back!!", rollbackException);
-            }
             throw new ApplicationException(
                     "Could not save the release and build manifests for release generation {}",
                     releaseGeneration.getIdentifier(),
@@ -583,9 +651,42 @@ public class ReleaseStandardAdvisoryEventsListener {
         }
     }
 
-    // TODO: Refactor
     // Add a very long timeout because this method could potentially need to update hundreds of manifests
-    @Retry(maxRetries = 10)
+    @Transactional(value = TxType.REQUIRES_NEW)
+    @TransactionConfiguration(timeout = INCREASED_TIMEOUT_SEC)
+    protected void saveReleaseManifestsForDockerBuilds(
+            RequestEvent requestEvent,
+            Errata erratum,
+            String toolVersion,
+            Map<String, SbomGenerationRequest> releaseGenerations,
+            List<ProductVersionRelease<RepositoryCoordinates>> releases,
+            AdvisoryManifests advisoryManifests) {
+
+        for (ProductVersionRelease<RepositoryCoordinates> release : releases) {
+            SbomGenerationRequest releaseGeneration = releaseGenerations.get(release.productVersion().getName());
+            Sbom sbom = saveReleaseManifestForDockerGeneration(
+                    requestEvent,
+                    erratum,
+                    release.productVersion(),
+                    toolVersion,
+                    releaseGeneration,
+                    release.bom(),
+                    advisoryManifests,
+                    release.generationToRepositories());
+            // FIXME: 'Optional.get()' without 'isPresent()' check
+            log.info(
+                    "Saved and modified SBOM '{}' for generation '{}' for ProductVersion '{}' of errata '{}' for Docker builds",
+                    sbom,
+                    releaseGeneration.getId(),
+                    release.productVersion().getName(),
+                    erratum.getDetails().get().getFulladvisory());
+        }
+
+        requestEvent = requestEventRepository.findById(requestEvent.getId());
+        requestEvent.setEventStatus(RequestEventStatus.SUCCESS);
+    }
+
+    // TODO: Refactor
     protected Sbom saveReleaseManifestForDockerGeneration(
             RequestEvent requestEvent,
             Errata erratum,
@@ -593,12 +694,10 @@ public class ReleaseStandardAdvisoryEventsListener {
             String toolVersion,
             SbomGenerationRequest releaseGeneration,
             Bom productVersionBom,
-            V1Beta1RequestRecord advisoryManifestsRecord,
+            AdvisoryManifests advisoryManifests,
             Map<String, List<RepositoryCoordinates>> generationToRepositories) {
 
         try {
-            QuarkusTransaction.begin(QuarkusTransaction.beginOptions().timeout(INCREASED_TIMEOUT_SEC));
-
             // 1 - Save the release generation with the release manifest
             releaseGeneration = generationRequestRepository.findById(releaseGeneration.getId());
             releaseGeneration.setStatus(SbomGenerationStatus.FINISHED);
@@ -632,10 +731,8 @@ public class ReleaseStandardAdvisoryEventsListener {
 
                 // 2.2 - Regenerate the manifest purls using the preferredRepo and keep track of the updates.
                 // We need them to update the index manifest variants
-                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
-                        .stream()
-                        .filter(manifest -> manifest.generation().id().equals(generationId))
-                        .toList();
+                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifests
+                        .forGeneration(generationId);
                 Map<String, String> originalToRebuiltPurl = new HashMap<>();
                 buildManifests.forEach(manifestRecord -> {
                     String rebuiltPurl = AdvisoryEventUtils.rebuildPurl(manifestRecord.rootPurl(), preferredRepo);
@@ -647,7 +744,7 @@ public class ReleaseStandardAdvisoryEventsListener {
                 for (V1Beta1RequestManifestRecord buildManifestRecord : buildManifests) {
 
                     Sbom buildManifest = sbomService.get(buildManifestRecord.id());
-                    Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
+                    Bom manifestBom = advisoryManifests.bom(buildManifestRecord.id());
                     SbomUtils.addMissingMetadataSupplier(manifestBom);
 
                     // 2.4 Update rootPurl, metadata.component.purl, bom.component[0].purl with the rebuiltPurl
@@ -714,17 +811,8 @@ public class ReleaseStandardAdvisoryEventsListener {
                 }
             }
 
-            requestEvent = requestEventRepository.findById(requestEvent.getId());
-            requestEvent.setEventStatus(RequestEventStatus.SUCCESS);
-            QuarkusTransaction.commit();
-
             return sbom;
         } catch (Exception e) {
-            try {
-                QuarkusTransaction.rollback();
-            } catch (Exception rollbackException) {
-                log.error("Transaction was rolled back!!", rollbackException);
-            }
             throw new ApplicationException(
                     "Could not save the release and build manifests for release generation {}",
                     releaseGeneration.getIdentifier(),
@@ -868,26 +956,6 @@ public class ReleaseStandardAdvisoryEventsListener {
         }
     }
 
-    private V1Beta1RequestManifestRecord findImageIndexManifest(
-            V1Beta1RequestRecord advisoryManifestsRecord,
-            V1Beta1GenerationRecord generation) {
-
-        String imageIndexPurl = SbomUtils.createContainerImageOCIPurl(generation.identifier());
-        if (imageIndexPurl == null) {
-            throw new ApplicationException("Unable to compute PURL for generation '{}'", generation.identifier());
-        }
-        return advisoryManifestsRecord.manifests()
-                .stream()
-                .filter(
-                        manifest -> manifest.generation().id().equals(generation.id())
-                                && manifest.rootPurl().equals(imageIndexPurl))
-                .findFirst()
-                .orElseThrow(
-                        () -> new ApplicationException(
-                                "Image index manifest not found for generation '{}'",
-                                generation.identifier()));
-    }
-
     private Metadata createMetadata(
             String name,
             String version,
@@ -910,7 +978,9 @@ public class ReleaseStandardAdvisoryEventsListener {
         return metadata;
     }
 
-    private String getGenerationNVRFromManifest(V1Beta1RequestManifestRecord manifestRecord) {
+    private String getGenerationNVRFromManifest(
+            AdvisoryManifests advisoryManifests,
+            V1Beta1RequestManifestRecord manifestRecord) {
         GenerationRequestType generationRequestType = GenerationRequestType
                 .fromName(manifestRecord.generation().type());
 
@@ -922,7 +992,7 @@ public class ReleaseStandardAdvisoryEventsListener {
         if (GenerationRequestType.CONTAINERIMAGE.equals(generationRequestType)) {
             // The NVR is not stored inside the generation, we need to get it from the manifest. Might be optimized in
             // the future.
-            Sbom sbom = sbomService.get(manifestRecord.id());
+            Sbom sbom = advisoryManifests.sbom(manifestRecord.id());
             List<String> nvr = SbomUtils.computeNVRFromContainerManifest(sbom.getSbom());
             if (!nvr.isEmpty()) {
                 return String.join(NVR_STANDARD_SEPARATOR, nvr);
@@ -934,23 +1004,21 @@ public class ReleaseStandardAdvisoryEventsListener {
         return null;
     }
 
-    private Map<String, V1Beta1GenerationRecord> mapNVRToBuildGeneration(V1Beta1RequestRecord advisoryManifestsRecord) {
-        Set<String> processedGenerationsIds = new HashSet<>();
+    private Map<String, V1Beta1GenerationRecord> mapNVRToBuildGeneration(AdvisoryManifests advisoryManifests) {
+        Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration = new HashMap<>();
 
-        return advisoryManifestsRecord.manifests()
-                .stream()
-                .filter(manifest -> !processedGenerationsIds.contains(manifest.generation().id()))
-                .map(manifest -> {
-                    String nvr = getGenerationNVRFromManifest(manifest);
-                    if (nvr != null) {
-                        processedGenerationsIds.add(manifest.generation().id());
-                    }
-                    // FIXME: nvr can be null here. It's filtered out later, but there may be a better way to handle
-                    // this
-                    return Map.entry(nvr, manifest.generation());
-                })
-                .filter(entry -> entry.getKey() != null) // Filter out entries where NVR is null
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        for (List<V1Beta1RequestManifestRecord> generationManifests : advisoryManifests.byGeneration()) {
+            // The first manifest of the generation with an NVR is enough, all of them come from the same build
+            for (V1Beta1RequestManifestRecord manifest : generationManifests) {
+                String nvr = getGenerationNVRFromManifest(advisoryManifests, manifest);
+                if (nvr != null) {
+                    nvrToBuildGeneration.put(nvr, manifest.generation());
+                    break;
+                }
+            }
+        }
+
+        return nvrToBuildGeneration;
     }
 
     // Helper method to get all the architectures in the manifest
@@ -32,7 +32,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -105,6 +104,10 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     @Setter
     AtlasHandler atlasHandler;
 
+    @Inject
+    @Setter
+    protected GenerationRequestSyncQueue syncQueue;
+
     // TODO: Refactor this to have it's implementation shared
     protected abstract UpdateControl<GenerationRequest> updateRequest(
             GenerationRequest generationRequest,
@@ -162,7 +165,7 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     @Transactional
     protected List<Sbom> storeBoms(GenerationRequest generationRequest, List<Bom> boms) {
         // First, update the status of the GenerationRequest entity.
-        SbomGenerationRequest sbomGenerationRequest = SbomGenerationRequest.sync(generationRequest);
+        SbomGenerationRequest sbomGenerationRequest = syncQueue.syncNow(generationRequest);
 
         // Verify if the request event for this generation is associated with an Errata advisory
         RequestEvent event = sbomGenerationRequest.getRequest();
@@ -198,7 +201,20 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
                 generationRequest.getMetadata().getName());
 
         // And store it in the database
-        return sbomRepository.saveSboms(sboms);
+        sbomRepository.saveSboms(sboms);
+
+        return sboms;
+    }
+
+    /**
+     * Records generation finished notifications for the stored manifests, in the transaction of
+     * {@link #reconcileGenerating(GenerationRequest, Set)} which stored the manifests, so that both are committed (or
+     * rolled back) together. The notifications are sent in the background once the transaction commits.
+     *
+     * @param sboms the stored manifests
+     */
+    protected void enqueueNotifications(List<Sbom> sboms) {
+        notificationService.enqueue(sboms);
     }
 
     /**
@@ -311,9 +327,9 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
             return UpdateControl.noUpdate();
         }
 
-        // In case resource gets an update, update th DB entity as well
+        // In case resource gets an update, update th DB entity as well (batched with other updates, unless final)
         if (action.isUpdateResource()) {
-            SbomGenerationRequest.sync(generationRequest);
+            syncQueue.enqueue(generationRequest);
         }
 
         return action;
@@ -349,11 +365,9 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     protected UpdateControl<GenerationRequest> reconcileFailed(GenerationRequest generationRequest) {
         log.debug("Reconcile FAILED for '{}'...", generationRequest.getName());
 
-        s3LogHandler.storeFiles(generationRequest);
-
         // In case the generation request failed, we need to clean up resources so that these are not left forever.
         // We have all the data elsewhere (logs, cause) so it's safe to do so.
-        cleanupFinishedGenerationRequest(generationRequest);
+        cleanupAfterUpload(generationRequest, s3LogHandler.storeFiles(generationRequest));
 
         return UpdateControl.noUpdate();
     }
@@ -371,49 +385,63 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
         log.debug("Reconcile FINISHED for '{}'...", generationRequest.getName());
 
         // Store files in S3
+        CompletableFuture<Void> upload;
+
         try {
-            s3LogHandler.storeFiles(generationRequest);
+            upload = s3LogHandler.storeFiles(generationRequest);
         } catch (Exception e) {
             // This is not fatal
             log.warn("Storing files in S3 failed", e);
+            upload = CompletableFuture.completedFuture(null);
         }
 
-        // We're good, remove all files now!
-        cleanupFinishedGenerationRequest(generationRequest);
+        // We're good, remove all files now (once these are stored)!
+        cleanupAfterUpload(generationRequest, upload);
 
         return UpdateControl.noUpdate();
     }
 
-    protected void performPost(List<Sbom> sboms) {
-        CompletableFuture<Void> publishToUmb = CompletableFuture.runAsync(() -> {
-            try {
-                notificationService.notifyCompleted(sboms);
-            } catch (FeatureDisabledException e) {
-                log.warn(e.getMessage(), e);
+    /**
+     * Cleans up the finished generation request once the upload of its files to S3 completes, so that the files are
+     * not removed while being uploaded. A failed upload is not fatal.
+     *
+     * @param generationRequest the generation request
+     * @param upload the upload of the generation request files
+     */
+    private void cleanupAfterUpload(GenerationRequest generationRequest, CompletableFuture<Void> upload) {
+        upload.whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Storing files in S3 for '{}' failed", generationRequest.getName(), e);
             }
-        }).exceptionally(e -> {
-            throw new ApplicationException("UMB notification failed: {}", e.getMessage(), e);
-        });
 
-        CompletableFuture<Void> uploadToAtlas = CompletableFuture.runAsync(() -> {
-            try {
-                atlasHandler.publishBuildManifests(sboms);
-            } catch (FeatureDisabledException e) {
-                log.warn(e.getMessage(), e);
-            }
-        }).exceptionally(e -> {
-            throw new ApplicationException("Atlas upload failed: {}", e.getMessage(), e);
+            cleanupFinishedGenerationRequest(generationRequest);
         });
+    }
 
+    /**
+     * Performs post-generation tasks for the stored manifests. Generation finished notifications are recorded only
+     * once all other tasks succeeded, see {@link #enqueueNotifications(List)}.
+     *
+     * <p>
+     * Manifests are only queued for publishing to Atlas here. The upload itself runs in the background and is retried
+     * until it succeeds or the outbox gives up, without affecting the result of the generation.
+     * </p>
+     *
+     * @param sboms the stored manifests
+     */
+    protected void performPost(List<Sbom> sboms) {
         try {
-            // Wait for all tasks to be done
-            CompletableFuture.allOf(publishToUmb, uploadToAtlas).join();
-        } catch (CompletionException e) {
+            atlasHandler.publishBuildManifests(sboms);
+        } catch (FeatureDisabledException e) {
+            log.warn(e.getMessage(), e);
+        } catch (RuntimeException e) {
             throw new ApplicationException(
-                    "Manifest was generated successfully, but at least one of the post-generation tasks did not finish successfully: {}",
+                    "Manifest was generated successfully, but it could not be queued for publishing to Atlas: {}",
                     e.getMessage(),
                     e);
         }
+
+        enqueueNotifications(sboms);
     }
 
     /**
@@ -421,6 +449,11 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
      * Handles updates to {@link GenerationRequest} being in progress.
      * </p>
      *
+     * <p>
+     * Implementations must be annotated with {@link Transactional} as well (annotations of this method are not
+     * inherited), so that the manifests and the related outbox entries are stored in a single transaction.
+     * </p>
+     *
      * @param generationRequest the generation request
      * @param secondaryResources the secondary resources
      * @return the update control for the generation request
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.features.generator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Write-behind queue syncing {@link GenerationRequest} Kubernetes resources with the {@link SbomGenerationRequest}
+ * entities in the database.
+ * </p>
+ *
+ * <p>
+ * Updates are coalesced per generation request identifier (only the latest state is kept) and written periodically
+ * in batches, in a single transaction, instead of one transaction for every reconciliation. Updates to a final state
+ * are written immediately, as are updates done through {@link #syncNow(GenerationRequest)}, which supersede any
+ * queued update for the same generation request.
+ * </p>
+ *
+ * <p>
+ * When the write-behind is disabled (or the queue is not managed by CDI) every update is written immediately.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GenerationRequestSyncQueue {
+
+    @ConfigProperty(name = "sbomer.controller.generation-request.sync.write-behind", defaultValue = "true")
+    boolean writeBehind;
+
+    @ConfigProperty(name = "sbomer.controller.generation-request.sync.interval", defaultValue = "PT0.5S")
+    Duration interval;
+
+    @ConfigProperty(name = "sbomer.controller.generation-request.sync.batch-size", defaultValue = "100")
+    int batchSize;
+
+    private final Map<String, GenerationRequest> pending = new LinkedHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        if (!writeBehind) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "generation-request-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.scheduleWithFixedDelay(this::flush, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("Write-behind sync of generation requests enabled, flushing every {}", interval);
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (executor == null) {
+            return;
+        }
+
+        // Let a running flush finish first, so that it does not compete with the final one
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Scheduled sync of generation requests did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+    }
+
+    /**
+     * Queues the current state of the {@link GenerationRequest} to be written to the database. If the generation
+     * request is in a final state, it is written immediately.
+     *
+     * <p>
+     * The resource must not be modified after it was queued.
+     * </p>
+     *
+     * @param generationRequest the generation request to sync
+     */
+    public void enqueue(GenerationRequest generationRequest) {
+        if (executor == null || generationRequest.getStatus() == null || generationRequest.getStatus().isFinal()) {
+            syncNow(generationRequest);
+            return;
+        }
+
+        synchronized (pending) {
+            pending.put(generationRequest.getId(), generationRequest);
+        }
+    }
+
+    /**
+     * Writes the current state of the {@link GenerationRequest} to the database immediately (in the current
+     * transaction, if any), discarding any queued update for it.
+     *
+     * @param generationRequest the generation request to sync
+     * @return Updated {@link SbomGenerationRequest} entity
+     */
+    public SbomGenerationRequest syncNow(GenerationRequest generationRequest) {
+        synchronized (pending) {
+            pending.remove(generationRequest.getId());
+        }
+
+        return SbomGenerationRequest.sync(generationRequest);
+    }
+
+    /**
+     * Writes all queued updates to the database.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<GenerationRequest> batch;
+
+            while (!(batch = drain()).isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    private List<GenerationRequest> drain() {
+        synchronized (pending) {
+            List<GenerationRequest> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+            Iterator<GenerationRequest> iterator = pending.values().iterator();
+
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+
+            return batch;
+        }
+    }
+
+    private void write(List<GenerationRequest> batch) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> SbomGenerationRequest.syncAll(batch));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Unable to sync a batch of {} generation requests, syncing them one by one", batch.size(), e);
+        }
+
+        // Isolate the failing generation requests, so that these do not prevent storing the other ones
+        for (GenerationRequest generationRequest : batch) {
+            try {
+                QuarkusTransaction.requiringNew().run(() -> SbomGenerationRequest.syncAll(List.of(generationRequest)));
+            } catch (RuntimeException e) {
+                log.error(
+                        "Unable to sync GenerationRequest '{}' with the database",
+                        generationRequest.getMetadata().getName(),
+                        e);
+            }
+        }
+    }
+}
@@ -43,6 +43,7 @@ import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import io.javaoperatorsdk.operator.api.reconciler.dependent.Dependent;
+import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 
@@ -106,6 +107,7 @@ public class BrewRPMController extends AbstractController {
      * @return the update control for the generation request
      */
     @Override
+    @Transactional
     protected UpdateControl<GenerationRequest> reconcileGenerating(
             GenerationRequest generationRequest,
             Set<TaskRun> secondaryResources) {
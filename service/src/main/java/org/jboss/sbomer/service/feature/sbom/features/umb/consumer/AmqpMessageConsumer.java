@@ -27,12 +27,14 @@ import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.jboss.sbomer.core.config.request.ErrataAdvisoryRequestConfig;
@@ -47,11 +49,14 @@ import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataMessageHelper;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.stats.StatsCounters;
+import org.jboss.sbomer.service.stats.StatsCounters.MessageStatus;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.quarkus.arc.Unremovable;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.runtime.StartupEvent;
 import io.smallrye.reactive.messaging.amqp.IncomingAmqpMetadata;
 import io.smallrye.reactive.messaging.annotations.Blocking;
@@ -85,6 +90,19 @@ public class AmqpMessageConsumer {
     @Inject
     RequestEventRepository requestEventRepository;
 
+    @Inject
+    UmbIntakeThrottle intakeThrottle;
+
+    @Inject
+    StatsCounters statsCounters;
+
+    /**
+     * Time after which a message that was claimed but never acknowledged (for example because the service was
+     * restarted while processing it) can be processed again when redelivered.
+     */
+    @ConfigProperty(name = "sbomer.umb.dedup.stale-after", defaultValue = "PT30M")
+    Duration claimStaleAfter;
+
     public void init(@Observes StartupEvent ev) {
         if (!umbConfig.isEnabled()) {
             log.info("UMB support is disabled");
@@ -104,6 +122,7 @@ public class AmqpMessageConsumer {
         log.debug("Decoded Message content: {}", decodedMessage);
 
         ObjectNode event = createUnidentifiedEvent(decodedMessage, UMBConsumer.ERRATA);
+        statsCounters.messageHandled(UMBConsumer.ERRATA, MessageStatus.RECEIVED);
 
         // Checking whether there is some additional metadata attached to the message
         Optional<IncomingAmqpMetadata> metadata = message.getMetadata(IncomingAmqpMetadata.class);
@@ -117,39 +136,47 @@ public class AmqpMessageConsumer {
             return ackAndSaveUnknownMessage(message, event);
         }
 
-        // Store the requestEvent (to keep events in case of subsequent failures)
-        RequestEvent requestEvent = saveNewEvent(event);
-
-        if (hasMessageId(event)) {
-            // Verify that there aren't already ACKED UMBMessages with the same msg id
-            // There is an issue in our queues and same messages are processed multiple times which we want to avoid
-            // generating manifests for the same event
-            String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
-            long alreadyGenerated = getAlreadyAckedUMBEventsFor(msgId);
-            if (alreadyGenerated > 0) {
-                log.warn(
-                        "Message with id '{}' has been already received and processed {} times for errata!! Will not process it again, skipping it",
-                        msgId,
-                        alreadyGenerated);
-
-                return skipAndSave(message, requestEvent);
-            }
-        }
+        // Wait until there is capacity to process the message
+        intakeThrottle.acquire(UMBConsumer.ERRATA);
+
+        int generations = 0;
 
         try {
-            errataNotificationHandler.handle(requestEvent);
-        } catch (IOException e) {
-            log.error("Unable to deserialize Errata message, this is unexpected", e);
-            return nackAndSave(message, requestEvent, e);
-        } catch (ApplicationException exc) {
-            log.error("Received error while handing errata request '{}': {}", requestEvent.getId(), exc.getMessage());
-            return nackAndSave(message, requestEvent, exc);
-        } catch (RuntimeException exc) {
-            log.error("Received error while handing request '{}'", requestEvent.getId(), exc);
-            return nackAndSave(message, requestEvent, exc);
-        }
+            // Store the requestEvent (to keep events in case of subsequent failures)
+            RequestEvent requestEvent = saveNewEvent(event);
+
+            try {
+                if (hasMessageId(event) && !claimMessage(event, UMBConsumer.ERRATA, requestEvent)) {
+                    // There is an issue in our queues and same messages are processed multiple times which we want to
+                    // avoid generating manifests for the same event
+                    log.warn(
+                            "Errata message with id '{}' has been already received and processed, will not process it again, skipping it",
+                            event.get(EVENT_KEY_UMB_MSG_ID).asText());
+
+                    return skipAndSave(message, requestEvent);
+                }
+
+                errataNotificationHandler.handle(requestEvent);
+            } catch (IOException e) {
+                log.error("Unable to deserialize Errata message, this is unexpected", e);
+                return nackAndSave(message, requestEvent, e);
+            } catch (ApplicationException exc) {
+                log.error(
+                        "Received error while handing errata request '{}': {}",
+                        requestEvent.getId(),
+                        exc.getMessage());
+                return nackAndSave(message, requestEvent, exc);
+            } catch (RuntimeException exc) {
+                log.error("Received error while handing request '{}'", requestEvent.getId(), exc);
+                return nackAndSave(message, requestEvent, exc);
+            }
 
-        return ackAndSave(message, requestEvent);
+            generations = countGenerations(requestEvent);
+
+            return ackAndSave(message, requestEvent);
+        } finally {
+            intakeThrottle.release(UMBConsumer.ERRATA, generations);
+        }
     }
 
     @Incoming("builds")
@@ -159,6 +186,7 @@ public class AmqpMessageConsumer {
         log.debug("Message content: {}", message.getPayload());
 
         ObjectNode event = createUnidentifiedEvent(message.getPayload(), UMBConsumer.PNC);
+        statsCounters.messageHandled(UMBConsumer.PNC, MessageStatus.RECEIVED);
 
         // Checking whether there is some additional metadata attached to the message
         Optional<IncomingAmqpMetadata> metadata = message.getMetadata(IncomingAmqpMetadata.class);
@@ -172,39 +200,44 @@ public class AmqpMessageConsumer {
             return ackAndSaveUnknownMessage(message, event);
         }
 
-        // Store the requestEvent (to keep events in case of subsequent failures)
-        RequestEvent requestEvent = saveNewEvent(event);
-
-        if (hasMessageId(event)) {
-            // Verify that there aren't already ACKED UMBMessages with the same msg id
-            // There is an issue in our queues and same messages are processed multiple times which we want to avoid
-            // generating manifests for the same event
-            String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
-            long alreadyGenerated = getAlreadyAckedUMBEventsFor(msgId);
-            if (alreadyGenerated > 0) {
-                log.warn(
-                        "Message with id '{}' has been already received and processed {} times!! Will not process it again, skipping it",
-                        msgId,
-                        alreadyGenerated);
-
-                return skipAndSave(message, requestEvent);
-            }
-        }
+        // Wait until there is capacity to process the message
+        intakeThrottle.acquire(UMBConsumer.PNC);
+
+        int generations = 0;
 
         try {
-            pncNotificationHandler.handle(requestEvent);
-        } catch (JsonProcessingException e) {
-            log.error("Unable to deserialize PNC message, this is unexpected", e);
-            return nackAndSave(message, requestEvent, e);
-        } catch (ApplicationException exc) {
-            log.error("Received error while handing request '{}': {}", requestEvent.getId(), exc.getMessage());
-            return nackAndSave(message, requestEvent, exc);
-        } catch (RuntimeException exc) {
-            log.error("Received error while handing request '{}'", requestEvent.getId(), exc);
-            return nackAndSave(message, requestEvent, exc);
-        }
+            // Store the requestEvent (to keep events in case of subsequent failures)
+            RequestEvent requestEvent = saveNewEvent(event);
+
+            try {
+                if (hasMessageId(event) && !claimMessage(event, UMBConsumer.PNC, requestEvent)) {
+                    // There is an issue in our queues and same messages are processed multiple times which we want to
+                    // avoid generating manifests for the same event
+                    log.warn(
+                            "Message with id '{}' has been already received and processed, will not process it again, skipping it",
+                            event.get(EVENT_KEY_UMB_MSG_ID).asText());
+
+                    return skipAndSave(message, requestEvent);
+                }
+
+                pncNotificationHandler.handle(requestEvent);
+            } catch (JsonProcessingException e) {
+                log.error("Unable to deserialize PNC message, this is unexpected", e);
+                return nackAndSave(message, requestEvent, e);
+            } catch (ApplicationException exc) {
+                log.error("Received error while handing request '{}': {}", requestEvent.getId(), exc.getMessage());
+                return nackAndSave(message, requestEvent, exc);
+            } catch (RuntimeException exc) {
+                log.error("Received error while handing request '{}'", requestEvent.getId(), exc);
+                return nackAndSave(message, requestEvent, exc);
+            }
+
+            generations = countGenerations(requestEvent);
 
-        return ackAndSave(message, requestEvent);
+            return ackAndSave(message, requestEvent);
+        } finally {
+            intakeThrottle.release(UMBConsumer.PNC, generations);
+        }
     }
 
     private void identifyErrataEvent(IncomingAmqpMetadata metadata, ObjectNode event) {
@@ -242,6 +275,22 @@ public class AmqpMessageConsumer {
         return event.has(EVENT_KEY_UMB_MSG_ID);
     }
 
+    private Optional<String> getMessageId(RequestEvent requestEvent) {
+        if (requestEvent.getEvent() == null || !requestEvent.getEvent().has(EVENT_KEY_UMB_MSG_ID)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(requestEvent.getEvent().get(EVENT_KEY_UMB_MSG_ID).asText());
+    }
+
+    private Optional<UMBConsumer> getConsumer(RequestEvent requestEvent) {
+        if (requestEvent.getEvent() == null || !requestEvent.getEvent().has(EVENT_KEY_UMB_CONSUMER)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(UMBConsumer.valueOf(requestEvent.getEvent().get(EVENT_KEY_UMB_CONSUMER).asText()));
+    }
+
     private ObjectNode createUnidentifiedEvent(String content, UMBConsumer consumer) {
         return ObjectMapperProvider.json()
                 .createObjectNode()
@@ -258,6 +307,8 @@ public class AmqpMessageConsumer {
 
     @Transactional(value = TxType.REQUIRES_NEW)
     protected CompletionStage<Void> nackAndSave(Message<?> message, RequestEvent requestEvent, Throwable e) {
+        getMessageId(requestEvent)
+                .ifPresent(msgId -> requestEventRepository.releaseUMBMessage(msgId, requestEvent.getId()));
         requestEventRepository.updateRequestEvent(
                 requestEvent,
                 RequestEventStatus.FAILED,
@@ -268,11 +319,15 @@ public class AmqpMessageConsumer {
 
     @Transactional(value = TxType.REQUIRES_NEW)
     protected CompletionStage<Void> ackAndSave(Message<?> message, RequestEvent requestEvent) {
+        getMessageId(requestEvent)
+                .ifPresent(msgId -> requestEventRepository.ackUMBMessage(msgId, requestEvent.getId()));
         requestEventRepository.updateRequestEvent(
                 requestEvent,
                 null,
                 Map.of(EVENT_KEY_UMB_MSG_STATUS, UMBMessageStatus.ACK.toString()),
                 null);
+        getConsumer(requestEvent)
+                .ifPresent(consumer -> statsCounters.messageHandled(consumer, MessageStatus.PROCESSED));
         return message.ack();
     }
 
@@ -283,6 +338,8 @@ public class AmqpMessageConsumer {
                 RequestEventStatus.IGNORED,
                 Map.of(EVENT_KEY_UMB_MSG_STATUS, UMBMessageStatus.SKIPPED.toString()),
                 RequestEvent.IGNORED_DUPLICATED_REASON);
+        getConsumer(requestEvent)
+                .ifPresent(consumer -> statsCounters.messageHandled(consumer, MessageStatus.SKIPPED));
         return message.ack();
     }
 
@@ -304,39 +361,31 @@ public class AmqpMessageConsumer {
         return requestEventRepository.createRequestEvent(null, event, null);
     }
 
-    @Transactional
-    public long getAlreadyAckedUMBEventsFor(String msgId) {
-        return requestEventRepository.countAlreadyAckedUMBEventsFor(msgId);
+    /**
+     * Claims the message for the provided request event. Returns {@code false} if the same message was already
+     * processed, or is being processed right now by another request event. The claim is stored in its own
+     * transaction.
+     */
+    protected boolean claimMessage(ObjectNode event, UMBConsumer consumer, RequestEvent requestEvent) {
+        return requestEventRepository.claimUMBMessage(
+                event.get(EVENT_KEY_UMB_MSG_ID).asText(),
+                consumer,
+                requestEvent.getId(),
+                claimStaleAfter);
     }
 
-    @Transactional
-    public long getPncProcessedMessages() {
-        return requestEventRepository.countPncProcessedMessages();
-    }
-
-    @Transactional
-    public long getPncReceivedMessages() {
-        return requestEventRepository.countPncReceivedMessages();
-    }
-
-    @Transactional
-    public long getErrataProcessedMessages() {
-        return requestEventRepository.countErrataProcessedMessages();
-    }
-
-    @Transactional
-    public long getErrataReceivedMessages() {
-        return requestEventRepository.countErrataReceivedMessages();
-    }
-
-    @Transactional
-    public long getPncSkippedMessages() {
-        return requestEventRepository.countPncSkippedMessages();
-    }
-
-    @Transactional
-    public long getErrataSkippedMessages() {
-        return requestEventRepository.countErrataSkippedMessages();
+    /**
+     * Returns the number of generations created while handling the provided request event, used to account for them
+     * in the {@link UmbIntakeThrottle} until the next refresh.
+     */
+    private int countGenerations(RequestEvent requestEvent) {
+        try {
+            return QuarkusTransaction.requiringNew()
+                    .call(() -> RequestEvent.findGenerationCounters(requestEvent.getId()).total());
+        } catch (RuntimeException e) {
+            log.debug("Unable to count generations of request event '{}'", requestEvent.getId(), e);
+            return 0;
+        }
     }
 
 }
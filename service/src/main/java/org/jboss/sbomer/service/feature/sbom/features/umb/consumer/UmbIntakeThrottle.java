@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.features.umb.consumer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
+import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Limits the intake of UMB messages based on the number of generations in progress.
+ * </p>
+ *
+ * <p>
+ * Every message being handled takes a credit. A message is handled only if the number of generations in progress
+ * (refreshed from the database every few seconds) plus the number of messages being handled is below the limit of
+ * its lane. Otherwise the consumer thread waits, which stops the intake of new messages from the broker.
+ * </p>
+ *
+ * <p>
+ * Errata messages have a priority lane: a part of the credits ({@code sbomer.umb.intake.errata-reserved}) can only
+ * be taken by Errata messages, so that advisories are still processed while a flood of PNC build messages is being
+ * handled.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+@Slf4j
+public class UmbIntakeThrottle {
+
+    @Inject
+    UmbConfig umbConfig;
+
+    @Inject
+    SbomService sbomService;
+
+    @Inject
+    MeterRegistry registry;
+
+    /**
+     * Maximum number of generations in progress, {@code 0} disables the throttling.
+     */
+    @ConfigProperty(name = "sbomer.umb.intake.max-in-flight", defaultValue = "200")
+    int maxInFlight;
+
+    @ConfigProperty(name = "sbomer.umb.intake.errata-reserved", defaultValue = "50")
+    int errataReserved;
+
+    /**
+     * Maximum time a message waits for a credit. The message is handled after that anyway, so that the broker does not
+     * consider the consumer stuck.
+     */
+    @ConfigProperty(name = "sbomer.umb.intake.max-wait", defaultValue = "PT10M")
+    Duration maxWait;
+
+    private final Object lock = new Object();
+
+    private long inProgress;
+
+    private final Map<UMBConsumer, Integer> handling = new EnumMap<>(UMBConsumer.class);
+
+    private final Map<UMBConsumer, Integer> waiting = new EnumMap<>(UMBConsumer.class);
+
+    @PostConstruct
+    void init() {
+        registry.gauge("sbomer.umb.intake.generations.in.progress", this, throttle -> throttle.inProgress);
+
+        for (UMBConsumer consumer : UMBConsumer.values()) {
+            registry.gauge(
+                    "sbomer.umb.intake.waiting",
+                    Tags.of("consumer", consumer.name()),
+                    this,
+                    throttle -> throttle.waiting(consumer));
+        }
+    }
+
+    @Scheduled(
+            every = "${sbomer.umb.intake.refresh-interval:5s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        if (!umbConfig.isEnabled() || maxInFlight <= 0) {
+            return;
+        }
+
+        refresh();
+    }
+
+    /**
+     * Reads the number of generations in progress from the database and wakes up the waiting consumers.
+     */
+    public void refresh() {
+        long current = sbomService.countInProgressSbomGenerationRequests();
+
+        synchronized (lock) {
+            inProgress = current;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Takes a credit for a message received by the provided consumer, waiting until one is available.
+     */
+    public void acquire(UMBConsumer consumer) {
+        if (maxInFlight <= 0) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + maxWait.toNanos();
+
+        synchronized (lock) {
+            while (used() >= limit(consumer)) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    log.warn(
+                            "Waited {} for {} generations in progress to finish, handling the {} message anyway",
+                            maxWait,
+                            inProgress,
+                            consumer);
+                    break;
+                }
+
+                waiting.merge(consumer, 1, Integer::sum);
+
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } finally {
+                    waiting.merge(consumer, -1, Integer::sum);
+                }
+            }
+
+            handling.merge(consumer, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Returns the credit taken for a message received by the provided consumer, once the message was handled.
+     *
+     * @param consumer the consumer which received the message
+     * @param generations the number of generations created while handling the message
+     */
+    public void release(UMBConsumer consumer, int generations) {
+        if (maxInFlight <= 0) {
+            return;
+        }
+
+        synchronized (lock) {
+            handling.merge(consumer, -1, Integer::sum);
+            // Until the next refresh, account for the generations created while handling the message
+            inProgress += generations;
+            lock.notifyAll();
+        }
+    }
+
+    private long used() {
+        return inProgress + handling.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private long limit(UMBConsumer consumer) {
+        return consumer == UMBConsumer.ERRATA ? maxInFlight : maxInFlight - errataReserved;
+    }
+
+    /**
+     * @param consumer the consumer
+     * @return the number of messages received by the provided consumer which are waiting for a credit
+     */
+    public int waiting(UMBConsumer consumer) {
+        synchronized (lock) {
+            return waiting.getOrDefault(consumer, 0);
+        }
+    }
+}
@@ -18,12 +18,14 @@
 package org.jboss.sbomer.service.feature.sbom.features.umb.producer;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.service.feature.sbom.features.umb.NotificationException;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.GenerationFinishedMessageBody;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.ContainerImageGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.OperationGenerationRequest;
@@ -70,14 +72,27 @@ public class AmqpMessageProducer {
      * @param msg the {@link GenerationFinishedMessageBody} message body to send
      */
     public void notify(GenerationFinishedMessageBody msg) {
+        send(msg);
+    }
+
+    /**
+     * Publish the provided {@link GenerationFinishedMessageBody} {@code msg} to the channel by using an {@link Emitter}
+     * without waiting for the acknowledgement, so that multiple messages can be in flight at the same time.
+     *
+     * @param msg the {@link GenerationFinishedMessageBody} message body to send
+     * @return a {@link CompletionStage} completed when the broker ACKs the message, or completed exceptionally when
+     *         it NACKs it or the message cannot be sent
+     */
+    public CompletionStage<Void> send(GenerationFinishedMessageBody msg) {
         if (emitter.isUnsatisfied()) {
             log.error("About to send a generation finished notification, but could not obtain the emitter");
-            return;
+            return CompletableFuture
+                    .failedFuture(new NotificationException("Could not obtain the emitter for the notification"));
         }
 
         if (msg == null) {
             log.warn("A message body was expected, but got null, not sending anything");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         String data;
@@ -86,9 +101,8 @@ public class AmqpMessageProducer {
             data = ObjectMapperProvider.json().writeValueAsString(msg);
             log.debug(data);
         } catch (JsonProcessingException e) {
-            // TODO: This is a fatal failure, other systems may depend on it, handle it better!
             log.error("Unable to convert message content into JSON, this is unexpected", e);
-            return;
+            return CompletableFuture.failedFuture(e);
         }
 
         OutgoingAmqpMetadataBuilder metadataBuilder = OutgoingAmqpMetadata.builder();
@@ -124,18 +138,24 @@ public class AmqpMessageProducer {
                 msg.getSbom().getGenerationRequest().getType(),
                 msg.getSbom().getId());
 
+        CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+
         emitter.get().send(Message.of(data, () -> {
             ackedMessages.incrementAndGet();
             log.debug("Notification for SBOM id '{}' was ACKed", msg.getSbom().getId());
 
+            acknowledged.complete(null);
             return CompletableFuture.completedFuture(null);
         }, reason -> {
             log.error("Notification for SBOM id '{}' was NACKed", msg.getSbom().getId());
             log.error("Got NACK", reason);
 
             nackedMessages.incrementAndGet();
+            acknowledged.completeExceptionally(reason);
             return CompletableFuture.completedFuture(null);
         }).addMetadata(metadataBuilder.build()));
+
+        return acknowledged;
     }
 
     public int getAckedMessages() {
@@ -17,11 +17,6 @@
  */
 package org.jboss.sbomer.service.feature.sbom.features.umb.producer;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.Objects;
-
 import org.jboss.sbomer.core.SchemaValidator;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
 import org.jboss.sbomer.core.config.Validator;
@@ -38,14 +33,9 @@ public class GenerationFinishedMessageBodyValidator implements Validator<Generat
             throw new ApplicationException("No message to validate provided");
         }
 
-        String schema;
-
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream("schemas/message-success-schema.json")) {
-            schema = new String(Objects.requireNonNull(is).readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new ApplicationException("Could not read the configuration file schema", e);
-        }
-
-        return SchemaValidator.validate(schema, messageBody.toJson());
+        return SchemaValidator.validate(
+                SchemaValidator.forResource("schemas/message-success-schema.json")
+                        .orElseThrow(() -> new ApplicationException("Could not find the message schema")),
+                messageBody.toJson());
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.features.umb.producer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.errors.FeatureDisabledException;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.GenerationFinishedMessageBody;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Sends generation finished notifications recorded in the {@link NotificationOutbox}.
+ * </p>
+ *
+ * <p>
+ * Due entries are processed in batches of {@code sbomer.notification.batch-size}. All messages of a batch are sent
+ * without waiting for the previous ones to be acknowledged; entries are removed once the broker ACKs the message and
+ * rescheduled otherwise.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+@Slf4j
+public class NotificationDispatcher {
+
+    @Inject
+    NotificationService notificationService;
+
+    @Inject
+    NotificationOutbox outbox;
+
+    @Inject
+    AmqpMessageProducer amqpMessageProducer;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "sbomer.notification.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "sbomer.notification.ack-timeout", defaultValue = "PT30S")
+    Duration ackTimeout;
+
+    @Scheduled(
+            every = "${sbomer.notification.dispatch-interval:5s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledDispatch() {
+        if (!notificationService.isEnabled()) {
+            return;
+        }
+
+        // Keep going while there are full batches waiting
+        while (dispatch() == batchSize) {
+            log.debug("Dispatching next batch of notifications");
+        }
+    }
+
+    /**
+     * Sends one batch of due notifications.
+     *
+     * @return the number of processed outbox entries
+     */
+    public int dispatch() {
+        List<OutboxEntry> entries = outbox.due(batchSize);
+
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        log.info("Sending {} notifications", entries.size());
+
+        Map<String, Sbom> sboms = outbox.manifests(entries);
+
+        Queue<Long> done = new ConcurrentLinkedQueue<>();
+        Map<Long, String> failed = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+
+        for (OutboxEntry entry : entries) {
+            Sbom sbom = sboms.get(entry.getSbomId());
+
+            if (sbom == null) {
+                log.warn("Manifest '{}' does not exist anymore, notification will not be sent", entry.getSbomId());
+                done.add(entry.getId());
+                continue;
+            }
+
+            Optional<GenerationFinishedMessageBody> msg;
+
+            try {
+                msg = notificationService.createMessage(sbom);
+            } catch (FeatureDisabledException e) {
+                log.warn(e.getMessage());
+                done.add(entry.getId());
+                continue;
+            } catch (RuntimeException e) {
+                log.warn("Unable to prepare notification for manifest '{}'", sbom.getId(), e);
+                failed.put(entry.getId(), String.valueOf(e.getMessage()));
+                continue;
+            }
+
+            if (msg.isEmpty()) {
+                registry.counter("sbomer.notification.sent", "result", "skipped").increment();
+                done.add(entry.getId());
+                continue;
+            }
+
+            CompletableFuture<Void> send;
+
+            try {
+                send = amqpMessageProducer.send(msg.get()).toCompletableFuture();
+            } catch (RuntimeException e) {
+                send = CompletableFuture.failedFuture(e);
+            }
+
+            sends.add(send.orTimeout(ackTimeout.toMillis(), TimeUnit.MILLISECONDS).handle((result, e) -> {
+                if (e == null) {
+                    registry.counter("sbomer.notification.sent", "result", "acked").increment();
+                    done.add(entry.getId());
+                } else {
+                    registry.counter("sbomer.notification.sent", "result", "failed").increment();
+                    log.warn(
+                            "Notification for manifest '{}' was not acknowledged, it will be retried",
+                            sbom.getId(),
+                            e);
+                    failed.put(entry.getId(), String.valueOf(e.getMessage()));
+                }
+
+                return null;
+            }));
+        }
+
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+
+        outbox.sent(List.copyOf(done));
+        outbox.failed(failed);
+
+        return entries.size();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.features.umb.producer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry.Kind;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.outbox.Outbox;
+import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * <p>
+ * Durable queue of generation finished notifications, the {@link Kind#NOTIFICATION} entries of the {@link Outbox}.
+ * </p>
+ *
+ * <p>
+ * Failed sends are retried with an exponential backoff, up to {@code sbomer.notification.max-attempts} times.
+ * </p>
+ */
+@ApplicationScoped
+public class NotificationOutbox extends Outbox {
+
+    @Inject
+    SbomRepository sbomRepository;
+
+    @ConfigProperty(name = "sbomer.notification.max-attempts", defaultValue = "10")
+    int maxAttempts;
+
+    @ConfigProperty(name = "sbomer.notification.initial-backoff", defaultValue = "PT10S")
+    Duration initialBackoff;
+
+    @ConfigProperty(name = "sbomer.notification.max-backoff", defaultValue = "PT30M")
+    Duration maxBackoff;
+
+    @ConfigProperty(name = "sbomer.notification.claim-timeout", defaultValue = "PT5M")
+    Duration claimTimeout;
+
+    @Override
+    protected Kind kind() {
+        return Kind.NOTIFICATION;
+    }
+
+    @Override
+    protected int maxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    protected Duration initialBackoff() {
+        return initialBackoff;
+    }
+
+    @Override
+    protected Duration maxBackoff() {
+        return maxBackoff;
+    }
+
+    @Override
+    protected Duration claimTimeout() {
+        return claimTimeout;
+    }
+
+    /**
+     * Records notifications to be sent for the provided manifests. Joins the current transaction, so that the entries
+     * are committed together with the manifests.
+     *
+     * @param sboms the manifests to notify about
+     */
+    public void enqueue(List<Sbom> sboms) {
+        add(sboms, Duration.ZERO);
+    }
+
+    /**
+     * Reads the manifests to notify about, see {@link SbomRepository#findNotificationViews(Collection)}.
+     *
+     * @param entries the outbox entries
+     * @return the manifests, by identifier
+     */
+    @Transactional
+    public Map<String, Sbom> manifests(List<OutboxEntry> entries) {
+        return sbomRepository
+                .findNotificationViews(entries.stream().map(OutboxEntry::getSbomId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Sbom::getId, Function.identity()));
+    }
+
+    /**
+     * Removes entries of notifications which were sent (or do not need to be sent).
+     *
+     * @param ids the entry identifiers
+     */
+    public void sent(Collection<Long> ids) {
+        remove(ids);
+    }
+
+    /**
+     * Records failed send attempts and schedules the next ones.
+     *
+     * @param errors the reasons of the failures, by entry identifier
+     */
+    public void failed(Map<Long, String> errors) {
+        fail(errors);
+    }
+}
@@ -19,7 +19,7 @@ package org.jboss.sbomer.service.feature.sbom.features.umb.producer;
 
 import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_BUILD_ID;
 import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_OPERATION_ID;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.fromJsonNode;
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.extractMainComponent;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.getExternalReferences;
 
 import java.util.List;
@@ -79,6 +79,35 @@ public class NotificationService {
     @Inject
     GenerationFinishedMessageBodyValidator validator;
 
+    @Inject
+    NotificationOutbox outbox;
+
+    /**
+     * Whether generation finished notifications should be sent at all.
+     */
+    public boolean isEnabled() {
+        return !featureFlags.isDryRun() && umbConfig.isEnabled() && umbConfig.producer().isEnabled();
+    }
+
+    /**
+     * Records generation finished notifications for the provided manifests in the {@link NotificationOutbox}, in the
+     * current transaction. The notifications are sent later by the {@link NotificationDispatcher}.
+     *
+     * @param sboms the stored manifests
+     */
+    public void enqueue(List<org.jboss.sbomer.service.feature.sbom.model.Sbom> sboms) {
+        if (sboms == null || sboms.isEmpty()) {
+            return;
+        }
+
+        if (!isEnabled()) {
+            log.debug("Notifications are disabled, not sending notifications for {} manifests", sboms.size());
+            return;
+        }
+
+        outbox.enqueue(sboms);
+    }
+
     public void notifyCompleted(List<org.jboss.sbomer.service.feature.sbom.model.Sbom> sboms) {
         if (featureFlags.isDryRun()) {
             throw new FeatureDisabledException(
@@ -99,78 +128,93 @@ public class NotificationService {
             return;
         }
 
-        sboms.forEach(sbom -> {
-            org.cyclonedx.model.Bom bom = fromJsonNode(sbom.getSbom());
-
-            if (bom == null) {
-                throw new NotificationException(
-                        "Could not find a valid bom for SBOM id '{}', skipping sending UMB notification",
-                        sbom.getId());
-            }
-
-            Component component = bom.getMetadata().getComponent();
-
-            if (component == null) {
-                throw new NotificationException(
-                        "Could not find root metadata component for SBOM id '{}', skipping sending UMB notification",
-                        sbom.getId());
-            }
-
-            /*
-             * https://issues.redhat.com/browse/SBOMER-19
-             *
-             * Skips sending UMB messages for manifests not related to a product build.
-             */
-            if (ProductConfig.ErrataProductConfig.fromBom(bom) == null) {
-                log.warn(
-                        "Could not retrieve product configuration from the main component (purl = '{}') in the '{}' SBOM, skipping sending UMB notification",
-                        sbom.getRootPurl(),
-                        sbom.getId());
-                return;
-            }
-
-            // Check whether we should send UMB notification for a given type.
-            if (!featureFlags.shouldNotify(sbom.getGenerationRequest().getType())) {
-                throw new FeatureDisabledException(
-                        "Notifications for '{}' type are disabled, notification service won't send it",
-                        sbom.getGenerationRequest().getType());
-            }
+        sboms.forEach(sbom -> createMessage(sbom).ifPresent(amqpMessageProducer::notify));
+    }
+
+    /**
+     * <p>
+     * Prepares a valid generation finished notification for the provided manifest.
+     * </p>
+     *
+     * <p>
+     * Only the main component of the manifest is read, the manifest content is not converted into a
+     * {@link org.cyclonedx.model.Bom}.
+     * </p>
+     *
+     * @param sbom the manifest
+     * @return the notification or empty in case the manifest is not related to a product and no notification should
+     *         be sent
+     * @throws NotificationException in case the notification cannot be prepared
+     * @throws FeatureDisabledException in case notifications for the type of the manifest are disabled
+     */
+    public Optional<GenerationFinishedMessageBody> createMessage(
+            org.jboss.sbomer.service.feature.sbom.model.Sbom sbom) {
+        Component component = extractMainComponent(sbom.getSbom());
+
+        if (component == null) {
+            throw new NotificationException(
+                    "Could not find root metadata component for SBOM id '{}', skipping sending UMB notification",
+                    sbom.getId());
+        }
 
-            GenerationFinishedMessageBody msg = createGenerationFinishedMessage(sbom, bom);
+        /*
+         * https://issues.redhat.com/browse/SBOMER-19
+         *
+         * Skips sending UMB messages for manifests not related to a product build.
+         */
+        ProductConfig.ErrataProductConfig errataProductConfig = ProductConfig.ErrataProductConfig
+                .fromComponent(component);
+
+        if (errataProductConfig == null) {
+            log.warn(
+                    "Could not retrieve product configuration from the main component (purl = '{}') in the '{}' SBOM, skipping sending UMB notification",
+                    sbom.getRootPurl(),
+                    sbom.getId());
+            return Optional.empty();
+        }
 
-            ValidationResult result = validator.validate(msg);
-            if (result.isValid()) {
-                log.info("GenerationFinishedMessage is valid, sending it to the topic!");
+        // Check whether we should send UMB notification for a given type.
+        if (!featureFlags.shouldNotify(sbom.getGenerationRequest().getType())) {
+            throw new FeatureDisabledException(
+                    "Notifications for '{}' type are disabled, notification service won't send it",
+                    sbom.getGenerationRequest().getType());
+        }
+
+        GenerationFinishedMessageBody msg = createGenerationFinishedMessage(sbom, component, errataProductConfig);
+
+        ValidationResult result = validator.validate(msg);
+
+        if (!result.isValid()) {
+            throw new NotificationException(
+                    "GenerationFinishedMessage is NOT valid, NOT sending it to the topic! Validation errors: {}",
+                    String.join("; ", result.getErrors()));
+        }
 
-                amqpMessageProducer.notify(msg);
-            } else {
-                throw new NotificationException(
-                        "GenerationFinishedMessage is NOT valid, NOT sending it to the topic! Validation errors: {}",
-                        String.join("; ", result.getErrors()));
-            }
-        });
+        log.info("GenerationFinishedMessage is valid, sending it to the topic!");
 
+        return Optional.of(msg);
     }
 
     private GenerationFinishedMessageBody createGenerationFinishedMessage(
             org.jboss.sbomer.service.feature.sbom.model.Sbom sbom,
-            org.cyclonedx.model.Bom bom) {
+            Component component,
+            ProductConfig.ErrataProductConfig errataProductConfigPayload) {
 
-        Component component = bom.getMetadata().getComponent();
+        String format = sbom.getSbom().path("bomFormat").asText(null);
         BomFormat bomFormat = null;
 
         try {
-            bomFormat = BomFormat.valueOf(bom.getBomFormat().toUpperCase());
+            bomFormat = format != null ? BomFormat.valueOf(format.toUpperCase()) : null;
         } catch (IllegalArgumentException exc) {
             log.warn(
                     "Could not find compatible bom format for SBOM id '{}', found '{}', skipping sending UMB notification",
                     sbom.getId(),
-                    bom.getBomFormat());
+                    format);
         }
 
         Sbom.Bom bomPayload = Sbom.Bom.builder()
                 .format(bomFormat)
-                .version(bom.getSpecVersion())
+                .version(sbom.getSbom().path("specVersion").asText(null))
                 .link(sbomerConfig.apiUrl() + "manifests/" + sbom.getId() + "/bom")
                 .build();
 
@@ -242,7 +286,6 @@ public class NotificationService {
 
         sbomPayload.setGenerationRequest(generationRequest);
 
-        ProductConfig.ErrataProductConfig errataProductConfigPayload = ProductConfig.ErrataProductConfig.fromBom(bom);
         ProductConfig productConfigPayload = ProductConfig.builder().errataTool(errataProductConfigPayload).build();
 
         return GenerationFinishedMessageBody.builder()
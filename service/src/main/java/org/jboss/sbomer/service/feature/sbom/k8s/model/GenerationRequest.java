@@ -129,10 +129,14 @@ public class GenerationRequest extends ConfigMap {
         getData().put(KEY_IDENTIFIER, identifier);
     }
 
+    /**
+     * Returns the parsed configuration. Parsed configurations are cached per resource version, the returned instance
+     * must not be modified.
+     */
     @JsonIgnore
     public Config getConfig() {
         String configData = getData().get(KEY_CONFIG);
-        return Config.fromString(configData);
+        return GenerationRequestConfigCache.get(this, configData, Config.class);
     }
 
     /**
@@ -147,7 +151,7 @@ public class GenerationRequest extends ConfigMap {
     @JsonIgnore
     public <T extends Config> T getConfig(Class<T> clazz, boolean def) {
         String configData = getData().get(KEY_CONFIG);
-        T config = Config.fromString(configData, clazz);
+        T config = GenerationRequestConfigCache.get(this, configData, clazz);
 
         if (config == null && def) {
             return Config.newInstance(clazz);
@@ -167,10 +171,13 @@ public class GenerationRequest extends ConfigMap {
     }
 
     public void setConfig(String config) {
+        GenerationRequestConfigCache.invalidate(this);
         getData().put(KEY_CONFIG, config);
     }
 
     public void setConfig(Config config) {
+        GenerationRequestConfigCache.invalidate(this);
+
         try {
             getData().put(KEY_CONFIG, ObjectMapperProvider.json().writeValueAsString(config));
         } catch (JsonProcessingException e) {
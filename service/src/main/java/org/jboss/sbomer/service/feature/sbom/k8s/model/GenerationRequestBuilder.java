@@ -36,10 +36,21 @@ public class GenerationRequestBuilder extends GenerationRequestFluent<Generation
         withType(type);
     }
 
+    /**
+     * Returns the name of the {@link GenerationRequest} resource with the provided identifier. The name is used for
+     * the directory with the files of the generation as well.
+     *
+     * @param id the generation request identifier
+     * @return the resource name
+     */
+    public static String resourceName(String id) {
+        return "sbom-request-" + id.toLowerCase();
+    }
+
     @Override
     public GenerationRequest build() {
         withNewMetadataLike(
-                new ObjectMetaBuilder().withName("sbom-request-" + getId().toLowerCase())
+                new ObjectMetaBuilder().withName(resourceName(getId()))
                         .withLabels(Labels.defaultLabelsToMap(getType()))
                         .build())
                 .endMetadata();
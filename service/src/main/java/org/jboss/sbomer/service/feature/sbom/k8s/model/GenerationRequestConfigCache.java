@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.k8s.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.sbomer.core.features.sbom.config.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Caches configurations parsed from {@link GenerationRequest}s, so that the same serialized configuration is not
+ * deserialized over and over again while reconciling.
+ * </p>
+ *
+ * <p>
+ * Entries are keyed by the resource identity and its {@code resourceVersion}. Because the data of a resource can be
+ * modified locally without changing the {@code resourceVersion}, the serialized configuration is stored in the entry
+ * as well and compared before a cached value is returned.
+ * </p>
+ *
+ * <p>
+ * Returned configurations are shared and must not be modified, use {@link GenerationRequest#setConfig(Config)}
+ * instead.
+ * </p>
+ */
+@Slf4j
+final class GenerationRequestConfigCache {
+
+    static final String METRIC_NAME = "sbomer.generation.request.config.parse";
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final Counter HITS = Metrics.counter(METRIC_NAME, "cache", "hit");
+    private static final Counter MISSES = Metrics.counter(METRIC_NAME, "cache", "miss");
+
+    private record Entry(String resourceVersion, String data, Map<Class<?>, Config> configs) {
+    }
+
+    private static final Map<String, Entry> ENTRIES = Collections
+            .synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    private GenerationRequestConfigCache() {
+        // This is a utility class
+    }
+
+    /**
+     * Returns the configuration of the given {@link GenerationRequest} deserialized as {@code clazz}, parsing it only
+     * if it was not parsed for the same resource version and content before.
+     *
+     * @param request the generation request
+     * @param data the serialized configuration
+     * @param clazz the expected configuration type
+     * @return the parsed configuration or {@code null} if there is no configuration
+     */
+    static <T extends Config> T get(GenerationRequest request, String data, Class<T> clazz) {
+        if (data == null) {
+            return null;
+        }
+
+        String key = key(request);
+
+        if (key == null) {
+            return parse(data, clazz);
+        }
+
+        String resourceVersion = request.getMetadata().getResourceVersion();
+
+        Entry entry = ENTRIES.get(key);
+
+        if (entry == null || !Objects.equals(entry.resourceVersion(), resourceVersion)
+                || !entry.data().equals(data)) {
+            entry = new Entry(resourceVersion, data, new ConcurrentHashMap<>());
+            ENTRIES.put(key, entry);
+        }
+
+        Config cached = entry.configs().get(clazz);
+
+        if (cached != null) {
+            HITS.increment();
+            return clazz.cast(cached);
+        }
+
+        T config = parse(data, clazz);
+
+        if (config != null) {
+            entry.configs().put(clazz, config);
+        }
+
+        return config;
+    }
+
+    /**
+     * Removes the cached configuration of the given {@link GenerationRequest}.
+     *
+     * @param request the generation request
+     */
+    static void invalidate(GenerationRequest request) {
+        String key = key(request);
+
+        if (key != null) {
+            ENTRIES.remove(key);
+        }
+    }
+
+    private static <T extends Config> T parse(String data, Class<T> clazz) {
+        MISSES.increment();
+        log.trace("Parsing configuration as '{}'", clazz.getSimpleName());
+        return Config.fromString(data, clazz);
+    }
+
+    private static String key(GenerationRequest request) {
+        if (request.getMetadata() == null) {
+            return null;
+        }
+
+        if (request.getMetadata().getUid() != null) {
+            return request.getMetadata().getUid();
+        }
+
+        if (request.getMetadata().getName() == null) {
+            return null;
+        }
+
+        return request.getMetadata().getNamespace() + "/" + request.getMetadata().getName();
+    }
+}
@@ -19,6 +19,8 @@ package org.jboss.sbomer.service.feature.sbom.k8s.reconciler;
 
 import static org.jboss.sbomer.service.feature.sbom.features.generator.AbstractController.EVENT_SOURCE_NAME;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -34,9 +36,11 @@ import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.config.PncBuildConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
+import org.jboss.sbomer.core.features.sbom.utils.GenerationCacheKey;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.cache.GenerationCache;
 import org.jboss.sbomer.service.feature.sbom.features.generator.AbstractController;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationPhase;
@@ -62,8 +66,10 @@ import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import io.javaoperatorsdk.operator.api.reconciler.dependent.Dependent;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -99,6 +105,10 @@ import lombok.extern.slf4j.Slf4j;
 public class BuildController extends AbstractController {
     final ObjectMapper objectMapper = ObjectMapperProvider.yaml();
 
+    @Inject
+    @Setter
+    GenerationCache generationCache;
+
     @Override
     protected UpdateControl<GenerationRequest> updateRequest(
             GenerationRequest generationRequest,
@@ -253,6 +263,7 @@ public class BuildController extends AbstractController {
 
     // TODO: Refactor
     @Override
+    @Transactional
     protected UpdateControl<GenerationRequest> reconcileGenerating(
             GenerationRequest generationRequest,
             Set<TaskRun> secondaryResources) {
@@ -536,16 +547,16 @@ public class BuildController extends AbstractController {
             return UpdateControl.noUpdate();
         }
 
-        // In case resource gets an update, update th DB entity as well
+        // In case resource gets an update, update th DB entity as well (batched with other updates, unless final)
         if (action.isUpdateResource()) {
-            SbomGenerationRequest.sync(generationRequest);
+            syncQueue.enqueue(generationRequest);
         }
 
         return action;
     }
 
     protected List<Sbom> storeSboms(GenerationRequest generationRequest) {
-        SbomGenerationRequest sbomGenerationRequest = SbomGenerationRequest.sync(generationRequest);
+        SbomGenerationRequest sbomGenerationRequest = syncQueue.syncNow(generationRequest);
 
         log.info(
                 "Reading all generated SBOMs for the GenerationRequest '{}'",
@@ -578,12 +589,36 @@ public class BuildController extends AbstractController {
                     .build();
 
             // And store it in the database
-            sboms.add(sbomRepository.saveSbom(sbom));
+            sbom = sbomRepository.saveSbom(sbom);
+            sboms.add(sbom);
+
+            recordInCache(sbomPath, sbom);
         }
 
         return sboms;
     }
 
+    /**
+     * Records the manifest in the generation cache, if the generator computed the cache key for it.
+     */
+    private void recordInCache(Path sbomPath, Sbom sbom) {
+        Path keyFile = GenerationCacheKey.keyFile(sbomPath);
+
+        if (!Files.exists(keyFile)) {
+            return;
+        }
+
+        try {
+            String cacheKey = Files.readString(keyFile).strip();
+
+            if (!cacheKey.isEmpty()) {
+                generationCache.record(cacheKey, sbom.getId());
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read the generation cache key from '{}', skipping caching", keyFile, e);
+        }
+    }
+
     private Config setConfig(GenerationRequest generationRequest, TaskRun taskRun) {
         log.debug("Handling result of the initialization task");
 
@@ -296,6 +296,7 @@ public class OperationController extends AbstractController {
      * @return {@link UpdateControl} according to the target state of processing
      */
     // TODO: Refactor
+    @Transactional
     protected UpdateControl<GenerationRequest> reconcileGenerating(
             GenerationRequest generationRequest,
             Set<TaskRun> secondaryResources) {
@@ -533,16 +534,16 @@ public class OperationController extends AbstractController {
             return UpdateControl.noUpdate();
         }
 
-        // In case resource gets an update, update th DB entity as well
+        // In case resource gets an update, update th DB entity as well (batched with other updates, unless final)
         if (action.isUpdateResource()) {
-            SbomGenerationRequest.sync(generationRequest);
+            syncQueue.enqueue(generationRequest);
         }
 
         return action;
     }
 
     protected List<Sbom> storeOperationSboms(GenerationRequest generationRequest) {
-        SbomGenerationRequest sbomGenerationRequest = SbomGenerationRequest.sync(generationRequest);
+        SbomGenerationRequest sbomGenerationRequest = syncQueue.syncNow(generationRequest);
 
         log.info(
                 "Reading all generated SBOMs for the GenerationRequest '{}'",
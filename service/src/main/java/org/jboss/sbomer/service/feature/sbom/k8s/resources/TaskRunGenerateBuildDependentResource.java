@@ -18,7 +18,9 @@
 package org.jboss.sbomer.service.feature.sbom.k8s.resources;
 
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -42,6 +44,7 @@ import io.fabric8.tekton.pipeline.v1beta1.ParamBuilder;
 import io.fabric8.tekton.pipeline.v1beta1.TaskRefBuilder;
 import io.fabric8.tekton.pipeline.v1beta1.TaskRun;
 import io.fabric8.tekton.pipeline.v1beta1.TaskRunBuilder;
+import io.fabric8.tekton.pipeline.v1beta1.WorkspaceBinding;
 import io.fabric8.tekton.pipeline.v1beta1.WorkspaceBindingBuilder;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.processing.dependent.BulkDependentResource;
@@ -72,9 +75,20 @@ public class TaskRunGenerateBuildDependentResource extends KubernetesDependentRe
      */
     public static final String PARAM_COMMAND_INDEX_NAME = "index";
 
+    /**
+     * Workspace holding the bare mirrors of the source repositories, shared by all generations.
+     */
+    public static final String WORKSPACE_GIT_MIRRORS = "git-mirrors";
+
     @ConfigProperty(name = "SBOMER_RELEASE", defaultValue = "sbomer")
     String release;
 
+    /**
+     * Whether the {@link #WORKSPACE_GIT_MIRRORS} workspace is bound, the Task needs to declare it.
+     */
+    @ConfigProperty(name = "sbomer.generator.git-mirror.enabled", defaultValue = "false")
+    boolean gitMirrorEnabled;
+
     @Inject
     KubernetesClient kubernetesClient;
 
@@ -139,6 +153,26 @@ public class TaskRunGenerateBuildDependentResource extends KubernetesDependentRe
             throw new ApplicationException("Cannot set timeout", e);
         }
 
+        List<WorkspaceBinding> workspaces = new ArrayList<>();
+
+        workspaces.add(
+                new WorkspaceBindingBuilder().withSubPath(generationRequest.getMetadata().getName())
+                        .withName("data")
+                        .withPersistentVolumeClaim(
+                                new PersistentVolumeClaimVolumeSourceBuilder().withClaimName(release + "-sboms")
+                                        .build())
+                        .build());
+
+        if (gitMirrorEnabled) {
+            workspaces.add(
+                    new WorkspaceBindingBuilder().withSubPath(WORKSPACE_GIT_MIRRORS)
+                            .withName(WORKSPACE_GIT_MIRRORS)
+                            .withPersistentVolumeClaim(
+                                    new PersistentVolumeClaimVolumeSourceBuilder().withClaimName(release + "-sboms")
+                                            .build())
+                            .build());
+        }
+
         return new TaskRunBuilder().withNewMetadata()
                 .withNamespace(generationRequest.getMetadata().getNamespace())
                 .withLabels(labels)
@@ -160,13 +194,7 @@ public class TaskRunGenerateBuildDependentResource extends KubernetesDependentRe
                                 .withNewValue(String.valueOf(index))
                                 .build())
                 .withTaskRef(new TaskRefBuilder().withName(release + TASK_SUFFIX).build())
-                .withWorkspaces(
-                        new WorkspaceBindingBuilder().withSubPath(generationRequest.getMetadata().getName())
-                                .withName("data")
-                                .withPersistentVolumeClaim(
-                                        new PersistentVolumeClaimVolumeSourceBuilder().withClaimName(release + "-sboms")
-                                                .build())
-                                .build())
+                .withWorkspaces(workspaces)
                 .endSpec()
                 .build();
 
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.time.Instant;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * <p>
+ * An entry of the generation cache, pointing to the latest {@link Sbom} generated with the given key.
+ * </p>
+ *
+ * <p>
+ * See {@link org.jboss.sbomer.core.features.sbom.utils.GenerationCacheKey} for how the key is computed.
+ * </p>
+ */
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(name = "generation_cache")
+@NoArgsConstructor
+@RegisterForReflection
+public class GenerationCacheEntry extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "cache_key", nullable = false, updatable = false, length = 64)
+    private String cacheKey;
+
+    @Column(name = "sbom_id", nullable = false, length = 50)
+    private String sbomId;
+
+    @Column(name = "creation_time", nullable = false)
+    private Instant creationTime;
+
+    @Column(name = "last_hit_time")
+    private Instant lastHitTime;
+
+    @Column(name = "hits", nullable = false)
+    private long hits;
+}
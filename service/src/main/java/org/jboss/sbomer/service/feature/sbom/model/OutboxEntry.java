@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.time.Instant;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * <p>
+ * A manifest waiting to be delivered somewhere, for example published to Atlas or announced with a generation
+ * finished notification.
+ * </p>
+ *
+ * <p>
+ * Entries are created before the delivery is attempted and removed once it succeeds, so that deliveries survive
+ * restarts and can be retried when the target is not available.
+ * </p>
+ */
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(
+        name = "outbox",
+        indexes = { @Index(name = "idx_outbox_kind_status_next_attempt", columnList = "kind, status, next_attempt"),
+                @Index(name = "idx_outbox_sbom", columnList = "sbom_id") })
+@NoArgsConstructor
+@RegisterForReflection
+public class OutboxEntry extends PanacheEntityBase {
+
+    public enum Kind {
+        /**
+         * The manifest is published to Atlas.
+         */
+        ATLAS,
+        /**
+         * A generation finished notification is sent for the manifest.
+         */
+        NOTIFICATION
+    }
+
+    public enum Status {
+        /**
+         * The entry is waiting for (another) delivery attempt.
+         */
+        PENDING,
+        /**
+         * All delivery attempts failed, the entry will not be delivered automatically anymore.
+         */
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, updatable = false, length = 20)
+    private Kind kind;
+
+    @Column(name = "sbom_id", nullable = false, updatable = false, length = 50)
+    private String sbomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt", nullable = false)
+    private Instant nextAttempt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private Instant creationTime;
+}
@@ -17,11 +17,14 @@
  */
 package org.jboss.sbomer.service.feature.sbom.model;
 
+import java.sql.PreparedStatement;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.Session;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.proxy.HibernateProxy;
@@ -31,6 +34,7 @@ import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -43,7 +47,11 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -62,7 +70,8 @@ import lombok.extern.slf4j.Slf4j;
 @Table(
         name = "request",
         indexes = { @Index(name = "idx_request_eventtype", columnList = "event_type"),
-                @Index(name = "idx_request_eventstatus", columnList = "event_status") })
+                @Index(name = "idx_request_eventstatus", columnList = "event_status"),
+                @Index(name = "idx_request_receivaltime", columnList = "receival_time, id") })
 @Slf4j
 @NoArgsConstructor
 @AllArgsConstructor
@@ -130,6 +139,39 @@ public class RequestEvent extends PanacheEntityBase {
     @JdbcTypeCode(SqlTypes.LONGVARCHAR)
     String reason;
 
+    // The counters below are maintained by SbomGenerationRequest with atomic updates and are never written from the
+    // entity state, which can be stale. Use findGenerationCounters to read the current values.
+
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "generations_total", nullable = false, updatable = false)
+    private int generationsTotal;
+
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "generations_in_progress", nullable = false, updatable = false)
+    private int generationsInProgress;
+
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "generations_failed", nullable = false, updatable = false)
+    private int generationsFailed;
+
+    /**
+     * The {@link RequestLookup} keys as last written to (or read from) the database.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private Map<String, String> storedLookupKeys;
+
+    /**
+     * Number of {@link SbomGenerationRequest}s of a request event: all of them, the ones in progress (not in a final
+     * state) and the failed ones.
+     */
+    public record GenerationCounters(int total, int inProgress, int failed) {
+    }
+
     public static RequestEvent createNew(RequestConfig requestConfig, RequestEventType eventType, Object event) {
         JsonNode eventNode = (event instanceof Map) ? ObjectMapperProvider.json().valueToTree(event) : (JsonNode) event;
 
@@ -149,6 +191,79 @@ public class RequestEvent extends PanacheEntityBase {
         return this;
     }
 
+    /**
+     * Reads the current generation counters of the request event with the provided identifier from the database.
+     *
+     * @param requestEventId the request event identifier
+     * @return the {@link GenerationCounters}
+     */
+    public static GenerationCounters findGenerationCounters(String requestEventId) {
+        Object[] counters = getEntityManager()
+                .createQuery(
+                        "SELECT r.generationsTotal, r.generationsInProgress, r.generationsFailed "
+                                + "FROM RequestEvent r WHERE r.id = :id",
+                        Object[].class)
+                .setParameter("id", requestEventId)
+                .getSingleResult();
+
+        return new GenerationCounters(
+                ((Number) counters[0]).intValue(),
+                ((Number) counters[1]).intValue(),
+                ((Number) counters[2]).intValue());
+    }
+
+    /**
+     * Atomically adjusts the generation counters of the request event with the provided identifier by the provided
+     * deltas.
+     *
+     * <p>
+     * The statement is executed directly on the connection of the current session, because it is used from entity
+     * lifecycle callbacks, while the session is being flushed.
+     * </p>
+     *
+     * @param requestEventId the request event identifier
+     * @param total the change of the number of generations
+     * @param inProgress the change of the number of generations in progress
+     * @param failed the change of the number of failed generations
+     */
+    static void updateGenerationCounters(String requestEventId, int total, int inProgress, int failed) {
+        if (total == 0 && inProgress == 0 && failed == 0) {
+            return;
+        }
+
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE request SET generations_total = generations_total + ?, "
+                            + "generations_in_progress = generations_in_progress + ?, "
+                            + "generations_failed = generations_failed + ? WHERE id = ?")) {
+                statement.setInt(1, total);
+                statement.setInt(2, inProgress);
+                statement.setInt(3, failed);
+                statement.setString(4, requestEventId);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    @PostLoad
+    void postLoad() {
+        storedLookupKeys = RequestLookup.requestKeys(requestConfig);
+    }
+
+    /**
+     * Keeps the {@link RequestLookup} entries of this request event in sync with its request config.
+     */
+    @PostPersist
+    @PostUpdate
+    void postWrite() {
+        Map<String, String> lookupKeys = RequestLookup.requestKeys(requestConfig);
+
+        if (!lookupKeys.equals(storedLookupKeys)) {
+            RequestLookup.replaceRequestKeys(id, lookupKeys);
+            storedLookupKeys = lookupKeys;
+        }
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) {
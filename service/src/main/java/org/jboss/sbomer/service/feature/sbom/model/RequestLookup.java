@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.jboss.sbomer.core.config.request.RequestConfig;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * <p>
+ * Read model for the aggregated search of request events, mapping the supported lookup keys (the request config type
+ * and identifier, or the errata of the release metadata of a manifest) to the request events (and manifests) they
+ * identify, so that a lookup is a single indexed read instead of a scan of the JSON columns of the {@code request}
+ * and {@code sbom} tables.
+ * </p>
+ *
+ * <p>
+ * The entries are maintained incrementally when {@link RequestEvent}s and {@link Sbom}s are written.
+ * </p>
+ */
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(
+        name = "request_lookup",
+        indexes = { @Index(name = "idx_request_lookup_key", columnList = "key_type, key_value"),
+                @Index(name = "idx_request_lookup_request", columnList = "request_id"),
+                @Index(name = "idx_request_lookup_sbom", columnList = "sbom_id") })
+@NoArgsConstructor
+@RegisterForReflection
+public class RequestLookup extends PanacheEntityBase {
+
+    public static final String RELEASE_ERRATA_ID = "release.errata_id";
+    public static final String RELEASE_ERRATA_FULLNAME = "release.errata_fullname";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "key_type", nullable = false, updatable = false)
+    private String keyType;
+
+    @Column(name = "key_value", nullable = false, updatable = false)
+    private String keyValue;
+
+    @Column(name = "request_id", nullable = false, updatable = false)
+    private String requestId;
+
+    /**
+     * The manifest the key comes from, {@code null} for the keys of the request event itself.
+     */
+    @Column(name = "sbom_id", updatable = false)
+    private String sbomId;
+
+    /**
+     * Prepares the lookup keys of a request event: the type of the request config mapped to its identifier.
+     *
+     * @param config the request config
+     * @return the lookup keys
+     */
+    public static Map<String, String> requestKeys(RequestConfig config) {
+        if (config == null) {
+            return Map.of();
+        }
+
+        String identifierKey = identifierKey(config.getClass());
+
+        if (identifierKey == null) {
+            return Map.of();
+        }
+
+        JsonNode identifier = ObjectMapperProvider.json().valueToTree(config).get(identifierKey);
+
+        if (identifier == null || identifier.isNull()) {
+            return Map.of();
+        }
+
+        return Map.of(config.getType(), identifier.asText());
+    }
+
+    /**
+     * Prepares the lookup keys of a manifest from its release metadata.
+     *
+     * @param releaseMetadata the release metadata of the manifest
+     * @return the lookup keys
+     */
+    public static Map<String, String> releaseKeys(JsonNode releaseMetadata) {
+        if (releaseMetadata == null || !releaseMetadata.isObject()) {
+            return Map.of();
+        }
+
+        Map<String, String> keys = new LinkedHashMap<>();
+
+        putText(keys, RELEASE_ERRATA_ID, releaseMetadata.get("errata_id"));
+        putText(keys, RELEASE_ERRATA_FULLNAME, releaseMetadata.get("errata_fullname"));
+
+        return keys;
+    }
+
+    /**
+     * Replaces the lookup keys of the request event itself (not coming from its manifests).
+     *
+     * <p>
+     * The statements are executed directly on the connection of the current session, because these are used from
+     * entity lifecycle callbacks, while the session is being flushed.
+     * </p>
+     *
+     * @param requestId the request event identifier
+     * @param keys the lookup keys
+     */
+    static void replaceRequestKeys(String requestId, Map<String, String> keys) {
+        replace(
+                "DELETE FROM request_lookup WHERE request_id = ? AND sbom_id IS NULL",
+                requestId,
+                requestId,
+                null,
+                keys);
+    }
+
+    /**
+     * Replaces the lookup keys of a manifest.
+     *
+     * @param requestId the identifier of the request event the manifest belongs to or {@code null}, in which case the
+     *        manifest is not searchable
+     * @param sbomId the manifest identifier
+     * @param keys the lookup keys
+     * @see #replaceRequestKeys(String, Map)
+     */
+    static void replaceManifestKeys(String requestId, String sbomId, Map<String, String> keys) {
+        replace(
+                "DELETE FROM request_lookup WHERE sbom_id = ?",
+                sbomId,
+                requestId,
+                sbomId,
+                requestId != null ? keys : Map.of());
+    }
+
+    private static void replace(
+            String deleteQuery,
+            String deleteParameter,
+            String requestId,
+            String sbomId,
+            Map<String, String> keys) {
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(deleteQuery)) {
+                statement.setString(1, deleteParameter);
+                statement.executeUpdate();
+            }
+
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO request_lookup (key_type, key_value, request_id, sbom_id) VALUES (?, ?, ?, ?)")) {
+                for (Map.Entry<String, String> key : keys.entrySet()) {
+                    statement.setString(1, key.getKey());
+                    statement.setString(2, key.getValue());
+                    statement.setString(3, requestId);
+                    statement.setString(4, sbomId);
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static void putText(Map<String, String> keys, String keyType, JsonNode value) {
+        if (value != null && !value.isNull()) {
+            keys.put(keyType, value.asText());
+        }
+    }
+
+    private static String identifierKey(Class<? extends RequestConfig> configClass) {
+        try {
+            return (String) configClass.getDeclaredField("IDENTIFIER_KEY").get(null);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -21,7 +21,6 @@ import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
 
-import org.cyclonedx.model.Bom;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -45,9 +44,13 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -64,7 +67,9 @@ import lombok.ToString;
 @Table(
         name = "sbom",
         indexes = { @Index(name = "idx_sbom_identifier", columnList = "identifier"),
-                @Index(name = "idx_sbom_rootpurl", columnList = "root_purl") })
+                @Index(name = "idx_sbom_rootpurl", columnList = "root_purl"),
+                @Index(name = "idx_sbom_content_hash", columnList = "content_hash"),
+                @Index(name = "idx_sbom_creationtime", columnList = "creation_time, id") })
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(setterPrefix = "with")
@@ -93,6 +98,22 @@ public class Sbom extends PanacheEntityBase {
                                         // big schema which is the case if we use the Bom.class
     private JsonNode sbom;
 
+    /**
+     * SHA-256 digest of the {@link #sbom} content, see {@link SbomUtils#contentHash(JsonNode)}. Makes it possible to
+     * identify (and validate cached copies of) the manifest content without reading the content itself.
+     */
+    @JsonIgnore
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * Set when the {@link #sbom} content was replaced, so that the derived columns are recomputed only when needed.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private boolean sbomChanged;
+
     @Column(name = "config_index")
     private Integer configIndex;
 
@@ -113,28 +134,79 @@ public class Sbom extends PanacheEntityBase {
     private JsonNode releaseMetadata;
 
     /**
-     * Updates the purl for the object based on the SBOM content, if provided.
-     *
+     * The {@link RequestLookup} keys (and the request event these point to) as last written to (or read from) the
+     * database.
      */
-    private void setupRootPurl() {
-        Bom bom = SbomUtils.fromJsonNode(getSbom());
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private Map<String, String> storedLookupKeys;
 
-        rootPurl = null;
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private String storedLookupRequestId;
 
-        if (bom != null && bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
-            rootPurl = bom.getMetadata().getComponent().getPurl();
-        }
+    public void setSbom(JsonNode sbom) {
+        this.sbom = sbom;
+        this.sbomChanged = true;
+    }
+
+    /**
+     * Updates the purl and the content hash for the object based on the SBOM content, if provided.
+     *
+     */
+    private void setupContentDerivedFields() {
+        rootPurl = SbomUtils.extractRootPurl(sbom);
+        contentHash = SbomUtils.contentHash(sbom);
+        sbomChanged = false;
     }
 
     @PrePersist
     public void prePersist() {
         creationTime = Instant.now();
-        setupRootPurl();
+        setupContentDerivedFields();
     }
 
     @PreUpdate
     public void preUpdate() {
-        setupRootPurl();
+        if (sbomChanged || contentHash == null) {
+            setupContentDerivedFields();
+        }
+    }
+
+    @PostLoad
+    void postLoad() {
+        storedLookupKeys = RequestLookup.releaseKeys(releaseMetadata);
+        storedLookupRequestId = lookupRequestId();
+    }
+
+    /**
+     * Keeps the {@link RequestLookup} entries of this manifest in sync with its release metadata.
+     */
+    @PostPersist
+    @PostUpdate
+    void postWrite() {
+        Map<String, String> lookupKeys = RequestLookup.releaseKeys(releaseMetadata);
+        String lookupRequestId = lookupRequestId();
+
+        if (lookupKeys.isEmpty() && storedLookupKeys == null) {
+            // A new manifest without release metadata, nothing to remove
+            storedLookupKeys = lookupKeys;
+        } else if (!lookupKeys.equals(storedLookupKeys) || !Objects.equals(lookupRequestId, storedLookupRequestId)) {
+            RequestLookup.replaceManifestKeys(lookupRequestId, id, lookupKeys);
+            storedLookupKeys = lookupKeys;
+        }
+
+        storedLookupRequestId = lookupRequestId;
+    }
+
+    private String lookupRequestId() {
+        if (generationRequest == null || generationRequest.getRequest() == null) {
+            return null;
+        }
+
+        return generationRequest.getRequest().getId();
     }
 
     @Override
@@ -20,9 +20,14 @@ package org.jboss.sbomer.service.feature.sbom.model;
 import static org.jboss.sbomer.service.feature.sbom.errata.event.EventNotificationFiringUtil.notifyRequestEventStatusUpdate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.hibernate.annotations.DynamicUpdate;
@@ -36,7 +41,9 @@ import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.service.feature.sbom.errata.event.comment.RequestEventStatusUpdateEvent;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent.GenerationCounters;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
@@ -51,10 +58,15 @@ import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
-import jakarta.persistence.Query;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -74,7 +86,8 @@ import lombok.extern.slf4j.Slf4j;
         name = "sbom_generation_request",
         indexes = { @Index(name = "idx_request_identifier", columnList = "identifier"),
                 @Index(name = "idx_request_type", columnList = "type"),
-                @Index(name = "idx_request_status", columnList = "status") })
+                @Index(name = "idx_request_status", columnList = "status"),
+                @Index(name = "idx_generation_creationtime", columnList = "creation_time, id") })
 @Slf4j
 @NoArgsConstructor
 @AllArgsConstructor
@@ -118,6 +131,24 @@ public class SbomGenerationRequest extends PanacheEntityBase {
     @JoinColumn(foreignKey = @ForeignKey(name = "fk_generationrequest_request"))
     private RequestEvent request;
 
+    /**
+     * The status as last written to (or read from) the database, used to maintain the generation counters of the
+     * {@link RequestEvent}.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private SbomGenerationStatus storedStatus;
+
+    /**
+     * The identifier of the {@link RequestEvent} as last written to (or read from) the database, used to maintain the
+     * generation counters of the {@link RequestEvent}.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private String storedRequestId;
+
     /**
      * Method to sync the {@link GenerationRequest} Kubernetes resource with the {@link SbomGenerationRequest} entity in
      * the database, with a provided request event.
@@ -133,25 +164,11 @@ public class SbomGenerationRequest extends PanacheEntityBase {
 
         // Create the entity if it's not there
         if (sbomGenerationRequest == null) {
-            log.debug(
-                    "Could not find SbomGenerationRequest entity in the database for id '{}', creating new one",
-                    generationRequest.getId());
-
-            sbomGenerationRequest = SbomGenerationRequest.builder()
-                    .withId(generationRequest.getId())
-                    .withIdentifier(generationRequest.getIdentifier())
-                    .withType(generationRequest.getType())
-                    .build();
+            sbomGenerationRequest = create(generationRequest);
         }
 
         // Finally, sync the SbomGenerationRequest entity with the GenerationRequest.
-        sbomGenerationRequest.setStatus(generationRequest.getStatus());
-        // And reason
-        sbomGenerationRequest.setReason(generationRequest.getReason());
-        // And result
-        sbomGenerationRequest.setResult(generationRequest.getResult());
-        // And config
-        sbomGenerationRequest.setConfig(generationRequest.getConfig());
+        applyResource(sbomGenerationRequest, generationRequest);
 
         // If the request is null (e.g., sync called from the controllers) do not override it
         if (request != null) {
@@ -162,12 +179,12 @@ public class SbomGenerationRequest extends PanacheEntityBase {
             sbomGenerationRequest.setRequest(dbRequestEvent);
         }
 
+        // Store it in the database, this updates the generation counters of the request as well
+        sbomGenerationRequest.persistAndFlush();
+
         // Update the status of the request for this generation
         updateRequestEventStatus(sbomGenerationRequest);
 
-        // Store it in the database
-        sbomGenerationRequest.persistAndFlush();
-
         log.debug(
                 "SbomGenerationRequest '{}' synced with GenerationRequest '{}'",
                 sbomGenerationRequest.getId(),
@@ -183,18 +200,15 @@ public class SbomGenerationRequest extends PanacheEntityBase {
             return;
         }
 
-        Object[] results = countSbomGenerationRequestsOf(sbomGenerationRequest.getRequest());
-        long generationsInProgress = results[0] == null ? 0L : ((Number) results[0]).longValue();
-        long generationsFailed = results[1] == null ? 0L : ((Number) results[1]).longValue();
-        long generationsTotal = results[2] == null ? 0L : ((Number) results[2]).longValue();
+        // The counters include the provided generation, as long as its current status was stored in the database
+        GenerationCounters counters = RequestEvent.findGenerationCounters(sbomGenerationRequest.getRequest().getId());
+        long generationsInProgress = counters.inProgress();
+        long generationsFailed = counters.failed();
+        long generationsTotal = counters.total();
 
         // If this is not a final status update, mark the request as in progress
         if (!sbomGenerationRequest.getStatus().isFinal()) {
             sbomGenerationRequest.getRequest().setEventStatus(RequestEventStatus.IN_PROGRESS);
-            if (generationsInProgress == 0) {
-                // At least this one is in progress (it might have not been stored in DB yet)
-                generationsInProgress = 1L;
-            }
             sbomGenerationRequest.getRequest()
                     .setReason(generationsInProgress + "/" + generationsTotal + " in progress");
             return;
@@ -209,12 +223,9 @@ public class SbomGenerationRequest extends PanacheEntityBase {
             return;
         }
 
-        if (generationsFailed > 0 || SbomGenerationStatus.FAILED.equals(sbomGenerationRequest.getStatus())) {
+        if (generationsFailed > 0) {
             // There are no more generations in progress and some failed
-            long failed = generationsFailed
-                    + (SbomGenerationStatus.FAILED.equals(sbomGenerationRequest.getStatus()) ? 1L : 0L);
-            failed = Math.min(failed, generationsTotal);
-            sbomGenerationRequest.getRequest().setReason(failed + "/" + generationsTotal + " failed");
+            sbomGenerationRequest.getRequest().setReason(generationsFailed + "/" + generationsTotal + " failed");
             sbomGenerationRequest.getRequest().setEventStatus(RequestEventStatus.FAILED);
 
         } else {
@@ -234,20 +245,109 @@ public class SbomGenerationRequest extends PanacheEntityBase {
                         .build());
     }
 
+    /**
+     * Syncs multiple {@link GenerationRequest} Kubernetes resources with their {@link SbomGenerationRequest} entities
+     * in the database at once: existing entities are read (and locked) with a single query and all changes are written
+     * with a single flush.
+     *
+     * <p>
+     * Resources with a status older than the one already stored (which can happen when the entity was synced
+     * directly in the meantime) are skipped. The status of every affected request event is updated once.
+     * </p>
+     *
+     * @param generationRequests the generation requests to sync, at most one for a given identifier
+     * @return Updated {@link SbomGenerationRequest} entities
+     */
     @Transactional
-    private static Object[] countSbomGenerationRequestsOf(RequestEvent request) {
-
-        Query query = getEntityManager()
-                .createQuery(
-                        "SELECT SUM(CASE WHEN status != ?1 AND status != ?2 THEN 1 ELSE 0 END), "
-                                + "SUM(CASE WHEN status = ?3 THEN 1 ELSE 0 END), " + "COUNT(*) AS total_count "
-                                + "FROM SbomGenerationRequest WHERE request.id = ?4")
-                .setParameter(1, SbomGenerationStatus.FAILED)
-                .setParameter(2, SbomGenerationStatus.FINISHED)
-                .setParameter(3, SbomGenerationStatus.FAILED)
-                .setParameter(4, request.getId());
-
-        return (Object[]) query.getSingleResult();
+    public static List<SbomGenerationRequest> syncAll(Collection<GenerationRequest> generationRequests) {
+        if (generationRequests.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, SbomGenerationRequest> stored = SbomGenerationRequest // NOSONAR
+                .<SbomGenerationRequest> find(
+                        "id in ?1",
+                        generationRequests.stream().map(GenerationRequest::getId).toList())
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .stream()
+                .collect(Collectors.toMap(SbomGenerationRequest::getId, Function.identity()));
+
+        List<SbomGenerationRequest> synced = new ArrayList<>(generationRequests.size());
+
+        for (GenerationRequest generationRequest : generationRequests) {
+            SbomGenerationRequest sbomGenerationRequest = stored.get(generationRequest.getId());
+
+            if (sbomGenerationRequest == null) {
+                sbomGenerationRequest = create(generationRequest);
+            } else if (isStale(sbomGenerationRequest, generationRequest)) {
+                log.debug(
+                        "Skipping sync of GenerationRequest '{}' with status '{}', status '{}' is already stored",
+                        generationRequest.getMetadata().getName(),
+                        generationRequest.getStatus(),
+                        sbomGenerationRequest.getStatus());
+                continue;
+            }
+
+            applyResource(sbomGenerationRequest, generationRequest);
+            sbomGenerationRequest.persist();
+            synced.add(sbomGenerationRequest);
+        }
+
+        // Store all of them in the database, this updates the generation counters of the requests as well
+        getEntityManager().flush();
+
+        // Update the status of each request once, preferably with a generation in a final state, so that the request
+        // is completed (and notified about) only once
+        Map<String, SbomGenerationRequest> byRequest = new LinkedHashMap<>();
+
+        synced.stream()
+                .filter(sbomGenerationRequest -> sbomGenerationRequest.getRequest() != null)
+                .forEach(
+                        sbomGenerationRequest -> byRequest.merge(
+                                sbomGenerationRequest.getRequest().getId(),
+                                sbomGenerationRequest,
+                                (current, candidate) -> current.getStatus().isFinal() ? current : candidate));
+
+        byRequest.values().forEach(SbomGenerationRequest::updateRequestEventStatus);
+
+        log.debug("Synced {} SbomGenerationRequests in a batch", synced.size());
+
+        return synced;
+    }
+
+    private static boolean isStale(SbomGenerationRequest sbomGenerationRequest, GenerationRequest generationRequest) {
+        SbomGenerationStatus storedStatus = sbomGenerationRequest.getStatus();
+
+        if (storedStatus == null || generationRequest.getStatus() == null) {
+            return false;
+        }
+
+        return (storedStatus.isFinal() && !generationRequest.getStatus().isFinal())
+                || generationRequest.getStatus().isOlderThan(storedStatus);
+    }
+
+    private static SbomGenerationRequest create(GenerationRequest generationRequest) {
+        log.debug(
+                "Could not find SbomGenerationRequest entity in the database for id '{}', creating new one",
+                generationRequest.getId());
+
+        return SbomGenerationRequest.builder()
+                .withId(generationRequest.getId())
+                .withIdentifier(generationRequest.getIdentifier())
+                .withType(generationRequest.getType())
+                .build();
+    }
+
+    private static void applyResource(
+            SbomGenerationRequest sbomGenerationRequest,
+            GenerationRequest generationRequest) {
+        sbomGenerationRequest.setStatus(generationRequest.getStatus());
+        // And reason
+        sbomGenerationRequest.setReason(generationRequest.getReason());
+        // And result
+        sbomGenerationRequest.setResult(generationRequest.getResult());
+        // And config
+        sbomGenerationRequest.setConfig(generationRequest.getConfig());
     }
 
     /**
@@ -276,6 +376,62 @@ public class SbomGenerationRequest extends PanacheEntityBase {
         creationTime = Instant.now();
     }
 
+    @PostLoad
+    void postLoad() {
+        storedStatus = status;
+        storedRequestId = request != null ? request.getId() : null;
+    }
+
+    /**
+     * Keeps the generation counters of the {@link RequestEvent}(s) in sync with the status and the request event of
+     * this generation, as just written to the database.
+     */
+    @PostPersist
+    @PostUpdate
+    void postWrite() {
+        String requestId = request != null ? request.getId() : null;
+
+        if (Objects.equals(requestId, storedRequestId)) {
+            if (requestId != null) {
+                RequestEvent.updateGenerationCounters(
+                        requestId,
+                        0,
+                        inProgress(status) - inProgress(storedStatus),
+                        failed(status) - failed(storedStatus));
+            }
+        } else {
+            if (storedRequestId != null) {
+                RequestEvent.updateGenerationCounters(
+                        storedRequestId,
+                        -1,
+                        -inProgress(storedStatus),
+                        -failed(storedStatus));
+            }
+
+            if (requestId != null) {
+                RequestEvent.updateGenerationCounters(requestId, 1, inProgress(status), failed(status));
+            }
+        }
+
+        postLoad();
+    }
+
+    @PostRemove
+    void postRemove() {
+        if (storedRequestId != null) {
+            RequestEvent
+                    .updateGenerationCounters(storedRequestId, -1, -inProgress(storedStatus), -failed(storedStatus));
+        }
+    }
+
+    private static int inProgress(SbomGenerationStatus status) {
+        return status != null && !status.isFinal() ? 1 : 0;
+    }
+
+    private static int failed(SbomGenerationStatus status) {
+        return SbomGenerationStatus.FAILED.equals(status) ? 1 : 0;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.time.Instant;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * <p>
+ * A UMB message claimed by the {@link RequestEvent} processing it.
+ * </p>
+ *
+ * <p>
+ * Used to skip messages delivered more than once: the claim is kept once the message is ACKed and removed when it is
+ * NACKed.
+ * </p>
+ */
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(name = "umb_message")
+@NoArgsConstructor
+@RegisterForReflection
+public class UmbMessage extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "msg_id", nullable = false, updatable = false)
+    private String msgId;
+
+    @Column(name = "consumer", nullable = false, length = 20)
+    private String consumer;
+
+    @Column(name = "request_id", nullable = false, length = 50)
+    private String requestId;
+
+    @Column(name = "acked", nullable = false)
+    private boolean acked;
+
+    @Column(name = "claim_time", nullable = false)
+    private Instant claimTime;
+}
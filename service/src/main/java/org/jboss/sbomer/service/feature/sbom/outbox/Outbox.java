@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry.Kind;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry.Status;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.panache.common.Sort;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Durable queue of manifests to be delivered, backed by the {@code outbox} table. Every subclass handles entries of
+ * one {@link Kind}.
+ * </p>
+ *
+ * <p>
+ * Failed deliveries are retried with an exponential backoff, starting at {@link #initialBackoff()} and capped at
+ * {@link #maxBackoff()}, up to {@link #maxAttempts()} times. After that the entry is kept with the
+ * {@link Status#FAILED} status, logged as an error and counted in the {@code sbomer.outbox.failed} counter, tagged
+ * with the {@code kind} of the entry.
+ * </p>
+ *
+ * <p>
+ * Several instances can share the table, every due entry is claimed by one of them, see {@link #due(int)}.
+ * </p>
+ */
+@Slf4j
+public abstract class Outbox {
+
+    @Inject
+    protected MeterRegistry registry;
+
+    /**
+     * @return the kind of entries handled by this outbox
+     */
+    protected abstract Kind kind();
+
+    protected abstract int maxAttempts();
+
+    protected abstract Duration initialBackoff();
+
+    protected abstract Duration maxBackoff();
+
+    /**
+     * @return the time for which entries returned by {@link #due(int)} are not returned again; it must be longer than
+     *         a delivery attempt takes
+     */
+    protected abstract Duration claimTimeout();
+
+    /**
+     * Records the provided manifests as waiting to be delivered. Joins the current transaction, if any.
+     *
+     * @param sboms the manifests to deliver
+     * @param delay the time after which the first delivery attempt is due
+     * @return the created entries, in the same order as the manifests
+     */
+    @Transactional
+    protected List<OutboxEntry> add(List<Sbom> sboms, Duration delay) {
+        Instant now = Instant.now();
+        List<OutboxEntry> entries = new ArrayList<>(sboms.size());
+
+        for (Sbom sbom : sboms) {
+            OutboxEntry entry = new OutboxEntry();
+            entry.setKind(kind());
+            entry.setSbomId(sbom.getId());
+            entry.setStatus(Status.PENDING);
+            entry.setNextAttempt(now.plus(delay));
+            entry.setCreationTime(now);
+            entry.persist();
+
+            entries.add(entry);
+        }
+
+        return entries;
+    }
+
+    /**
+     * <p>
+     * Claims pending entries for which the next delivery attempt is due, oldest first.
+     * </p>
+     *
+     * <p>
+     * An entry is claimed by moving its next attempt {@link #claimTimeout()} into the future, on the condition that
+     * it was not changed since it was read. Entries claimed by another instance in the meantime are skipped, so every
+     * due entry is returned to one caller only. The claim ends when the delivery is recorded with
+     * {@link #remove(Collection)} or {@link #fail(Map)}, or when it times out (for example after a crash).
+     * </p>
+     *
+     * @param limit maximum number of entries to claim
+     * @return the list of claimed entries
+     */
+    @Transactional
+    public List<OutboxEntry> due(int limit) {
+        Instant now = Instant.now();
+        Instant claimedUntil = now.plus(claimTimeout());
+
+        List<OutboxEntry> entries = OutboxEntry
+                .<OutboxEntry> find(
+                        "kind = ?1 and status = ?2 and nextAttempt <= ?3",
+                        Sort.by("nextAttempt"),
+                        kind(),
+                        Status.PENDING,
+                        now)
+                .page(0, limit)
+                .list();
+
+        List<OutboxEntry> claimed = new ArrayList<>(entries.size());
+
+        for (OutboxEntry entry : entries) {
+            int updated = OutboxEntry.update(
+                    "nextAttempt = ?1 where id = ?2 and status = ?3 and nextAttempt = ?4",
+                    claimedUntil,
+                    entry.getId(),
+                    Status.PENDING,
+                    entry.getNextAttempt());
+
+            if (updated == 1) {
+                claimed.add(entry);
+            } else {
+                log.debug("{} entry {} was claimed by another instance, skipping", kind(), entry.getId());
+            }
+        }
+
+        return claimed;
+    }
+
+    /**
+     * Removes entries which were delivered (or do not need to be delivered anymore).
+     *
+     * @param ids the entry identifiers
+     */
+    @Transactional
+    protected void remove(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        OutboxEntry.delete("id in ?1", ids);
+    }
+
+    /**
+     * Records failed delivery attempts and schedules the next ones. Once all attempts are exhausted, the entry is
+     * marked as {@link Status#FAILED}.
+     *
+     * @param errors the reasons of the failures, by entry identifier
+     * @return the updated entries; entries which do not exist anymore are omitted
+     */
+    @Transactional
+    protected List<OutboxEntry> fail(Map<Long, String> errors) {
+        Instant now = Instant.now();
+        List<OutboxEntry> entries = new ArrayList<>(errors.size());
+
+        errors.forEach((id, error) -> {
+            OutboxEntry entry = OutboxEntry.findById(id);
+
+            if (entry == null) {
+                return;
+            }
+
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setLastError(error);
+
+            if (entry.getAttempts() >= maxAttempts()) {
+                log.error(
+                        "Unable to deliver {} entry for manifest '{}' after {} attempts, giving up: {}",
+                        kind(),
+                        entry.getSbomId(),
+                        entry.getAttempts(),
+                        error);
+                entry.setStatus(Status.FAILED);
+                registry.counter("sbomer.outbox.failed", "kind", kind().name()).increment();
+            } else {
+                entry.setNextAttempt(now.plus(backoff(entry.getAttempts())));
+            }
+
+            entries.add(entry);
+        });
+
+        return entries;
+    }
+
+    protected Duration backoff(int attempts) {
+        Duration backoff = initialBackoff().multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return backoff.compareTo(maxBackoff()) > 0 ? maxBackoff() : backoff;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.pyxis;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.sbomer.core.cache.LookupCache;
+import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepository;
+import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepositoryDetails;
+import org.jboss.sbomer.service.feature.sbom.runtime.ClientCacheUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.Setter;
+
+/**
+ * <p>
+ * Caching facade over the {@link PyxisClient}.
+ * </p>
+ *
+ * <p>
+ * Images are cached only briefly, because new repositories and tags are added when the image is published.
+ * Repositories are cached for longer. Concurrent identical requests are coalesced into a single request to Pyxis.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+public class CachingPyxisClient {
+
+    @Inject
+    @RestClient
+    PyxisClient pyxisClient;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "sbomer.pyxis.cache.image-ttl", defaultValue = "PT1M")
+    Duration imageTtl;
+
+    @ConfigProperty(name = "sbomer.pyxis.cache.repository-ttl", defaultValue = "PT1H")
+    Duration repositoryTtl;
+
+    @ConfigProperty(name = "sbomer.pyxis.cache.max-size", defaultValue = "1000")
+    int maxSize;
+
+    LookupCache<PyxisRepositoryDetails> repositoriesDetails;
+
+    LookupCache<PyxisRepository> repositories;
+
+    @PostConstruct
+    void init() {
+        repositoriesDetails = ClientCacheUtils.create(registry, "pyxis-repositories-details", imageTtl, maxSize);
+        repositories = ClientCacheUtils.create(registry, "pyxis-repository", repositoryTtl, maxSize);
+    }
+
+    public PyxisRepositoryDetails getRepositoriesDetails(String nvr, List<String> includes) {
+        return repositoriesDetails
+                .get(List.of(nvr, includes).toString(), () -> pyxisClient.getRepositoriesDetails(nvr, includes));
+    }
+
+    public PyxisRepository getRepository(String registry, String repository, List<String> includes) {
+        return repositories.get(
+                List.of(registry, repository, includes).toString(),
+                () -> pyxisClient.getRepository(registry, repository, includes));
+    }
+}
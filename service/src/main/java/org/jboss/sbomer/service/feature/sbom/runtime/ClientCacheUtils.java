@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.runtime;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+import org.jboss.sbomer.core.cache.LookupCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * <p>
+ * Creates in-memory {@link LookupCache}s for responses of remote services.
+ * </p>
+ *
+ * <p>
+ * Lookups are counted in the {@code sbomer.client.cache} counter, tagged with the cache name and the result:
+ * {@code hit}, {@code miss} or {@code coalesced}.
+ * </p>
+ */
+public class ClientCacheUtils {
+    private ClientCacheUtils() {
+        // This is a utility class
+    }
+
+    /**
+     * Creates a cache keeping at most {@code maxSize} values in memory, each for the provided time to live.
+     *
+     * @param registry the registry to register the counters with
+     * @param name the name of the cache
+     * @param ttl how long values are valid
+     * @param maxSize maximum number of values
+     * @return the cache
+     */
+    public static <V> LookupCache<V> create(MeterRegistry registry, String name, Duration ttl, int maxSize) {
+        LookupCache<V> cache = new LookupCache<>(name, maxSize, ttl, null, null);
+
+        counter(registry, cache, "hit", LookupCache::getHits);
+        counter(registry, cache, "miss", LookupCache::getMisses);
+        counter(registry, cache, "coalesced", LookupCache::getCoalesced);
+
+        return cache;
+    }
+
+    private static <V> void counter(
+            MeterRegistry registry,
+            LookupCache<V> cache,
+            String result,
+            ToDoubleFunction<LookupCache<V>> count) {
+        FunctionCounter.builder("sbomer.client.cache", cache, count)
+                .tag("cache", cache.getName())
+                .tag("result", result)
+                .register(registry);
+    }
+}
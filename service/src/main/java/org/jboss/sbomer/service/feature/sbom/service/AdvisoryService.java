@@ -32,7 +32,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.faulttolerance.Retry;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.pnc.build.finder.koji.KojiClientSession;
 import org.jboss.pnc.common.Strings;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
@@ -53,7 +52,7 @@ import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.provider.KojiProvider;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.service.feature.FeatureFlags;
-import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.CachingErrataClient;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataNotesSchemaValidator;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata.Details;
@@ -93,9 +92,8 @@ import lombok.extern.slf4j.Slf4j;
 public class AdvisoryService {
 
     @Inject
-    @RestClient
     @Setter
-    ErrataClient errataClient;
+    CachingErrataClient errataClient;
 
     @Inject
     KojiProvider kojiProvider;
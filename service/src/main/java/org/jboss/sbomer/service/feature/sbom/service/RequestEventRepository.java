@@ -23,7 +23,6 @@ import static org.jboss.sbomer.core.features.sbom.enums.UMBConsumer.PNC;
 import static org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus.ACK;
 import static org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus.SKIPPED;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_CONSUMER;
-import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_ID;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_STATUS;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_TYPE;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE;
@@ -32,13 +31,18 @@ import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.REQUEST_E
 
 import java.lang.reflect.Field;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.jboss.sbomer.core.config.request.ErrataAdvisoryRequestConfig;
 import org.jboss.sbomer.core.config.request.ImageRequestConfig;
 import org.jboss.sbomer.core.config.request.PncAnalysisRequestConfig;
@@ -57,14 +61,18 @@ import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
 import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.RequestLookup;
+import org.jboss.sbomer.service.feature.sbom.model.UmbMessage;
 import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.criteria.CriteriaAwareRepository;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.Query;
+import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
 @ApplicationScoped
@@ -82,10 +90,20 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
 
     private static final String NOT_EQUAL = "<>";
 
+    /**
+     * Number of rows fetched at once when aggregating request events, generations and manifests.
+     */
+    private static final int AGGREGATE_FETCH_SIZE = 500;
+
     public RequestEventRepository() {
         super(RequestEvent.class);
     }
 
+    @Override
+    protected String keysetAttribute() {
+        return "receivalTime";
+    }
+
     public long countUMBEventsWithStatusFrom(UMBMessageStatus status, UMBConsumer consumer) {
         StringBuilder query = initCountRequestQuery();
         addCondition(query, WHERE, REQUEST_EVENT_TYPE, EQUAL);
@@ -116,16 +134,62 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
         return executeCountQuery(query.toString(), params);
     }
 
-    public long countAlreadyAckedUMBEventsFor(String msgId) {
-        StringBuilder query = initCountRequestQuery();
-        addCondition(query, WHERE, REQUEST_EVENT_TYPE, EQUAL);
-        addEventCondition(query, AND, EVENT_KEY_UMB_MSG_STATUS, EQUAL);
-        addEventCondition(query, AND, EVENT_KEY_UMB_MSG_ID, EQUAL);
+    /**
+     * Claims the UMB message with the provided id for the request event processing it.
+     *
+     * @param msgId the UMB message id
+     * @param consumer the consumer which received the message
+     * @param requestEventId the request event processing the message
+     * @param staleAfter unacknowledged claims older than this are considered abandoned (for example because the
+     *        service was restarted while processing the message) and can be claimed again
+     * @return {@code true} if the message was claimed, {@code false} if the message was already processed or is being
+     *         processed right now
+     */
+    public boolean claimUMBMessage(String msgId, UMBConsumer consumer, String requestEventId, Duration staleAfter) {
+        try {
+            // In a separate transaction, so that a failed claim does not affect the transaction of the caller
+            return QuarkusTransaction.requiringNew().call(() -> {
+                Instant now = Instant.now();
+
+                if (UmbMessage.findById(msgId) == null) {
+                    UmbMessage message = new UmbMessage();
+                    message.setMsgId(msgId);
+                    message.setConsumer(consumer.name());
+                    message.setRequestId(requestEventId);
+                    message.setAcked(false);
+                    message.setClaimTime(now);
+                    message.persistAndFlush();
+
+                    return true;
+                }
+
+                // Take over the claim only if it was abandoned
+                return UmbMessage.update(
+                        "requestId = ?1, claimTime = ?2 where msgId = ?3 and acked = false and claimTime < ?4",
+                        requestEventId,
+                        now,
+                        msgId,
+                        now.minus(staleAfter)) > 0;
+            });
+        } catch (PersistenceException e) {
+            // The same message was claimed concurrently
+            log.debug("Unable to claim UMB message '{}', it was claimed already", msgId, e);
+            return false;
+        }
+    }
 
-        Map<String, Object> params = Map
-                .of(REQUEST_EVENT_TYPE, UMB.name(), EVENT_KEY_UMB_MSG_STATUS, ACK.name(), EVENT_KEY_UMB_MSG_ID, msgId);
+    /**
+     * Marks the UMB message as processed, further deliveries of the same message will not be claimed anymore.
+     */
+    public void ackUMBMessage(String msgId, String requestEventId) {
+        UmbMessage.update("acked = true where msgId = ?1 and requestId = ?2", msgId, requestEventId);
+    }
 
-        return executeCountQuery(query.toString(), params);
+    /**
+     * Releases the claim of the UMB message, so that a redelivery of the message can be processed.
+     */
+    public void releaseUMBMessage(String msgId, String requestEventId) {
+        UmbMessage.delete("msgId = ?1 and requestId = ?2", msgId, requestEventId);
     }
 
     public long countEventsForTypeAndIdentifier(String typeValue, String identifierKey, String identifierValue) {
@@ -315,8 +379,11 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
                                 root.get("event"))));
     }
 
-    private static final String RELEASE_METADATA_ERRATA_ID = "release.errata_id";
-    private static final String RELEASE_METADATA_ERRATA_FULLNAME = "release.errata_fullname";
+    private static final String RELEASE_METADATA_ERRATA_ID = RequestLookup.RELEASE_ERRATA_ID;
+    private static final String RELEASE_METADATA_ERRATA_FULLNAME = RequestLookup.RELEASE_ERRATA_FULLNAME;
+
+    private static final String LOOKUP_QUERY = "SELECT rl.%s FROM request_lookup rl "
+            + "WHERE rl.key_type = :key_type AND rl.key_value = :key_value";
 
     private static final Set<String> ALLOWED_TYPE_KEYS = Set.of(
             "id",
@@ -328,19 +395,22 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
             RELEASE_METADATA_ERRATA_ID,
             RELEASE_METADATA_ERRATA_FULLNAME);
 
-    private static final Map<String, Class<? extends RequestConfig>> TYPE_TO_CONFIG_CLASS = Map.of(
-            ImageRequestConfig.TYPE_NAME,
-            ImageRequestConfig.class,
-            ErrataAdvisoryRequestConfig.TYPE_NAME,
-            ErrataAdvisoryRequestConfig.class,
-            PncAnalysisRequestConfig.TYPE_NAME,
-            PncAnalysisRequestConfig.class,
-            PncOperationRequestConfig.TYPE_NAME,
-            PncOperationRequestConfig.class,
-            PncBuildRequestConfig.TYPE_NAME,
-            PncBuildRequestConfig.class);
-
     public List<V1Beta1RequestRecord> searchAggregatedResultsNatively(String filter) {
+        List<V1Beta1RequestRecord> records = new ArrayList<>();
+        streamAggregatedResultsNatively(filter, records::add);
+        return records;
+    }
+
+    /**
+     * Searches the request events matching the filter, together with their generations and manifests. Records are
+     * passed to the consumer one at a time, ordered by the receival time (newest first), as soon as all their manifests
+     * were read.
+     *
+     * @param filter the filter in the {@code key=value} format
+     * @param consumer the consumer of the aggregated records
+     */
+    @Transactional
+    public void streamAggregatedResultsNatively(String filter, Consumer<V1Beta1RequestRecord> consumer) {
         if (filter == null || filter.isBlank()) {
             throw new ClientException("Filter cannot be null or empty.");
         }
@@ -385,11 +455,18 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
                 .append("LEFT JOIN sbom s ON sgr.id = s.generationrequest_id ");
 
         Map<String, Object> params = filterAndBuildQueryParams(sb, typeKey, typeValue);
+
+        // Rows of the same request event have to be next to each other to be aggregated while reading them
+        sb.append(" ORDER BY re.receival_time DESC, re.id");
+
         Query query = getEntityManager().createNativeQuery(sb.toString());
         params.forEach(query::setParameter);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, AGGREGATE_FETCH_SIZE);
 
-        // Execute the query and fetch results
-        return aggregateResults(query.getResultList());
+        // Execute the query and read the rows through a forward-only cursor
+        try (Stream<Object[]> rows = query.getResultStream()) {
+            aggregateResults(rows, consumer);
+        }
     }
 
     private Map<String, Object> filterAndBuildQueryParams(StringBuilder sb, String typeKey, String typeValue) {
@@ -397,88 +474,86 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
             sb.append("WHERE re.id = :id");
             return Map.of("id", typeValue);
         }
-        if (RELEASE_METADATA_ERRATA_ID.equals(typeKey)) {
-            sb.append("WHERE s.release_metadata is not null");
-            addReleaseMetadataCondition(sb, AND, "s", "errata_id", EQUAL);
-            return Map.of("errata_id", typeValue);
-        }
-        if (RELEASE_METADATA_ERRATA_FULLNAME.equals(typeKey)) {
-            sb.append("WHERE s.release_metadata is not null");
-            addReleaseMetadataCondition(sb, AND, "s", "errata_fullname", EQUAL);
-            return Map.of("errata_fullname", typeValue);
+
+        // The request events (or, for the release metadata, the manifests) are looked up in the request_lookup read
+        // model, maintained when the request events and manifests are stored, instead of scanning their JSON columns
+        if (RELEASE_METADATA_ERRATA_ID.equals(typeKey) || RELEASE_METADATA_ERRATA_FULLNAME.equals(typeKey)) {
+            sb.append("WHERE s.id IN (").append(LOOKUP_QUERY.formatted("sbom_id")).append(")");
+        } else {
+            sb.append("WHERE re.id IN (").append(LOOKUP_QUERY.formatted("request_id")).append(")");
         }
 
-        String identifierKey = getValueOfField(TYPE_TO_CONFIG_CLASS.get(typeKey), "IDENTIFIER_KEY");
-        addConfigCondition(sb, WHERE, REQUEST_CONFIG_TYPE, EQUAL);
-        addConfigCondition(sb, AND, identifierKey, EQUAL);
-        return Map.of(REQUEST_CONFIG_TYPE, typeKey, identifierKey, typeValue);
+        return Map.of("key_type", typeKey, "key_value", typeValue);
     }
 
-    private List<V1Beta1RequestRecord> aggregateResults(List<Object[]> results) {
-
-        // Aggregate results into a Map for grouping by RequestEvent
-        Map<String, V1Beta1RequestRecord> aggregatedResults = new LinkedHashMap<>();
+    /**
+     * Aggregates the rows, ordered by request event, into records. The request event and generation JSON columns are
+     * repeated on every row of the same request event or generation, these are parsed only once.
+     */
+    private void aggregateResults(Stream<Object[]> rows, Consumer<V1Beta1RequestRecord> consumer) {
+        V1Beta1RequestRecord current = null;
+        Map<String, V1Beta1GenerationRecord> generations = new HashMap<>();
 
-        results.forEach(row -> {
+        for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+            Object[] row = it.next();
             String requestId = (String) row[0];
-            Instant receivalTime = convertFromTimestamp(row[1]);
-            RequestEventType eventType = RequestEventType.valueOf((String) row[2]);
-            RequestEventStatus eventStatus = RequestEventStatus.valueOf((String) row[3]);
-            String reason = (String) row[4];
-            RequestConfig requestConfig = RequestConfig.fromString((String) row[5], RequestConfig.class);
-            JsonNode event = SbomUtils.toJsonNode((String) row[6]);
+
+            if (current == null || !current.id().equals(requestId)) {
+                if (current != null) {
+                    consumer.accept(current);
+                }
+
+                current = toRequestRecord(row);
+                generations.clear();
+            }
+
             String sbomId = (String) row[7];
 
-            if (sbomId != null) {
-                V1Beta1RequestManifestRecord manifest = new V1Beta1RequestManifestRecord(
-                        sbomId,
-                        (String) row[8],
-                        (String) row[9],
-                        convertFromTimestamp(row[10]),
-                        (Integer) row[11],
-                        (String) row[12],
-                        new V1Beta1GenerationRecord(
-                                (String) row[13],
-                                (String) row[14],
-                                Config.fromString((String) row[15]),
-                                (String) row[16],
-                                convertFromTimestamp(row[17]),
-                                (String) row[18],
-                                (String) row[19],
-                                (String) row[20]));
-
-                aggregatedResults
-                        .computeIfAbsent(
-                                requestId,
-                                id -> new V1Beta1RequestRecord(
-                                        id,
-                                        receivalTime,
-                                        eventType,
-                                        eventStatus,
-                                        reason,
-                                        requestConfig,
-                                        event,
-                                        new ArrayList<>()))
-                        .manifests()
-                        .add(manifest);
-            } else {
-                aggregatedResults.computeIfAbsent(
-                        requestId,
-                        id -> new V1Beta1RequestRecord(
-                                id,
-                                receivalTime,
-                                eventType,
-                                eventStatus,
-                                reason,
-                                requestConfig,
-                                event,
-                                new ArrayList<>()));
+            if (sbomId == null) {
+                continue;
             }
-        });
 
-        return aggregatedResults.values()
-                .stream()
-                .sorted((record1, record2) -> record2.receivalTime().compareTo(record1.receivalTime()))
-                .toList();
+            V1Beta1GenerationRecord generation = generations
+                    .computeIfAbsent((String) row[13], id -> toGenerationRecord(row));
+
+            current.manifests()
+                    .add(
+                            new V1Beta1RequestManifestRecord(
+                                    sbomId,
+                                    (String) row[8],
+                                    (String) row[9],
+                                    convertFromTimestamp(row[10]),
+                                    (Integer) row[11],
+                                    (String) row[12],
+                                    generation));
+        }
+
+        if (current != null) {
+            consumer.accept(current);
+        }
+    }
+
+    private V1Beta1RequestRecord toRequestRecord(Object[] row) {
+        return new V1Beta1RequestRecord(
+                (String) row[0],
+                convertFromTimestamp(row[1]),
+                RequestEventType.valueOf((String) row[2]),
+                RequestEventStatus.valueOf((String) row[3]),
+                (String) row[4],
+                RequestConfig.fromString((String) row[5], RequestConfig.class),
+                SbomUtils.toJsonNode((String) row[6]),
+                new ArrayList<>());
+    }
+
+    private V1Beta1GenerationRecord toGenerationRecord(Object[] row) {
+        return new V1Beta1GenerationRecord(
+                (String) row[13],
+                (String) row[14],
+                Config.fromString((String) row[15]),
+                (String) row[16],
+                convertFromTimestamp(row[17]),
+                (String) row[18],
+                (String) row[19],
+                (String) row[20]);
     }
 }
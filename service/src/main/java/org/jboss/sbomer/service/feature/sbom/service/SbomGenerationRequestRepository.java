@@ -47,7 +47,8 @@ public class SbomGenerationRequestRepository extends CriteriaAwareRepository<Sbo
         long sbomsDeletedCount = Sbom.delete("generationRequest.id = :id", Parameters.with("id", id)); // NOSONAR
         log.info("Deleted {} SBOMs associated with the Generation Request with id: '{}'", sbomsDeletedCount, id);
 
-        SbomGenerationRequest.delete("id = :id", Parameters.with("id", id)); // NOSONAR
+        // Remove the entity (instead of a bulk delete) so that the generation counters of the request are updated
+        delete(request);
         log.info("Deleted the SBOM Generation Request with id: '{}'", id);
 
         flush();
@@ -18,24 +18,38 @@
 package org.jboss.sbomer.service.feature.sbom.service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.jboss.sbomer.core.dto.BaseSbomRecord;
 import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.model.SbomContentInfo;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.criteria.CriteriaAwareRepository;
+import org.jboss.sbomer.service.stats.StatsCounters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.transaction.Transactional;
 
 @ApplicationScoped
 public class SbomRepository extends CriteriaAwareRepository<Sbom> {
 
+    @Inject
+    StatsCounters statsCounters;
+
     public SbomRepository() {
         super(Sbom.class);
     }
@@ -72,9 +86,127 @@ public class SbomRepository extends CriteriaAwareRepository<Sbom> {
         return find("generationRequest.id = ?1", generationRequestId).list();
     }
 
+    /**
+     * Reads the identifier and content hash of the {@link Sbom} with the provided identifier, without loading the
+     * entity (and its eagerly fetched generation request).
+     *
+     * @param id the manifest identifier
+     * @return the content information or empty if there is no such manifest
+     */
+    public Optional<SbomContentInfo> findContentInfo(String id) {
+        return first(
+                getEntityManager().createQuery(
+                        "SELECT new org.jboss.sbomer.service.feature.sbom.model.SbomContentInfo(s.id, s.contentHash) "
+                                + "FROM Sbom s WHERE s.id = :id",
+                        SbomContentInfo.class).setParameter("id", id));
+    }
+
+    /**
+     * Reads the identifier and content hash of the latest {@link Sbom} with the provided root purl.
+     *
+     * @param rootPurl the purl of the main component of the manifest
+     * @return the content information or empty if there is no such manifest
+     */
+    public Optional<SbomContentInfo> findLatestContentInfoByRootPurl(String rootPurl) {
+        return first(
+                getEntityManager().createQuery(
+                        "SELECT new org.jboss.sbomer.service.feature.sbom.model.SbomContentInfo(s.id, s.contentHash) "
+                                + "FROM Sbom s WHERE s.rootPurl = :rootPurl ORDER BY s.creationTime DESC",
+                        SbomContentInfo.class).setParameter("rootPurl", rootPurl));
+    }
+
+    /**
+     * Reads the manifest content of the {@link Sbom} with the provided identifier as JSON text, as stored in the
+     * database. This avoids building (and later serializing again) the {@link JsonNode} tree of the content.
+     *
+     * @param id the manifest identifier
+     * @return the JSON text or {@code null} if there is no such manifest (or it has no content)
+     */
+    public String findBomText(String id) {
+        List<?> results = getEntityManager().createNativeQuery("SELECT CAST(sbom AS VARCHAR) FROM sbom WHERE id = :id")
+                .setParameter("id", id)
+                .setMaxResults(1)
+                .getResultList();
+
+        if (results.isEmpty() || results.get(0) == null) {
+            return null;
+        }
+
+        return results.get(0).toString();
+    }
+
+    /**
+     * Reads detached copies of the {@link Sbom}s with the provided identifiers, without loading the entities (and the
+     * eagerly fetched generation requests with their configuration). The manifest content is reduced to the fields
+     * needed to send notifications: the format, the specification version and the main component.
+     *
+     * @param ids the manifest identifiers
+     * @return the list of manifests found
+     */
+    public List<Sbom> findNotificationViews(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> rows = getEntityManager().createQuery(
+                "SELECT s.id, s.identifier, s.rootPurl, s.sbom, r.id, r.identifier, r.type FROM Sbom s "
+                        + "JOIN s.generationRequest r WHERE s.id IN :ids",
+                Object[].class).setParameter("ids", ids).getResultList();
+
+        List<Sbom> sboms = new ArrayList<>(rows.size());
+
+        for (Object[] row : rows) {
+            SbomGenerationRequest generationRequest = SbomGenerationRequest.builder()
+                    .withId((String) row[4])
+                    .withIdentifier((String) row[5])
+                    .withType((GenerationRequestType) row[6])
+                    .build();
+
+            sboms.add(
+                    Sbom.builder()
+                            .withId((String) row[0])
+                            .withIdentifier((String) row[1])
+                            .withRootPurl((String) row[2])
+                            .withSbom(notificationView((JsonNode) row[3]))
+                            .withGenerationRequest(generationRequest)
+                            .build());
+        }
+
+        return sboms;
+    }
+
+    private static JsonNode notificationView(JsonNode bom) {
+        if (bom == null) {
+            return null;
+        }
+
+        ObjectNode view = JsonNodeFactory.instance.objectNode();
+        view.set("bomFormat", bom.get("bomFormat"));
+        view.set("specVersion", bom.get("specVersion"));
+        view.putObject("metadata").set("component", bom.path("metadata").get("component"));
+
+        return view;
+    }
+
+    /**
+     * Stores the content hash for a manifest which does not have it yet.
+     *
+     * @param id the manifest identifier
+     * @param contentHash the SHA-256 digest of the manifest content
+     */
+    @Transactional
+    public void updateMissingContentHash(String id, String contentHash) {
+        update("contentHash = ?1 WHERE id = ?2 AND contentHash IS NULL", contentHash, id);
+    }
+
+    private <T> Optional<T> first(TypedQuery<T> query) {
+        return query.setMaxResults(1).getResultStream().findFirst();
+    }
+
     @Transactional
     public Sbom saveSbom(Sbom sbom) {
         persistAndFlush(sbom);
+        statsCounters.sbomsCreated(1);
         return sbom;
     }
 
@@ -88,6 +220,7 @@ public class SbomRepository extends CriteriaAwareRepository<Sbom> {
     public List<Sbom> saveSboms(List<Sbom> sboms) {
         persist(sboms);
         flush();
+        statsCounters.sbomsCreated(sboms.size());
         return sboms;
     }
 }
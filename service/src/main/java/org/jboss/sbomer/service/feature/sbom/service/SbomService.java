@@ -19,6 +19,7 @@ package org.jboss.sbomer.service.feature.sbom.service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
@@ -50,6 +51,7 @@ import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.features.sbom.utils.UrlUtils;
 import org.jboss.sbomer.service.feature.sbom.config.SbomerConfig;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationService;
@@ -59,12 +61,16 @@ import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.model.SbomContentInfo;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.pnc.PncClient;
+import org.jboss.sbomer.service.rest.PageCursor;
 import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.RestUtils;
+import org.jboss.sbomer.service.rest.criteria.AbstractCriteriaAwareRepository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.TextNode;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.opentelemetry.instrumentation.annotations.SpanAttribute;
@@ -137,17 +143,17 @@ public class SbomService {
             @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
             @SpanAttribute(value = "sort") String sort) {
 
-        QueryParameters parameters = QueryParameters.builder()
-                .rsqlQuery(rsqlQuery)
-                .sort(sort)
-                .pageSize(pageSize)
-                .pageIndex(pageIndex)
-                .build();
+        return searchSbomRecordsByQueryPaginated(toQueryParameters(pageIndex, pageSize, rsqlQuery, sort));
+    }
 
+    @WithSpan
+    public Page<BaseSbomRecord> searchSbomRecordsByQueryPaginated(QueryParameters parameters) {
         List<BaseSbomRecord> content = sbomRepository.searchSbomRecords(parameters);
-        Long count = sbomRepository.countByRsqlQuery(parameters.getRsqlQuery());
+        Long count = count(sbomRepository, parameters);
+        String nextCursor = sbomRepository
+                .nextCursor(content, parameters, sbom -> new PageCursor(sbom.creationTime(), sbom.id()));
 
-        return toPage(content, parameters, count);
+        return toPage(content, parameters, count, nextCursor);
     }
 
     @WithSpan
@@ -157,18 +163,19 @@ public class SbomService {
             @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
             @SpanAttribute(value = "sort") String sort) {
 
-        QueryParameters parameters = QueryParameters.builder()
-                .rsqlQuery(rsqlQuery)
-                .sort(sort)
-                .pageSize(pageSize)
-                .pageIndex(pageIndex)
-                .build();
+        return searchSbomRequestsByQueryPaginated(toQueryParameters(pageIndex, pageSize, rsqlQuery, sort));
+    }
 
+    @WithSpan
+    public Page<SbomGenerationRequest> searchSbomRequestsByQueryPaginated(QueryParameters parameters) {
         List<SbomGenerationRequest> content = sbomRequestRepository.search(parameters);
+        Long count = count(sbomRequestRepository, parameters);
+        String nextCursor = sbomRequestRepository.nextCursor(
+                content,
+                parameters,
+                request -> new PageCursor(request.getCreationTime(), request.getId()));
 
-        Long count = sbomRequestRepository.countByRsqlQuery(parameters.getRsqlQuery());
-
-        return toPage(content, parameters, count);
+        return toPage(content, parameters, count, nextCursor);
     }
 
     @WithSpan
@@ -178,17 +185,39 @@ public class SbomService {
             @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
             @SpanAttribute(value = "sort") String sort) {
 
-        QueryParameters parameters = QueryParameters.builder()
+        return searchRequestRecordsByQueryPaginated(toQueryParameters(pageIndex, pageSize, rsqlQuery, sort));
+    }
+
+    @WithSpan
+    public Page<V1BaseBeta1RequestRecord> searchRequestRecordsByQueryPaginated(QueryParameters parameters) {
+        List<V1BaseBeta1RequestRecord> content = requestEventRepository.searchRequestRecords(parameters);
+        Long count = count(requestEventRepository, parameters);
+        String nextCursor = requestEventRepository
+                .nextCursor(content, parameters, request -> new PageCursor(request.receivalTime(), request.id()));
+
+        return toPage(content, parameters, count, nextCursor);
+    }
+
+    private QueryParameters toQueryParameters(int pageIndex, int pageSize, String rsqlQuery, String sort) {
+        return QueryParameters.builder()
                 .rsqlQuery(rsqlQuery)
                 .sort(sort)
                 .pageSize(pageSize)
                 .pageIndex(pageIndex)
                 .build();
+    }
 
-        List<V1BaseBeta1RequestRecord> content = requestEventRepository.searchRequestRecords(parameters);
-        Long count = requestEventRepository.countByRsqlQuery(parameters.getRsqlQuery());
-
-        return toPage(content, parameters, count);
+    /**
+     * Counts the entities matching the query the way requested in the query parameters.
+     *
+     * @return the number of hits or {@code null} if not requested
+     */
+    private Long count(AbstractCriteriaAwareRepository<?> repository, QueryParameters parameters) {
+        return switch (parameters.getCount()) {
+            case EXACT -> repository.countByRsqlQuery(parameters.getRsqlQuery());
+            case ESTIMATED -> repository.estimateCountByRsqlQuery(parameters.getRsqlQuery());
+            case NONE -> null;
+        };
     }
 
     @WithSpan
@@ -204,15 +233,32 @@ public class SbomService {
      * @return A {@link Page} element with content.
      */
     protected <X> Page<X> toPage(List<X> content, QueryParameters parameters, Long count) {
+        return toPage(content, parameters, count, null);
+    }
+
+    /**
+     * Prepares a {@link Page} object with the result of the search.
+     *
+     * @param content The content to populate the page with.
+     * @param parameters Query parameters passed to the search.
+     * @param count The total number of hits or {@code null} if unknown.
+     * @param nextCursor The cursor to fetch the next page with or {@code null}.
+     * @return A {@link Page} element with content.
+     */
+    protected <X> Page<X> toPage(List<X> content, QueryParameters parameters, Long count, String nextCursor) {
         int totalPages = 0;
 
+        if (count == null) {
+            return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), -1, -1, content, nextCursor);
+        }
+
         if (count == 0) {
             totalPages = 1; // a single page of zero results
         } else {
             totalPages = (int) Math.ceil((double) count / (double) parameters.getPageSize());
         }
 
-        return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), totalPages, count, content);
+        return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), totalPages, count, content, nextCursor);
     }
 
     @WithSpan
@@ -524,6 +570,57 @@ public class SbomService {
 
     }
 
+    /**
+     * Finds the content information of the {@link Sbom} with the provided identifier or, if there is no such
+     * manifest, of the latest manifest generated for the provided purl. The manifest content is not read.
+     *
+     * @param identifier The manifest identifier or purl
+     * @return The {@link SbomContentInfo} or {@code null} if not found.
+     */
+    @WithSpan
+    public SbomContentInfo findBomContentInfo(@SpanAttribute(value = "identifier") String identifier) {
+        Optional<SbomContentInfo> info = sbomRepository.findContentInfo(identifier);
+
+        if (info.isPresent()) {
+            return info.get();
+        }
+
+        String polishedPurl = UrlUtils
+                .removeAllowedQualifiersFromPurl(identifier, sbomerConfig.purlQualifiersAllowList());
+        log.debug("Trying to find latest generated SBOM for purl: '{}'", polishedPurl);
+
+        return sbomRepository.findLatestContentInfoByRootPurl(polishedPurl).orElse(null);
+    }
+
+    /**
+     * Returns the manifest content of the {@link Sbom} with the provided identifier as JSON text.
+     *
+     * @param sbomId The manifest identifier
+     * @return The JSON text or {@code null} if not found.
+     */
+    @WithSpan
+    public String getBomText(@SpanAttribute(value = "sbomId") String sbomId) {
+        return sbomRepository.findBomText(sbomId);
+    }
+
+    /**
+     * Computes the content hash of a manifest stored before the hash was introduced and stores it, so that it is
+     * available without reading the content next time.
+     *
+     * @param sbomId The manifest identifier
+     * @param bomText The manifest content as JSON text
+     * @return The content hash or {@code null} if the content cannot be read.
+     */
+    public String computeMissingContentHash(String sbomId, String bomText) {
+        String contentHash = SbomUtils.contentHash(new TextNode(bomText));
+
+        if (contentHash != null) {
+            sbomRepository.updateMissingContentHash(sbomId, contentHash);
+        }
+
+        return contentHash;
+    }
+
     public SbomGenerationRequest findRequestByIdentifier(GenerationRequestType type, String identifier) {
         QueryParameters parameters = QueryParameters.builder()
                 .rsqlQuery("identifier=eq='" + identifier + "' and type=eq=" + type)
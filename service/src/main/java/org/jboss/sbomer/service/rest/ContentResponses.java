@@ -0,0 +1,219 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Builds responses which stream (potentially very large) JSON content directly to the client, supporting
+ * {@code gzip} content encoding, entity tags and single byte ranges.
+ */
+public class ContentResponses {
+    public static final String GZIP = "gzip";
+
+    static final String ACCEPT_RANGES = "Accept-Ranges";
+    static final String CONTENT_RANGE = "Content-Range";
+    private static final String IF_RANGE = "If-Range";
+    static final String RANGE = "Range";
+    static final String BYTES = "bytes";
+
+    static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    /**
+     * Number of characters encoded at once, so that the whole content is never copied while writing it.
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    private ContentResponses() {
+        // This is a utility class
+    }
+
+    /**
+     * Checks whether the client accepts the {@code gzip} content encoding.
+     *
+     * @param headers the request headers
+     * @return {@code true} if the content can be sent compressed
+     */
+    public static boolean acceptsGzip(HttpHeaders headers) {
+        String acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+
+            if (!GZIP.equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+
+                if (parameter.matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the entity tag of a representation of content with the provided hash. Compressed representations get a
+     * different tag, as required for strong entity tags.
+     *
+     * @param contentHash the hash of the content
+     * @param gzip whether the representation is compressed
+     * @return the entity tag
+     */
+    public static EntityTag entityTag(String contentHash, boolean gzip) {
+        return new EntityTag(gzip ? contentHash + "-" + GZIP : contentHash);
+    }
+
+    /**
+     * Builds a response for the provided JSON content. When the request asks for a single, satisfiable byte range
+     * (and the {@code If-Range} condition, if any, holds), only that range is sent, uncompressed. Otherwise the whole
+     * content is streamed, compressed if requested.
+     *
+     * @param content the JSON content
+     * @param contentHash the hash of the content, used for the entity tag; can be {@code null}
+     * @param headers the request headers
+     * @return the response
+     */
+    public static Response json(String content, String contentHash, HttpHeaders headers) {
+        String range = headers.getHeaderString(RANGE);
+
+        if (range != null && isRangeApplicable(contentHash, headers.getHeaderString(IF_RANGE))) {
+            Matcher matcher = RANGE_PATTERN.matcher(range.trim());
+
+            if (matcher.matches() && (!matcher.group(1).isEmpty() || !matcher.group(2).isEmpty())) {
+                return ranged(content.getBytes(UTF_8), contentHash, matcher.group(1), matcher.group(2));
+            }
+        }
+
+        boolean gzip = acceptsGzip(headers);
+
+        StreamingOutput output = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, CHUNK_SIZE) : outputStream;
+            Writer writer = new OutputStreamWriter(target, UTF_8);
+
+            for (int offset = 0; offset < content.length(); offset += CHUNK_SIZE) {
+                writer.write(content, offset, Math.min(CHUNK_SIZE, content.length() - offset));
+            }
+
+            writer.flush();
+
+            if (target instanceof GZIPOutputStream gzipOutputStream) {
+                gzipOutputStream.finish();
+            }
+        };
+
+        ResponseBuilder builder = Response.ok(output, MediaType.APPLICATION_JSON_TYPE)
+                .header(ACCEPT_RANGES, BYTES)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            builder.encoding(GZIP);
+        }
+
+        if (contentHash != null) {
+            builder.tag(entityTag(contentHash, gzip));
+        }
+
+        return builder.build();
+    }
+
+    private static boolean isRangeApplicable(String contentHash, String ifRange) {
+        if (ifRange == null) {
+            return true;
+        }
+
+        return contentHash != null && ifRange.trim().equals(entityTag(contentHash, false).toString());
+    }
+
+    private static Response ranged(byte[] bytes, String contentHash, String first, String last) {
+        long length = bytes.length;
+        long start;
+        long end;
+
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                start = Math.max(0, length - Long.parseLong(last));
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+        } catch (NumberFormatException e) {
+            // Positions which do not even fit into a long are way beyond the end of the content
+            return rangeNotSatisfiable(length);
+        }
+
+        if (start >= length || start > end) {
+            return rangeNotSatisfiable(length);
+        }
+
+        int offset = (int) start;
+        int count = (int) (end - start + 1);
+
+        ResponseBuilder builder = Response.status(Status.PARTIAL_CONTENT)
+                .entity((StreamingOutput) outputStream -> outputStream.write(bytes, offset, count))
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .header(ACCEPT_RANGES, BYTES)
+                .header(CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + length)
+                .header(HttpHeaders.CONTENT_LENGTH, count);
+
+        if (contentHash != null) {
+            builder.tag(entityTag(contentHash, false));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Builds the response to a byte range which starts beyond the end of the content.
+     *
+     * @param length the length of the content
+     * @return the response
+     */
+    static Response rangeNotSatisfiable(long length) {
+        return Response.status(Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(CONTENT_RANGE, BYTES + " */" + length)
+                .build();
+    }
+}
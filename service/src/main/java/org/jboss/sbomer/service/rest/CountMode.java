@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest;
+
+import java.util.Locale;
+
+import org.jboss.sbomer.core.errors.ClientException;
+
+/**
+ * Defines how the total number of hits is computed for a paginated search.
+ */
+public enum CountMode {
+    /**
+     * Counts all entities matching the query.
+     */
+    EXACT,
+
+    /**
+     * Uses the table statistics of the database when no query is provided, falls back to {@link #EXACT} otherwise.
+     */
+    ESTIMATED,
+
+    /**
+     * Does not count the entities, the total number of hits and pages is reported as {@code -1}.
+     */
+    NONE;
+
+    public static CountMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ClientException("Invalid count mode: '{}', supported values are: exact, estimated, none", value);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.sbomer.service.rest.ContentResponses.ACCEPT_RANGES;
+import static org.jboss.sbomer.service.rest.ContentResponses.BYTES;
+import static org.jboss.sbomer.service.rest.ContentResponses.CHUNK_SIZE;
+import static org.jboss.sbomer.service.rest.ContentResponses.CONTENT_RANGE;
+import static org.jboss.sbomer.service.rest.ContentResponses.GZIP;
+import static org.jboss.sbomer.service.rest.ContentResponses.RANGE;
+import static org.jboss.sbomer.service.rest.ContentResponses.RANGE_PATTERN;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.zip.GZIPInputStream;
+
+import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.core.errors.ServiceUnavailableException;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Builds responses which stream (potentially very large) log files directly to the client, supporting single byte
+ * ranges, returning only the last lines and following a log file which is still being written.
+ */
+public class LogResponses {
+
+    /**
+     * Number of bytes read at once from the end of a log file when looking for the last lines.
+     */
+    static final int TAIL_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of lines which can be requested from the end of a log file. The lines of compressed files are
+     * kept in memory.
+     */
+    static final int MAX_TAIL = 10_000;
+
+    private LogResponses() {
+        // This is a utility class
+    }
+
+    /**
+     * Reads a range of a stored log file.
+     */
+    @FunctionalInterface
+    public interface RangeReader {
+        /**
+         * Opens a stream with the stored content from {@code start} to {@code end} (inclusive).
+         *
+         * @param start the first byte to read
+         * @param end the last byte to read, or {@code -1} to read until the end
+         * @return the stream
+         */
+        InputStream open(long start, long end) throws IOException;
+    }
+
+    /**
+     * <p>
+     * Builds a response for the stored log file.
+     * </p>
+     *
+     * <ul>
+     * <li>If {@code tail} is provided, only the last {@code tail} lines are sent. For uncompressed files these are
+     * found by reading chunks from the end of the file, only the required part of the file is read.</li>
+     * <li>If the request asks for a single, satisfiable byte range of an uncompressed file, only that range is
+     * sent.</li>
+     * <li>Otherwise the whole file is streamed. Compressed files are sent as stored to clients accepting the
+     * {@code gzip} content encoding and decompressed on the fly for the other clients.</li>
+     * </ul>
+     *
+     * @param size the size of the stored file
+     * @param gzip whether the file is stored compressed with {@code gzip}
+     * @param tail the number of lines to send from the end of the file, or {@code null} to send the whole file
+     * @param headers the request headers
+     * @param reader the reader of the stored file
+     * @return the response
+     */
+    public static Response log(long size, boolean gzip, Integer tail, HttpHeaders headers, RangeReader reader) {
+        if (tail != null) {
+            return tail(size, gzip, validateTail(tail), reader);
+        }
+
+        String range = headers.getHeaderString(RANGE);
+
+        if (range != null && !gzip) {
+            Matcher matcher = RANGE_PATTERN.matcher(range.trim());
+
+            if (matcher.matches() && (!matcher.group(1).isEmpty() || !matcher.group(2).isEmpty())) {
+                return ranged(size, matcher.group(1), matcher.group(2), reader);
+            }
+        }
+
+        if (!gzip) {
+            return Response.ok(copy(reader, 0, -1, false), MediaType.TEXT_PLAIN_TYPE)
+                    .header(ACCEPT_RANGES, BYTES)
+                    .header(HttpHeaders.CONTENT_LENGTH, size)
+                    .build();
+        }
+
+        boolean acceptsGzip = ContentResponses.acceptsGzip(headers);
+        ResponseBuilder builder = Response.ok(copy(reader, 0, -1, !acceptsGzip), MediaType.TEXT_PLAIN_TYPE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptsGzip) {
+            builder.encoding(GZIP).header(HttpHeaders.CONTENT_LENGTH, size);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * <p>
+     * Builds a response following the log file which is still being written. The content written so far (or the
+     * last {@code tail} lines) is sent first, new content is sent as it is written until {@code running} returns
+     * {@code false} or {@code maxDuration} elapses.
+     * </p>
+     *
+     * <p>
+     * Every follower occupies a worker thread for the whole time, so their number is limited by {@code followers}: a
+     * permit is taken until the response is finished, if there is none available the request is rejected. The file is
+     * checked for new content every {@code pollInterval}, while {@code running} (which is usually more expensive) is
+     * checked only every {@code statusCheckInterval}.
+     * </p>
+     *
+     * @param file the log file
+     * @param tail the number of lines to send from the end of the file first, or {@code null} to start from the
+     *        beginning of the file
+     * @param running checks whether the file is still being written
+     * @param followers the permits of concurrent followers
+     * @param pollInterval the interval between checks for new content
+     * @param statusCheckInterval the interval between calls to {@code running}
+     * @param maxDuration the maximum time the file is followed
+     * @return the response
+     */
+    public static Response follow(
+            Path file,
+            Integer tail,
+            BooleanSupplier running,
+            Semaphore followers,
+            Duration pollInterval,
+            Duration statusCheckInterval,
+            Duration maxDuration) {
+        if (!followers.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many logs are being followed currently, try again later");
+        }
+
+        long offset;
+
+        try {
+            offset = tail == null ? 0 : tailOffset(Files.size(file), validateTail(tail), fileReader(file));
+        } catch (IOException e) {
+            followers.release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            followers.release();
+            throw e;
+        }
+
+        StreamingOutput output = outputStream -> {
+            long deadline = System.nanoTime() + maxDuration.toNanos();
+            long nextStatusCheck = System.nanoTime();
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                long position = offset;
+
+                while (true) {
+                    long now = System.nanoTime();
+                    boolean last = now > deadline;
+
+                    // Checked before reading, so that everything written before the end is sent
+                    if (!last && now - nextStatusCheck >= 0) {
+                        last = !running.getAsBoolean();
+                        nextStatusCheck = now + statusCheckInterval.toNanos();
+                    }
+
+                    int read;
+
+                    while ((read = channel.read(buffer, position)) > 0) {
+                        outputStream.write(buffer.array(), 0, read);
+                        position += read;
+                        buffer.clear();
+                    }
+
+                    outputStream.flush();
+
+                    if (last) {
+                        return;
+                    }
+
+                    try {
+                        Thread.sleep(pollInterval.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            } finally {
+                followers.release();
+            }
+        };
+
+        return Response.ok(output, MediaType.TEXT_PLAIN_TYPE).build();
+    }
+
+    /**
+     * Finds the offset of the last {@code lines} lines of an uncompressed file, reading chunks of the file from its
+     * end. A line feed at the very end of the file does not start a new line.
+     *
+     * @param size the size of the file
+     * @param lines the number of lines
+     * @param reader the reader of the file
+     * @return the offset of the first byte of the last {@code lines} lines
+     * @throws IOException if the file could not be read
+     */
+    static long tailOffset(long size, int lines, RangeReader reader) throws IOException {
+        int found = 0;
+
+        for (long end = size; end > 0;) {
+            long start = Math.max(0, end - TAIL_CHUNK_SIZE);
+            byte[] chunk;
+
+            try (InputStream in = reader.open(start, end - 1)) {
+                chunk = in.readNBytes((int) (end - start));
+            }
+
+            for (int i = chunk.length - 1; i >= 0; i--) {
+                if (chunk[i] == '\n' && start + i != size - 1 && ++found == lines) {
+                    return start + i + 1;
+                }
+            }
+
+            end = start;
+        }
+
+        return 0;
+    }
+
+    private static int validateTail(Integer tail) {
+        if (tail <= 0 || tail > MAX_TAIL) {
+            throw new ClientException(
+                    "Invalid number of lines '{}', it needs to be a positive number not greater than {}",
+                    tail,
+                    MAX_TAIL);
+        }
+
+        return tail;
+    }
+
+    private static Response tail(long size, boolean gzip, int lines, RangeReader reader) {
+        if (!gzip) {
+            long offset;
+
+            try {
+                offset = tailOffset(size, lines, reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return Response.ok(copy(reader, offset, -1, false), MediaType.TEXT_PLAIN_TYPE).build();
+        }
+
+        // Compressed files can't be read from the end, only the last lines are kept while decompressing
+        StreamingOutput output = outputStream -> {
+            Deque<String> last = new ArrayDeque<>(Math.min(lines, 1024));
+
+            try (BufferedReader lineReader = new BufferedReader(
+                    new InputStreamReader(new GZIPInputStream(reader.open(0, -1), CHUNK_SIZE), UTF_8))) {
+                String line;
+
+                while ((line = lineReader.readLine()) != null) {
+                    if (last.size() == lines) {
+                        last.removeFirst();
+                    }
+
+                    last.addLast(line);
+                }
+            }
+
+            for (String line : last) {
+                outputStream.write(line.getBytes(UTF_8));
+                outputStream.write('\n');
+            }
+        };
+
+        return Response.ok(output, MediaType.TEXT_PLAIN_TYPE).build();
+    }
+
+    private static Response ranged(long size, String first, String last, RangeReader reader) {
+        long start;
+        long end;
+
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                start = Math.max(0, size - Long.parseLong(last));
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+        } catch (NumberFormatException e) {
+            // Positions which do not even fit into a long are way beyond the end of the file
+            return ContentResponses.rangeNotSatisfiable(size);
+        }
+
+        if (start >= size || start > end) {
+            return ContentResponses.rangeNotSatisfiable(size);
+        }
+
+        return Response.status(Status.PARTIAL_CONTENT)
+                .entity(copy(reader, start, end, false))
+                .type(MediaType.TEXT_PLAIN_TYPE)
+                .header(ACCEPT_RANGES, BYTES)
+                .header(CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + size)
+                .header(HttpHeaders.CONTENT_LENGTH, end - start + 1)
+                .build();
+    }
+
+    private static StreamingOutput copy(RangeReader reader, long start, long end, boolean decompress) {
+        return outputStream -> {
+            try (InputStream in = decompress ? new GZIPInputStream(reader.open(start, end), CHUNK_SIZE)
+                    : reader.open(start, end)) {
+                transfer(in, outputStream);
+            }
+        };
+    }
+
+    private static void transfer(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int read;
+
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+    /**
+     * Reads ranges of a local file, used to find the last lines of a log file which is still being written. Bounded
+     * ranges are read into memory, these are at most {@link #TAIL_CHUNK_SIZE} long.
+     */
+    private static RangeReader fileReader(Path file) {
+        return (start, end) -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) (end - start + 1));
+
+                while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+                    // Read until the buffer is full
+                }
+
+                return new ByteArrayInputStream(buffer.array(), 0, buffer.position());
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.jboss.sbomer.core.errors.ClientException;
+
+/**
+ * <p>
+ * Position of the last entry of a page in a listing ordered by the time of creation and the identifier, used to fetch
+ * the next page with a keyset (seek) query instead of skipping all entries of the previous pages.
+ * </p>
+ *
+ * <p>
+ * The cursor is exchanged with clients as an opaque, URL-safe token.
+ * </p>
+ *
+ * @param time the creation time of the last entry
+ * @param id the identifier of the last entry
+ */
+public record PageCursor(Instant time, String id) {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        String value = time.getEpochSecond() + String.valueOf(SEPARATOR) + time.getNano() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the token created by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws ClientException if the token is not valid
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+            int secondsEnd = value.indexOf(SEPARATOR);
+            int nanosEnd = value.indexOf(SEPARATOR, secondsEnd + 1);
+
+            if (secondsEnd < 0 || nanosEnd < 0 || nanosEnd == value.length() - 1) {
+                throw new ClientException("Invalid cursor: '{}'", token);
+            }
+
+            Instant time = Instant.ofEpochSecond(
+                    Long.parseLong(value.substring(0, secondsEnd)),
+                    Long.parseLong(value.substring(secondsEnd + 1, nanosEnd)));
+
+            return new PageCursor(time, value.substring(nanosEnd + 1));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ClientException("Invalid cursor: '{}'", token);
+        }
+    }
+}
@@ -38,7 +38,20 @@ public class QueryParameters {
     @Builder.Default
     int pageSize = 50;
 
+    /**
+     * Opaque token of the {@link PageCursor} pointing to the last entry of the previous page. When set, the page index
+     * is ignored and the page is fetched with a keyset query.
+     */
+    String cursor;
+
+    @Builder.Default
+    CountMode count = CountMode.EXACT;
+
     public int firstResult() {
+        if (cursor != null) {
+            return 0;
+        }
+
         return pageIndex * pageSize;
     }
 
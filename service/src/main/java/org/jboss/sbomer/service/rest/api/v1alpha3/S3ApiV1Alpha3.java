@@ -27,7 +27,9 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.sbomer.core.errors.ErrorResponse;
 import org.jboss.sbomer.core.errors.ServiceUnavailableException;
 import org.jboss.sbomer.service.feature.FeatureFlags;
+import org.jboss.sbomer.service.feature.s3.LogObject;
 import org.jboss.sbomer.service.feature.s3.S3StorageHandler;
+import org.jboss.sbomer.service.rest.LogResponses;
 
 import com.fasterxml.jackson.jakarta.rs.yaml.YAMLMediaTypes;
 
@@ -39,6 +41,8 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
@@ -106,15 +110,23 @@ public class S3ApiV1Alpha3 {
             responseCode = "500",
             description = "Internal server error",
             content = @Content(mediaType = MediaType.APPLICATION_JSON))
-    public Response getLog(@PathParam("id") String generationRequestId, @PathParam("path") String path) {
+    public Response getLog(
+            @PathParam("id") String generationRequestId,
+            @PathParam("path") String path,
+            @Context HttpHeaders headers) {
         if (!featureFlags.s3Storage()) {
             throw new ServiceUnavailableException("S3 feature is disabled currently, try again later");
         }
 
         log.info("Fetching log for GenerationRequest '{}' on path '{}'", generationRequestId, path);
 
-        String log = s3StorageHandler.getLog(generationRequestId, path);
+        LogObject logObject = s3StorageHandler.getLog(generationRequestId, path);
 
-        return Response.ok(log).build();
+        return LogResponses.log(
+                logObject.size(),
+                logObject.gzip(),
+                null,
+                headers,
+                (start, end) -> s3StorageHandler.openLog(logObject, start, end));
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest.api.v1beta1;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1ManifestRecord;
+import org.jboss.sbomer.core.errors.ErrorResponse;
+import org.jboss.sbomer.core.errors.NotFoundException;
+import org.jboss.sbomer.service.feature.sbom.cache.GenerationCache;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.rest.mapper.V1Beta1Mapper;
+
+import jakarta.annotation.security.PermitAll;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+@Path("/api/v1beta1/generation-cache")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@ApplicationScoped
+@PermitAll
+@Tag(name = "v1beta1")
+public class GenerationCacheV1Beta1 {
+    @Inject
+    V1Beta1Mapper mapper;
+
+    @Inject
+    GenerationCache generationCache;
+
+    @GET
+    @Path("/{key}")
+    @Operation(
+            summary = "Get cached manifest",
+            description = "Get the manifest generated from the same source revision with the same generator settings.")
+    @Parameter(name = "key", description = "Generation cache key computed by the generator")
+    @APIResponse(
+            responseCode = "200",
+            description = "The cached manifest",
+            content = @Content(schema = @Schema(implementation = V1Beta1ManifestRecord.class)))
+    @APIResponse(
+            responseCode = "404",
+            description = "There is no manifest cached for the provided key",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @APIResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    public V1Beta1ManifestRecord getCachedManifest(@PathParam("key") String cacheKey) {
+        Sbom sbom = generationCache.lookup(cacheKey);
+
+        if (sbom == null) {
+            throw new NotFoundException("There is no manifest cached for the key: '{}'", cacheKey);
+        }
+
+        return mapper.toRecord(sbom);
+    }
+}
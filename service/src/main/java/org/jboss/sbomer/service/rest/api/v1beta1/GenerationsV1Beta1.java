@@ -19,9 +19,12 @@ package org.jboss.sbomer.service.rest.api.v1beta1;
 
 import static org.jboss.sbomer.service.feature.sbom.UserRoles.USER_DELETE_ROLE;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
@@ -52,17 +55,22 @@ import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.utils.PaginationParameters;
 import org.jboss.sbomer.service.feature.FeatureFlags;
+import org.jboss.sbomer.service.feature.s3.LogObject;
 import org.jboss.sbomer.service.feature.s3.S3StorageHandler;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.AdvisoryService;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.rest.CountMode;
+import org.jboss.sbomer.service.rest.LogResponses;
+import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.RestUtils;
 import org.jboss.sbomer.service.rest.mapper.V1Beta1Mapper;
 
 import com.fasterxml.jackson.jakarta.rs.yaml.YAMLMediaTypes;
 
 import io.opentelemetry.api.trace.Span;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -80,6 +88,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
@@ -107,6 +116,25 @@ public class GenerationsV1Beta1 {
     @Inject
     FeatureFlags featureFlags;
 
+    @ConfigProperty(name = "sbomer.logs.follow.poll-interval", defaultValue = "PT2S")
+    Duration followPollInterval;
+
+    @ConfigProperty(name = "sbomer.logs.follow.status-check-interval", defaultValue = "PT30S")
+    Duration followStatusCheckInterval;
+
+    @ConfigProperty(name = "sbomer.logs.follow.max-duration", defaultValue = "PT30M")
+    Duration followMaxDuration;
+
+    @ConfigProperty(name = "sbomer.logs.follow.max-followers", defaultValue = "20")
+    int followMaxFollowers;
+
+    Semaphore followers;
+
+    @PostConstruct
+    void init() {
+        followers = new Semaphore(followMaxFollowers);
+    }
+
     @Inject
     S3StorageHandler s3StorageHandler;
 
@@ -278,6 +306,15 @@ public class GenerationsV1Beta1 {
                     @ExampleObject(
                             name = "Order generation requests by creation time in descending order",
                             value = "creationTime=desc=") })
+    @Parameter(
+            name = "cursor",
+            description = "Optional cursor returned as 'nextCursor' with the previous page. Fetches the next page "
+                    + "without scanning the entries of all previous pages, the page index is ignored in such case. "
+                    + "Requires the default sort order.")
+    @Parameter(
+            name = "count",
+            description = "How the total number of hits is computed: 'exact' (default), 'estimated' (from the table "
+                    + "statistics, if no query is provided) or 'none'.")
     @APIResponse(
             responseCode = "200",
             description = "Paginated list of generation requests in the system for a specified RSQL query.",
@@ -293,12 +330,18 @@ public class GenerationsV1Beta1 {
     public Page<V1Beta1GenerationRecord> searchGenerationRequests(
             @Valid @BeanParam PaginationParameters paginationParams,
             @QueryParam("query") String rsqlQuery,
-            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort) {
+            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("exact") @QueryParam("count") String count) {
         Page<SbomGenerationRequest> requests = sbomService.searchSbomRequestsByQueryPaginated(
-                paginationParams.getPageIndex(),
-                paginationParams.getPageSize(),
-                rsqlQuery,
-                sort);
+                QueryParameters.builder()
+                        .rsqlQuery(rsqlQuery)
+                        .sort(sort)
+                        .pageIndex(paginationParams.getPageIndex())
+                        .pageSize(paginationParams.getPageSize())
+                        .cursor(cursor)
+                        .count(CountMode.fromString(count))
+                        .build());
 
         return mapper.generationsToRecordPage(requests);
     }
@@ -360,23 +403,69 @@ public class GenerationsV1Beta1 {
     @Consumes({ MediaType.APPLICATION_JSON, YAMLMediaTypes.APPLICATION_JACKSON_YAML })
     @Operation(summary = "Fetch generation log file content on a specified path")
     @Path("/{id}/logs/{path}")
+    @Parameter(
+            name = "tail",
+            description = "Return only the given number of lines (at most 10000) from the end of the log file",
+            example = "100")
+    @Parameter(
+            name = "follow",
+            description = "Keep sending the log file content as it is written, while the generation is running")
     @APIResponse(
             responseCode = "200",
             description = "Log file content",
             content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @APIResponse(
+            responseCode = "206",
+            description = "The requested range of the log file content",
+            content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @APIResponse(
+            responseCode = "404",
+            description = "Given generation request or log file could not be found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON))
+    @APIResponse(
+            responseCode = "416",
+            description = "The requested range cannot be satisfied")
     @APIResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content(mediaType = MediaType.APPLICATION_JSON))
-    public Response getLog(@PathParam("id") String generationRequestId, @PathParam("path") String path) {
+    @APIResponse(
+            responseCode = "503",
+            description = "Logs are not available currently or too many logs are being followed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON))
+    public Response getLog(
+            @PathParam("id") String generationRequestId,
+            @PathParam("path") String path,
+            @QueryParam("tail") Integer tail,
+            @QueryParam("follow") @DefaultValue("false") boolean follow,
+            @Context HttpHeaders headers) {
+
+        if (follow && !s3StorageHandler.isFinished(generationRequestId)) {
+            log.info("Following log for GenerationRequest '{}' on path '{}'", generationRequestId, path);
+
+            return LogResponses.follow(
+                    s3StorageHandler.getRunningLog(generationRequestId, path),
+                    tail,
+                    () -> !s3StorageHandler.isFinished(generationRequestId),
+                    followers,
+                    followPollInterval,
+                    followStatusCheckInterval,
+                    followMaxDuration);
+        }
+
         if (!featureFlags.s3Storage()) {
             throw new ServiceUnavailableException("S3 feature is disabled currently, try again later");
         }
 
         log.info("Fetching log for GenerationRequest '{}' on path '{}'", generationRequestId, path);
 
-        String log = s3StorageHandler.getLog(generationRequestId, path);
+        LogObject logObject = s3StorageHandler.getLog(generationRequestId, path);
 
-        return Response.ok(log).build();
+        return LogResponses.log(
+                logObject.size(),
+                logObject.gzip(),
+                tail,
+                headers,
+                (start, end) -> s3StorageHandler.openLog(logObject, start, end));
     }
 }
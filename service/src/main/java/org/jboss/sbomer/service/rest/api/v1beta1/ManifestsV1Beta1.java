@@ -35,11 +35,13 @@ import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.utils.PaginationParameters;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.model.SbomContentInfo;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.rest.ContentResponses;
+import org.jboss.sbomer.service.rest.CountMode;
+import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.mapper.V1Beta1Mapper;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import jakarta.annotation.security.PermitAll;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -53,8 +55,12 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
 import jakarta.ws.rs.core.Response.Status;
 import lombok.extern.slf4j.Slf4j;
 
@@ -90,6 +96,15 @@ public class ManifestsV1Beta1 {
                     @ExampleObject(
                             name = "Order manifests by creation time in descending order",
                             value = "creationTime=desc=") })
+    @Parameter(
+            name = "cursor",
+            description = "Optional cursor returned as 'nextCursor' with the previous page. Fetches the next page "
+                    + "without scanning the entries of all previous pages, the page index is ignored in such case. "
+                    + "Requires the default sort order.")
+    @Parameter(
+            name = "count",
+            description = "How the total number of hits is computed: 'exact' (default), 'estimated' (from the table "
+                    + "statistics, if no query is provided) or 'none'.")
     @APIResponse(
             responseCode = "200",
             description = "Paginated list of manifests in the system for a specified RSQL query.")
@@ -104,13 +119,19 @@ public class ManifestsV1Beta1 {
     public Page<V1Beta1BaseManifestRecord> searchSboms(
             @Valid @BeanParam PaginationParameters paginationParams,
             @QueryParam("query") String rsqlQuery,
-            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort) {
+            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("exact") @QueryParam("count") String count) {
 
         Page<BaseSbomRecord> sboms = sbomService.searchSbomRecordsByQueryPaginated(
-                paginationParams.getPageIndex(),
-                paginationParams.getPageSize(),
-                rsqlQuery,
-                sort);
+                QueryParameters.builder()
+                        .rsqlQuery(rsqlQuery)
+                        .sort(sort)
+                        .pageIndex(paginationParams.getPageIndex())
+                        .pageSize(paginationParams.getPageSize())
+                        .cursor(cursor)
+                        .count(CountMode.fromString(count))
+                        .build());
 
         return mapper.toRecord(sboms);
     }
@@ -173,6 +194,11 @@ public class ManifestsV1Beta1 {
             responseCode = "200",
             description = "The BOM in CycloneDX format",
             content = @Content(schema = @Schema(implementation = Map.class)))
+    @APIResponse(
+            responseCode = "206",
+            description = "The requested byte range of the BOM in CycloneDX format",
+            content = @Content(schema = @Schema(implementation = Map.class)))
+    @APIResponse(responseCode = "304", description = "The BOM did not change since it was last retrieved")
     @APIResponse(
             responseCode = "400",
             description = "Could not parse provided arguments",
@@ -185,20 +211,44 @@ public class ManifestsV1Beta1 {
             responseCode = "500",
             description = "Internal server error",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
-    public JsonNode getBomById(@PathParam("id") String identifier) {
-        Sbom sbom = sbomService.get(identifier);
+    public Response getBomById(
+            @PathParam("id") String identifier,
+            @Context Request request,
+            @Context HttpHeaders headers) {
+        SbomContentInfo info = sbomService.findBomContentInfo(identifier);
 
-        if (sbom == null) {
-            sbom = sbomService.findByPurl(identifier);
-        }
-
-        if (sbom == null) {
+        if (info == null) {
             throw new NotFoundException(
                     "Manifest with could not be found for provided identifier: '" + identifier + "'");
         }
 
+        boolean gzip = ContentResponses.acceptsGzip(headers);
+
+        // Answer conditional requests without reading the content
+        if (info.contentHash() != null) {
+            ResponseBuilder notModified = request
+                    .evaluatePreconditions(ContentResponses.entityTag(info.contentHash(), gzip));
+
+            if (notModified != null) {
+                return notModified.build();
+            }
+        }
+
+        // The content is sent as stored, without parsing it into a tree and serializing it again
+        String bom = sbomService.getBomText(info.id());
+
+        if (bom == null) {
+            return Response.noContent().build();
+        }
+
+        String contentHash = info.contentHash();
+
+        if (contentHash == null) {
+            contentHash = sbomService.computeMissingContentHash(info.id(), bom);
+        }
+
         // TODO: We probably should ensure proper formatting (ordering of keys)
-        return sbom.getSbom();
+        return ContentResponses.json(bom, contentHash, headers);
     }
 
     @POST
@@ -32,6 +32,8 @@ import org.jboss.sbomer.core.errors.ErrorResponse;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.utils.PaginationParameters;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.rest.CountMode;
+import org.jboss.sbomer.service.rest.QueryParameters;
 
 import jakarta.annotation.security.PermitAll;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -138,6 +140,15 @@ public class RequestsV1Beta1 {
                     @ExampleObject(
                             name = "Order request events by receival time in descending order",
                             value = "receivalTime=desc=") })
+    @Parameter(
+            name = "cursor",
+            description = "Optional cursor returned as 'nextCursor' with the previous page. Fetches the next page "
+                    + "without scanning the entries of all previous pages, the page index is ignored in such case. "
+                    + "Requires the default sort order.")
+    @Parameter(
+            name = "count",
+            description = "How the total number of hits is computed: 'exact' (default), 'estimated' (from the table "
+                    + "statistics, if no query is provided) or 'none'.")
     @APIResponse(
             responseCode = "200",
             description = "Paginated list of request events in the system for a specified RSQL query.",
@@ -153,13 +164,19 @@ public class RequestsV1Beta1 {
     public Page<V1BaseBeta1RequestRecord> searchRequestEvents(
             @Valid @BeanParam PaginationParameters paginationParams,
             @QueryParam("query") String rsqlQuery,
-            @DefaultValue("receivalTime=desc=") @QueryParam("sort") String sort) {
+            @DefaultValue("receivalTime=desc=") @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("exact") @QueryParam("count") String count) {
 
         return sbomService.searchRequestRecordsByQueryPaginated(
-                paginationParams.getPageIndex(),
-                paginationParams.getPageSize(),
-                rsqlQuery,
-                sort);
+                QueryParameters.builder()
+                        .rsqlQuery(rsqlQuery)
+                        .sort(sort)
+                        .pageIndex(paginationParams.getPageIndex())
+                        .pageSize(paginationParams.getPageSize())
+                        .cursor(cursor)
+                        .count(CountMode.fromString(count))
+                        .build());
     }
 
 }
@@ -19,13 +19,21 @@ package org.jboss.sbomer.service.rest.criteria;
 
 import static org.jboss.sbomer.service.rest.criteria.predicate.CustomizedPredicateBuilderStrategy.WILDCARD_CHAR;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.jboss.pnc.common.Strings;
+import org.jboss.sbomer.service.rest.PageCursor;
+import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomPredicateSortBuilder;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomizedJpaPredicateSortVisitor;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomizedJpaPredicateVisitor;
@@ -40,9 +48,11 @@ import cz.jirutka.rsql.parser.ast.RSQLOperators;
 import cz.jirutka.rsql.parser.ast.RSQLVisitor;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Table;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
@@ -53,6 +63,8 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepositoryBase<T, String> {
 
     private static final Pattern likePattern = Pattern.compile("(%[a-zA-Z0-9\\s]+%)");
+    private static final Pattern keysetSortPattern = Pattern
+            .compile("^\\s*(\\w+)\\s*=(asc|desc)=\\s*$", Pattern.CASE_INSENSITIVE);
 
     protected static final RSQLParser predicateParser;
     protected static final RSQLParser sortParser;
@@ -67,6 +79,7 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
     CriteriaBuilder criteriaBuilder;
     EntityManagerAdapter entityManagerAdapter;
     Class<T> entityType;
+    boolean postgres;
 
     static {
         Set<ComparisonOperator> predicateOperators = RSQLOperators.defaultOperators();
@@ -98,6 +111,51 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
         return getEntityManager().createQuery(criteriaQuery).getSingleResult();
     }
 
+    /**
+     * Estimates the total number of entities that satisfy the RSQL query. Without a query, the number of rows is read
+     * from the PostgreSQL table statistics, which is much cheaper than counting the rows of a large table. In all other
+     * cases the entities are counted with {@link #countByRsqlQuery(String)}.
+     *
+     * @param rsqlQuery RSQL query to be taken into account.
+     * @return the estimated number of entities that satisfy the RSQL query
+     */
+    public Long estimateCountByRsqlQuery(String rsqlQuery) {
+        Table table = entityType.getAnnotation(Table.class);
+
+        if (!postgres || table == null || !Strings.isEmpty(rsqlQuery)) {
+            return countByRsqlQuery(rsqlQuery);
+        }
+
+        List<?> results = getEntityManager()
+                .createNativeQuery("SELECT reltuples FROM pg_class WHERE oid = to_regclass(:table)")
+                .setParameter("table", table.name())
+                .getResultList();
+
+        // Statistics are not available (-1) until the table is vacuumed or analyzed for the first time
+        if (results.isEmpty() || !(results.get(0) instanceof Number estimate) || estimate.longValue() < 0) {
+            return countByRsqlQuery(rsqlQuery);
+        }
+
+        return estimate.longValue();
+    }
+
+    /**
+     * Prepares the token of the cursor pointing to the last entry of the page, which can be used to fetch the next page
+     * with a keyset query.
+     *
+     * @param content the content of the page
+     * @param parameters query parameters used to fetch the page
+     * @param position function returning the position of an entry
+     * @return the token or {@code null} if the listing does not support keyset pagination or there are no more pages
+     */
+    public <X> String nextCursor(List<X> content, QueryParameters parameters, Function<X, PageCursor> position) {
+        if (content.size() < parameters.getPageSize() || keysetAscending(parameters.getSort()).isEmpty()) {
+            return null;
+        }
+
+        return position.apply(content.get(content.size() - 1)).encode();
+    }
+
     protected AbstractCriteriaAwareRepository(Class<T> entityType) {
         this.entityType = entityType;
     }
@@ -107,6 +165,20 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
     protected void init() {
         entityManagerAdapter = new EntityManagerAdapter(getEntityManager());
         criteriaBuilder = entityManagerAdapter.getCriteriaBuilder();
+        postgres = getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    /**
+     * Name of the attribute holding the time the entity was created at. Together with the identifier it defines the
+     * order used for keyset pagination.
+     *
+     * @return the attribute name
+     */
+    protected String keysetAttribute() {
+        return "creationTime";
     }
 
     private String preprocessRSQL(String rsql) {
@@ -155,4 +227,65 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
         return query.orderBy(orders.toArray(new Order[0]));
     }
 
+    /**
+     * Checks whether the provided sort orders the entities only by the {@link #keysetAttribute()}, which is the order
+     * supported by keyset pagination.
+     *
+     * @param sort RSQL sort
+     * @return {@code true} for ascending order, {@code false} for descending order or empty if keyset pagination is
+     *         not supported for the sort
+     */
+    protected Optional<Boolean> keysetAscending(String sort) {
+        if (Strings.isEmpty(sort)) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = keysetSortPattern.matcher(sort);
+
+        if (!matcher.matches() || !matcher.group(1).equals(keysetAttribute())) {
+            return Optional.empty();
+        }
+
+        return Optional.of("asc".equalsIgnoreCase(matcher.group(2)));
+    }
+
+    /**
+     * Orders the entities by the {@link #keysetAttribute()} and the identifier and, if a cursor is provided, restricts
+     * the query to the entities following the cursor position. This way a page is fetched through the index, with the
+     * same cost regardless of how deep it is.
+     */
+    protected <X> CriteriaQuery<X> handleKeyset(
+            CriteriaQuery<X> query,
+            Root<T> root,
+            String cursor,
+            boolean ascending) {
+        Path<Instant> time = root.get(keysetAttribute());
+        Path<String> id = root.get("id");
+
+        if (cursor != null) {
+            PageCursor position = PageCursor.decode(cursor);
+
+            Predicate next = ascending
+                    ? criteriaBuilder.or(
+                            criteriaBuilder.greaterThan(time, position.time()),
+                            criteriaBuilder.and(
+                                    criteriaBuilder.equal(time, position.time()),
+                                    criteriaBuilder.greaterThan(id, position.id())))
+                    : criteriaBuilder.or(
+                            criteriaBuilder.lessThan(time, position.time()),
+                            criteriaBuilder.and(
+                                    criteriaBuilder.equal(time, position.time()),
+                                    criteriaBuilder.lessThan(id, position.id())));
+
+            Predicate restriction = query.getRestriction();
+            query = query.where(restriction == null ? next : criteriaBuilder.and(restriction, next));
+        }
+
+        if (ascending) {
+            return query.orderBy(criteriaBuilder.asc(time), criteriaBuilder.asc(id));
+        }
+
+        return query.orderBy(criteriaBuilder.desc(time), criteriaBuilder.desc(id));
+    }
+
 }
@@ -18,8 +18,10 @@
 package org.jboss.sbomer.service.rest.criteria;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.jboss.sbomer.core.TriFunction;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.service.rest.QueryParameters;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
@@ -53,7 +55,19 @@ public class CriteriaAwareRepository<T extends PanacheEntityBase> extends Abstra
         }
 
         criteriaQuery = handleRsql(criteriaQuery, root, parameters.getRsqlQuery());
-        criteriaQuery = handleSort(criteriaQuery, root, parameters.getSort());
+
+        Optional<Boolean> keysetAscending = keysetAscending(parameters.getSort());
+
+        if (keysetAscending.isPresent()) {
+            criteriaQuery = handleKeyset(criteriaQuery, root, parameters.getCursor(), keysetAscending.get());
+        } else if (parameters.getCursor() != null) {
+            throw new ClientException(
+                    "Pagination with a cursor requires sorting by '{}' only, provided sort: '{}'",
+                    keysetAttribute(),
+                    parameters.getSort());
+        } else {
+            criteriaQuery = handleSort(criteriaQuery, root, parameters.getSort());
+        }
 
         TypedQuery<X> typedQuery = getEntityManager().createQuery(criteriaQuery);
 
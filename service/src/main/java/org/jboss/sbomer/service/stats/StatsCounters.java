@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.stats;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * In-memory counters of the resources and UMB messages handled by the service, served by the stats endpoint and
+ * exported as gauges.
+ * </p>
+ *
+ * <p>
+ * Counters are incremented on the write paths and periodically reconciled with the database
+ * ({@code sbomer.stats.reconcile-interval}), which corrects any drift caused by rolled back transactions, deleted
+ * resources or other replicas of the service. Generation requests are created and change their status in many
+ * places, their numbers are only updated on reconciliation.
+ * </p>
+ */
+@Setter
+@ApplicationScoped
+@Slf4j
+public class StatsCounters {
+
+    public enum MessageStatus {
+        RECEIVED, PROCESSED, SKIPPED
+    }
+
+    @Inject
+    SbomService sbomService;
+
+    @Inject
+    RequestEventRepository requestEventRepository;
+
+    @Inject
+    UmbConfig umbConfig;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final AtomicLong sboms = new AtomicLong();
+
+    private final AtomicLong generationRequests = new AtomicLong();
+
+    private final AtomicLong generationRequestsInProgress = new AtomicLong();
+
+    private final Map<UMBConsumer, Map<MessageStatus, AtomicLong>> messages = new EnumMap<>(UMBConsumer.class);
+
+    private volatile boolean reconciled = false;
+
+    public StatsCounters() {
+        for (UMBConsumer consumer : UMBConsumer.values()) {
+            Map<MessageStatus, AtomicLong> counters = new EnumMap<>(MessageStatus.class);
+
+            for (MessageStatus status : MessageStatus.values()) {
+                counters.put(status, new AtomicLong());
+            }
+
+            messages.put(consumer, counters);
+        }
+    }
+
+    void init(@Observes StartupEvent ev) {
+        registry.gauge("sbomer.stats.sboms", sboms);
+        registry.gauge("sbomer.stats.generation.requests", Tags.of("state", "total"), generationRequests);
+        registry.gauge(
+                "sbomer.stats.generation.requests",
+                Tags.of("state", "in_progress"),
+                generationRequestsInProgress);
+
+        messages.forEach(
+                (consumer, counters) -> counters.forEach(
+                        (status, counter) -> registry.gauge(
+                                "sbomer.stats.umb.messages",
+                                Tags.of("consumer", consumer.name(), "status", status.name().toLowerCase()),
+                                counter)));
+    }
+
+    @Scheduled(
+            every = "${sbomer.stats.reconcile-interval:1m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Replaces the values of all counters with the numbers stored in the database.
+     */
+    @Transactional
+    public synchronized void reconcile() {
+        long start = System.currentTimeMillis();
+
+        sboms.set(sbomService.countSboms());
+        generationRequests.set(sbomService.countSbomGenerationRequests());
+        generationRequestsInProgress.set(sbomService.countInProgressSbomGenerationRequests());
+
+        if (umbConfig.isEnabled()) {
+            set(UMBConsumer.PNC, MessageStatus.RECEIVED, requestEventRepository.countPncReceivedMessages());
+            set(UMBConsumer.PNC, MessageStatus.PROCESSED, requestEventRepository.countPncProcessedMessages());
+            set(UMBConsumer.PNC, MessageStatus.SKIPPED, requestEventRepository.countPncSkippedMessages());
+            set(UMBConsumer.ERRATA, MessageStatus.RECEIVED, requestEventRepository.countErrataReceivedMessages());
+            set(UMBConsumer.ERRATA, MessageStatus.PROCESSED, requestEventRepository.countErrataProcessedMessages());
+            set(UMBConsumer.ERRATA, MessageStatus.SKIPPED, requestEventRepository.countErrataSkippedMessages());
+        }
+
+        reconciled = true;
+
+        log.debug("Stats counters reconciled with the database in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Makes sure the counters were reconciled with the database at least once, so that a snapshot taken right after
+     * the start of the service does not report only what was handled since then.
+     */
+    public void ensureReconciled() {
+        if (!reconciled) {
+            reconcile();
+        }
+    }
+
+    public void sbomsCreated(int count) {
+        sboms.addAndGet(count);
+    }
+
+    public void messageHandled(UMBConsumer consumer, MessageStatus status) {
+        messages.get(consumer).get(status).incrementAndGet();
+    }
+
+    public long getSboms() {
+        return sboms.get();
+    }
+
+    public long getGenerationRequests() {
+        return generationRequests.get();
+    }
+
+    public long getGenerationRequestsInProgress() {
+        return generationRequestsInProgress.get();
+    }
+
+    public long getMessages(UMBConsumer consumer, MessageStatus status) {
+        return messages.get(consumer).get(status).get();
+    }
+
+    private void set(UMBConsumer consumer, MessageStatus status, long value) {
+        messages.get(consumer).get(status).set(value);
+    }
+}
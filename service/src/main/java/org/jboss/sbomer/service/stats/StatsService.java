@@ -21,8 +21,8 @@ import java.lang.management.ManagementFactory;
 import java.time.Duration;
 
 import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
 import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
-import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.AmqpMessageConsumer;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.AmqpMessageProducer;
 import org.jboss.sbomer.service.feature.sbom.model.Stats;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.Deployment;
@@ -33,7 +33,7 @@ import org.jboss.sbomer.service.feature.sbom.model.Stats.PncConsumer;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.Producer;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.Resources;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.SbomStats;
-import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.stats.StatsCounters.MessageStatus;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -41,14 +41,11 @@ import jakarta.inject.Inject;
 @ApplicationScoped
 public class StatsService {
     @Inject
-    AmqpMessageConsumer messageConsumer;
+    StatsCounters counters;
 
     @Inject
     AmqpMessageProducer messageProducer;
 
-    @Inject
-    SbomService sbomService;
-
     @Inject
     UmbConfig umbConfig;
 
@@ -61,13 +58,13 @@ public class StatsService {
     }
 
     private SbomStats sbomStats() {
-        return SbomStats.builder().withTotal(sbomService.countSboms()).build();
+        return SbomStats.builder().withTotal(counters.getSboms()).build();
     }
 
     private GenerationRequestStats generationRequestStats() {
         return GenerationRequestStats.builder()
-                .withTotal(sbomService.countSbomGenerationRequests())
-                .withInProgress(sbomService.countInProgressSbomGenerationRequests())
+                .withTotal(counters.getGenerationRequests())
+                .withInProgress(counters.getGenerationRequestsInProgress())
                 .build();
     }
 
@@ -79,7 +76,13 @@ public class StatsService {
                 .toLowerCase();
     }
 
+    /**
+     * Returns a snapshot of the service statistics. Numbers are served from {@link StatsCounters}, the database is not
+     * queried (except for the first call after the start of the service).
+     */
     public Stats getStats() {
+        counters.ensureReconciled();
+
         long uptimeMillis = getUptimeMillis();
 
         Messaging messaging = null;
@@ -88,15 +91,15 @@ public class StatsService {
             messaging = Messaging.builder()
                     .withPncConsumer(
                             PncConsumer.builder()
-                                    .withProcessed(messageConsumer.getPncProcessedMessages())
-                                    .withReceived(messageConsumer.getPncReceivedMessages())
-                                    .withSkipped(messageConsumer.getPncSkippedMessages())
+                                    .withProcessed(counters.getMessages(UMBConsumer.PNC, MessageStatus.PROCESSED))
+                                    .withReceived(counters.getMessages(UMBConsumer.PNC, MessageStatus.RECEIVED))
+                                    .withSkipped(counters.getMessages(UMBConsumer.PNC, MessageStatus.SKIPPED))
                                     .build())
                     .withErrataConsumer(
                             ErrataConsumer.builder()
-                                    .withProcessed(messageConsumer.getErrataProcessedMessages())
-                                    .withReceived(messageConsumer.getErrataReceivedMessages())
-                                    .withSkipped(messageConsumer.getErrataSkippedMessages())
+                                    .withProcessed(counters.getMessages(UMBConsumer.ERRATA, MessageStatus.PROCESSED))
+                                    .withReceived(counters.getMessages(UMBConsumer.ERRATA, MessageStatus.RECEIVED))
+                                    .withSkipped(counters.getMessages(UMBConsumer.ERRATA, MessageStatus.SKIPPED))
                                     .build())
 
                     .withProducer(
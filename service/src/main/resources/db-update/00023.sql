@@ -0,0 +1,35 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+--------------------------------------------------------------------------------------------------
+-- Store the manifest content with LZ4 compression and add the 'content_hash' column to 'sbom'
+--------------------------------------------------------------------------------------------------
+-- Large 'sbom' values are already stored out-of-row (TOAST), so queries which do not select the
+-- column do not read the content. Switching the compression to LZ4 (PostgreSQL 14+) makes reading
+-- the content cheaper, while keeping the JSONB column (and all the JSONB queries and indexes above).
+-- The new compression is applied to values written from now on; existing values are recompressed
+-- only when rewritten (e.g. VACUUM FULL).
+--
+-- The 'content_hash' column holds the SHA-256 digest of the content, computed by the application
+-- when the manifest is stored (or updated).
+BEGIN;
+    ALTER TABLE sbom ALTER COLUMN sbom SET COMPRESSION lz4;
+    ALTER TABLE sbom ADD COLUMN content_hash character varying(64) NULL;
+    CREATE INDEX idx_sbom_content_hash ON sbom (content_hash);
+    INSERT INTO db_version(version, creation_time) VALUES ('00023', now());
+COMMIT;
@@ -0,0 +1,46 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+--------------------------------------------------------------------------------------------------
+-- Add the generation counters to the 'request' table
+--------------------------------------------------------------------------------------------------
+-- The counters are maintained by the application whenever a generation is created, changes its
+-- status or is removed, so that the status of a request can be computed without counting its
+-- generations. Initialize them from the existing generations.
+BEGIN;
+    ALTER TABLE request ADD COLUMN generations_total integer NOT NULL DEFAULT 0;
+    ALTER TABLE request ADD COLUMN generations_in_progress integer NOT NULL DEFAULT 0;
+    ALTER TABLE request ADD COLUMN generations_failed integer NOT NULL DEFAULT 0;
+
+    UPDATE request r
+    SET generations_total = c.total,
+        generations_in_progress = c.in_progress,
+        generations_failed = c.failed
+    FROM (
+        SELECT request_id,
+            COUNT(*) AS total,
+            SUM(CASE WHEN status NOT IN ('FAILED', 'FINISHED') THEN 1 ELSE 0 END) AS in_progress,
+            SUM(CASE WHEN status = 'FAILED' THEN 1 ELSE 0 END) AS failed
+        FROM sbom_generation_request
+        WHERE request_id IS NOT NULL
+        GROUP BY request_id
+    ) c
+    WHERE r.id = c.request_id;
+
+    INSERT INTO db_version(version, creation_time) VALUES ('00024', now());
+COMMIT;
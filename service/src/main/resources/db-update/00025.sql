@@ -0,0 +1,30 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+--
+
+--------------------------------------------------------------------------------------------------
+-- Add indexes used for keyset (cursor) pagination of manifests, generations and requests
+--------------------------------------------------------------------------------------------------
+-- Listings are ordered by the creation (or receival) time and the identifier; with these indexes
+-- a page following a cursor is read directly from the index, regardless of how deep it is.
+BEGIN;
+    CREATE INDEX idx_sbom_creationtime ON sbom (creation_time, id);
+    CREATE INDEX idx_generation_creationtime ON sbom_generation_request (creation_time, id);
+    CREATE INDEX idx_request_receivaltime ON request (receival_time, id);
+    INSERT INTO db_version(version, creation_time) VALUES ('00025', now());
+COMMIT;
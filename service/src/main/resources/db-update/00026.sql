@@ -0,0 +1,76 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+--
+
+--------------------------------------------------------------------------------------------------
+-- Add the 'request_lookup' read model used by the aggregated search of request events
+--------------------------------------------------------------------------------------------------
+-- Maps the lookup keys of the aggregated search (the request config type and identifier, or the
+-- errata from the release metadata of a manifest) to request events and manifests, so that the
+-- search does not need to scan the JSON columns of the 'request' and 'sbom' tables. The entries
+-- are maintained by the application when request events and manifests are stored; existing data
+-- is backfilled below.
+BEGIN;
+    CREATE TABLE request_lookup (
+        id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+        key_type character varying(255) NOT NULL,
+        key_value character varying(255) NOT NULL,
+        request_id character varying(255) NOT NULL,
+        sbom_id character varying(255) NULL,
+        CONSTRAINT fk_request_lookup_request FOREIGN KEY (request_id) REFERENCES request (id) ON DELETE CASCADE,
+        CONSTRAINT fk_request_lookup_sbom FOREIGN KEY (sbom_id) REFERENCES sbom (id) ON DELETE CASCADE
+    );
+
+    CREATE INDEX idx_request_lookup_key ON request_lookup (key_type, key_value);
+    CREATE INDEX idx_request_lookup_request ON request_lookup (request_id);
+    CREATE INDEX idx_request_lookup_sbom ON request_lookup (sbom_id);
+
+    INSERT INTO request_lookup (key_type, key_value, request_id)
+    SELECT k.key_type, k.key_value, k.request_id
+    FROM (
+        SELECT request_config ->> 'type' AS key_type,
+            request_config ->> CASE request_config ->> 'type'
+                WHEN 'errata-advisory' THEN 'advisoryId'
+                WHEN 'image' THEN 'image'
+                WHEN 'pnc-analysis' THEN 'milestoneId'
+                WHEN 'pnc-build' THEN 'buildId'
+                WHEN 'pnc-operation' THEN 'operationId'
+            END AS key_value,
+            id AS request_id
+        FROM request
+        WHERE request_config IS NOT NULL
+    ) k
+    WHERE k.key_value IS NOT NULL;
+
+    INSERT INTO request_lookup (key_type, key_value, request_id, sbom_id)
+    SELECT k.key_type, k.key_value, k.request_id, k.sbom_id
+    FROM (
+        SELECT 'release.errata_id' AS key_type, s.release_metadata ->> 'errata_id' AS key_value,
+            sgr.request_id, s.id AS sbom_id
+        FROM sbom s JOIN sbom_generation_request sgr ON s.generationrequest_id = sgr.id
+        WHERE s.release_metadata IS NOT NULL AND sgr.request_id IS NOT NULL
+        UNION ALL
+        SELECT 'release.errata_fullname' AS key_type, s.release_metadata ->> 'errata_fullname' AS key_value,
+            sgr.request_id, s.id AS sbom_id
+        FROM sbom s JOIN sbom_generation_request sgr ON s.generationrequest_id = sgr.id
+        WHERE s.release_metadata IS NOT NULL AND sgr.request_id IS NOT NULL
+    ) k
+    WHERE k.key_value IS NOT NULL;
+
+    INSERT INTO db_version(version, creation_time) VALUES ('00026', now());
+COMMIT;
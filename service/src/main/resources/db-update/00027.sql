@@ -0,0 +1,45 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+--
+
+--------------------------------------------------------------------------------------------------
+-- Add the 'outbox' table holding manifests waiting to be delivered
+--------------------------------------------------------------------------------------------------
+-- Manifests to be published to Atlas and generation finished notifications to be sent are
+-- recorded here first, in the same transaction as the manifests, and removed once delivered, so
+-- that deliveries interrupted by a restart or failed because the target is not available are
+-- retried with a backoff. The 'kind' column tells where the manifest is delivered to. Entries
+-- which failed too many times are kept with the FAILED status.
+BEGIN;
+    CREATE TABLE outbox (
+        id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+        kind character varying(20) NOT NULL,
+        sbom_id character varying(50) NOT NULL,
+        status character varying(20) NOT NULL,
+        attempts integer NOT NULL DEFAULT 0,
+        next_attempt timestamp without time zone NOT NULL,
+        last_error text NULL,
+        creation_time timestamp without time zone NOT NULL,
+        CONSTRAINT fk_outbox_sbom FOREIGN KEY (sbom_id) REFERENCES sbom (id) ON DELETE CASCADE
+    );
+
+    CREATE INDEX idx_outbox_kind_status_next_attempt ON outbox (kind, status, next_attempt);
+    CREATE INDEX idx_outbox_sbom ON outbox (sbom_id);
+
+    INSERT INTO db_version(version, creation_time) VALUES ('00027', now());
+COMMIT;
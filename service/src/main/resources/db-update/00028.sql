@@ -0,0 +1,44 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+--
+
+--------------------------------------------------------------------------------------------------
+-- Add the 'umb_message' table used to detect duplicated UMB messages
+--------------------------------------------------------------------------------------------------
+-- A message is claimed (by its id) by the request event processing it, before the processing
+-- starts. Claims are released when the message is NACKed, so that a redelivery can be processed.
+-- Claims of messages which were ACKed are kept. This replaces counting ACKed request events with
+-- the same message id in the 'request' table, which is not indexed.
+BEGIN;
+    CREATE TABLE umb_message (
+        msg_id character varying(255) NOT NULL PRIMARY KEY,
+        consumer character varying(20) NOT NULL,
+        request_id character varying(50) NOT NULL,
+        acked boolean NOT NULL DEFAULT false,
+        claim_time timestamp without time zone NOT NULL
+    );
+
+    -- Messages already processed before this migration
+    INSERT INTO umb_message (msg_id, consumer, request_id, acked, claim_time)
+        SELECT DISTINCT ON (event ->> 'msg_id') event ->> 'msg_id', event ->> 'consumer', id, true, receival_time
+        FROM request
+        WHERE event_type = 'UMB' AND event ->> 'msg_status' = 'ACK' AND event ->> 'msg_id' IS NOT NULL
+        ORDER BY event ->> 'msg_id', receival_time;
+
+    INSERT INTO db_version(version, creation_time) VALUES ('00028', now());
+COMMIT;
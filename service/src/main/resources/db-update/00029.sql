@@ -0,0 +1,35 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+--
+
+--------------------------------------------------------------------------------------------------
+-- Add the 'generation_cache' table used to reuse manifests generated from the same sources
+--------------------------------------------------------------------------------------------------
+-- The key is computed by the generator from the source revision and the generator settings, see
+-- GenerationCacheKey. Entries point to the latest manifest generated with the key.
+BEGIN;
+    CREATE TABLE generation_cache (
+        cache_key character varying(64) NOT NULL PRIMARY KEY,
+        sbom_id character varying(50) NOT NULL,
+        creation_time timestamp without time zone NOT NULL,
+        last_hit_time timestamp without time zone,
+        hits bigint NOT NULL DEFAULT 0
+    );
+
+    INSERT INTO db_version(version, creation_time) VALUES ('00029', now());
+COMMIT;
@@ -34,8 +34,8 @@
  * limitations under the License.
  */
 -- UMB request event for the pnc build ARYT3LBXDVYAC
-INSERT INTO request (id, receival_time, event_type, event_status, request_config, event)
-  VALUES ('build_ARYT3LBXDVYAC', '2024-10-14 14:18:45.148407', 'UMB', 'SUCCESS',
+INSERT INTO request (id, receival_time, event_type, event_status, generations_total, request_config, event)
+  VALUES ('build_ARYT3LBXDVYAC', '2024-10-14 14:18:45.148407', 'UMB', 'SUCCESS', 1,
   '{
      "type": "pnc-build",
      "apiVersion": "sbomer.jboss.org/v1alpha1",
@@ -190,6 +190,12 @@ INSERT INTO request (id, receival_time, event_type, event_status, request_config
    }'
 );
 
+-- Lookup keys of the request events above (see RequestLookup)
+INSERT INTO request_lookup (key_type, key_value, request_id, sbom_id) VALUES
+  ('pnc-build', 'ARYT3LBXDVYAC', 'build_ARYT3LBXDVYAC', null),
+  ('pnc-operation', 'BDQXCNRZJYYAA', 'operation_BDQXCNRZJYYAA', null),
+  ('errata-advisory', '139787', 'errata_139787', null),
+  ('pnc-build', 'ARYT3LBXDVYAC', 'build_ARYT3LBXDVYAC_rest', null);
 -- Request associated with an UMB event
 INSERT INTO sbom_generation_request(
 		id,
@@ -17,22 +17,37 @@
  */
 package org.jboss.sbomer.service.test.integ.feature.s3;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPOutputStream;
 
 import jakarta.inject.Inject;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.Matchers;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.service.feature.FeatureFlags;
+import org.jboss.sbomer.service.feature.s3.LogObject;
 import org.jboss.sbomer.service.feature.s3.S3ClientFacade;
 import org.jboss.sbomer.service.feature.s3.S3StorageHandler;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
@@ -85,7 +100,9 @@ class S3FeatureTest {
                     "aws.secret.access.key",
                     "secret-access-key",
                     "sbomer.features.umb.enabled",
-                    "true");
+                    "true",
+                    "sbomer.logs.follow.max-duration",
+                    "PT1S");
         }
     }
 
@@ -123,21 +140,45 @@ class S3FeatureTest {
         Path logFile = logsDir.resolve("init.log");
         Files.write(logFile, "Some log".getBytes());
 
-        // doNothing().when(clientFacade).upload(file.toAbsolutePath(),
-        // "bucket-name/bucket-name/bom.json");
-        when(clientFacade.doesObjectExists("AABBCC/bom.json")).thenReturn(false);
-        when(clientFacade.doesObjectExists("AABBCC/logs/init.log")).thenReturn(true);
+        when(clientFacade.objectKeys("AABBCC/")).thenReturn(Set.of("AABBCC/logs/init.log"));
         doNothing().when(clientFacade).upload(file.toAbsolutePath(), "AABBCC/bom.json");
-        doNothing().when(clientFacade).upload(logFile.toAbsolutePath(), "AABBCC/logs/init.log");
 
-        storageHandler.storeFiles(generationRequest);
+        storageHandler.storeFiles(generationRequest).join();
 
-        verify(clientFacade, times(1)).doesObjectExists("AABBCC/bom.json");
+        verify(clientFacade, times(1)).objectKeys("AABBCC/");
         verify(clientFacade, times(1)).upload(file.toAbsolutePath(), "AABBCC/bom.json");
-        verify(clientFacade, times(1)).doesObjectExists("AABBCC/logs/init.log");
         verify(clientFacade, times(0)).upload(logFile.toAbsolutePath(), "AABBCC/logs/init.log");
     }
 
+    @Test
+    void testStoreFilesFailure(@TempDir Path tempDir) throws IOException {
+        when(featureFlags.s3Storage()).thenReturn(true);
+        when(controllerConfig.sbomDir()).thenReturn(tempDir.toAbsolutePath().toString());
+
+        ObjectMeta meta = mock(ObjectMeta.class);
+        when(meta.getName()).thenReturn("sbom-request-456");
+
+        GenerationRequest generationRequest = mock(GenerationRequest.class);
+        when(generationRequest.getMetadata()).thenReturn(meta);
+        when(generationRequest.getId()).thenReturn("DDEEFF");
+
+        Path generationDir = tempDir.resolve("sbom-request-456");
+        Files.createDirectory(generationDir);
+
+        Path file = generationDir.resolve("bom.json");
+        Files.write(file, "{}".getBytes());
+
+        when(clientFacade.objectKeys("DDEEFF/")).thenReturn(Set.of());
+        doThrow(new ApplicationException("Upload failed")).when(clientFacade)
+                .upload(file.toAbsolutePath(), "DDEEFF/bom.json");
+
+        CompletableFuture<Void> upload = storageHandler.storeFiles(generationRequest);
+
+        CompletionException ex = assertThrows(CompletionException.class, upload::join);
+        assertInstanceOf(ApplicationException.class, ex.getCause());
+        assertEquals("Upload failed", ex.getCause().getMessage());
+    }
+
     @Test
     void testDisabledS3Endpoint() {
         when(featureFlags.s3Storage()).thenReturn(false);
@@ -192,15 +233,45 @@ class S3FeatureTest {
                 .body("$", Matchers.hasItems("a/path/to/generate.log", "a/path/to/init.log"));
     }
 
-    @Test
-    void testFetchLogByPath() {
+    private void mockFinishedGeneration(String id) {
         SbomGenerationRequest request = new SbomGenerationRequest();
         request.setStatus(SbomGenerationStatus.FINISHED);
 
         PanacheMock.mock(SbomGenerationRequest.class);
-        when(SbomGenerationRequest.findById("REQUESTID")).thenReturn(request); // NOSONAR
+        when(SbomGenerationRequest.findById(id)).thenReturn(request); // NOSONAR
+    }
 
-        when(clientFacade.log("REQUESTID", "a/path/to/generate.log")).thenReturn("This is a log content");
+    private void mockLogObject(String id, String path, byte[] content, boolean gzip) {
+        LogObject logObject = new LogObject(id + "/" + path, content.length, gzip);
+
+        when(clientFacade.logObject(id, path)).thenReturn(logObject);
+        when(clientFacade.logContent(eq(logObject), anyLong(), anyLong())).thenAnswer(invocation -> {
+            int start = (int) (long) invocation.getArgument(1, Long.class);
+            long end = invocation.getArgument(2, Long.class);
+            int length = (int) (end < 0 ? content.length - start : end - start + 1);
+
+            return new ByteArrayInputStream(content, start, length);
+        });
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return out.toByteArray();
+    }
+
+    @Test
+    void testFetchLogByPath() {
+        mockFinishedGeneration("REQUESTID");
+        mockLogObject(
+                "REQUESTID",
+                "a/path/to/generate.log",
+                "This is a log content".getBytes(StandardCharsets.UTF_8),
+                false);
 
         // Ensure s3 feature is enabled
         when(featureFlags.s3Storage()).thenReturn(true);
@@ -215,4 +286,150 @@ class S3FeatureTest {
                 .contentType(ContentType.TEXT)
                 .body(Matchers.equalTo("This is a log content"));
     }
+
+    @Test
+    void testFetchLogRange() {
+        mockFinishedGeneration("REQUESTID");
+        mockLogObject(
+                "REQUESTID",
+                "a/path/to/generate.log",
+                "This is a log content".getBytes(StandardCharsets.UTF_8),
+                false);
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .header("Range", "bytes=10-12")
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(206)
+                .header("Content-Range", "bytes 10-12/21")
+                .body(Matchers.equalTo("log"));
+    }
+
+    @Test
+    void testFetchLogRangeBeyondLong() {
+        mockFinishedGeneration("REQUESTID");
+        mockLogObject(
+                "REQUESTID",
+                "a/path/to/generate.log",
+                "This is a log content".getBytes(StandardCharsets.UTF_8),
+                false);
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .header("Range", "bytes=99999999999999999999-")
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(416)
+                .header("Content-Range", "bytes */21");
+    }
+
+    @Test
+    void testFetchLogTailTooLong() throws IOException {
+        mockFinishedGeneration("REQUESTID");
+        mockLogObject("REQUESTID", "a/path/to/generate.log", gzip("first\nsecond\nthird\n"), true);
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .queryParam("tail", 10_001)
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(400);
+    }
+
+    @Test
+    void testFetchLogTail() {
+        mockFinishedGeneration("REQUESTID");
+        mockLogObject(
+                "REQUESTID",
+                "a/path/to/generate.log",
+                "first\nsecond\nthird\n".getBytes(StandardCharsets.UTF_8),
+                false);
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .queryParam("tail", 2)
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body(Matchers.equalTo("second\nthird\n"));
+    }
+
+    @Test
+    void testFetchCompressedLog() throws IOException {
+        mockFinishedGeneration("REQUESTID");
+        mockLogObject("REQUESTID", "a/path/to/generate.log", gzip("first\nsecond\nthird\n"), true);
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        // Decompressed by the service, or by the client when sent as stored
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .header("Accept-Encoding", "identity")
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body(Matchers.equalTo("first\nsecond\nthird\n"));
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .header("Accept-Encoding", "gzip")
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .body(Matchers.equalTo("first\nsecond\nthird\n"));
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .queryParam("tail", 1)
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body(Matchers.equalTo("third\n"));
+    }
+
+    @Test
+    void testFollowRunningLog(@TempDir Path tempDir) throws IOException {
+        when(controllerConfig.sbomDir()).thenReturn(tempDir.toAbsolutePath().toString());
+
+        SbomGenerationRequest request = new SbomGenerationRequest();
+        request.setStatus(SbomGenerationStatus.GENERATING);
+
+        PanacheMock.mock(SbomGenerationRequest.class);
+        when(SbomGenerationRequest.findById("RUNNINGID")).thenReturn(request); // NOSONAR
+
+        Path logsDir = tempDir.resolve("sbom-request-runningid").resolve("logs");
+        Files.createDirectories(logsDir);
+        Files.writeString(logsDir.resolve("generate.log"), "first\nsecond\n");
+
+        // Followed until the maximum duration (shortened in the test profile) elapses
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .queryParam("follow", true)
+                .queryParam("tail", 1)
+                .when()
+                .get("/api/v1beta1/generations/RUNNINGID/logs/{path}", "logs/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body(Matchers.equalTo("second\n"));
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.jboss.sbomer.service.feature.sbom.cache.GenerationCache;
+import org.jboss.sbomer.service.feature.sbom.model.GenerationCacheEntry;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.test.utils.QuarkusTransactionalTest;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionManager;
+
+@QuarkusTransactionalTest
+@TestProfile(TestUmbProfile.class)
+class GenerationCacheTest {
+
+    // Entries are recorded in separate transactions, so these are not rolled back after every test
+    private static final String KEY = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    private static final String OTHER_KEY = "60303ae22b998861bce3b28f33eec1be758a213c86c93c076dbe9f558c11c752";
+
+    private static final String REMOVED_KEY = "fd61a03af4f77d870fc21e05e7e80678095c92d808cfb3b5c279ee04c74aca13";
+
+    private static final String FAILED_KEY = "a4e624d686e03ed2767c0abd85c14426b0b1157d2ce81d27bb4fe4f6f01d688a";
+
+    @Inject
+    GenerationCache generationCache;
+
+    @Inject
+    TransactionManager transactionManager;
+
+    @Test
+    void testMiss() {
+        assertNull(generationCache.lookup("0000000000000000000000000000000000000000000000000000000000000000"));
+    }
+
+    @Test
+    void testHit() {
+        generationCache.record(KEY, "416640206274228224");
+
+        Sbom sbom = generationCache.lookup(KEY);
+
+        assertNotNull(sbom);
+        assertEquals("416640206274228224", sbom.getId());
+
+        generationCache.lookup(KEY);
+
+        GenerationCacheEntry entry = GenerationCacheEntry.findById(KEY);
+        GenerationCacheEntry.getEntityManager().refresh(entry);
+
+        assertEquals(2, entry.getHits());
+        assertNotNull(entry.getLastHitTime());
+    }
+
+    @Test
+    void testLatestManifestIsCached() {
+        generationCache.record(OTHER_KEY, "416640206274228224");
+        generationCache.record(OTHER_KEY, "816640206274228223");
+
+        assertEquals("816640206274228223", generationCache.lookup(OTHER_KEY).getId());
+    }
+
+    @Test
+    void testRemovedManifest() {
+        generationCache.record(REMOVED_KEY, "DOESNOTEXIST");
+
+        assertNull(generationCache.lookup(REMOVED_KEY));
+        assertNull(GenerationCacheEntry.findById(REMOVED_KEY));
+    }
+
+    @Test
+    void testFailedRecordDoesNotAffectCurrentTransaction() throws Exception {
+        // The identifier does not fit the column
+        generationCache.record(FAILED_KEY, "4".repeat(100));
+
+        assertEquals(Status.STATUS_ACTIVE, transactionManager.getStatus());
+        assertNull(GenerationCacheEntry.findById(FAILED_KEY));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.core.features.sbom.config.Config;
+import org.jboss.sbomer.core.features.sbom.config.SyftImageConfig;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.service.feature.sbom.features.generator.GenerationRequestSyncQueue;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+/**
+ * Tests the write-behind sync of generation requests. The scheduled flush is effectively disabled, the queue is
+ * flushed by the tests.
+ */
+@QuarkusTest
+@TestProfile(GenerationRequestSyncQueueTest.WriteBehindConfig.class)
+class GenerationRequestSyncQueueTest {
+    public static class WriteBehindConfig extends TestUmbProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "sbomer.controller.generation-request.sync.write-behind",
+                    "true",
+                    "sbomer.controller.generation-request.sync.interval",
+                    "PT1H",
+                    "sbomer.controller.generation-request.sync.batch-size",
+                    "2");
+        }
+    }
+
+    @Inject
+    GenerationRequestSyncQueue syncQueue;
+
+    private static GenerationRequest generationRequest(String id, SbomGenerationStatus status, String reason) {
+        GenerationRequest generationRequest = new GenerationRequestBuilder(GenerationRequestType.CONTAINERIMAGE)
+                .withId(id)
+                .withIdentifier("registry.com/image:1.0")
+                .withStatus(status)
+                .withConfig(Config.fromString("{\"type\": \"syft-image\"}", SyftImageConfig.class))
+                .build();
+
+        generationRequest.setReason(reason);
+
+        return generationRequest;
+    }
+
+    private static SbomGenerationRequest stored(String id) {
+        return QuarkusTransaction.requiringNew().call(() -> SbomGenerationRequest.findById(id));
+    }
+
+    @Test
+    void testQueuedUntilFlushed() {
+        String id = RandomStringIdGenerator.generate();
+
+        syncQueue.enqueue(generationRequest(id, SbomGenerationStatus.GENERATING, "Generating"));
+
+        assertNull(stored(id));
+
+        syncQueue.flush();
+
+        assertEquals(SbomGenerationStatus.GENERATING, stored(id).getStatus());
+    }
+
+    @Test
+    void testCoalescedById() {
+        String id = RandomStringIdGenerator.generate();
+
+        syncQueue.enqueue(generationRequest(id, SbomGenerationStatus.NEW, "New"));
+        syncQueue.enqueue(generationRequest(id, SbomGenerationStatus.INITIALIZING, "Initializing"));
+        syncQueue.enqueue(generationRequest(id, SbomGenerationStatus.GENERATING, "Generating"));
+
+        syncQueue.flush();
+
+        SbomGenerationRequest stored = stored(id);
+
+        assertEquals(SbomGenerationStatus.GENERATING, stored.getStatus());
+        assertEquals("Generating", stored.getReason());
+    }
+
+    @Test
+    void testFlushedInBatches() {
+        List<String> ids = Stream.generate(RandomStringIdGenerator::generate).limit(5).toList();
+
+        ids.forEach(id -> syncQueue.enqueue(generationRequest(id, SbomGenerationStatus.GENERATING, "Generating")));
+
+        syncQueue.flush();
+
+        ids.forEach(id -> assertEquals(SbomGenerationStatus.GENERATING, stored(id).getStatus()));
+    }
+
+    @Test
+    void testFinalStateSyncedImmediately() {
+        String id = RandomStringIdGenerator.generate();
+
+        syncQueue.enqueue(generationRequest(id, SbomGenerationStatus.GENERATING, "Generating"));
+        syncQueue.enqueue(generationRequest(id, SbomGenerationStatus.FINISHED, "Finished"));
+
+        assertEquals(SbomGenerationStatus.FINISHED, stored(id).getStatus());
+
+        // The queued update was discarded
+        syncQueue.flush();
+
+        SbomGenerationRequest stored = stored(id);
+
+        assertEquals(SbomGenerationStatus.FINISHED, stored.getStatus());
+        assertEquals("Finished", stored.getReason());
+    }
+
+    @Test
+    void testStaleUpdatesSkipped() {
+        String finished = RandomStringIdGenerator.generate();
+        String generating = RandomStringIdGenerator.generate();
+
+        syncQueue.syncNow(generationRequest(finished, SbomGenerationStatus.FINISHED, "Finished"));
+        syncQueue.syncNow(generationRequest(generating, SbomGenerationStatus.GENERATING, "Generating"));
+
+        // Updates which were queued before the current state was stored
+        QuarkusTransaction.requiringNew()
+                .run(
+                        () -> SbomGenerationRequest.syncAll(
+                                List.of(
+                                        generationRequest(finished, SbomGenerationStatus.GENERATING, "Generating"),
+                                        generationRequest(generating, SbomGenerationStatus.NEW, "New"))));
+
+        assertEquals(SbomGenerationStatus.FINISHED, stored(finished).getStatus());
+        assertEquals("Finished", stored(finished).getReason());
+        assertEquals(SbomGenerationStatus.GENERATING, stored(generating).getStatus());
+        assertEquals("Generating", stored(generating).getReason());
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.sbomer.service.feature.sbom.atlas.AtlasOutbox;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry.Status;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+/**
+ * Every outbox operation runs in its own transaction, so these tests are not transactional.
+ */
+@QuarkusTest
+@TestProfile(OutboxTest.OutboxConfig.class)
+class OutboxTest {
+    public static class OutboxConfig extends TestUmbProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "sbomer.atlas.upload.max-attempts",
+                    "3",
+                    "sbomer.atlas.upload.initial-backoff",
+                    "PT10S",
+                    "sbomer.atlas.upload.max-backoff",
+                    "PT15S",
+                    "sbomer.atlas.upload.claim-timeout",
+                    "PT1M");
+        }
+    }
+
+    private static final String SBOM_ID = "416640206274228224";
+
+    @Inject
+    AtlasOutbox outbox;
+
+    @Inject
+    MeterRegistry registry;
+
+    final List<Long> ids = new ArrayList<>();
+
+    @AfterEach
+    void afterEach() {
+        QuarkusTransaction.requiringNew().run(() -> OutboxEntry.delete("id in ?1", ids));
+    }
+
+    private OutboxEntry enqueue() {
+        Sbom sbom = new Sbom();
+        sbom.setId(SBOM_ID);
+
+        OutboxEntry entry = outbox.enqueue(List.of(sbom)).get(0);
+        ids.add(entry.getId());
+
+        return entry;
+    }
+
+    private static OutboxEntry stored(Long id) {
+        return QuarkusTransaction.requiringNew().call(() -> OutboxEntry.findById(id));
+    }
+
+    private static void makeDue(Long id) {
+        QuarkusTransaction.requiringNew()
+                .run(() -> OutboxEntry.update("nextAttempt = ?1 where id = ?2", Instant.now().minusSeconds(1), id));
+    }
+
+    private List<Long> due() {
+        // Entries of other tests may be due too
+        return outbox.due(100).stream().map(OutboxEntry::getId).filter(ids::contains).toList();
+    }
+
+    private static void assertScheduledIn(OutboxEntry entry, Instant before, Duration delay) {
+        Instant after = Instant.now();
+
+        assertFalse(entry.getNextAttempt().isBefore(before.plus(delay).minusMillis(1)));
+        assertFalse(entry.getNextAttempt().isAfter(after.plus(delay).plusMillis(1)));
+    }
+
+    @Test
+    void testEnqueuedEntryClaimedForCaller() {
+        Instant before = Instant.now();
+        OutboxEntry entry = enqueue();
+
+        assertEquals(Status.PENDING, entry.getStatus());
+        assertEquals(0, entry.getAttempts());
+        assertScheduledIn(entry, before, Duration.ofMinutes(1));
+        assertTrue(due().isEmpty());
+    }
+
+    @Test
+    void testDueEntryClaimedOnce() {
+        OutboxEntry entry = enqueue();
+        makeDue(entry.getId());
+
+        Instant before = Instant.now();
+
+        assertEquals(List.of(entry.getId()), due());
+        assertScheduledIn(stored(entry.getId()), before, Duration.ofMinutes(1));
+
+        // Already claimed
+        assertTrue(due().isEmpty());
+
+        // The claim timed out
+        makeDue(entry.getId());
+
+        assertEquals(List.of(entry.getId()), due());
+    }
+
+    @Test
+    void testFailedAttemptsBackOff() {
+        OutboxEntry entry = enqueue();
+
+        Instant before = Instant.now();
+        outbox.failed(entry.getId(), "First failure");
+        OutboxEntry stored = stored(entry.getId());
+
+        assertEquals(Status.PENDING, stored.getStatus());
+        assertEquals(1, stored.getAttempts());
+        assertEquals("First failure", stored.getLastError());
+        assertScheduledIn(stored, before, Duration.ofSeconds(10));
+
+        before = Instant.now();
+        outbox.failed(entry.getId(), "Second failure");
+        stored = stored(entry.getId());
+
+        // The backoff doubles, but is capped
+        assertEquals(Status.PENDING, stored.getStatus());
+        assertEquals(2, stored.getAttempts());
+        assertEquals("Second failure", stored.getLastError());
+        assertScheduledIn(stored, before, Duration.ofSeconds(15));
+    }
+
+    @Test
+    void testGivenUpAfterMaxAttempts() {
+        OutboxEntry entry = enqueue();
+        double failed = registry.counter("sbomer.outbox.failed", "kind", "ATLAS").count();
+
+        outbox.failed(entry.getId(), "First failure");
+        outbox.failed(entry.getId(), "Second failure");
+
+        assertEquals(Status.PENDING, stored(entry.getId()).getStatus());
+
+        OutboxEntry updated = outbox.failed(entry.getId(), "Third failure");
+
+        assertEquals(Status.FAILED, updated.getStatus());
+        assertEquals(3, updated.getAttempts());
+        assertEquals("Third failure", stored(entry.getId()).getLastError());
+        assertEquals(Status.FAILED, stored(entry.getId()).getStatus());
+        assertEquals(failed + 1, registry.counter("sbomer.outbox.failed", "kind", "ATLAS").count());
+
+        // Not retried anymore
+        makeDue(entry.getId());
+
+        assertTrue(due().isEmpty());
+    }
+
+    @Test
+    void testFailureOfRemovedEntryIgnored() {
+        OutboxEntry entry = enqueue();
+
+        outbox.uploaded(entry.getId());
+
+        assertNull(outbox.failed(entry.getId(), "A failure"));
+    }
+}
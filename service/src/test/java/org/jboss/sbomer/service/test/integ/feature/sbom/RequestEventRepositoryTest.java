@@ -19,10 +19,17 @@ package org.jboss.sbomer.service.test.integ.feature.sbom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.jboss.sbomer.core.config.request.ErrataAdvisoryRequestConfig;
 import org.jboss.sbomer.core.config.request.PncBuildRequestConfig;
 import org.jboss.sbomer.core.config.request.RequestConfig;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestManifestRecord;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestRecord;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
 import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
 import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
@@ -85,4 +92,43 @@ class RequestEventRepositoryTest {
                 repository.countEventsForConfigWithIdentifierValue(PncBuildRequestConfig.class, "ARYT3LBXDVYAC"));
     }
 
+    @Test
+    @Order(3)
+    void testSearchAggregatedResultsWithLookupKeys() {
+        RequestEvent requestEvent = RequestEvent.createNew(
+                ErrataAdvisoryRequestConfig.builder().withAdvisoryId("12345").build(),
+                RequestEventType.REST,
+                Map.of())
+                .save();
+
+        List<V1Beta1RequestRecord> records = repository.searchAggregatedResultsNatively("errata-advisory=12345");
+        assertEquals(1, records.size());
+        assertEquals(requestEvent.getId(), records.get(0).id());
+
+        // The lookup keys follow changes of the request config
+        requestEvent.setRequestConfig(ErrataAdvisoryRequestConfig.builder().withAdvisoryId("67890").build());
+        requestEvent.save();
+
+        assertTrue(repository.searchAggregatedResultsNatively("errata-advisory=12345").isEmpty());
+        assertEquals(1, repository.searchAggregatedResultsNatively("errata-advisory=67890").size());
+    }
+
+    @Test
+    @Order(4)
+    void testStreamAggregatedResults() {
+        List<V1Beta1RequestRecord> records = new ArrayList<>();
+        repository.streamAggregatedResultsNatively("id=build_ARYT3LBXDVYAC", records::add);
+
+        assertEquals(1, records.size());
+
+        V1Beta1RequestRecord record = records.get(0);
+        assertEquals("build_ARYT3LBXDVYAC", record.id());
+        assertInstanceOf(PncBuildRequestConfig.class, record.requestConfig());
+        assertEquals(1, record.manifests().size());
+
+        V1Beta1RequestManifestRecord manifest = record.manifests().iterator().next();
+        assertEquals("416640206274228224", manifest.id());
+        assertEquals("AASSBB", manifest.generation().id());
+    }
+
 }
@@ -19,18 +19,24 @@ package org.jboss.sbomer.service.test.integ.feature.sbom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.spy;
 
+import java.time.Instant;
 import java.util.Collection;
 
 import org.jboss.sbomer.core.dto.BaseSbomRecord;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.rest.CountMode;
+import org.jboss.sbomer.service.rest.PageCursor;
 import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
 import org.junit.jupiter.api.Nested;
@@ -93,6 +99,42 @@ class SBOMServiceTest {
         assertNotNull(foundSbom);
     }
 
+    @Test
+    void testListBaseSbomsWithCursor() {
+        QueryParameters.QueryParametersBuilder parameters = QueryParameters.builder()
+                .sort("creationTime=desc=")
+                .pageSize(1)
+                .count(CountMode.NONE);
+
+        Page<BaseSbomRecord> first = sbomService.searchSbomRecordsByQueryPaginated(parameters.build());
+        assertEquals(-1, first.getTotalHits());
+        assertEquals(-1, first.getTotalPages());
+        assertEquals(1, first.getContent().size());
+        assertNotNull(first.getNextCursor());
+
+        Page<BaseSbomRecord> second = sbomService
+                .searchSbomRecordsByQueryPaginated(parameters.cursor(first.getNextCursor()).build());
+        assertEquals(1, second.getContent().size());
+
+        BaseSbomRecord previous = first.getContent().iterator().next();
+        BaseSbomRecord next = second.getContent().iterator().next();
+
+        assertNotEquals(previous.id(), next.id());
+        assertFalse(next.creationTime().isAfter(previous.creationTime()));
+    }
+
+    @Test
+    void testListBaseSbomsWithInvalidCursor() {
+        QueryParameters parameters = QueryParameters.builder().sort("creationTime=desc=").cursor("invalid").build();
+        assertThrows(ClientException.class, () -> sbomService.searchSbomRecordsByQueryPaginated(parameters));
+
+        QueryParameters unsorted = QueryParameters.builder()
+                .sort("id=asc=")
+                .cursor(new PageCursor(Instant.now(), "ID").encode())
+                .build();
+        assertThrows(ClientException.class, () -> sbomService.searchSbomRecordsByQueryPaginated(unsorted));
+    }
+
     @Nested
     class GetByPurl {
         @Test
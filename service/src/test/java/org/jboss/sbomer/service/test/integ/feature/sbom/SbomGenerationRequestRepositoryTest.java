@@ -37,11 +37,15 @@ import org.jboss.sbomer.core.features.sbom.config.runtime.ProductConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.RedHatProductProcessorConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent.GenerationCounters;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
@@ -323,4 +327,42 @@ class SbomGenerationRequestRepositoryTest {
         assertEquals(identifier, req.getIdentifier());
 
     }
+
+    @Test
+    void testRequestEventGenerationCounters() {
+        RequestEvent requestEvent = RequestEvent.createNew(null, RequestEventType.REST, Map.of("k", "v")).save();
+
+        GenerationRequest first = new GenerationRequestBuilder(GenerationRequestType.BUILD).withId("COUNTERSAA")
+                .withIdentifier("COUNTERSBUILDAA")
+                .withStatus(SbomGenerationStatus.GENERATING)
+                .build();
+        GenerationRequest second = new GenerationRequestBuilder(GenerationRequestType.BUILD).withId("COUNTERSBB")
+                .withIdentifier("COUNTERSBUILDBB")
+                .withStatus(SbomGenerationStatus.NEW)
+                .build();
+
+        SbomGenerationRequest.sync(requestEvent, first);
+        SbomGenerationRequest.sync(requestEvent, second);
+
+        assertEquals(new GenerationCounters(2, 2, 0), RequestEvent.findGenerationCounters(requestEvent.getId()));
+        assertEquals("2/2 in progress", requestEvent.getReason());
+
+        first.setStatus(SbomGenerationStatus.FAILED);
+        SbomGenerationRequest.sync(first);
+
+        assertEquals(new GenerationCounters(2, 1, 1), RequestEvent.findGenerationCounters(requestEvent.getId()));
+        assertEquals("1/2 in progress", requestEvent.getReason());
+        assertEquals(RequestEventStatus.IN_PROGRESS, requestEvent.getEventStatus());
+
+        second.setStatus(SbomGenerationStatus.FINISHED);
+        SbomGenerationRequest.sync(second);
+
+        assertEquals(new GenerationCounters(2, 0, 1), RequestEvent.findGenerationCounters(requestEvent.getId()));
+        assertEquals("1/2 failed", requestEvent.getReason());
+        assertEquals(RequestEventStatus.FAILED, requestEvent.getEventStatus());
+
+        sbomGenerationRequestRepository.deleteRequest(first.getId());
+
+        assertEquals(new GenerationCounters(1, 0, 0), RequestEvent.findGenerationCounters(requestEvent.getId()));
+    }
 }
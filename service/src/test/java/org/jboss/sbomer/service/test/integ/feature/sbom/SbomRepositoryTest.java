@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -45,6 +46,8 @@ import org.jboss.sbomer.service.test.utils.QuarkusTransactionalTest;
 import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import io.quarkus.logging.Log;
 import io.quarkus.test.junit.TestProfile;
 import jakarta.inject.Inject;
@@ -141,6 +144,44 @@ class SbomRepositoryTest {
         assertEquals(GenerationRequestType.BUILD, sbom.getGenerationRequest().getType());
     }
 
+    @Test
+    void testFindNotificationViews() {
+        List<Sbom> sboms = sbomRepository.findNotificationViews(List.of("416640206274228224", "NOTTHERE"));
+
+        assertEquals(1, sboms.size());
+
+        Sbom sbom = sboms.get(0);
+
+        assertEquals("416640206274228224", sbom.getId());
+        assertEquals("ARYT3LBXDVYAC", sbom.getIdentifier());
+        assertEquals(
+                "pkg:maven/org.eclipse.microprofile.graphql/microprofile-graphql-parent@1.1.0.redhat-00008?type=pom",
+                sbom.getRootPurl());
+        assertEquals("AASSBB", sbom.getGenerationRequest().getId());
+        assertEquals("ARYT3LBXDVYAC", sbom.getGenerationRequest().getIdentifier());
+        assertEquals(GenerationRequestType.BUILD, sbom.getGenerationRequest().getType());
+
+        // Only the fields needed for the notification are kept
+        assertEquals(Set.of("bomFormat", "specVersion", "metadata"), fieldNames(sbom.getSbom()));
+        assertEquals(Set.of("component"), fieldNames(sbom.getSbom().get("metadata")));
+        assertEquals("CycloneDX", sbom.getSbom().get("bomFormat").asText());
+        assertEquals(
+                sbom.getRootPurl(),
+                sbom.getSbom().get("metadata").get("component").get("purl").asText());
+    }
+
+    @Test
+    void testFindNotificationViewsEmpty() {
+        assertTrue(sbomRepository.findNotificationViews(List.of()).isEmpty());
+        assertTrue(sbomRepository.findNotificationViews(List.of("NOTTHERE")).isEmpty());
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
     @Test
     void testFindByGenerationIdEmpty() {
         List<Sbom> sboms = sbomRepository.findSbomsByGenerationRequest("NOTTHERE");
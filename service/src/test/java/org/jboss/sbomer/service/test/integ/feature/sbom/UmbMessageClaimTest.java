@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.service.feature.sbom.model.UmbMessage;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+/**
+ * Claims are stored in their own transactions, so these tests are not transactional.
+ */
+@QuarkusTest
+@TestProfile(TestUmbProfile.class)
+class UmbMessageClaimTest {
+
+    private static final Duration STALE_AFTER = Duration.ofMinutes(30);
+
+    @Inject
+    RequestEventRepository repository;
+
+    String msgId;
+
+    @BeforeEach
+    void beforeEach() {
+        msgId = "ID:" + UUID.randomUUID();
+    }
+
+    private boolean claim(String requestEventId) {
+        return repository.claimUMBMessage(msgId, UMBConsumer.PNC, requestEventId, STALE_AFTER);
+    }
+
+    private UmbMessage message() {
+        return QuarkusTransaction.requiringNew().call(() -> UmbMessage.findById(msgId));
+    }
+
+    @Test
+    void testFirstClaim() {
+        assertTrue(claim("request_1"));
+
+        UmbMessage message = message();
+
+        assertEquals(UMBConsumer.PNC.name(), message.getConsumer());
+        assertEquals("request_1", message.getRequestId());
+        assertFalse(message.isAcked());
+    }
+
+    @Test
+    void testDuplicateSkippedWhileProcessed() {
+        assertTrue(claim("request_1"));
+        assertFalse(claim("request_2"));
+
+        assertEquals("request_1", message().getRequestId());
+    }
+
+    @Test
+    void testDuplicateSkippedAfterAck() {
+        assertTrue(claim("request_1"));
+
+        QuarkusTransaction.requiringNew().run(() -> repository.ackUMBMessage(msgId, "request_1"));
+
+        assertTrue(message().isAcked());
+        // Acknowledged messages are never taken over, however old these are
+        assertFalse(repository.claimUMBMessage(msgId, UMBConsumer.PNC, "request_2", Duration.ZERO));
+    }
+
+    @Test
+    void testRedeliveryClaimedAfterNack() {
+        assertTrue(claim("request_1"));
+
+        QuarkusTransaction.requiringNew().run(() -> repository.releaseUMBMessage(msgId, "request_1"));
+
+        assertNull(message());
+        assertTrue(claim("request_2"));
+        assertEquals("request_2", message().getRequestId());
+    }
+
+    @Test
+    void testStaleClaimTakenOver() {
+        assertTrue(claim("request_1"));
+
+        QuarkusTransaction.requiringNew()
+                .run(
+                        () -> UmbMessage.update(
+                                "claimTime = ?1 where msgId = ?2",
+                                Instant.now().minus(STALE_AFTER).minusSeconds(60),
+                                msgId));
+
+        assertTrue(claim("request_2"));
+        assertEquals("request_2", message().getRequestId());
+
+        // The abandoned processing cannot acknowledge or release the claim anymore
+        QuarkusTransaction.requiringNew().run(() -> repository.releaseUMBMessage(msgId, "request_1"));
+        QuarkusTransaction.requiringNew().run(() -> repository.ackUMBMessage(msgId, "request_1"));
+
+        assertEquals("request_2", message().getRequestId());
+        assertFalse(message().isAcked());
+    }
+
+    @Test
+    void testConcurrentClaim() {
+        // Another consumer inserted the claim, but did not commit yet: the claim is not visible, inserting it fails
+        QuarkusTransaction.requiringNew().run(() -> {
+            UmbMessage message = new UmbMessage();
+            message.setMsgId(msgId);
+            message.setConsumer(UMBConsumer.PNC.name());
+            message.setRequestId("request_1");
+            message.setClaimTime(Instant.now());
+            message.persistAndFlush();
+
+            assertFalse(claim("request_2"));
+        });
+
+        assertEquals("request_1", message().getRequestId());
+    }
+}
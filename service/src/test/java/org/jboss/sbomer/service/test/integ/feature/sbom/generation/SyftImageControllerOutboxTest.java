@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom.generation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.sbomer.core.features.sbom.config.Config;
+import org.jboss.sbomer.core.features.sbom.config.SyftImageConfig;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.core.test.TestResources;
+import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationOutbox;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationService;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.k8s.resources.Labels;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry.Kind;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.generator.image.controller.SyftImageController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import io.fabric8.knative.internal.pkg.apis.ConditionBuilder;
+import io.fabric8.tekton.pipeline.v1beta1.ParamBuilder;
+import io.fabric8.tekton.pipeline.v1beta1.ParamValue;
+import io.fabric8.tekton.pipeline.v1beta1.TaskRun;
+import io.fabric8.tekton.pipeline.v1beta1.TaskRunBuilder;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import jakarta.inject.Inject;
+
+/**
+ * Verifies that the manifests stored by the {@link SyftImageController} and the related notification outbox entries
+ * are committed, or rolled back, together.
+ */
+@QuarkusTest
+class SyftImageControllerOutboxTest {
+
+    @InjectMock
+    GenerationRequestControllerConfig controllerConfig;
+
+    @InjectSpy
+    NotificationService notificationService;
+
+    @InjectSpy
+    NotificationOutbox notificationOutbox;
+
+    @Inject
+    SyftImageController controller;
+
+    @TempDir
+    Path sbomDir;
+
+    @BeforeEach
+    void beforeEach() {
+        when(controllerConfig.sbomDir()).thenReturn(sbomDir.toAbsolutePath().toString());
+        doReturn(true).when(notificationService).isEnabled();
+        // Keep the entries in the outbox, the scheduled dispatcher would otherwise try to send these
+        doReturn(List.of()).when(notificationOutbox).due(anyInt());
+    }
+
+    private GenerationRequest generationRequest(String id) throws IOException {
+        GenerationRequest generationRequest = new GenerationRequestBuilder(GenerationRequestType.CONTAINERIMAGE)
+                .withId(id)
+                .withIdentifier("registry.com/image:1.0")
+                .withStatus(SbomGenerationStatus.GENERATING)
+                .withConfig(Config.fromString("{\"type\": \"syft-image\"}", SyftImageConfig.class))
+                .build();
+
+        Path requestDir = Files.createDirectory(sbomDir.resolve(generationRequest.getMetadata().getName()));
+        Files.write(requestDir.resolve("bom.json"), TestResources.asString("sboms/complete_sbom.json").getBytes());
+
+        return generationRequest;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Context<GenerationRequest> context() {
+        TaskRun taskRun = new TaskRunBuilder().withNewMetadata()
+                .withName("generation-task-run")
+                .withLabels(Map.of(Labels.LABEL_PHASE, "generate"))
+                .endMetadata()
+                .withNewStatus()
+                .withConditions(new ConditionBuilder().withStatus("True").build())
+                .endStatus()
+                .withNewSpec()
+                .withParams(new ParamBuilder().withName("index").withValue(new ParamValue("0")).build())
+                .endSpec()
+                .build();
+
+        Context<GenerationRequest> context = Mockito.mock(Context.class);
+        when(context.getSecondaryResources(TaskRun.class)).thenReturn(Set.of(taskRun));
+        return context;
+    }
+
+    private List<String> storedManifests(String generationRequestId) {
+        return QuarkusTransaction.requiringNew()
+                .call(
+                        () -> Sbom.<Sbom> find("generationRequest.id", generationRequestId)
+                                .stream()
+                                .map(Sbom::getId)
+                                .toList());
+    }
+
+    private long outboxEntries(List<String> sbomIds) {
+        return QuarkusTransaction.requiringNew()
+                .call(() -> OutboxEntry.count("kind = ?1 and sbomId in ?2", Kind.NOTIFICATION, sbomIds));
+    }
+
+    @Test
+    void testManifestsAndNotificationsCommittedTogether() throws Exception {
+        GenerationRequest generationRequest = generationRequest("OUTBOXCOMMIT");
+
+        UpdateControl<GenerationRequest> updateControl = controller.reconcile(generationRequest, context());
+
+        assertEquals(SbomGenerationStatus.FINISHED, updateControl.getResource().getStatus());
+
+        List<String> sbomIds = storedManifests("OUTBOXCOMMIT");
+
+        assertEquals(1, sbomIds.size());
+        assertEquals(1, outboxEntries(sbomIds));
+    }
+
+    @Test
+    void testManifestsRolledBackWhenNotificationsCannotBeRecorded() throws Exception {
+        GenerationRequest generationRequest = generationRequest("OUTBOXROLLBACK");
+
+        doThrow(new IllegalStateException("Outbox not available")).when(notificationOutbox).enqueue(any());
+
+        assertThrows(IllegalStateException.class, () -> controller.reconcile(generationRequest, context()));
+
+        assertEquals(List.of(), storedManifests("OUTBOXROLLBACK"));
+        assertEquals(
+                0L,
+                (long) QuarkusTransaction.requiringNew()
+                        .call(() -> SbomGenerationRequest.count("id", "OUTBOXROLLBACK")));
+    }
+}
@@ -43,6 +43,7 @@ import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig.UmbProduc
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.model.SbomContentInfo;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.AdvisoryService;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
@@ -159,6 +160,9 @@ class RestResourceTest {
         sbom.setSbom(new ObjectMapper().readTree(bomJson));
 
         Mockito.when(sbomService.get("12345")).thenReturn(sbom);
+        Mockito.doReturn(new SbomContentInfo("12345", null)).when(sbomService).findBomContentInfo("12345");
+        Mockito.doReturn(bomJson).when(sbomService).getBomText("12345");
+        Mockito.doReturn("abcd").when(sbomService).computeMissingContentHash("12345", bomJson);
 
         given().when()
                 .contentType(ContentType.JSON)
@@ -185,6 +189,9 @@ class RestResourceTest {
         sbom.setSbom(new ObjectMapper().readTree(bomJson));
 
         Mockito.when(sbomService.get("12345")).thenReturn(sbom);
+        Mockito.doReturn(new SbomContentInfo("12345", null)).when(sbomService).findBomContentInfo("12345");
+        Mockito.doReturn(bomJson).when(sbomService).getBomText("12345");
+        Mockito.doReturn("abcd").when(sbomService).computeMissingContentHash("12345", bomJson);
 
         given().when()
                 .contentType(ContentType.JSON)
@@ -297,6 +304,57 @@ class RestResourceTest {
 
         private final String requestApiPath = String.format("/api/%s/generations", API_VERSION);
 
+        @Test
+        void shouldNotSendBomContentWhenNotModified() {
+            Mockito.doReturn(new SbomContentInfo("12345", "abcd")).when(sbomService).findBomContentInfo("12345");
+
+            given().when()
+                    .header("Accept-Encoding", "identity")
+                    .header("If-None-Match", "\"abcd\"")
+                    .get("/api/v1beta1/manifests/12345/bom")
+                    .then()
+                    .statusCode(304);
+
+            Mockito.verify(sbomService, Mockito.never()).getBomText("12345");
+        }
+
+        @Test
+        void shouldSendRequestedBomRange() {
+            Mockito.doReturn(new SbomContentInfo("12345", "abcd")).when(sbomService).findBomContentInfo("12345");
+            Mockito.doReturn("{\"bomFormat\":\"CycloneDX\"}").when(sbomService).getBomText("12345");
+
+            given().when()
+                    .header("Range", "bytes=1-11")
+                    .get("/api/v1beta1/manifests/12345/bom")
+                    .then()
+                    .statusCode(206)
+                    .header("Content-Range", CoreMatchers.equalTo("bytes 1-11/25"))
+                    .header("ETag", CoreMatchers.equalTo("\"abcd\""))
+                    .body(CoreMatchers.equalTo("\"bomFormat\""));
+
+            given().when()
+                    .header("Range", "bytes=30-")
+                    .get("/api/v1beta1/manifests/12345/bom")
+                    .then()
+                    .statusCode(416)
+                    .header("Content-Range", CoreMatchers.equalTo("bytes */25"));
+        }
+
+        @Test
+        void shouldSendCompressedBomWithEntityTag() {
+            Mockito.doReturn(new SbomContentInfo("12345", "abcd")).when(sbomService).findBomContentInfo("12345");
+            Mockito.doReturn("{\"bomFormat\":\"CycloneDX\"}").when(sbomService).getBomText("12345");
+
+            given().when()
+                    .header("Accept-Encoding", "gzip")
+                    .get("/api/v1beta1/manifests/12345/bom")
+                    .then()
+                    .statusCode(200)
+                    .header("Content-Encoding", CoreMatchers.equalTo("gzip"))
+                    .header("ETag", CoreMatchers.equalTo("\"abcd-gzip\""))
+                    .body("bomFormat", CoreMatchers.equalTo("CycloneDX"));
+        }
+
         @Test
         void shouldHandleInvalidConfig() {
             given().body("{\"df\": \"123\"}")
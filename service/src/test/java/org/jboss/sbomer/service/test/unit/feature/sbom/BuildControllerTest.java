@@ -21,6 +21,7 @@ import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasHandler;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
+import org.jboss.sbomer.service.feature.sbom.features.generator.GenerationRequestSyncQueue;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationService;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
@@ -72,6 +73,7 @@ class BuildControllerTest {
     @Test
     void testUpdateStatusIfNotSet() throws Exception {
         BuildController bc = new BuildController();
+        bc.setSyncQueue(new GenerationRequestSyncQueue());
 
         @SuppressWarnings("unchecked")
         Context<GenerationRequest> contextMock = Mockito.mock(Context.class);
@@ -101,6 +103,7 @@ class BuildControllerTest {
             sbomGenerationRequest.when(() -> SbomGenerationRequest.sync(any())).thenReturn(request);
 
             BuildController bc = new BuildController();
+            bc.setSyncQueue(new GenerationRequestSyncQueue());
 
             @SuppressWarnings("unchecked")
             Context<GenerationRequest> contextMock = Mockito.mock(Context.class);
@@ -123,6 +126,7 @@ class BuildControllerTest {
     @Test
     void testSetReasonForMultipleManifestsFinished() throws Exception {
         BuildController bc = new BuildController();
+        bc.setSyncQueue(new GenerationRequestSyncQueue());
 
         bc.setNotificationService(mock(NotificationService.class));
         bc.setAtlasHandler(mock(AtlasHandler.class));
@@ -199,6 +203,7 @@ class BuildControllerTest {
     @MethodSource("provideTaskRuns")
     void testStatusOfFailedGeneration(Set<TaskRun> taskRuns, String reason) throws Exception {
         BuildController bc = new BuildController();
+        bc.setSyncQueue(new GenerationRequestSyncQueue());
 
         GenerationRequestControllerConfig controllerConfig = Mockito.mock(GenerationRequestControllerConfig.class);
         when(controllerConfig.sbomDir()).thenReturn("/a/dir");
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.jboss.sbomer.core.features.sbom.config.Config;
+import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
+import org.junit.jupiter.api.Test;
+
+class GenerationRequestConfigTest {
+
+    private static GenerationRequest generationRequest(String uid, String resourceVersion) {
+        GenerationRequest request = new GenerationRequestBuilder(GenerationRequestType.OPERATION)
+                .withConfig(Config.fromString("{\"type\": \"operation\", \"operationId\": \"OP1\"}"))
+                .build();
+
+        request.getMetadata().setUid(uid);
+        request.getMetadata().setResourceVersion(resourceVersion);
+
+        return request;
+    }
+
+    @Test
+    void testParsesOncePerResourceVersion() {
+        GenerationRequest request = generationRequest("uid-1", "1");
+
+        OperationConfig config = request.getConfig(OperationConfig.class);
+
+        assertEquals("OP1", config.getOperationId());
+        assertSame(config, request.getConfig(OperationConfig.class));
+        // Another instance of the same resource version, as received from the informer
+        assertSame(config, generationRequest("uid-1", "1").getConfig(OperationConfig.class));
+        assertNotSame(config, generationRequest("uid-1", "2").getConfig(OperationConfig.class));
+    }
+
+    @Test
+    void testInvalidatedOnSetConfig() {
+        GenerationRequest request = generationRequest("uid-2", "1");
+
+        assertEquals("OP1", request.getConfig(OperationConfig.class).getOperationId());
+
+        request.setConfig("{\"type\": \"operation\", \"operationId\": \"OP2\"}");
+
+        assertEquals("OP2", request.getConfig(OperationConfig.class).getOperationId());
+    }
+
+    @Test
+    void testDetectsLocalModifications() {
+        GenerationRequest request = generationRequest("uid-3", "1");
+
+        assertEquals("OP1", request.getConfig(OperationConfig.class).getOperationId());
+
+        request.getData().put(GenerationRequest.KEY_CONFIG, "{\"type\": \"operation\", \"operationId\": \"OP3\"}");
+
+        assertEquals("OP3", request.getConfig(OperationConfig.class).getOperationId());
+
+        request.getData().remove(GenerationRequest.KEY_CONFIG);
+
+        assertNull(request.getConfig());
+    }
+}
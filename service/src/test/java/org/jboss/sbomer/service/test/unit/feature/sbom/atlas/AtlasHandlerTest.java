@@ -4,17 +4,23 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
@@ -22,13 +28,20 @@ import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasBuildClient;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasHandler;
+import org.jboss.sbomer.service.feature.sbom.atlas.AtlasOutbox;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
 class AtlasHandlerTest {
     static class AtlasHandlerAlt extends AtlasHandler {
         @Override
@@ -41,6 +54,12 @@ class AtlasHandlerTest {
 
     final AtlasBuildClient atlasBuildClient = mock(AtlasBuildClient.class);
 
+    final AtlasOutbox outbox = mock(AtlasOutbox.class);
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    ExecutorService executor;
+
     private Sbom generateSbom(String id, String purl) throws IOException {
         return generateSbom(id, purl, "sboms/complete_operation_sbom.json");
     }
@@ -65,6 +84,33 @@ class AtlasHandlerTest {
         atlasHandler.setFeatureFlags(featureFlags);
 
         atlasHandler.setAtlasBuildClient(atlasBuildClient);
+        atlasHandler.setOutbox(outbox);
+        atlasHandler.setRegistry(registry);
+        executor = Executors.newFixedThreadPool(2);
+        atlasHandler.setExecutor(executor);
+
+        TransactionSynchronizationRegistry transactionRegistry = mock(TransactionSynchronizationRegistry.class);
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        atlasHandler.setTransactionRegistry(transactionRegistry);
+
+        when(outbox.enqueue(anyList())).thenAnswer(invocation -> {
+            List<Sbom> sboms = invocation.getArgument(0);
+            List<OutboxEntry> entries = new ArrayList<>();
+
+            for (Sbom sbom : sboms) {
+                OutboxEntry entry = new OutboxEntry();
+                entry.setId((long) entries.size() + 1);
+                entry.setSbomId(sbom.getId());
+                entries.add(entry);
+            }
+
+            return entries;
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
     }
 
     @Test
@@ -84,10 +130,27 @@ class AtlasHandlerTest {
         Sbom sbomA = generateSbom("AAA", "pkg:maven/compA@1.1.0?type=pom");
         Sbom sbomB = generateSbom("BBB", "pkg:maven/compB@1.1.0?type=pom");
 
-        atlasHandler.publishBuildManifests(List.of(sbomA, sbomB));
+        atlasHandler.publishBuildManifests(List.of(sbomA, sbomB)).join();
 
         verify(atlasBuildClient, times(1)).upload(eq("pkg:maven/compA@1.1.0?type=pom"), any(JsonNode.class));
         verify(atlasBuildClient, times(1)).upload(eq("pkg:maven/compB@1.1.0?type=pom"), any(JsonNode.class));
+        verify(outbox, times(1)).uploaded(1L);
+        verify(outbox, times(1)).uploaded(2L);
+        assertEquals(2, registry.timer("sbomer.atlas.upload.duration", "result", "uploaded").count());
+    }
+
+    @Test
+    void testUploadCompressedBoms() throws Exception {
+        atlasHandler.setCompress(true);
+
+        Sbom sbom = generateSbom("AAA", "pkg:maven/compA@1.1.0?type=pom");
+
+        atlasHandler.publishBuildManifests(List.of(sbom)).join();
+
+        verify(atlasBuildClient, times(1))
+                .upload(eq("pkg:maven/compA@1.1.0?type=pom"), eq("gzip"), any(InputStream.class));
+        verify(atlasBuildClient, never()).upload(anyString(), any(JsonNode.class));
+        verify(outbox, times(1)).uploaded(1L);
     }
 
     @Test
@@ -98,7 +161,7 @@ class AtlasHandlerTest {
 
         ApplicationException ex = assertThrows(
                 ApplicationException.class,
-                () -> atlasHandler.publishBuildManifests(List.of(sbom)));
+                () -> atlasHandler.uploadBuildManifest(sbom));
 
         verify(atlasBuildClient, times(1)).upload(eq("pkg:maven/compA@1.1.0?type=pom"), any(JsonNode.class));
 
@@ -106,4 +169,23 @@ class AtlasHandlerTest {
                 "Unable to store 'AAA' manifest in Atlas, purl: 'pkg:maven/compA@1.1.0?type=pom': A reason",
                 ex.getMessage());
     }
+
+    @Test
+    void testFailedUploadDoesNotAbortOthers() throws Exception {
+        Sbom sbomA = generateSbom("AAA", "pkg:maven/compA@1.1.0?type=pom");
+        Sbom sbomB = generateSbom("BBB", "pkg:maven/compB@1.1.0?type=pom");
+
+        doThrow(new ClientException("A reason")).when(atlasBuildClient)
+                .upload(eq("pkg:maven/compA@1.1.0?type=pom"), any(JsonNode.class));
+
+        assertDoesNotThrow(() -> atlasHandler.publishBuildManifests(List.of(sbomA, sbomB)).join());
+
+        verify(atlasBuildClient, times(1)).upload(eq("pkg:maven/compB@1.1.0?type=pom"), any(JsonNode.class));
+        verify(outbox, times(1)).failed(
+                1L,
+                "Unable to store 'AAA' manifest in Atlas, purl: 'pkg:maven/compA@1.1.0?type=pom': A reason");
+        verify(outbox, never()).uploaded(1L);
+        verify(outbox, times(1)).uploaded(2L);
+        assertEquals(1, registry.timer("sbomer.atlas.upload.duration", "result", "failed").count());
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.errata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1GenerationRecord;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestManifestRecord;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestRecord;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.errata.event.release.AdvisoryManifests;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.junit.jupiter.api.Test;
+
+class AdvisoryManifestsTest {
+
+    private static final V1Beta1GenerationRecord RPM_GENERATION = new V1Beta1GenerationRecord(
+            "G1",
+            "ruby-2.5.9-1.el8",
+            null,
+            "BREW_RPM",
+            null,
+            null,
+            null,
+            null);
+
+    private static final V1Beta1GenerationRecord IMAGE_GENERATION = new V1Beta1GenerationRecord(
+            "G2",
+            "registry.redhat.io/ubi8/ruby-25@sha256:b1f140e930baffe400e412fbf04d57624a18593e77fcc5cfa1b2462a3f85fc94",
+            null,
+            "CONTAINERIMAGE",
+            null,
+            null,
+            null,
+            null);
+
+    private static V1Beta1RequestManifestRecord manifest(
+            String id,
+            String rootPurl,
+            V1Beta1GenerationRecord generation) {
+        return new V1Beta1RequestManifestRecord(id, generation.identifier(), rootPurl, null, 0, null, generation);
+    }
+
+    private static AdvisoryManifests advisoryManifests(AtomicInteger loads) {
+        V1Beta1RequestRecord record = new V1Beta1RequestRecord(
+                "R1",
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                List.of(
+                        manifest("M1", "pkg:rpm/redhat/ruby@2.5.9-1.el8?arch=src", RPM_GENERATION),
+                        manifest(
+                                "M2",
+                                "pkg:oci/ruby-25@sha256%3Aaaaa?arch=amd64",
+                                IMAGE_GENERATION),
+                        manifest(
+                                "M3",
+                                SbomUtils.createContainerImageOCIPurl(IMAGE_GENERATION.identifier()),
+                                IMAGE_GENERATION)));
+
+        return new AdvisoryManifests(record, id -> {
+            loads.incrementAndGet();
+            return Sbom.builder().withId(id).withSbom(SbomUtils.toJsonNode(SbomUtils.createBom())).build();
+        });
+    }
+
+    @Test
+    void testLookupByGeneration() {
+        AdvisoryManifests manifests = advisoryManifests(new AtomicInteger());
+
+        assertEquals(2, manifests.byGeneration().size());
+        assertEquals(2, manifests.forGeneration("G2").size());
+        assertTrue(manifests.forGeneration("G3").isEmpty());
+        assertEquals("M1", manifests.mainManifest(RPM_GENERATION).id());
+        assertEquals("M3", manifests.imageIndexManifest(IMAGE_GENERATION).id());
+    }
+
+    @Test
+    void testMissingImageIndexManifest() {
+        AdvisoryManifests manifests = advisoryManifests(new AtomicInteger());
+
+        V1Beta1GenerationRecord generation = new V1Beta1GenerationRecord(
+                "G1",
+                "registry.redhat.io/ubi8/ruby-25@sha256:0000",
+                null,
+                "CONTAINERIMAGE",
+                null,
+                null,
+                null,
+                null);
+
+        assertThrows(ApplicationException.class, () -> manifests.imageIndexManifest(generation));
+    }
+
+    @Test
+    void testManifestsAreLoadedAndParsedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        AdvisoryManifests manifests = advisoryManifests(loads);
+
+        Bom bom = manifests.bom("M1");
+
+        assertSame(bom, manifests.bom("M1"));
+        assertSame(manifests.sbom("M1"), manifests.sbom("M1"));
+        assertEquals(1, loads.get());
+    }
+}
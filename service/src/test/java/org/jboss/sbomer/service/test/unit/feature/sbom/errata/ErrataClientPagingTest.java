@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.errata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.jboss.sbomer.core.errors.NotFoundException;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataQueryParameters;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataPage;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ErrataClientPagingTest {
+
+    @Test
+    void testPagesAreFetchedInOrder() {
+        ErrataClient errataClient = mock(ErrataClient.class, Mockito.CALLS_REAL_METHODS);
+        Function<ErrataQueryParameters, ErrataPage<String>> fetchPage = parameters -> page(
+                parameters.getPageNumber(),
+                3,
+                List.of("entity-" + parameters.getPageNumber()));
+
+        var executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Collection<String> entities = errataClient
+                    .getAllEntities(Map.of("filter[variant_name]", "8Base"), fetchPage, executor);
+
+            assertEquals(List.of("entity-1", "entity-2", "entity-3"), List.copyOf(entities));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testPageFailureIsPropagated() {
+        ErrataClient errataClient = mock(ErrataClient.class, Mockito.CALLS_REAL_METHODS);
+        Function<ErrataQueryParameters, ErrataPage<String>> fetchPage = parameters -> {
+            if (parameters.getPageNumber() == 2) {
+                throw new NotFoundException("Not found");
+            }
+
+            return page(parameters.getPageNumber(), 2, List.of());
+        };
+
+        assertThrows(
+                NotFoundException.class,
+                () -> errataClient.getAllEntities(Map.of(), fetchPage, any -> any.run()));
+    }
+
+    private static ErrataPage<String> page(int number, int total, List<String> data) {
+        ErrataPage.Page page = new ErrataPage.Page();
+        page.setPageNumber(number);
+        page.setTotalPages(total);
+
+        ErrataPage<String> response = new ErrataPage<>();
+        response.setPage(page);
+        response.setData(data);
+        return response;
+    }
+}
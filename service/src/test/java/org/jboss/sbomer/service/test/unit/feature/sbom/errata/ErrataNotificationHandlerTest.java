@@ -61,7 +61,7 @@ import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.FeatureFlags;
-import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.CachingErrataClient;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataNotesSchemaValidator;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList;
@@ -96,7 +96,7 @@ class ErrataNotificationHandlerTest {
     ErrataNotificationHandlerAlt errataNotificationHandler;
     ErrataNotesSchemaValidator notesSchemaValidator;
 
-    final ErrataClient errataClient = mock(ErrataClient.class);
+    final CachingErrataClient errataClient = mock(CachingErrataClient.class);
     final ClientSession clientSession = mock(ClientSession.class);
     final AdvisoryService advisoryService = mock(AdvisoryService.class);
     final SbomService sbomService = mock(SbomService.class);
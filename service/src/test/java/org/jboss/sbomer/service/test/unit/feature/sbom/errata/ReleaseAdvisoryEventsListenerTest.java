@@ -49,7 +49,7 @@ import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.test.TestResources;
-import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.CachingErrataClient;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.BuildItem;
@@ -57,6 +57,7 @@ import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.ProductV
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepo;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
+import org.jboss.sbomer.service.feature.sbom.errata.event.release.AdvisoryManifests;
 import org.jboss.sbomer.service.feature.sbom.errata.event.release.StandardAdvisoryReleaseEvent;
 import org.jboss.sbomer.service.feature.sbom.errata.event.release.TextOnlyAdvisoryReleaseEvent;
 import org.jboss.sbomer.service.feature.sbom.errata.event.release.ReleaseStandardAdvisoryEventsListener;
@@ -67,7 +68,7 @@ import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.model.Stats;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
-import org.jboss.sbomer.service.feature.sbom.pyxis.PyxisClient;
+import org.jboss.sbomer.service.feature.sbom.pyxis.CachingPyxisClient;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepositoryDetails;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.RepositoryCoordinates;
 import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
@@ -95,8 +96,8 @@ class ReleaseAdvisoryEventsListenerTest {
     ReleaseAdvisoryEventsListenerSingleRPM listenerSingleRpm;
     ReleaseTextOnlyAdvisoryEventsListenerManifests listenerTextOnlyManifests;
     ReleaseTextOnlyAdvisoryEventsListenerDeliverables listenerTextOnlyDeliverables;
-    final ErrataClient errataClient = mock(ErrataClient.class);
-    final PyxisClient pyxisClient = mock(PyxisClient.class);
+    final CachingErrataClient errataClient = mock(CachingErrataClient.class);
+    final CachingPyxisClient pyxisClient = mock(CachingPyxisClient.class);
     final StatsService statsService = mock(StatsService.class);
     final SbomService sbomService = mock(SbomService.class);
     final SbomGenerationRequestRepository generationRequestRepository = mock(SbomGenerationRequestRepository.class);
@@ -173,7 +174,7 @@ class ReleaseAdvisoryEventsListenerTest {
                 String toolVersion,
                 SbomGenerationRequest releaseGeneration,
                 Bom bom,
-                V1Beta1RequestRecord advisoryManifestsRecord,
+                AdvisoryManifests advisoryManifests,
                 Map<String, List<RepositoryCoordinates>> generationToRepositories) {
 
             validateComponent(
@@ -230,7 +231,7 @@ class ReleaseAdvisoryEventsListenerTest {
                 String toolVersion,
                 SbomGenerationRequest releaseGeneration,
                 Bom bom,
-                V1Beta1RequestRecord advisoryManifestsRecord,
+                AdvisoryManifests advisoryManifests,
                 Map<String, List<RepositoryCoordinates>> generationToRepositories) {
 
             assertTrue(
@@ -413,7 +414,7 @@ class ReleaseAdvisoryEventsListenerTest {
                 String toolVersion,
                 SbomGenerationRequest releaseGeneration,
                 Bom bom,
-                V1Beta1RequestRecord advisoryManifestsRecord,
+                AdvisoryManifests advisoryManifests,
                 Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs) {
 
             validateComponent(
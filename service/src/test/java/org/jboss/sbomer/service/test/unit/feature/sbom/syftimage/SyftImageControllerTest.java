@@ -24,6 +24,7 @@ import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
 import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasHandler;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
+import org.jboss.sbomer.service.feature.sbom.features.generator.GenerationRequestSyncQueue;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationService;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
@@ -93,6 +94,7 @@ class SyftImageControllerTest {
     @BeforeEach
     void beforeEach() {
         controller = new SyftImageControllerAlt();
+        controller.setSyncQueue(new GenerationRequestSyncQueue());
     }
 
     @Test
@@ -155,6 +157,7 @@ class SyftImageControllerTest {
         when(controllerConfig.sbomDir()).thenReturn(tmpDir.toString());
 
         SyftImageControllerAlt ctrl = new SyftImageControllerAlt();
+        ctrl.setSyncQueue(new GenerationRequestSyncQueue());
         ctrl.setNotificationService(mock(NotificationService.class));
         ctrl.setAtlasHandler(mock(AtlasHandler.class));
         ctrl.setControllerConfig(controllerConfig);
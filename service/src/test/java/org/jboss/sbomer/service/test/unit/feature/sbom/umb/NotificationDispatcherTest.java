@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.umb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.jboss.sbomer.service.feature.errors.FeatureDisabledException;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.AmqpMessageProducer;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationDispatcher;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationOutbox;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationService;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.GenerationFinishedMessageBody;
+import org.jboss.sbomer.service.feature.sbom.model.OutboxEntry;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NotificationDispatcherTest {
+
+    final NotificationService notificationService = mock(NotificationService.class);
+
+    final NotificationOutbox outbox = mock(NotificationOutbox.class);
+
+    final AmqpMessageProducer producer = mock(AmqpMessageProducer.class);
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    NotificationDispatcher dispatcher;
+
+    private static OutboxEntry entry(long id, String sbomId) {
+        OutboxEntry entry = new OutboxEntry();
+        entry.setId(id);
+        entry.setSbomId(sbomId);
+        return entry;
+    }
+
+    private static Sbom sbom(String id) {
+        return Sbom.builder().withId(id).build();
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        dispatcher = new NotificationDispatcher();
+        dispatcher.setNotificationService(notificationService);
+        dispatcher.setOutbox(outbox);
+        dispatcher.setAmqpMessageProducer(producer);
+        dispatcher.setRegistry(registry);
+        dispatcher.setBatchSize(10);
+        dispatcher.setAckTimeout(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testNothingToDispatch() {
+        when(outbox.due(10)).thenReturn(List.of());
+
+        assertEquals(0, dispatcher.dispatch());
+
+        verify(outbox, never()).sent(anyList());
+    }
+
+    @Test
+    void testRemovesAckedAndReschedulesNacked() {
+        List<OutboxEntry> entries = List
+                .of(entry(1, "AAA"), entry(2, "BBB"), entry(3, "CCC"), entry(4, "DDD"), entry(5, "EEE"));
+
+        GenerationFinishedMessageBody acked = GenerationFinishedMessageBody.builder().purl("pkg:generic/a").build();
+        GenerationFinishedMessageBody nacked = GenerationFinishedMessageBody.builder().purl("pkg:generic/b").build();
+
+        when(outbox.due(10)).thenReturn(entries);
+        when(outbox.manifests(entries)).thenReturn(
+                Map.of("AAA", sbom("AAA"), "BBB", sbom("BBB"), "CCC", sbom("CCC"), "DDD", sbom("DDD")));
+        when(notificationService.createMessage(any(Sbom.class))).thenAnswer(invocation -> {
+            Sbom sbom = invocation.getArgument(0);
+
+            return switch (sbom.getId()) {
+                case "AAA" -> Optional.of(acked);
+                case "BBB" -> Optional.of(nacked);
+                case "CCC" -> Optional.empty();
+                default -> throw new FeatureDisabledException("Disabled");
+            };
+        });
+        when(producer.send(acked)).thenReturn(CompletableFuture.completedFuture(null));
+        when(producer.send(nacked)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("NACK")));
+
+        assertEquals(5, dispatcher.dispatch());
+
+        // Acked, not related to a product, disabled type and removed manifest
+        verify(outbox).sent(argThat(ids -> ids.size() == 4 && !ids.contains(2L)));
+        verify(outbox).failed(Map.of(2L, "NACK"));
+        assertEquals(1, registry.counter("sbomer.notification.sent", "result", "acked").count());
+        assertEquals(1, registry.counter("sbomer.notification.sent", "result", "failed").count());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.umb;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.UmbIntakeThrottle;
+import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UmbIntakeThrottleTest {
+
+    final SbomService sbomService = mock(SbomService.class);
+
+    UmbIntakeThrottle throttle;
+
+    @BeforeEach
+    void beforeEach() {
+        throttle = new UmbIntakeThrottle();
+        throttle.setSbomService(sbomService);
+        throttle.setMaxInFlight(10);
+        throttle.setErrataReserved(4);
+        throttle.setMaxWait(Duration.ofMinutes(1));
+    }
+
+    /**
+     * Waits until a message of the provided consumer is waiting for a credit.
+     */
+    private void awaitWaiting(UMBConsumer consumer) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (throttle.waiting(consumer) == 0) {
+            assertTrue(System.nanoTime() < deadline, "No " + consumer + " message is waiting for a credit");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testErrataUsesReservedCapacity() throws Exception {
+        when(sbomService.countInProgressSbomGenerationRequests()).thenReturn(6L);
+        throttle.refresh();
+
+        CompletableFuture<Void> pnc = CompletableFuture.runAsync(() -> throttle.acquire(UMBConsumer.PNC));
+        awaitWaiting(UMBConsumer.PNC);
+
+        // Errata messages are handled, PNC ones have to wait
+        throttle.acquire(UMBConsumer.ERRATA);
+        throttle.release(UMBConsumer.ERRATA, 0);
+
+        awaitWaiting(UMBConsumer.PNC);
+        assertFalse(pnc.isDone());
+
+        when(sbomService.countInProgressSbomGenerationRequests()).thenReturn(2L);
+        throttle.refresh();
+
+        pnc.get(5, TimeUnit.SECONDS);
+        assertTrue(pnc.isDone());
+    }
+
+    @Test
+    void testReleaseAccountsForCreatedGenerations() throws Exception {
+        when(sbomService.countInProgressSbomGenerationRequests()).thenReturn(0L);
+        throttle.refresh();
+
+        // The message resulted in 6 generations, until the next refresh PNC messages have to wait
+        throttle.acquire(UMBConsumer.PNC);
+        throttle.release(UMBConsumer.PNC, 6);
+
+        CompletableFuture<Void> pnc = CompletableFuture.runAsync(() -> throttle.acquire(UMBConsumer.PNC));
+
+        awaitWaiting(UMBConsumer.PNC);
+        assertFalse(pnc.isDone());
+
+        throttle.refresh();
+
+        pnc.get(5, TimeUnit.SECONDS);
+        assertTrue(pnc.isDone());
+    }
+
+    @Test
+    void testProceedAfterMaxWait() throws Exception {
+        when(sbomService.countInProgressSbomGenerationRequests()).thenReturn(100L);
+        throttle.setMaxWait(Duration.ofMillis(100));
+        throttle.refresh();
+
+        CompletableFuture.runAsync(() -> throttle.acquire(UMBConsumer.ERRATA)).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testDisabled() throws Exception {
+        when(sbomService.countInProgressSbomGenerationRequests()).thenReturn(100L);
+        throttle.setMaxInFlight(0);
+        throttle.refresh();
+
+        CompletableFuture.runAsync(() -> throttle.acquire(UMBConsumer.PNC)).get(5, TimeUnit.SECONDS);
+    }
+}